@@ -3,6 +3,7 @@ package org.apereo.cas.ticket;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 
 import java.io.Serializable;
+import java.time.ZonedDateTime;
 
 /**
  * Strategy that determines if the ticket is expired. Implementations of the
@@ -39,6 +40,23 @@ public interface ExpirationPolicy extends Serializable {
      */
     Long getTimeToIdle();
 
+    /**
+     * Gets the time after which a ticket in the given state is certain to have expired under this policy.
+     * Stores that expire entries on their own may use it, since it only moves when the policy
+     * itself extends the life of a ticket as it is used. By default, the time to live is counted
+     * from the last use of the ticket, which is the latest point any policy may count it from.
+     *
+     * @param ticketState the ticket state
+     * @return the expiration time, or null if the policy puts no bound on the life of the ticket
+     */
+    default ZonedDateTime getMaximumExpirationTime(final TicketState ticketState) {
+        final Long timeToLive = getTimeToLive();
+        if (ticketState == null || timeToLive == null || timeToLive <= 0 || timeToLive >= Integer.MAX_VALUE) {
+            return null;
+        }
+        return ticketState.getLastTimeUsed().plusSeconds(timeToLive);
+    }
+
     /**
      * Gets name of this expiration policy.
      *
@@ -5,6 +5,7 @@ import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
 
 /**
  * Interface for a registry that stores tickets. The underlying registry can be
@@ -99,6 +100,21 @@ public interface TicketRegistry {
      */
     long serviceTicketCount();
 
+    /**
+     * Gets the single sign-on sessions, i.e. root ticket-granting tickets that have not expired,
+     * established for the given principal. Registries that keep a session index answer this
+     * from the index; the default implementation scans the registry.
+     *
+     * @param principalId the principal id
+     * @return the ticket-granting tickets of the principal
+     */
+    default Stream<TicketGrantingTicket> getSessionsFor(final String principalId) {
+        return getTickets(ticket -> ticket instanceof TicketGrantingTicket && !ticket.isExpired())
+                .map(TicketGrantingTicket.class::cast)
+                .filter(TicketGrantingTicket::isRoot)
+                .filter(tgt -> tgt.getAuthentication().getPrincipal().getId().equals(principalId));
+    }
+
     /**
      * Gets tickets stream.
      *
@@ -0,0 +1,50 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.ticket.Ticket;
+
+/**
+ * This is {@link TicketRegistryCounter} that is maintained by a ticket registry alongside its tickets,
+ * so that the number of sessions and service tickets can be reported without reading the registry.
+ * <p>
+ * Sessions are ticket-granting tickets, including proxy-granting tickets, and service tickets include
+ * proxy tickets. Tickets are told apart by the prefix of their id, so that a ticket can be counted out
+ * by id alone, and tickets of any other type are not counted.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public interface TicketRegistryCounter {
+
+    /**
+     * Count the ticket in, as it is stored by the registry.
+     *
+     * @param ticket the ticket
+     */
+    void add(Ticket ticket);
+
+    /**
+     * Count the ticket out, as it is removed from the registry.
+     *
+     * @param ticketId the ticket id
+     */
+    void remove(String ticketId);
+
+    /**
+     * Gets the number of sessions.
+     *
+     * @return the session count
+     */
+    long getSessionCount();
+
+    /**
+     * Gets the number of service tickets.
+     *
+     * @return the service ticket count
+     */
+    long getServiceTicketCount();
+
+    /**
+     * Reset all counts.
+     */
+    void clear();
+}
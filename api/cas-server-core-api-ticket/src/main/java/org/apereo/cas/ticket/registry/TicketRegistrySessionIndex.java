@@ -0,0 +1,68 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.ticket.Ticket;
+
+import java.util.Collection;
+
+/**
+ * This is {@link TicketRegistrySessionIndex} that is maintained by a ticket registry alongside its tickets.
+ * It maps each principal to the root ticket-granting tickets established for it, and each root
+ * ticket-granting ticket to the ids of all tickets issued on its behalf, directly or through
+ * proxy-granting tickets, so that the sessions of a user and everything that hangs off a session
+ * can be found without scanning the registry.
+ * <p>
+ * Entries are added as tickets are added, and are dropped as tickets are removed from the registry,
+ * whether explicitly or once they are found to have expired. Tickets that the registry drops on its own,
+ * such as through a time-to-live of the store, may linger in the index until their session is removed,
+ * so callers are expected to resolve the ids against the registry.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public interface TicketRegistrySessionIndex {
+
+    /**
+     * Index the ticket. Root ticket-granting tickets are recorded against their principal,
+     * and every other ticket against the root of the ticket-granting ticket that issued it.
+     *
+     * @param ticket the ticket
+     */
+    void index(Ticket ticket);
+
+    /**
+     * Remove the ticket from the index. Root ticket-granting tickets are removed as a whole session,
+     * and every other ticket from the session of the ticket-granting ticket that issued it.
+     *
+     * @param ticket the ticket
+     */
+    void remove(Ticket ticket);
+
+    /**
+     * Gets the ids of the root ticket-granting tickets recorded against the principal.
+     *
+     * @param principalId the principal id
+     * @return the ticket-granting ticket ids
+     */
+    Collection<String> getSessions(String principalId);
+
+    /**
+     * Gets the ids of the tickets recorded against the root ticket-granting ticket.
+     *
+     * @param ticketGrantingTicketId the ticket-granting ticket id
+     * @return the ticket ids
+     */
+    Collection<String> getDescendants(String ticketGrantingTicketId);
+
+    /**
+     * Remove the session from the index, along with the tickets recorded against it.
+     *
+     * @param principalId            the principal id
+     * @param ticketGrantingTicketId the ticket-granting ticket id
+     */
+    void removeSession(String principalId, String ticketGrantingTicketId);
+
+    /**
+     * Remove all entries from the index.
+     */
+    void clear();
+}
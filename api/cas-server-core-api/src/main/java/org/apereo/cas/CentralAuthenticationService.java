@@ -16,6 +16,7 @@ import org.apereo.cas.validation.Assertion;
 import java.util.Collection;
 import java.util.List;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 /**
  * CAS viewed as a set of services to generate and validate Tickets.
@@ -127,6 +128,23 @@ public interface CentralAuthenticationService {
      */
     Collection<Ticket> getTickets(Predicate<Ticket> predicate);
 
+    /**
+     * Retrieve the single sign-on sessions, i.e. the root ticket-granting tickets that have not expired,
+     * established for the given principal.
+     *
+     * @param principalId the principal id
+     * @return the ticket-granting tickets
+     * @since 5.3.0
+     */
+    default Collection<TicketGrantingTicket> getSessionsFor(final String principalId) {
+        return getTickets(ticket -> ticket instanceof TicketGrantingTicket && !ticket.isExpired()
+                && ((TicketGrantingTicket) ticket).isRoot()
+                && ((TicketGrantingTicket) ticket).getAuthentication().getPrincipal().getId().equals(principalId))
+                .stream()
+                .map(TicketGrantingTicket.class::cast)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Grant a {@link ServiceTicket} that may be used to access the given service
      * by authenticating the given credentials.
@@ -1,5 +1,7 @@
 package org.apereo.cas.services;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
@@ -17,10 +19,19 @@ import org.springframework.context.ApplicationContext;
 
 import javax.persistence.PostLoad;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
 import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Abstract release policy for attributes, provides common shared settings such as loggers and attribute filter config.
@@ -34,6 +45,8 @@ public abstract class AbstractRegisteredServiceAttributeReleasePolicy implements
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractRegisteredServiceAttributeReleasePolicy.class);
 
+    private static final long MAXIMUM_RELEASED_ATTRIBUTES_CACHE_SIZE = 10_000;
+
     private RegisteredServiceAttributeFilter registeredServiceAttributeFilter;
     private PrincipalAttributesRepository principalAttributesRepository = new DefaultPrincipalAttributesRepository();
     private RegisteredServiceConsentPolicy consentPolicy = new DefaultRegisteredServiceConsentPolicy();
@@ -44,6 +57,8 @@ public abstract class AbstractRegisteredServiceAttributeReleasePolicy implements
     private boolean authorizedToReleaseAuthenticationAttributes = true;
     private String principalIdAttribute;
 
+    private transient volatile Optional<Cache<ReleasedAttributesKey, Map<String, Object>>> releasedAttributesCache;
+
     /**
      * Post load, after having loaded the bean via JPA, etc.
      */
@@ -158,9 +173,47 @@ public abstract class AbstractRegisteredServiceAttributeReleasePolicy implements
         return attributes;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Attributes released to a principal with the same attributes for the same service are remembered
+     * for a short while, so that validating a ticket, asking for consent and checking multifactor
+     * requirements, as well as repeat validations for the same ticket-granting ticket,
+     * evaluate the release policy and the principal attribute repository only once.
+     * Callers are handed a copy of the released attributes that they may modify.
+     */
     @Override
     public Map<String, Object> getAttributes(final Principal principal, final Service selectedService,
                                              final RegisteredService registeredService) {
+        final Cache<ReleasedAttributesKey, Map<String, Object>> cache = shouldCacheReleasedAttributes() ? getReleasedAttributesCache() : null;
+        if (cache == null) {
+            return releaseAttributes(principal, selectedService, registeredService);
+        }
+        final ReleasedAttributesKey key = new ReleasedAttributesKey(principal, selectedService, registeredService);
+        Map<String, Object> released = cache.getIfPresent(key);
+        if (released == null) {
+            released = releaseAttributes(principal, selectedService, registeredService);
+            cache.put(key, released);
+        } else {
+            LOGGER.debug("Reusing attributes [{}] released for principal [{}] accessing service [{}]",
+                    released.keySet(), principal.getId(), selectedService.getId());
+        }
+        return copyReleasedAttributes(released);
+    }
+
+    /**
+     * Determine whether attributes released by this policy may be reused
+     * for the same principal attributes and service.
+     * Subclasses whose release depends on the state of the current request should opt out.
+     *
+     * @return true/false
+     */
+    protected boolean shouldCacheReleasedAttributes() {
+        return true;
+    }
+
+    private Map<String, Object> releaseAttributes(final Principal principal, final Service selectedService,
+                                                  final RegisteredService registeredService) {
 
         LOGGER.debug("Initiating attributes release phase for principal [{}] accessing service [{}] defined by registered service [{}]...",
                 principal.getId(), selectedService.getId(), registeredService.getServiceId());
@@ -264,6 +317,70 @@ public abstract class AbstractRegisteredServiceAttributeReleasePolicy implements
         return new TreeMap<>();
     }
 
+    /**
+     * Gets the cache of released attributes, which is resolved on first use. Whether the cache is disabled,
+     * or cannot be configured for lack of an application context, is remembered as well.
+     *
+     * @return the cache, or null if released attributes are not cached
+     */
+    private Cache<ReleasedAttributesKey, Map<String, Object>> getReleasedAttributesCache() {
+        Optional<Cache<ReleasedAttributesKey, Map<String, Object>>> cache = this.releasedAttributesCache;
+        if (cache == null) {
+            cache = Optional.ofNullable(buildReleasedAttributesCache());
+            this.releasedAttributesCache = cache;
+        }
+        return cache.orElse(null);
+    }
+
+    private static Cache<ReleasedAttributesKey, Map<String, Object>> buildReleasedAttributesCache() {
+        final ApplicationContext ctx = ApplicationContextProvider.getApplicationContext();
+        if (ctx == null || ctx.getBeanNamesForType(CasConfigurationProperties.class).length == 0) {
+            LOGGER.debug("Released attributes are not cached, as CAS configuration properties cannot be located");
+            return null;
+        }
+        final CasConfigurationProperties props = ctx.getAutowireCapableBeanFactory().getBean(CasConfigurationProperties.class);
+        final long timeToLive = props.getAuthn().getAttributeRepository().getReleaseCacheTimeToLive();
+        if (timeToLive <= 0) {
+            LOGGER.debug("Caching released attributes is disabled");
+            return null;
+        }
+        return Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_RELEASED_ATTRIBUTES_CACHE_SIZE)
+                .expireAfterWrite(timeToLive, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * Copy the released attributes, along with the collections of values they carry,
+     * so that callers may modify the copy without changing the attributes that are cached.
+     *
+     * @param attributes the released attributes
+     * @return the copy
+     */
+    private static Map<String, Object> copyReleasedAttributes(final Map<String, Object> attributes) {
+        final Map<String, Object> copy = attributes instanceof SortedMap
+                ? new TreeMap<>(((SortedMap<String, Object>) attributes).comparator())
+                : new LinkedHashMap<>(attributes.size());
+        attributes.forEach((name, value) -> copy.put(name, copyAttributeValue(value)));
+        return copy;
+    }
+
+    private static Object copyAttributeValue(final Object value) {
+        if (value instanceof SortedSet) {
+            return new TreeSet<>((SortedSet<?>) value);
+        }
+        if (value instanceof Set) {
+            return new LinkedHashSet<>((Set<?>) value);
+        }
+        if (value instanceof Collection) {
+            return new ArrayList<>((Collection<?>) value);
+        }
+        if (value instanceof Object[]) {
+            return ((Object[]) value).clone();
+        }
+        return value;
+    }
+
     /**
      * Gets the attributes internally from the implementation.
      *
@@ -332,6 +449,56 @@ public abstract class AbstractRegisteredServiceAttributeReleasePolicy implements
                 .append("consentPolicy", getConsentPolicy())
                 .toString();
     }
-}
 
+    /**
+     * Identifies a release computation by the principal and its attributes,
+     * the selected service and the id and state of the registered service.
+     */
+    private static final class ReleasedAttributesKey {
+        private final String principalId;
+        private final Map<String, Object> principalAttributes;
+        private final String serviceId;
+        private final long registeredServiceId;
+        private final int registeredServiceVersion;
+        private final int hash;
+
+        ReleasedAttributesKey(final Principal principal, final Service selectedService, final RegisteredService registeredService) {
+            this.principalId = principal.getId();
+            this.principalAttributes = new HashMap<>(principal.getAttributes());
+            this.serviceId = selectedService.getId();
+            this.registeredServiceId = registeredService.getId();
+            this.registeredServiceVersion = registeredService.hashCode();
+            this.hash = new HashCodeBuilder()
+                    .append(principalId)
+                    .append(principalAttributes)
+                    .append(serviceId)
+                    .append(registeredServiceId)
+                    .append(registeredServiceVersion)
+                    .toHashCode();
+        }
 
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof ReleasedAttributesKey)) {
+                return false;
+            }
+            final ReleasedAttributesKey rhs = (ReleasedAttributesKey) obj;
+            return new EqualsBuilder()
+                    .append(this.hash, rhs.hash)
+                    .append(this.principalId, rhs.principalId)
+                    .append(this.serviceId, rhs.serviceId)
+                    .append(this.registeredServiceId, rhs.registeredServiceId)
+                    .append(this.registeredServiceVersion, rhs.registeredServiceVersion)
+                    .append(this.principalAttributes, rhs.principalAttributes)
+                    .isEquals();
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+}
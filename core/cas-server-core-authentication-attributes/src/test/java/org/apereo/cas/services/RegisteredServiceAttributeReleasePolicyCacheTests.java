@@ -0,0 +1,116 @@
+package org.apereo.cas.services;
+
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.authentication.principal.Principal;
+import org.apereo.cas.authentication.principal.PrincipalAttributesRepository;
+import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.util.CollectionUtils;
+import org.apereo.cas.util.spring.ApplicationContextProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.support.StaticApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link RegisteredServiceAttributeReleasePolicyCacheTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class RegisteredServiceAttributeReleasePolicyCacheTests {
+    private StaticApplicationContext ctx;
+    private PrincipalAttributesRepository repository;
+    private ReturnAllowedAttributeReleasePolicy policy;
+
+    @Before
+    public void setUp() {
+        this.ctx = new StaticApplicationContext();
+        ctx.registerSingleton("casConfigurationProperties", CasConfigurationProperties.class);
+        ctx.refresh();
+        new ApplicationContextProvider().setApplicationContext(ctx);
+
+        this.repository = mock(PrincipalAttributesRepository.class);
+        when(repository.getAttributes(any(Principal.class))).thenAnswer(invocation -> {
+            final Principal principal = invocation.getArgument(0);
+            return new HashMap<>(principal.getAttributes());
+        });
+        this.policy = new ReturnAllowedAttributeReleasePolicy(CollectionUtils.wrapList("uid", "cn"));
+        this.policy.setPrincipalAttributesRepository(repository);
+    }
+
+    @After
+    public void tearDown() {
+        new ApplicationContextProvider().setApplicationContext(null);
+    }
+
+    @Test
+    public void verifyReleasedAttributesAreReused() {
+        final Principal principal = newPrincipal("casuser");
+        final RegisteredService registeredService = CoreAuthenticationTestUtils.getRegisteredService();
+
+        final Map<String, Object> first = policy.getAttributes(principal, CoreAuthenticationTestUtils.getService(), registeredService);
+        first.clear();
+        final Map<String, Object> second = policy.getAttributes(principal, CoreAuthenticationTestUtils.getService(), registeredService);
+
+        assertEquals(2, second.size());
+        verify(repository, times(1)).getAttributes(any(Principal.class));
+    }
+
+    @Test
+    public void verifyReleasedAttributesAreComputedForChangedAttributes() {
+        final RegisteredService registeredService = CoreAuthenticationTestUtils.getRegisteredService();
+        policy.getAttributes(newPrincipal("casuser"), CoreAuthenticationTestUtils.getService(), registeredService);
+        final Map<String, Object> released = policy.getAttributes(newPrincipal("another"),
+                CoreAuthenticationTestUtils.getService(), registeredService);
+
+        assertEquals("another", released.get("uid"));
+        verify(repository, times(2)).getAttributes(any(Principal.class));
+    }
+
+    @Test
+    public void verifyCachedAttributeValuesAreCopied() {
+        final Map<String, Object> attributes = new HashMap<>();
+        attributes.put("uid", new ArrayList<>(CollectionUtils.wrapList("casuser", "cas")));
+        final Principal principal = CoreAuthenticationTestUtils.getPrincipal("casuser", attributes);
+        final RegisteredService registeredService = CoreAuthenticationTestUtils.getRegisteredService();
+
+        final Map<String, Object> first = policy.getAttributes(principal, CoreAuthenticationTestUtils.getService(), registeredService);
+        ((Collection) first.get("uid")).clear();
+        final Map<String, Object> second = policy.getAttributes(principal, CoreAuthenticationTestUtils.getService(), registeredService);
+
+        assertEquals(2, ((List) second.get("uid")).size());
+        verify(repository, times(1)).getAttributes(any(Principal.class));
+    }
+
+    @Test
+    public void verifyDisabledCacheIsRemembered() {
+        ctx.getBean(CasConfigurationProperties.class).getAuthn().getAttributeRepository().setReleaseCacheTimeToLive("PT0S");
+        final StaticApplicationContext spied = spy(ctx);
+        new ApplicationContextProvider().setApplicationContext(spied);
+
+        final Principal principal = newPrincipal("casuser");
+        final RegisteredService registeredService = CoreAuthenticationTestUtils.getRegisteredService();
+        policy.getAttributes(principal, CoreAuthenticationTestUtils.getService(), registeredService);
+        policy.getAttributes(principal, CoreAuthenticationTestUtils.getService(), registeredService);
+
+        verify(repository, times(2)).getAttributes(any(Principal.class));
+        verify(spied, times(1)).getBeanNamesForType(CasConfigurationProperties.class);
+    }
+
+    private static Principal newPrincipal(final String uid) {
+        final Map<String, Object> attributes = new HashMap<>();
+        attributes.put("uid", uid);
+        attributes.put("cn", uid.toUpperCase());
+        attributes.put("mail", uid + "@example.org");
+        return CoreAuthenticationTestUtils.getPrincipal("casuser", attributes);
+    }
+}
@@ -0,0 +1,94 @@
+package org.apereo.cas.benchmarks;
+
+import org.apereo.cas.authentication.principal.Principal;
+import org.apereo.cas.authentication.principal.Service;
+import org.apereo.cas.services.DenyAllAttributeReleasePolicy;
+import org.apereo.cas.services.RegisteredService;
+import org.apereo.cas.services.RegisteredServiceAttributeReleasePolicy;
+import org.apereo.cas.services.ReturnAllAttributeReleasePolicy;
+import org.apereo.cas.services.ReturnAllowedAttributeReleasePolicy;
+import org.apereo.cas.services.ReturnMappedAttributeReleasePolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * This is {@link AttributeReleasePolicyBenchmarks} that measures the attribute release policies
+ * evaluated during service ticket validation. Policies that filter attributes are configured
+ * to release every other attribute of the principal.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AttributeReleasePolicyBenchmarks {
+    private static final String POLICY_ALLOWED = "allowed";
+    private static final String POLICY_MAPPED = "mapped";
+    private static final String POLICY_DENY = "deny";
+
+    @Param({"all", POLICY_ALLOWED, POLICY_MAPPED, POLICY_DENY})
+    private String policyType;
+
+    @Param({"10", "100"})
+    private int attributeCount;
+
+    private RegisteredServiceAttributeReleasePolicy policy;
+    private RegisteredService registeredService;
+    private Service service;
+    private Principal principal;
+
+    /**
+     * Build the principal and the policy under test.
+     */
+    @Setup
+    public void setup() {
+        final List<String> released = IntStream.range(0, this.attributeCount)
+                .filter(i -> i % 2 == 0)
+                .mapToObj(i -> "attribute" + i)
+                .collect(Collectors.toList());
+
+        switch (this.policyType) {
+            case POLICY_ALLOWED:
+                this.policy = new ReturnAllowedAttributeReleasePolicy(released);
+                break;
+            case POLICY_MAPPED:
+                final Map<String, String> mapped = new TreeMap<>();
+                released.forEach(name -> mapped.put(name, "mapped-" + name));
+                this.policy = new ReturnMappedAttributeReleasePolicy(mapped);
+                break;
+            case POLICY_DENY:
+                this.policy = new DenyAllAttributeReleasePolicy();
+                break;
+            default:
+                this.policy = new ReturnAllAttributeReleasePolicy();
+                break;
+        }
+        this.registeredService = CasBenchmarkSupport.newRegisteredService(0, this.policy);
+        this.service = CasBenchmarkSupport.newService(0);
+        this.principal = CasBenchmarkSupport.newPrincipal(this.attributeCount);
+    }
+
+    /**
+     * Calculate the attributes to release.
+     *
+     * @return the attributes
+     */
+    @Benchmark
+    public Map<String, Object> getAttributes() {
+        return this.policy.getAttributes(this.principal, this.service, this.registeredService);
+    }
+}
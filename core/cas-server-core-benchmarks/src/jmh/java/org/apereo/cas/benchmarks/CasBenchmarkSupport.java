@@ -0,0 +1,216 @@
+package org.apereo.cas.benchmarks;
+
+import org.apereo.cas.DefaultCentralAuthenticationService;
+import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.authentication.AuthenticationResult;
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.authentication.DefaultAuthenticationResult;
+import org.apereo.cas.authentication.DefaultAuthenticationServiceSelectionPlan;
+import org.apereo.cas.authentication.DefaultAuthenticationServiceSelectionStrategy;
+import org.apereo.cas.authentication.policy.AcceptAnyAuthenticationPolicyFactory;
+import org.apereo.cas.authentication.principal.DefaultPrincipalFactory;
+import org.apereo.cas.authentication.principal.Principal;
+import org.apereo.cas.authentication.principal.Service;
+import org.apereo.cas.authentication.principal.WebApplicationServiceFactory;
+import org.apereo.cas.config.CasCoreTicketCatalogConfiguration;
+import org.apereo.cas.logout.LogoutManager;
+import org.apereo.cas.logout.LogoutRequest;
+import org.apereo.cas.services.DefaultServicesManager;
+import org.apereo.cas.services.InMemoryServiceRegistry;
+import org.apereo.cas.services.RegexRegisteredService;
+import org.apereo.cas.services.RegisteredService;
+import org.apereo.cas.services.RegisteredServiceAttributeReleasePolicy;
+import org.apereo.cas.services.ReturnAllowedAttributeReleasePolicy;
+import org.apereo.cas.services.ServicesManager;
+import org.apereo.cas.ticket.DefaultTicketCatalog;
+import org.apereo.cas.ticket.TicketCatalog;
+import org.apereo.cas.ticket.TicketFactory;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.factory.DefaultProxyGrantingTicketFactory;
+import org.apereo.cas.ticket.factory.DefaultProxyTicketFactory;
+import org.apereo.cas.ticket.factory.DefaultServiceTicketFactory;
+import org.apereo.cas.ticket.factory.DefaultTicketFactory;
+import org.apereo.cas.ticket.factory.DefaultTicketGrantingTicketFactory;
+import org.apereo.cas.ticket.registry.CachingTicketRegistry;
+import org.apereo.cas.ticket.registry.DefaultTicketRegistry;
+import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.ticket.support.HardTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.support.MultiTimeUseOrTimeoutExpirationPolicy;
+import org.apereo.cas.util.DefaultUniqueTicketIdGenerator;
+import org.apereo.cas.util.cipher.NoOpCipherExecutor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * This is {@link CasBenchmarkSupport} that assembles the core CAS components
+ * by hand, without a Spring application context, so that benchmarks measure the
+ * components themselves rather than proxies, aspects and auditing around them.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public final class CasBenchmarkSupport {
+    /**
+     * Registered service id pattern; the index of the service is substituted into it.
+     */
+    public static final String SERVICE_ID_PATTERN = "^https://app%d\\.example\\.org/.*";
+
+    /**
+     * Service url pattern that matches {@link #SERVICE_ID_PATTERN}.
+     */
+    public static final String SERVICE_URL_PATTERN = "https://app%d.example.org/login";
+
+    /**
+     * Name of the registry implementation backed by a concurrent map.
+     */
+    public static final String REGISTRY_DEFAULT = "default";
+
+    /**
+     * Name of the registry implementation backed by a caffeine cache.
+     */
+    public static final String REGISTRY_CACHING = "caching";
+
+    private static final long TICKET_GRANTING_TICKET_TIME_TO_LIVE = 28_800;
+    private static final long SERVICE_TICKET_TIME_TO_LIVE = 10;
+    private static final String PRINCIPAL_ID = "casuser";
+
+    private CasBenchmarkSupport() {
+    }
+
+    /**
+     * Build a ticket catalog with the core protocol ticket definitions.
+     *
+     * @return the ticket catalog
+     */
+    public static TicketCatalog newTicketCatalog() {
+        final TicketCatalog catalog = new DefaultTicketCatalog();
+        new CasCoreTicketCatalogConfiguration().configureTicketCatalog(catalog);
+        return catalog;
+    }
+
+    /**
+     * Build a ticket registry by name.
+     *
+     * @param type the registry type
+     * @return the ticket registry
+     */
+    public static TicketRegistry newTicketRegistry(final String type) {
+        if (REGISTRY_CACHING.equalsIgnoreCase(type)) {
+            return new CachingTicketRegistry(NoOpCipherExecutor.getInstance(), newLogoutManager());
+        }
+        return new DefaultTicketRegistry();
+    }
+
+    /**
+     * Build a ticket factory for the core protocol tickets.
+     *
+     * @return the ticket factory
+     */
+    public static TicketFactory newTicketFactory() {
+        final HardTimeoutExpirationPolicy tgtExpirationPolicy = new HardTimeoutExpirationPolicy(TICKET_GRANTING_TICKET_TIME_TO_LIVE);
+        final MultiTimeUseOrTimeoutExpirationPolicy stExpirationPolicy = new MultiTimeUseOrTimeoutExpirationPolicy(1, SERVICE_TICKET_TIME_TO_LIVE);
+        return new DefaultTicketFactory(
+                new DefaultProxyGrantingTicketFactory(new DefaultUniqueTicketIdGenerator(), tgtExpirationPolicy, NoOpCipherExecutor.getInstance()),
+                new DefaultTicketGrantingTicketFactory(new DefaultUniqueTicketIdGenerator(), tgtExpirationPolicy, NoOpCipherExecutor.getInstance()),
+                new DefaultServiceTicketFactory(stExpirationPolicy, new LinkedHashMap<>(), true, NoOpCipherExecutor.getInstance()),
+                new DefaultProxyTicketFactory(stExpirationPolicy, new LinkedHashMap<>(), NoOpCipherExecutor.getInstance(), true));
+    }
+
+    /**
+     * Build a services manager that holds the given number of regex services.
+     *
+     * @param count the number of registered services
+     * @return the services manager
+     */
+    public static ServicesManager newServicesManager(final int count) {
+        final List<RegisteredService> services = IntStream.range(0, count)
+                .mapToObj(i -> newRegisteredService(i, new ReturnAllowedAttributeReleasePolicy()))
+                .collect(Collectors.toCollection(ArrayList::new));
+        final DefaultServicesManager servicesManager = new DefaultServicesManager(new InMemoryServiceRegistry(services), null);
+        servicesManager.load();
+        return servicesManager;
+    }
+
+    /**
+     * Build a regex registered service for the given index.
+     *
+     * @param index  the index, also used as the id and evaluation order
+     * @param policy the attribute release policy
+     * @return the registered service
+     */
+    public static RegisteredService newRegisteredService(final int index, final RegisteredServiceAttributeReleasePolicy policy) {
+        final RegexRegisteredService service = new RegexRegisteredService();
+        service.setId(index);
+        service.setName("app" + index);
+        service.setServiceId(String.format(SERVICE_ID_PATTERN, index));
+        service.setEvaluationOrder(index);
+        service.setAttributeReleasePolicy(policy);
+        return service;
+    }
+
+    /**
+     * Build the service that matches the registered service with the given index.
+     *
+     * @param index the index
+     * @return the service
+     */
+    public static Service newService(final int index) {
+        return new WebApplicationServiceFactory().createService(String.format(SERVICE_URL_PATTERN, index));
+    }
+
+    /**
+     * Build a principal with the given number of single-valued attributes.
+     *
+     * @param attributeCount the attribute count
+     * @return the principal
+     */
+    public static Principal newPrincipal(final int attributeCount) {
+        final Map<String, Object> attributes = new LinkedHashMap<>(attributeCount);
+        IntStream.range(0, attributeCount).forEach(i -> attributes.put("attribute" + i, "value" + i));
+        return CoreAuthenticationTestUtils.getPrincipal(PRINCIPAL_ID, attributes);
+    }
+
+    /**
+     * Build an authentication result for a principal with the given number of attributes.
+     *
+     * @param attributeCount the attribute count
+     * @return the authentication result
+     */
+    public static AuthenticationResult newAuthenticationResult(final int attributeCount) {
+        final Authentication authentication = CoreAuthenticationTestUtils.getAuthentication(newPrincipal(attributeCount));
+        return new DefaultAuthenticationResult(authentication);
+    }
+
+    /**
+     * Build the central authentication service around the given registry and services manager.
+     *
+     * @param ticketRegistry  the ticket registry
+     * @param servicesManager the services manager
+     * @return the central authentication service
+     */
+    public static DefaultCentralAuthenticationService newCentralAuthenticationService(final TicketRegistry ticketRegistry,
+                                                                                      final ServicesManager servicesManager) {
+        return new DefaultCentralAuthenticationService(ticketRegistry, newTicketFactory(), servicesManager, newLogoutManager(),
+                new DefaultAuthenticationServiceSelectionPlan(new DefaultAuthenticationServiceSelectionStrategy()),
+                new AcceptAnyAuthenticationPolicyFactory(), new DefaultPrincipalFactory(), NoOpCipherExecutor.getInstance());
+    }
+
+    private static LogoutManager newLogoutManager() {
+        return new LogoutManager() {
+            @Override
+            public List<LogoutRequest> performLogout(final TicketGrantingTicket ticket) {
+                return new ArrayList<>(0);
+            }
+
+            @Override
+            public String createFrontChannelLogoutMessage(final LogoutRequest logoutRequest) {
+                return null;
+            }
+        };
+    }
+}
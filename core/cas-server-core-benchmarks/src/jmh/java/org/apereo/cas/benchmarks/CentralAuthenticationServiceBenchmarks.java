@@ -0,0 +1,113 @@
+package org.apereo.cas.benchmarks;
+
+import org.apereo.cas.DefaultCentralAuthenticationService;
+import org.apereo.cas.authentication.AuthenticationResult;
+import org.apereo.cas.authentication.principal.Service;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.validation.Assertion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is {@link CentralAuthenticationServiceBenchmarks} that measures the core protocol
+ * operations of {@link DefaultCentralAuthenticationService} against the in-memory ticket registries.
+ * Service tickets are single-use, so validation is measured together with the grant that
+ * produces the ticket; the cost of validation alone is the difference between the two results.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CentralAuthenticationServiceBenchmarks {
+    private static final int REGISTERED_SERVICES = 100;
+    private static final int ATTRIBUTES = 10;
+
+    @Param({CasBenchmarkSupport.REGISTRY_DEFAULT, CasBenchmarkSupport.REGISTRY_CACHING})
+    private String registry;
+
+    private TicketRegistry ticketRegistry;
+    private DefaultCentralAuthenticationService centralAuthenticationService;
+    private AuthenticationResult authenticationResult;
+    private Service service;
+    private String ticketGrantingTicketId;
+
+    /**
+     * Build the central authentication service and its collaborators.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        this.ticketRegistry = CasBenchmarkSupport.newTicketRegistry(this.registry);
+        this.centralAuthenticationService = CasBenchmarkSupport.newCentralAuthenticationService(this.ticketRegistry,
+                CasBenchmarkSupport.newServicesManager(REGISTERED_SERVICES));
+        this.authenticationResult = CasBenchmarkSupport.newAuthenticationResult(ATTRIBUTES);
+        this.service = CasBenchmarkSupport.newService(REGISTERED_SERVICES / 2);
+    }
+
+    /**
+     * Start every iteration with an empty registry and a single live ticket-granting ticket.
+     *
+     * @throws Exception the exception
+     */
+    @Setup(Level.Iteration)
+    public void createTicketGrantingTicketForIteration() throws Exception {
+        this.ticketRegistry.deleteAll();
+        this.ticketGrantingTicketId = this.centralAuthenticationService.createTicketGrantingTicket(this.authenticationResult).getId();
+    }
+
+    /**
+     * Drop the tickets accumulated during the iteration.
+     */
+    @TearDown(Level.Iteration)
+    public void clearTicketRegistry() {
+        this.ticketRegistry.deleteAll();
+    }
+
+    /**
+     * Create ticket granting ticket.
+     *
+     * @return the ticket granting ticket
+     * @throws Exception the exception
+     */
+    @Benchmark
+    public TicketGrantingTicket createTicketGrantingTicket() throws Exception {
+        return this.centralAuthenticationService.createTicketGrantingTicket(this.authenticationResult);
+    }
+
+    /**
+     * Grant service ticket.
+     *
+     * @return the service ticket
+     * @throws Exception the exception
+     */
+    @Benchmark
+    public ServiceTicket grantServiceTicket() throws Exception {
+        return this.centralAuthenticationService.grantServiceTicket(this.ticketGrantingTicketId, this.service, this.authenticationResult);
+    }
+
+    /**
+     * Grant and then validate a service ticket.
+     *
+     * @return the assertion
+     * @throws Exception the exception
+     */
+    @Benchmark
+    public Assertion grantAndValidateServiceTicket() throws Exception {
+        final ServiceTicket serviceTicket = this.centralAuthenticationService.grantServiceTicket(this.ticketGrantingTicketId,
+                this.service, this.authenticationResult);
+        return this.centralAuthenticationService.validateServiceTicket(serviceTicket.getId(), this.service);
+    }
+}
@@ -0,0 +1,126 @@
+package org.apereo.cas.benchmarks;
+
+import net.shibboleth.utilities.java.support.security.SelfSignedCertificateGenerator;
+import org.apereo.cas.support.saml.SamlUtils;
+import org.apereo.cas.support.saml.web.idp.profile.builders.enc.SamlIdPSigningCredentialCache;
+import org.apereo.cas.util.crypto.PrivateKeyFactoryBean;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is {@link SamlIdPSigningCredentialBenchmarks} that measures how the identity provider
+ * gets hold of its signing key and certificate, once through the signing credential cache
+ * and once by reading and parsing both for every response as was done before.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(Threads.MAX)
+public class SamlIdPSigningCredentialBenchmarks {
+    private static final String PRIVATE_KEY_ALGORITHM = "RSA";
+
+    @Param({"0", "5000"})
+    private long checkIntervalMillis;
+
+    private File directory;
+    private Resource signingKeyResource;
+    private Resource signingCertificateResource;
+    private SamlIdPSigningCredentialCache cache;
+
+    /**
+     * Generate a signing key and certificate and build the cache.
+     *
+     * @throws Exception the exception
+     */
+    @Setup
+    public void setup() throws Exception {
+        this.directory = Files.createTempDirectory("saml-idp-signing").toFile();
+        final File certificateFile = new File(this.directory, "idp-signing.crt");
+        final File keyFile = new File(this.directory, "idp-signing.key");
+        final SelfSignedCertificateGenerator generator = new SelfSignedCertificateGenerator();
+        generator.setHostName("cas.example.org");
+        generator.setCertificateFile(certificateFile);
+        generator.setPrivateKeyFile(keyFile);
+        generator.generate();
+
+        this.signingKeyResource = new FileSystemResource(keyFile);
+        this.signingCertificateResource = new FileSystemResource(certificateFile);
+        this.cache = new SamlIdPSigningCredentialCache(this.signingKeyResource, PRIVATE_KEY_ALGORITHM,
+                this.signingCertificateResource, this.checkIntervalMillis);
+    }
+
+    /**
+     * Remove the generated key and certificate.
+     */
+    @TearDown
+    public void tearDown() {
+        FileSystemUtils.deleteRecursively(this.directory);
+    }
+
+    /**
+     * Get the key from the cache.
+     *
+     * @return the private key
+     * @throws Exception the exception
+     */
+    @Benchmark
+    public PrivateKey cachedPrivateKey() throws Exception {
+        return this.cache.getPrivateKey();
+    }
+
+    /**
+     * Get the certificate from the cache.
+     *
+     * @return the certificate
+     * @throws Exception the exception
+     */
+    @Benchmark
+    public X509Certificate cachedCertificate() throws Exception {
+        return this.cache.getCertificate();
+    }
+
+    /**
+     * Read and parse the key.
+     *
+     * @return the private key
+     * @throws Exception the exception
+     */
+    @Benchmark
+    public PrivateKey parsedPrivateKey() throws Exception {
+        final PrivateKeyFactoryBean privateKeyFactoryBean = new PrivateKeyFactoryBean();
+        privateKeyFactoryBean.setLocation(this.signingKeyResource);
+        privateKeyFactoryBean.setAlgorithm(PRIVATE_KEY_ALGORITHM);
+        privateKeyFactoryBean.setSingleton(false);
+        return privateKeyFactoryBean.getObject();
+    }
+
+    /**
+     * Read and parse the certificate.
+     *
+     * @return the certificate
+     */
+    @Benchmark
+    public X509Certificate parsedCertificate() {
+        return SamlUtils.readCertificate(this.signingCertificateResource);
+    }
+}
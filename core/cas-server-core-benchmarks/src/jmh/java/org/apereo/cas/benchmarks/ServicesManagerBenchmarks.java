@@ -0,0 +1,77 @@
+package org.apereo.cas.benchmarks;
+
+import org.apereo.cas.authentication.principal.Service;
+import org.apereo.cas.services.RegisteredService;
+import org.apereo.cas.services.ServicesManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is {@link ServicesManagerBenchmarks} that measures {@link ServicesManager#findServiceBy(Service)}
+ * as the size of the service registry grows. Services are evaluated in order, so lookups are
+ * measured for the first and last definitions as well as for a service that matches none.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ServicesManagerBenchmarks {
+    @Param({"10", "100", "1000", "10000"})
+    private int registrySize;
+
+    private ServicesManager servicesManager;
+    private Service firstService;
+    private Service lastService;
+    private Service unknownService;
+
+    /**
+     * Load the registry with the requested number of services.
+     */
+    @Setup
+    public void setup() {
+        this.servicesManager = CasBenchmarkSupport.newServicesManager(this.registrySize);
+        this.firstService = CasBenchmarkSupport.newService(0);
+        this.lastService = CasBenchmarkSupport.newService(this.registrySize - 1);
+        this.unknownService = CasBenchmarkSupport.newService(this.registrySize);
+    }
+
+    /**
+     * Find the first service in evaluation order.
+     *
+     * @return the registered service
+     */
+    @Benchmark
+    public RegisteredService findFirstService() {
+        return this.servicesManager.findServiceBy(this.firstService);
+    }
+
+    /**
+     * Find the last service in evaluation order.
+     *
+     * @return the registered service
+     */
+    @Benchmark
+    public RegisteredService findLastService() {
+        return this.servicesManager.findServiceBy(this.lastService);
+    }
+
+    /**
+     * Look up a service that is not registered.
+     *
+     * @return the registered service
+     */
+    @Benchmark
+    public RegisteredService findUnknownService() {
+        return this.servicesManager.findServiceBy(this.unknownService);
+    }
+}
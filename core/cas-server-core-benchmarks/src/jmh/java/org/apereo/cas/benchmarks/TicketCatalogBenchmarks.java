@@ -0,0 +1,76 @@
+package org.apereo.cas.benchmarks;
+
+import org.apereo.cas.ticket.ProxyGrantingTicket;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.TicketCatalog;
+import org.apereo.cas.ticket.TicketDefinition;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.util.DefaultUniqueTicketIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is {@link TicketCatalogBenchmarks} that measures how fast ticket ids
+ * are resolved to their definitions by the default ticket catalog.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TicketCatalogBenchmarks {
+    private TicketCatalog ticketCatalog;
+    private String ticketGrantingTicketId;
+    private String serviceTicketId;
+    private String proxyGrantingTicketId;
+
+    /**
+     * Build the catalog and a set of ticket ids to resolve.
+     */
+    @Setup
+    public void setup() {
+        this.ticketCatalog = CasBenchmarkSupport.newTicketCatalog();
+        final DefaultUniqueTicketIdGenerator generator = new DefaultUniqueTicketIdGenerator();
+        this.ticketGrantingTicketId = generator.getNewTicketId(TicketGrantingTicket.PREFIX);
+        this.serviceTicketId = generator.getNewTicketId(ServiceTicket.PREFIX);
+        this.proxyGrantingTicketId = generator.getNewTicketId(ProxyGrantingTicket.PROXY_GRANTING_TICKET_PREFIX);
+    }
+
+    /**
+     * Find ticket granting ticket definition.
+     *
+     * @return the ticket definition
+     */
+    @Benchmark
+    public TicketDefinition findTicketGrantingTicket() {
+        return this.ticketCatalog.find(this.ticketGrantingTicketId);
+    }
+
+    /**
+     * Find service ticket definition.
+     *
+     * @return the ticket definition
+     */
+    @Benchmark
+    public TicketDefinition findServiceTicket() {
+        return this.ticketCatalog.find(this.serviceTicketId);
+    }
+
+    /**
+     * Find proxy granting ticket definition.
+     *
+     * @return the ticket definition
+     */
+    @Benchmark
+    public TicketDefinition findProxyGrantingTicket() {
+        return this.ticketCatalog.find(this.proxyGrantingTicketId);
+    }
+}
@@ -0,0 +1,86 @@
+package org.apereo.cas.benchmarks;
+
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.UniqueTicketIdGenerator;
+import org.apereo.cas.util.DefaultUniqueTicketIdGenerator;
+import org.apereo.cas.util.gen.Base64RandomStringGenerator;
+import org.apereo.cas.util.gen.DefaultLongNumericGenerator;
+import org.apereo.cas.util.gen.RandomStringGenerator;
+import org.apereo.cas.util.gen.ThreadLocalBase64RandomStringGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is {@link TicketIdGeneratorBenchmarks} that compares the shared and the per-thread
+ * random string generators behind ticket ids, as the number of threads asking for ids grows.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TicketIdGeneratorBenchmarks {
+    private static final String GENERATOR_SHARED = "shared";
+    private static final int TICKET_ID_LENGTH = 32;
+    private static final int MODERATE_CONTENTION_THREADS = 8;
+    private static final int HIGH_CONTENTION_THREADS = 64;
+
+    @Param({GENERATOR_SHARED, "threadLocal"})
+    private String generatorType;
+
+    private UniqueTicketIdGenerator generator;
+
+    /**
+     * Build the ticket id generator.
+     */
+    @Setup
+    public void setup() {
+        final RandomStringGenerator randomStringGenerator = GENERATOR_SHARED.equals(this.generatorType)
+                ? new Base64RandomStringGenerator(TICKET_ID_LENGTH)
+                : new ThreadLocalBase64RandomStringGenerator(TICKET_ID_LENGTH);
+        this.generator = new DefaultUniqueTicketIdGenerator(new DefaultLongNumericGenerator(1), randomStringGenerator, null);
+    }
+
+    /**
+     * Generate ticket ids from a single thread.
+     *
+     * @return the ticket id
+     */
+    @Benchmark
+    @Threads(1)
+    public String singleThread() {
+        return this.generator.getNewTicketId(ServiceTicket.PREFIX);
+    }
+
+    /**
+     * Generate ticket ids from a few concurrent threads.
+     *
+     * @return the ticket id
+     */
+    @Benchmark
+    @Threads(MODERATE_CONTENTION_THREADS)
+    public String moderateContention() {
+        return this.generator.getNewTicketId(ServiceTicket.PREFIX);
+    }
+
+    /**
+     * Generate ticket ids from many concurrent threads.
+     *
+     * @return the ticket id
+     */
+    @Benchmark
+    @Threads(HIGH_CONTENTION_THREADS)
+    public String highContention() {
+        return this.generator.getNewTicketId(ServiceTicket.PREFIX);
+    }
+}
@@ -0,0 +1,122 @@
+package org.apereo.cas.benchmarks;
+
+import org.apereo.cas.CipherExecutor;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.ServiceTicketFactory;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketFactory;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketFactory;
+import org.apereo.cas.ticket.registry.DefaultTicketRegistry;
+import org.apereo.cas.util.cipher.DefaultTicketCipherExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is {@link TicketRegistryCodecBenchmarks} that measures the encoding and decoding
+ * of tickets by the ticket registry when registry encryption and signing is turned on.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TicketRegistryCodecBenchmarks {
+    private static final String SECRET_KEY_ALGORITHM = "AES";
+    private static final int SIGNING_KEY_SIZE = 512;
+    private static final int ENCRYPTION_KEY_SIZE = 16;
+
+    @Param({"0", "10", "100"})
+    private int attributeCount;
+
+    private EncodingTicketRegistry ticketRegistry;
+    private TicketGrantingTicket ticketGrantingTicket;
+    private ServiceTicket serviceTicket;
+    private Ticket encodedTicketGrantingTicket;
+    private Ticket encodedServiceTicket;
+
+    /**
+     * Build the registry and the tickets to encode.
+     */
+    @Setup
+    public void setup() {
+        final CipherExecutor cipher = new DefaultTicketCipherExecutor(null, null, SECRET_KEY_ALGORITHM,
+                SIGNING_KEY_SIZE, ENCRYPTION_KEY_SIZE, "benchmarks");
+        this.ticketRegistry = new EncodingTicketRegistry(cipher);
+
+        final TicketFactory factory = CasBenchmarkSupport.newTicketFactory();
+        final TicketGrantingTicketFactory tgtFactory = factory.get(TicketGrantingTicket.class);
+        this.ticketGrantingTicket = tgtFactory.create(CasBenchmarkSupport.newAuthenticationResult(this.attributeCount).getAuthentication());
+        final ServiceTicketFactory stFactory = factory.get(ServiceTicket.class);
+        this.serviceTicket = stFactory.create(this.ticketGrantingTicket, CasBenchmarkSupport.newService(0), true);
+
+        this.encodedTicketGrantingTicket = this.ticketRegistry.encode(this.ticketGrantingTicket);
+        this.encodedServiceTicket = this.ticketRegistry.encode(this.serviceTicket);
+    }
+
+    /**
+     * Encode ticket granting ticket.
+     *
+     * @return the ticket
+     */
+    @Benchmark
+    public Ticket encodeTicketGrantingTicket() {
+        return this.ticketRegistry.encode(this.ticketGrantingTicket);
+    }
+
+    /**
+     * Decode ticket granting ticket.
+     *
+     * @return the ticket
+     */
+    @Benchmark
+    public Ticket decodeTicketGrantingTicket() {
+        return this.ticketRegistry.decode(this.encodedTicketGrantingTicket);
+    }
+
+    /**
+     * Encode service ticket.
+     *
+     * @return the ticket
+     */
+    @Benchmark
+    public Ticket encodeServiceTicket() {
+        return this.ticketRegistry.encode(this.serviceTicket);
+    }
+
+    /**
+     * Decode service ticket.
+     *
+     * @return the ticket
+     */
+    @Benchmark
+    public Ticket decodeServiceTicket() {
+        return this.ticketRegistry.decode(this.encodedServiceTicket);
+    }
+
+    /**
+     * Exposes the registry codec to the benchmarks.
+     */
+    static class EncodingTicketRegistry extends DefaultTicketRegistry {
+        EncodingTicketRegistry(final CipherExecutor cipherExecutor) {
+            super(cipherExecutor);
+        }
+
+        Ticket encode(final Ticket ticket) {
+            return encodeTicket(ticket);
+        }
+
+        Ticket decode(final Ticket ticket) {
+            return decodeTicket(ticket);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.apereo.cas.benchmarks;
+
+import org.apereo.cas.kryo.KryoBinarySerializer;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.ServiceTicketFactory;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketFactory;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketFactory;
+import org.apereo.cas.util.serialization.BinarySerializer;
+import org.apereo.cas.util.serialization.JavaBinarySerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is {@link TicketSerializationBenchmarks} that compares the binary serializers
+ * available to distributed ticket registries, for tickets that carry a growing number
+ * of principal attributes.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TicketSerializationBenchmarks {
+    private static final String SERIALIZER_KRYO = "kryo";
+
+    @Param({"java", SERIALIZER_KRYO})
+    private String serializerType;
+
+    @Param({"0", "10", "100"})
+    private int attributeCount;
+
+    private BinarySerializer<Ticket> serializer;
+    private TicketGrantingTicket ticketGrantingTicket;
+    private ServiceTicket serviceTicket;
+    private byte[] encodedTicketGrantingTicket;
+    private byte[] encodedServiceTicket;
+
+    /**
+     * Build the serializer and the tickets to serialize.
+     */
+    @Setup
+    public void setup() {
+        this.serializer = SERIALIZER_KRYO.equals(this.serializerType) ? new KryoBinarySerializer<>() : new JavaBinarySerializer<>();
+
+        final TicketFactory factory = CasBenchmarkSupport.newTicketFactory();
+        final TicketGrantingTicketFactory tgtFactory = factory.get(TicketGrantingTicket.class);
+        this.ticketGrantingTicket = tgtFactory.create(CasBenchmarkSupport.newAuthenticationResult(this.attributeCount).getAuthentication());
+        final ServiceTicketFactory stFactory = factory.get(ServiceTicket.class);
+        this.serviceTicket = stFactory.create(this.ticketGrantingTicket, CasBenchmarkSupport.newService(0), true);
+
+        this.encodedTicketGrantingTicket = this.serializer.encode(this.ticketGrantingTicket);
+        this.encodedServiceTicket = this.serializer.encode(this.serviceTicket);
+    }
+
+    /**
+     * Serialize ticket granting ticket.
+     *
+     * @return the bytes
+     */
+    @Benchmark
+    public byte[] encodeTicketGrantingTicket() {
+        return this.serializer.encode(this.ticketGrantingTicket);
+    }
+
+    /**
+     * Deserialize ticket granting ticket.
+     *
+     * @return the ticket
+     */
+    @Benchmark
+    public Ticket decodeTicketGrantingTicket() {
+        return this.serializer.decode(this.encodedTicketGrantingTicket);
+    }
+
+    /**
+     * Serialize service ticket.
+     *
+     * @return the bytes
+     */
+    @Benchmark
+    public byte[] encodeServiceTicket() {
+        return this.serializer.encode(this.serviceTicket);
+    }
+
+    /**
+     * Deserialize service ticket.
+     *
+     * @return the ticket
+     */
+    @Benchmark
+    public Ticket decodeServiceTicket() {
+        return this.serializer.decode(this.encodedServiceTicket);
+    }
+}
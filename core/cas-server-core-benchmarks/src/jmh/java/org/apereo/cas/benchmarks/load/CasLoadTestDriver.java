@@ -0,0 +1,194 @@
+package org.apereo.cas.benchmarks.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Recorder;
+import org.apereo.cas.benchmarks.CasBenchmarkSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * This is {@link CasLoadTestDriver} that boots an in-process CAS server and drives protocol flows
+ * against it from a configurable number of threads, reporting throughput, a latency histogram
+ * and the allocation rate for each flow. Settings are passed as system properties:
+ * <ul>
+ * <li>{@code cas.loadtest.flows}: comma-separated flows to run, out of {@code cas}, {@code oauth} and {@code saml2}</li>
+ * <li>{@code cas.loadtest.threads}: number of concurrent threads</li>
+ * <li>{@code cas.loadtest.warmupSeconds} and {@code cas.loadtest.durationSeconds}</li>
+ * <li>{@code cas.loadtest.registry}: {@code default} or {@code caching} ticket registry</li>
+ * <li>{@code cas.loadtest.backend}: {@code memory}, {@code jdbc} or {@code ldap} store for users and attributes</li>
+ * <li>{@code cas.loadtest.services}, {@code cas.loadtest.users} and {@code cas.loadtest.attributes}</li>
+ * <li>{@code cas.loadtest.resultsFile}: where the JSON report is written</li>
+ * </ul>
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class CasLoadTestDriver implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CasLoadTestDriver.class);
+
+    private static final String PROPERTY_PREFIX = "cas.loadtest.";
+    private static final int DEFAULT_THREADS = 16;
+    private static final int DEFAULT_WARMUP_SECONDS = 10;
+    private static final int DEFAULT_DURATION_SECONDS = 30;
+    private static final int DEFAULT_SERVICES = 100;
+    private static final int DEFAULT_USERS = 1000;
+    private static final int DEFAULT_ATTRIBUTES = 10;
+    private static final int HISTOGRAM_SIGNIFICANT_DIGITS = 3;
+
+    private final Map<String, Function<LoadTestEnvironment, LoadTestFlow>> flows = new LinkedHashMap<>();
+    private final int threads;
+    private final long warmupNanos;
+    private final long durationNanos;
+    private final int users;
+    private final LoadTestEnvironment environment;
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    public CasLoadTestDriver(final int threads, final int warmupSeconds, final int durationSeconds,
+                             final String registryType, final String backendType,
+                             final int services, final int users, final int attributes) throws Exception {
+        this.threads = threads;
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(warmupSeconds);
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        this.users = users;
+        this.environment = new LoadTestEnvironment(registryType, backendType, services, users, attributes, threads);
+        this.flows.put("cas", CasProtocolLoadTestFlow::new);
+        this.flows.put("oauth", OAuthLoadTestFlow::new);
+        this.flows.put("saml2", Saml2LoadTestFlow::new);
+    }
+
+    /**
+     * Run the requested flows and write the report.
+     *
+     * @param args the arguments, ignored in favor of system properties
+     * @throws Exception the exception
+     */
+    public static void main(final String[] args) throws Exception {
+        final List<String> names = Arrays.asList(System.getProperty(PROPERTY_PREFIX + "flows", "cas,oauth,saml2").split(","));
+        final List<LoadTestResult> results;
+        try (CasLoadTestDriver driver = new CasLoadTestDriver(
+                Integer.getInteger(PROPERTY_PREFIX + "threads", DEFAULT_THREADS),
+                Integer.getInteger(PROPERTY_PREFIX + "warmupSeconds", DEFAULT_WARMUP_SECONDS),
+                Integer.getInteger(PROPERTY_PREFIX + "durationSeconds", DEFAULT_DURATION_SECONDS),
+                System.getProperty(PROPERTY_PREFIX + "registry", CasBenchmarkSupport.REGISTRY_DEFAULT),
+                System.getProperty(PROPERTY_PREFIX + "backend", LoadTestEnvironment.BACKEND_MEMORY),
+                Integer.getInteger(PROPERTY_PREFIX + "services", DEFAULT_SERVICES),
+                Integer.getInteger(PROPERTY_PREFIX + "users", DEFAULT_USERS),
+                Integer.getInteger(PROPERTY_PREFIX + "attributes", DEFAULT_ATTRIBUTES))) {
+            results = driver.run(names);
+        }
+
+        final File report = new File(System.getProperty(PROPERTY_PREFIX + "resultsFile", "build/reports/loadtest/results.json"));
+        if (report.getParentFile() != null && !report.getParentFile().exists() && !report.getParentFile().mkdirs()) {
+            LOGGER.warn("Unable to create directory for [{}]", report);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report, results);
+        LOGGER.info("Load test report written to [{}]", report.getAbsolutePath());
+    }
+
+    /**
+     * Run each of the named flows in turn, first to warm up and then to measure.
+     *
+     * @param names the flow names
+     * @return the results
+     * @throws Exception the exception
+     */
+    public List<LoadTestResult> run(final List<String> names) throws Exception {
+        final List<LoadTestResult> results = new ArrayList<>();
+        for (final String name : names) {
+            final Function<LoadTestEnvironment, LoadTestFlow> builder = this.flows.get(name.trim());
+            if (builder == null) {
+                throw new IllegalArgumentException("Unknown load test flow " + name + "; available flows are " + this.flows.keySet());
+            }
+            final LoadTestFlow flow = builder.apply(this.environment);
+            LOGGER.info("Warming up flow [{}] with [{}] thread(s)", name, this.threads);
+            drive(name, flow, this.warmupNanos);
+            this.environment.getTicketRegistry().deleteAll();
+
+            LOGGER.info("Measuring flow [{}] with [{}] thread(s)", name, this.threads);
+            final LoadTestResult result = drive(name, flow, this.durationNanos);
+            this.environment.getTicketRegistry().deleteAll();
+            LOGGER.info(result.toString());
+            results.add(result);
+        }
+        return results;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.environment.close();
+    }
+
+    private LoadTestResult drive(final String name, final LoadTestFlow flow, final long runNanos) throws Exception {
+        final Recorder recorder = new Recorder(HISTOGRAM_SIGNIFICANT_DIGITS);
+        final LongAdder errors = new LongAdder();
+        final LongAdder allocatedBytes = new LongAdder();
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(this.threads);
+        final ExecutorService executor = Executors.newFixedThreadPool(this.threads);
+        try {
+            final AtomicLong deadline = new AtomicLong();
+            for (int i = 0; i < this.threads; i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        final long allocatedBefore = getAllocatedBytes();
+                        while (System.nanoTime() < deadline.get()) {
+                            final String user = LoadTestEnvironment.getUser(ThreadLocalRandom.current().nextInt(this.users));
+                            final long begin = System.nanoTime();
+                            try {
+                                flow.execute(user);
+                                recorder.recordValue(System.nanoTime() - begin);
+                            } catch (final Exception e) {
+                                errors.increment();
+                                LOGGER.debug(e.getMessage(), e);
+                            }
+                        }
+                        allocatedBytes.add(getAllocatedBytes() - allocatedBefore);
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            final long begin = System.nanoTime();
+            deadline.set(begin + runNanos);
+            start.countDown();
+            done.await();
+            final long elapsed = System.nanoTime() - begin;
+            return new LoadTestResult(name, this.threads, elapsed, recorder.getIntervalHistogram(), errors.sum(), allocatedBytes.sum());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long getAllocatedBytes() {
+        if (this.threadBean instanceof com.sun.management.ThreadMXBean) {
+            final com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) this.threadBean;
+            if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return 0;
+    }
+}
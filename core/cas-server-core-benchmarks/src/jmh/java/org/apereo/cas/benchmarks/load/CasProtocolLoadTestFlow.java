@@ -0,0 +1,38 @@
+package org.apereo.cas.benchmarks.load;
+
+import org.apereo.cas.CentralAuthenticationService;
+import org.apereo.cas.authentication.AuthenticationResult;
+import org.apereo.cas.authentication.principal.Service;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+
+/**
+ * This is {@link CasProtocolLoadTestFlow} that replays a CAS protocol login:
+ * the user authenticates, a ticket-granting ticket is created, a service ticket is granted
+ * for the service and then validated by it. The single sign-on session is destroyed at the end,
+ * as it would be on logout, so the registry stays bounded for the duration of the test.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class CasProtocolLoadTestFlow implements LoadTestFlow {
+    private final LoadTestEnvironment environment;
+
+    public CasProtocolLoadTestFlow(final LoadTestEnvironment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void execute(final String user) throws Exception {
+        final CentralAuthenticationService cas = this.environment.getCentralAuthenticationService();
+        final Service service = this.environment.getRandomService();
+        final AuthenticationResult result = this.environment.authenticate(user, service);
+        final TicketGrantingTicket ticketGrantingTicket = cas.createTicketGrantingTicket(result);
+        try {
+            final ServiceTicket serviceTicket = cas.grantServiceTicket(ticketGrantingTicket.getId(), service, result);
+            cas.validateServiceTicket(serviceTicket.getId(), service);
+        } finally {
+            cas.destroyTicketGrantingTicket(ticketGrantingTicket.getId());
+        }
+    }
+}
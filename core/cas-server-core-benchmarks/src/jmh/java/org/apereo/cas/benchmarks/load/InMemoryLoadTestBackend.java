@@ -0,0 +1,60 @@
+package org.apereo.cas.benchmarks.load;
+
+import org.apereo.cas.authentication.AcceptUsersAuthenticationHandler;
+import org.apereo.cas.authentication.AuthenticationHandler;
+import org.apereo.cas.authentication.principal.DefaultPrincipalFactory;
+import org.apereo.cas.authentication.principal.Principal;
+import org.apereo.cas.services.ServicesManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * This is {@link InMemoryLoadTestBackend} that checks credentials against an in-memory user map
+ * and hands every principal the same in-memory attributes, so the load test measures CAS
+ * without the cost of any account store.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class InMemoryLoadTestBackend implements LoadTestBackend {
+    private final AcceptUsersAuthenticationHandler authenticationHandler;
+
+    public InMemoryLoadTestBackend(final ServicesManager servicesManager, final int users, final int attributes) {
+        final Map<String, String> accounts = new LinkedHashMap<>(users);
+        IntStream.range(0, users).forEach(i -> accounts.put(LoadTestEnvironment.getUser(i), PASSWORD));
+        final Map<String, Object> principalAttributes = new LinkedHashMap<>(attributes);
+        IntStream.range(0, attributes).forEach(i -> principalAttributes.put(LoadTestBackend.getAttributeName(i),
+                LoadTestBackend.getAttributeValue(i)));
+        this.authenticationHandler = new AcceptUsersAuthenticationHandler(getClass().getSimpleName(),
+                servicesManager, new AttributePrincipalFactory(principalAttributes), 0, accounts);
+    }
+
+    @Override
+    public AuthenticationHandler getAuthenticationHandler() {
+        return this.authenticationHandler;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * Principal factory that gives each principal the in-memory attributes.
+     */
+    private static final class AttributePrincipalFactory extends DefaultPrincipalFactory {
+        private static final long serialVersionUID = -2318513296482614713L;
+
+        private final Map<String, Object> attributes;
+
+        AttributePrincipalFactory(final Map<String, Object> attributes) {
+            this.attributes = attributes;
+        }
+
+        @Override
+        public Principal createPrincipal(final String id) {
+            return createPrincipal(id, this.attributes);
+        }
+    }
+}
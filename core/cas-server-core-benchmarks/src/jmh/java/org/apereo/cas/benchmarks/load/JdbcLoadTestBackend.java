@@ -0,0 +1,98 @@
+package org.apereo.cas.benchmarks.load;
+
+import org.apereo.cas.adaptors.jdbc.QueryDatabaseAuthenticationHandler;
+import org.apereo.cas.authentication.AuthenticationHandler;
+import org.apereo.cas.authentication.principal.DefaultPrincipalFactory;
+import org.apereo.cas.configuration.model.support.jdbc.QueryJdbcAuthenticationProperties;
+import org.apereo.cas.configuration.support.JpaBeans;
+import org.apereo.cas.services.ServicesManager;
+import org.apereo.cas.util.CollectionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * This is {@link JdbcLoadTestBackend} that keeps the load test users in an in-memory HSQLDB table
+ * and authenticates them with the query database authentication handler over a pooled data source,
+ * built the same way the JDBC authentication configuration builds it.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class JdbcLoadTestBackend implements LoadTestBackend {
+    private static final String TABLE = "casusers";
+    private static final String FIELD_USERNAME = "username";
+    private static final String FIELD_PASSWORD = "password";
+    private static final int COLUMN_LENGTH = 100;
+
+    private final DataSource dataSource;
+    private final QueryDatabaseAuthenticationHandler authenticationHandler;
+
+    public JdbcLoadTestBackend(final ServicesManager servicesManager, final int users, final int attributes, final int connections) {
+        final QueryJdbcAuthenticationProperties properties = new QueryJdbcAuthenticationProperties();
+        properties.setUrl("jdbc:hsqldb:mem:cas-loadtest");
+        properties.setAutocommit(true);
+        properties.getPool().setMaxSize(connections);
+        properties.setSql("SELECT * FROM " + TABLE + " WHERE " + FIELD_USERNAME + " = ?");
+        this.dataSource = JpaBeans.newDataSource(properties);
+
+        final List<String> attributeNames = IntStream.range(0, attributes)
+                .mapToObj(LoadTestBackend::getAttributeName)
+                .collect(Collectors.toList());
+        populate(users, attributeNames);
+
+        final Map<String, Collection<String>> principalAttributes = new LinkedHashMap<>(attributes);
+        attributeNames.forEach(name -> principalAttributes.put(name, CollectionUtils.wrapList(name)));
+        this.authenticationHandler = new QueryDatabaseAuthenticationHandler(getClass().getSimpleName(), servicesManager,
+                new DefaultPrincipalFactory(), 0, this.dataSource, properties.getSql(), FIELD_PASSWORD,
+                null, null, principalAttributes);
+    }
+
+    @Override
+    public AuthenticationHandler getAuthenticationHandler() {
+        return this.authenticationHandler;
+    }
+
+    @Override
+    public void close() throws IOException {
+        new JdbcTemplate(this.dataSource).execute("DROP TABLE " + TABLE);
+        if (this.dataSource instanceof Closeable) {
+            ((Closeable) this.dataSource).close();
+        }
+    }
+
+    private void populate(final int users, final List<String> attributeNames) {
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSource);
+        final List<String> columns = new ArrayList<>();
+        columns.add(FIELD_USERNAME);
+        columns.add(FIELD_PASSWORD);
+        columns.addAll(attributeNames);
+
+        jdbcTemplate.execute(columns.stream()
+                .map(column -> column + " VARCHAR(" + COLUMN_LENGTH + ')')
+                .collect(Collectors.joining(", ", "CREATE TABLE " + TABLE + " (", ", PRIMARY KEY (" + FIELD_USERNAME + "))")));
+
+        final String insert = columns.stream()
+                .map(column -> "?")
+                .collect(Collectors.joining(", ", "INSERT INTO " + TABLE + " VALUES (", ")"));
+        final List<Object[]> rows = IntStream.range(0, users)
+                .mapToObj(i -> {
+                    final List<Object> row = new ArrayList<>(columns.size());
+                    row.add(LoadTestEnvironment.getUser(i));
+                    row.add(PASSWORD);
+                    IntStream.range(0, attributeNames.size()).forEach(a -> row.add(LoadTestBackend.getAttributeValue(a)));
+                    return row.toArray();
+                })
+                .collect(Collectors.toList());
+        jdbcTemplate.batchUpdate(insert, rows);
+    }
+}
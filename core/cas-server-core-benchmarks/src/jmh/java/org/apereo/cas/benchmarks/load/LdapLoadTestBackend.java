@@ -0,0 +1,111 @@
+package org.apereo.cas.benchmarks.load;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryDirectoryServerConfig;
+import com.unboundid.ldap.listener.InMemoryListenerConfig;
+import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.Entry;
+import org.apereo.cas.authentication.AuthenticationHandler;
+import org.apereo.cas.authentication.LdapAuthenticationHandler;
+import org.apereo.cas.authentication.principal.DefaultPrincipalFactory;
+import org.apereo.cas.authentication.support.DefaultLdapPasswordPolicyHandlingStrategy;
+import org.apereo.cas.configuration.model.support.ldap.AbstractLdapAuthenticationProperties;
+import org.apereo.cas.configuration.model.support.ldap.LdapAuthenticationProperties;
+import org.apereo.cas.services.ServicesManager;
+import org.apereo.cas.util.CollectionUtils;
+import org.apereo.cas.util.LdapUtils;
+import org.ldaptive.auth.Authenticator;
+import org.ldaptive.auth.PooledBindAuthenticationHandler;
+import org.ldaptive.auth.PooledSearchEntryResolver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * This is {@link LdapLoadTestBackend} that keeps the load test users in an in-memory directory server
+ * and authenticates them with the LDAP authentication handler over pooled connections, using a
+ * direct bind followed by a search for the principal attributes as a typical deployment would.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class LdapLoadTestBackend implements LoadTestBackend {
+    private static final String BASE_DN = "dc=example,dc=org";
+    private static final String PEOPLE_DN = "ou=people," + BASE_DN;
+
+    private final InMemoryDirectoryServer directoryServer;
+    private final Authenticator authenticator;
+    private final LdapAuthenticationHandler authenticationHandler;
+
+    public LdapLoadTestBackend(final ServicesManager servicesManager, final int users, final int attributes,
+                               final int connections) throws Exception {
+        final InMemoryDirectoryServerConfig config = new InMemoryDirectoryServerConfig(BASE_DN);
+        config.setListenerConfigs(InMemoryListenerConfig.createLDAPConfig("LDAP", 0));
+        config.setSchema(null);
+        config.setMaxConnections(-1);
+        this.directoryServer = new InMemoryDirectoryServer(config);
+        populate(users, attributes);
+        this.directoryServer.startListening();
+
+        final LdapAuthenticationProperties properties = new LdapAuthenticationProperties();
+        properties.setType(AbstractLdapAuthenticationProperties.AuthenticationTypes.DIRECT);
+        properties.setLdapUrl("ldap://localhost:" + this.directoryServer.getListenPort());
+        properties.setUseSsl(false);
+        properties.setDnFormat("uid=%s," + PEOPLE_DN);
+        properties.setBaseDn(PEOPLE_DN);
+        properties.setUserFilter("uid={user}");
+        properties.setSubtreeSearch(false);
+        properties.setMinPoolSize(Math.min(properties.getMinPoolSize(), connections));
+        properties.setMaxPoolSize(connections);
+        properties.setPoolPassivator("NONE");
+        properties.getValidator().setType("none");
+        this.authenticator = LdapUtils.newLdaptiveAuthenticator(properties);
+
+        final Map<String, Collection<String>> principalAttributes = new LinkedHashMap<>(attributes);
+        IntStream.range(0, attributes)
+                .mapToObj(LoadTestBackend::getAttributeName)
+                .forEach(name -> principalAttributes.put(name, CollectionUtils.wrapList(name)));
+        this.authenticationHandler = new LdapAuthenticationHandler(getClass().getSimpleName(), servicesManager,
+                new DefaultPrincipalFactory(), 0, this.authenticator, new DefaultLdapPasswordPolicyHandlingStrategy());
+        this.authenticationHandler.setPrincipalAttributeMap(principalAttributes);
+        this.authenticationHandler.initialize();
+    }
+
+    @Override
+    public AuthenticationHandler getAuthenticationHandler() {
+        return this.authenticationHandler;
+    }
+
+    @Override
+    public void close() {
+        ((PooledBindAuthenticationHandler) this.authenticator.getAuthenticationHandler()).getConnectionFactory().getConnectionPool().close();
+        ((PooledSearchEntryResolver) this.authenticator.getEntryResolver()).getConnectionFactory().getConnectionPool().close();
+        this.directoryServer.shutDown(true);
+    }
+
+    private void populate(final int users, final int attributes) throws Exception {
+        this.directoryServer.add(new Entry(BASE_DN,
+                new Attribute("objectClass", "top", "domain"),
+                new Attribute("dc", "example")));
+        this.directoryServer.add(new Entry(PEOPLE_DN,
+                new Attribute("objectClass", "top", "organizationalUnit"),
+                new Attribute("ou", "people")));
+        for (int i = 0; i < users; i++) {
+            final String user = LoadTestEnvironment.getUser(i);
+            final List<Attribute> entryAttributes = new ArrayList<>(attributes + 4);
+            entryAttributes.add(new Attribute("objectClass", "top", "person", "inetOrgPerson"));
+            entryAttributes.add(new Attribute("uid", user));
+            entryAttributes.add(new Attribute("cn", user));
+            entryAttributes.add(new Attribute("sn", user));
+            entryAttributes.add(new Attribute("userPassword", PASSWORD));
+            IntStream.range(0, attributes)
+                    .mapToObj(a -> new Attribute(LoadTestBackend.getAttributeName(a), LoadTestBackend.getAttributeValue(a)))
+                    .forEach(entryAttributes::add);
+            this.directoryServer.add(new Entry("uid=" + user + ',' + PEOPLE_DN, entryAttributes));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.apereo.cas.benchmarks.load;
+
+import org.apereo.cas.authentication.AuthenticationHandler;
+
+import java.io.Closeable;
+
+/**
+ * This is {@link LoadTestBackend} that stands in for the account store of a deployment.
+ * Each backend populates its store with the load test users and their attributes, and exposes
+ * the authentication handler a deployment would configure against that kind of store.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public interface LoadTestBackend extends Closeable {
+
+    /**
+     * Password shared by all load test users.
+     */
+    String PASSWORD = "Mellon";
+
+    /**
+     * Gets the authentication handler that checks credentials against the store
+     * and resolves the principal with its attributes.
+     *
+     * @return the authentication handler
+     */
+    AuthenticationHandler getAuthenticationHandler();
+
+    /**
+     * Gets the name of the attribute with the given index.
+     *
+     * @param index the index
+     * @return the attribute name
+     */
+    static String getAttributeName(final int index) {
+        return "attribute" + index;
+    }
+
+    /**
+     * Gets the value of the attribute with the given index.
+     *
+     * @param index the index
+     * @return the attribute value
+     */
+    static String getAttributeValue(final int index) {
+        return "value" + index;
+    }
+}
@@ -0,0 +1,192 @@
+package org.apereo.cas.benchmarks.load;
+
+import net.shibboleth.utilities.java.support.security.SelfSignedCertificateGenerator;
+import net.shibboleth.utilities.java.support.xml.BasicParserPool;
+import org.apereo.cas.CentralAuthenticationService;
+import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.authentication.AuthenticationHandler;
+import org.apereo.cas.authentication.AuthenticationResult;
+import org.apereo.cas.authentication.BasicCredentialMetaData;
+import org.apereo.cas.authentication.DefaultAuthenticationBuilder;
+import org.apereo.cas.authentication.DefaultAuthenticationResult;
+import org.apereo.cas.authentication.HandlerResult;
+import org.apereo.cas.authentication.UsernamePasswordCredential;
+import org.apereo.cas.authentication.principal.Service;
+import org.apereo.cas.benchmarks.CasBenchmarkSupport;
+import org.apereo.cas.services.ServicesManager;
+import org.apereo.cas.support.saml.OpenSamlConfigBean;
+import org.apereo.cas.support.saml.web.idp.profile.builders.enc.SamlIdPSigningCredentialCache;
+import org.apereo.cas.ticket.accesstoken.AccessTokenFactory;
+import org.apereo.cas.ticket.accesstoken.DefaultAccessTokenFactory;
+import org.apereo.cas.ticket.accesstoken.OAuthAccessTokenExpirationPolicy;
+import org.apereo.cas.ticket.code.DefaultOAuthCodeFactory;
+import org.apereo.cas.ticket.code.OAuthCodeExpirationPolicy;
+import org.apereo.cas.ticket.code.OAuthCodeFactory;
+import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * This is {@link LoadTestEnvironment} that assembles an in-process CAS server for the load test driver.
+ * Tickets are kept in one of the in-memory ticket registries and services in an in-memory service registry.
+ * Credentials and principal attributes come from one of the {@link LoadTestBackend}s: an in-memory user map,
+ * an in-memory HSQLDB database or an in-memory LDAP directory. The SAML2 identity provider signs with a
+ * self-signed key and certificate generated for the run.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class LoadTestEnvironment implements Closeable {
+    /**
+     * Backend that keeps users and attributes in memory.
+     */
+    public static final String BACKEND_MEMORY = "memory";
+
+    /**
+     * Backend that keeps users and attributes in an in-memory database.
+     */
+    public static final String BACKEND_JDBC = "jdbc";
+
+    /**
+     * Backend that keeps users and attributes in an in-memory directory.
+     */
+    public static final String BACKEND_LDAP = "ldap";
+
+    private static final long SIGNING_CREDENTIAL_CHECK_INTERVAL = 5000;
+    private static final int OAUTH_CODE_USES = 1;
+    private static final long OAUTH_CODE_TIME_TO_LIVE = 30;
+    private static final long ACCESS_TOKEN_TIME_TO_LIVE = 28_800;
+    private static final long ACCESS_TOKEN_TIME_TO_IDLE = 7_200;
+
+    private final TicketRegistry ticketRegistry;
+    private final ServicesManager servicesManager;
+    private final CentralAuthenticationService centralAuthenticationService;
+    private final LoadTestBackend backend;
+    private final OAuthCodeFactory oAuthCodeFactory;
+    private final AccessTokenFactory accessTokenFactory;
+    private final OpenSamlConfigBean openSamlConfigBean;
+    private final File signingCredentialDirectory;
+    private final SamlIdPSigningCredentialCache signingCredentialCache;
+    private final int registeredServices;
+
+    public LoadTestEnvironment(final String registryType, final String backendType, final int registeredServices,
+                               final int users, final int attributes, final int threads) throws Exception {
+        this.registeredServices = registeredServices;
+        this.ticketRegistry = CasBenchmarkSupport.newTicketRegistry(registryType);
+        this.servicesManager = CasBenchmarkSupport.newServicesManager(registeredServices);
+        this.centralAuthenticationService = CasBenchmarkSupport.newCentralAuthenticationService(this.ticketRegistry, this.servicesManager);
+        this.backend = newBackend(backendType, this.servicesManager, users, attributes, threads);
+
+        this.oAuthCodeFactory = new DefaultOAuthCodeFactory(new OAuthCodeExpirationPolicy(OAUTH_CODE_USES, OAUTH_CODE_TIME_TO_LIVE));
+        this.accessTokenFactory = new DefaultAccessTokenFactory(
+                new OAuthAccessTokenExpirationPolicy(ACCESS_TOKEN_TIME_TO_LIVE, ACCESS_TOKEN_TIME_TO_IDLE));
+
+        final BasicParserPool parserPool = new BasicParserPool();
+        parserPool.setMaxPoolSize(threads);
+        parserPool.initialize();
+        this.openSamlConfigBean = new OpenSamlConfigBean(parserPool);
+        this.openSamlConfigBean.init();
+
+        this.signingCredentialDirectory = Files.createTempDirectory("cas-loadtest").toFile();
+        final File certificateFile = new File(this.signingCredentialDirectory, "idp-signing.crt");
+        final File keyFile = new File(this.signingCredentialDirectory, "idp-signing.key");
+        final SelfSignedCertificateGenerator generator = new SelfSignedCertificateGenerator();
+        generator.setHostName("cas.example.org");
+        generator.setCertificateFile(certificateFile);
+        generator.setPrivateKeyFile(keyFile);
+        generator.generate();
+        this.signingCredentialCache = new SamlIdPSigningCredentialCache(new FileSystemResource(keyFile), "RSA",
+                new FileSystemResource(certificateFile), SIGNING_CREDENTIAL_CHECK_INTERVAL);
+    }
+
+    /**
+     * Gets the user name for the given index.
+     *
+     * @param index the index
+     * @return the user name
+     */
+    public static String getUser(final int index) {
+        return "casuser" + index;
+    }
+
+    /**
+     * Authenticate the user with username and password,
+     * the same way the login form submission would.
+     *
+     * @param user    the user
+     * @param service the service, if any
+     * @return the authentication result
+     * @throws Exception the exception
+     */
+    public AuthenticationResult authenticate(final String user, final Service service) throws Exception {
+        final UsernamePasswordCredential credential = new UsernamePasswordCredential(user, LoadTestBackend.PASSWORD);
+        final AuthenticationHandler authenticationHandler = this.backend.getAuthenticationHandler();
+        final HandlerResult result = authenticationHandler.authenticate(credential);
+        final Authentication authentication = DefaultAuthenticationBuilder.newInstance()
+                .addCredential(new BasicCredentialMetaData(credential))
+                .addSuccess(authenticationHandler.getName(), result)
+                .setPrincipal(result.getPrincipal())
+                .build();
+        return new DefaultAuthenticationResult(authentication, service);
+    }
+
+    /**
+     * Pick a service at random, spreading requests across the registered services.
+     *
+     * @return the service
+     */
+    public Service getRandomService() {
+        return CasBenchmarkSupport.newService(ThreadLocalRandom.current().nextInt(this.registeredServices));
+    }
+
+    public TicketRegistry getTicketRegistry() {
+        return ticketRegistry;
+    }
+
+    public CentralAuthenticationService getCentralAuthenticationService() {
+        return centralAuthenticationService;
+    }
+
+    public OAuthCodeFactory getOAuthCodeFactory() {
+        return oAuthCodeFactory;
+    }
+
+    public AccessTokenFactory getAccessTokenFactory() {
+        return accessTokenFactory;
+    }
+
+    public OpenSamlConfigBean getOpenSamlConfigBean() {
+        return openSamlConfigBean;
+    }
+
+    public SamlIdPSigningCredentialCache getSigningCredentialCache() {
+        return signingCredentialCache;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.backend.close();
+        FileSystemUtils.deleteRecursively(this.signingCredentialDirectory);
+    }
+
+    private static LoadTestBackend newBackend(final String type, final ServicesManager servicesManager, final int users,
+                                              final int attributes, final int threads) throws Exception {
+        switch (type) {
+            case BACKEND_MEMORY:
+                return new InMemoryLoadTestBackend(servicesManager, users, attributes);
+            case BACKEND_JDBC:
+                return new JdbcLoadTestBackend(servicesManager, users, attributes, threads);
+            case BACKEND_LDAP:
+                return new LdapLoadTestBackend(servicesManager, users, attributes, threads);
+            default:
+                throw new IllegalArgumentException("Unknown load test backend " + type + "; available backends are "
+                        + BACKEND_MEMORY + ", " + BACKEND_JDBC + " and " + BACKEND_LDAP);
+        }
+    }
+}
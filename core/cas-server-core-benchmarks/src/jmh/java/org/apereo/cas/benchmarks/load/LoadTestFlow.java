@@ -0,0 +1,20 @@
+package org.apereo.cas.benchmarks.load;
+
+/**
+ * This is {@link LoadTestFlow} that describes a single end-to-end protocol exchange
+ * that the load test driver repeats from many threads.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@FunctionalInterface
+public interface LoadTestFlow {
+
+    /**
+     * Execute the flow once, from authentication to the final protocol response.
+     *
+     * @param user the user on whose behalf the flow runs
+     * @throws Exception if any step of the flow fails
+     */
+    void execute(String user) throws Exception;
+}
@@ -0,0 +1,114 @@
+package org.apereo.cas.benchmarks.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is {@link LoadTestResult} that summarizes a measured run of a single flow.
+ * Latencies are reported in microseconds.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class LoadTestResult {
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9, 99.99};
+    private static final double BYTES_PER_MEGABYTE = 1024.0 * 1024.0;
+
+    private final String flow;
+    private final int threads;
+    private final long durationMillis;
+    private final long operations;
+    private final long errors;
+    private final double throughput;
+    private final double meanLatency;
+    private final long maxLatency;
+    private final Map<String, Long> latencyPercentiles = new LinkedHashMap<>();
+    private final long allocatedBytesPerOperation;
+    private final double allocationRate;
+
+    public LoadTestResult(final String flow, final int threads, final long durationNanos,
+                          final Histogram histogram, final long errors, final long allocatedBytes) {
+        this.flow = flow;
+        this.threads = threads;
+        this.durationMillis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        this.operations = histogram.getTotalCount();
+        this.errors = errors;
+
+        final double seconds = durationNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        this.throughput = seconds > 0 ? this.operations / seconds : 0;
+        this.meanLatency = histogram.getMean() / TimeUnit.MICROSECONDS.toNanos(1);
+        this.maxLatency = TimeUnit.NANOSECONDS.toMicros(histogram.getMaxValue());
+        for (final double percentile : PERCENTILES) {
+            this.latencyPercentiles.put("p" + percentile, TimeUnit.NANOSECONDS.toMicros(histogram.getValueAtPercentile(percentile)));
+        }
+        this.allocatedBytesPerOperation = this.operations > 0 ? allocatedBytes / this.operations : 0;
+        this.allocationRate = seconds > 0 ? allocatedBytes / BYTES_PER_MEGABYTE / seconds : 0;
+    }
+
+    public String getFlow() {
+        return flow;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public long getOperations() {
+        return operations;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Completed flows per second.
+     *
+     * @return the throughput
+     */
+    public double getThroughput() {
+        return throughput;
+    }
+
+    public double getMeanLatency() {
+        return meanLatency;
+    }
+
+    public long getMaxLatency() {
+        return maxLatency;
+    }
+
+    public Map<String, Long> getLatencyPercentiles() {
+        return latencyPercentiles;
+    }
+
+    public long getAllocatedBytesPerOperation() {
+        return allocatedBytesPerOperation;
+    }
+
+    /**
+     * Megabytes allocated per second by the threads running the flow,
+     * or zero if the JVM does not report thread allocations.
+     *
+     * @return the allocation rate
+     */
+    public double getAllocationRate() {
+        return allocationRate;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: threads=%d, ops=%d, errors=%d, throughput=%.1f/s, mean=%.1fus, p50=%dus, p99=%dus, p99.9=%dus, "
+                        + "max=%dus, alloc=%dB/op (%.1fMB/s)",
+                flow, threads, operations, errors, throughput, meanLatency, latencyPercentiles.get("p50.0"),
+                latencyPercentiles.get("p99.0"), latencyPercentiles.get("p99.9"), maxLatency,
+                allocatedBytesPerOperation, allocationRate);
+    }
+}
@@ -0,0 +1,60 @@
+package org.apereo.cas.benchmarks.load;
+
+import org.apereo.cas.CentralAuthenticationService;
+import org.apereo.cas.authentication.AuthenticationResult;
+import org.apereo.cas.authentication.principal.Service;
+import org.apereo.cas.ticket.InvalidTicketException;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketState;
+import org.apereo.cas.ticket.accesstoken.AccessToken;
+import org.apereo.cas.ticket.code.OAuthCode;
+import org.apereo.cas.ticket.registry.TicketRegistry;
+
+import java.util.ArrayList;
+
+/**
+ * This is {@link OAuthLoadTestFlow} that replays the ticket operations of an OAuth authorization code grant:
+ * the user authenticates, an authorization code is issued, exchanged at the token endpoint for an
+ * access token, and the access token is then presented to the profile endpoint.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class OAuthLoadTestFlow implements LoadTestFlow {
+    private final LoadTestEnvironment environment;
+
+    public OAuthLoadTestFlow(final LoadTestEnvironment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void execute(final String user) throws Exception {
+        final CentralAuthenticationService cas = this.environment.getCentralAuthenticationService();
+        final TicketRegistry registry = this.environment.getTicketRegistry();
+        final Service service = this.environment.getRandomService();
+        final AuthenticationResult result = this.environment.authenticate(user, service);
+        final TicketGrantingTicket ticketGrantingTicket = cas.createTicketGrantingTicket(result);
+        try {
+            final OAuthCode code = this.environment.getOAuthCodeFactory().create(service, result.getAuthentication(), ticketGrantingTicket);
+            registry.addTicket(code);
+
+            final OAuthCode redeemedCode = registry.getTicket(code.getId(), OAuthCode.class);
+            if (redeemedCode == null || redeemedCode.isExpired()) {
+                throw new InvalidTicketException(code.getId());
+            }
+            final AccessToken accessToken = this.environment.getAccessTokenFactory().create(redeemedCode.getService(),
+                    redeemedCode.getAuthentication(), redeemedCode.getGrantingTicket(), new ArrayList<>(0));
+            registry.addTicket(accessToken);
+            registry.deleteTicket(redeemedCode.getId());
+
+            final AccessToken presentedToken = registry.getTicket(accessToken.getId(), AccessToken.class);
+            if (presentedToken == null || presentedToken.isExpired()) {
+                throw new InvalidTicketException(accessToken.getId());
+            }
+            TicketState.class.cast(presentedToken).update();
+            registry.updateTicket(presentedToken);
+        } finally {
+            cas.destroyTicketGrantingTicket(ticketGrantingTicket.getId());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.apereo.cas.benchmarks.load;
+
+import org.apereo.cas.CentralAuthenticationService;
+import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.authentication.AuthenticationResult;
+import org.apereo.cas.authentication.principal.Service;
+import org.apereo.cas.authentication.principal.WebApplicationService;
+import org.apereo.cas.support.saml.OpenSamlConfigBean;
+import org.apereo.cas.support.saml.SamlUtils;
+import org.apereo.cas.support.saml.util.AbstractSaml20ObjectBuilder;
+import org.apereo.cas.support.saml.web.idp.profile.builders.enc.SamlIdPSigningCredentialCache;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.util.EncodingUtils;
+import org.apereo.cas.validation.Assertion;
+import org.joda.time.DateTime;
+import org.opensaml.saml.common.SAMLVersion;
+import org.opensaml.saml.common.xml.SAMLConstants;
+import org.opensaml.saml.saml2.core.AuthnContext;
+import org.opensaml.saml.saml2.core.AuthnRequest;
+import org.opensaml.saml.saml2.core.AuthnStatement;
+import org.opensaml.saml.saml2.core.NameID;
+import org.opensaml.saml.saml2.core.Response;
+import org.opensaml.saml.saml2.core.StatusCode;
+import org.opensaml.security.x509.BasicX509Credential;
+import org.opensaml.xmlsec.SignatureSigningParameters;
+import org.opensaml.xmlsec.signature.support.SignatureConstants;
+import org.opensaml.xmlsec.signature.support.SignatureSupport;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+
+/**
+ * This is {@link Saml2LoadTestFlow} that replays the identity provider side of a SAML2 web SSO exchange:
+ * the authentication request posted by the service provider is decoded and parsed, the user authenticates
+ * and a service ticket for the identity provider callback is granted and validated, and a response with a
+ * signed assertion carrying the principal attributes is built and encoded for the POST binding.
+ * The single sign-on session is destroyed at the end, as it would be on logout.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class Saml2LoadTestFlow implements LoadTestFlow {
+    private static final String IDP_ENTITY_ID = "https://cas.example.org/idp";
+    private static final String SP_ENTITY_ID = "https://sp.example.org/shibboleth";
+    private static final String SP_ASSERTION_CONSUMER_SERVICE = "https://sp.example.org/Shibboleth.sso/SAML2/POST";
+    private static final long ASSERTION_VALIDITY_SECONDS = 60;
+
+    private final LoadTestEnvironment environment;
+    private final LoadTestSaml20ObjectBuilder samlObjectBuilder;
+    private final String encodedAuthnRequest;
+
+    public Saml2LoadTestFlow(final LoadTestEnvironment environment) {
+        this.environment = environment;
+        this.samlObjectBuilder = new LoadTestSaml20ObjectBuilder(environment.getOpenSamlConfigBean());
+
+        final AuthnRequest authnRequest = this.samlObjectBuilder.newSamlObject(AuthnRequest.class);
+        authnRequest.setID('_' + this.samlObjectBuilder.generateSecureRandomId());
+        authnRequest.setVersion(SAMLVersion.VERSION_20);
+        authnRequest.setIssueInstant(new DateTime());
+        authnRequest.setIssuer(this.samlObjectBuilder.newIssuer(SP_ENTITY_ID));
+        authnRequest.setProtocolBinding(SAMLConstants.SAML2_POST_BINDING_URI);
+        authnRequest.setAssertionConsumerServiceURL(SP_ASSERTION_CONSUMER_SERVICE);
+        final String xml = SamlUtils.transformSamlObject(environment.getOpenSamlConfigBean(), authnRequest).toString();
+        this.encodedAuthnRequest = EncodingUtils.encodeBase64(xml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void execute(final String user) throws Exception {
+        final String xml = new String(EncodingUtils.decodeBase64(this.encodedAuthnRequest), StandardCharsets.UTF_8);
+        final AuthnRequest authnRequest = SamlUtils.transformSamlObject(this.environment.getOpenSamlConfigBean(), xml);
+
+        final CentralAuthenticationService cas = this.environment.getCentralAuthenticationService();
+        final Service callbackService = this.environment.getRandomService();
+        final AuthenticationResult result = this.environment.authenticate(user, callbackService);
+        final TicketGrantingTicket ticketGrantingTicket = cas.createTicketGrantingTicket(result);
+        try {
+            final ServiceTicket serviceTicket = cas.grantServiceTicket(ticketGrantingTicket.getId(), callbackService, result);
+            final Assertion assertion = cas.validateServiceTicket(serviceTicket.getId(), callbackService);
+            final Response response = buildResponse(authnRequest, assertion.getPrimaryAuthentication(),
+                    (WebApplicationService) callbackService);
+            EncodingUtils.encodeBase64(SamlUtils.transformSamlObject(this.environment.getOpenSamlConfigBean(), response)
+                    .toString().getBytes(StandardCharsets.UTF_8));
+        } finally {
+            cas.destroyTicketGrantingTicket(ticketGrantingTicket.getId());
+        }
+    }
+
+    private Response buildResponse(final AuthnRequest authnRequest, final Authentication authentication,
+                                   final WebApplicationService service) throws Exception {
+        final ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        final ZonedDateTime notOnOrAfter = now.plusSeconds(ASSERTION_VALIDITY_SECONDS);
+        final String recipient = authnRequest.getAssertionConsumerServiceURL();
+
+        final AuthnStatement authnStatement = this.samlObjectBuilder.newAuthnStatement(AuthnContext.PASSWORD_AUTHN_CTX,
+                authentication.getAuthenticationDate(), this.samlObjectBuilder.generateSecureRandomId());
+        final org.opensaml.saml.saml2.core.Assertion samlAssertion = this.samlObjectBuilder.newAssertion(authnStatement,
+                IDP_ENTITY_ID, now, '_' + this.samlObjectBuilder.generateSecureRandomId());
+        samlAssertion.setSubject(this.samlObjectBuilder.newSubject(NameID.UNSPECIFIED, authentication.getPrincipal().getId(),
+                recipient, notOnOrAfter, authnRequest.getID(), now));
+        samlAssertion.setConditions(this.samlObjectBuilder.newConditions(now, notOnOrAfter, authnRequest.getIssuer().getValue()));
+        samlAssertion.getAttributeStatements().add(this.samlObjectBuilder.newAttributeStatement(
+                authentication.getPrincipal().getAttributes(), false, new HashMap<>(0), "basic"));
+        SignatureSupport.signObject(samlAssertion, getSignatureSigningParameters());
+
+        final Response response = this.samlObjectBuilder.newResponse('_' + this.samlObjectBuilder.generateSecureRandomId(),
+                now, authnRequest.getID(), service);
+        response.setIssuer(this.samlObjectBuilder.newIssuer(IDP_ENTITY_ID));
+        response.setDestination(recipient);
+        response.setStatus(this.samlObjectBuilder.newStatus(StatusCode.SUCCESS, null));
+        response.getAssertions().add(samlAssertion);
+        return response;
+    }
+
+    private SignatureSigningParameters getSignatureSigningParameters() throws Exception {
+        final SamlIdPSigningCredentialCache signingCredentialCache = this.environment.getSigningCredentialCache();
+        final SignatureSigningParameters parameters = new SignatureSigningParameters();
+        parameters.setSigningCredential(new BasicX509Credential(signingCredentialCache.getCertificate(),
+                signingCredentialCache.getPrivateKey()));
+        parameters.setSignatureAlgorithm(SignatureConstants.ALGO_ID_SIGNATURE_RSA_SHA256);
+        parameters.setSignatureReferenceDigestMethod(SignatureConstants.ALGO_ID_DIGEST_SHA256);
+        parameters.setSignatureCanonicalizationAlgorithm(SignatureConstants.ALGO_ID_C14N_EXCL_OMIT_COMMENTS);
+        return parameters;
+    }
+
+    /**
+     * Builds the SAML2 objects of the exchange.
+     */
+    private static final class LoadTestSaml20ObjectBuilder extends AbstractSaml20ObjectBuilder {
+        private static final long serialVersionUID = 4215340172394868105L;
+
+        LoadTestSaml20ObjectBuilder(final OpenSamlConfigBean configBean) {
+            super(configBean);
+        }
+    }
+}
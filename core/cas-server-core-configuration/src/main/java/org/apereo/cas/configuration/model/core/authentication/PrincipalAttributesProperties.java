@@ -1,5 +1,6 @@
 package org.apereo.cas.configuration.model.core.authentication;
 
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.configuration.support.RequiresModule;
 
 import java.io.Serializable;
@@ -43,6 +44,14 @@ public class PrincipalAttributesProperties implements Serializable {
      */
     private int maximumCacheSize = 10000;
 
+    /**
+     * Indicates how long the attributes computed by the release policy of a service
+     * for a principal are reused by validation, consent and multifactor checks,
+     * before the release policy is evaluated again. A zero or negative value
+     * evaluates the release policy every time.
+     */
+    private String releaseCacheTimeToLive = "PT30S";
+
     /**
      * Merging strategies can be used to resolve conflicts when the same attribute are found from multiple sources.
      * Accepted values are the following:
@@ -194,6 +203,14 @@ public class PrincipalAttributesProperties implements Serializable {
         this.maximumCacheSize = maximumCacheSize;
     }
 
+    public long getReleaseCacheTimeToLive() {
+        return Beans.newDuration(releaseCacheTimeToLive).toMillis();
+    }
+
+    public void setReleaseCacheTimeToLive(final String releaseCacheTimeToLive) {
+        this.releaseCacheTimeToLive = releaseCacheTimeToLive;
+    }
+
     public List<JdbcPrincipalAttributesProperties> getJdbc() {
         return jdbc;
     }
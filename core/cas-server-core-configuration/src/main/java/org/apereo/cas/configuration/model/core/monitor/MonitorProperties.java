@@ -28,6 +28,20 @@ public class MonitorProperties implements Serializable {
      */
     private int freeMemThreshold = 10;
 
+    /**
+     * The amount of time each monitor is given to report back as part of a health check.
+     * Monitors are observed in parallel; those that do not report back in time are
+     * reported with a warning status rather than holding up the health check.
+     */
+    private String timeout = "PT5S";
+
+    /**
+     * The amount of time the results of a health check are reused for.
+     * Once this time has passed, the previous results are reported while monitors
+     * are observed again in the background. Set to zero to observe monitors on every check.
+     */
+    private String cacheTimeToLive = "PT10S";
+
     /**
      * Options for monitoring the status a nd production of TGTs.
      */
@@ -111,6 +125,22 @@ public class MonitorProperties implements Serializable {
         this.freeMemThreshold = freeMemThreshold;
     }
 
+    public long getTimeout() {
+        return Beans.newDuration(timeout).toMillis();
+    }
+
+    public void setTimeout(final String timeout) {
+        this.timeout = timeout;
+    }
+
+    public long getCacheTimeToLive() {
+        return Beans.newDuration(cacheTimeToLive).toMillis();
+    }
+
+    public void setCacheTimeToLive(final String cacheTimeToLive) {
+        this.cacheTimeToLive = cacheTimeToLive;
+    }
+
     public Tgt getTgt() {
         return tgt;
     }
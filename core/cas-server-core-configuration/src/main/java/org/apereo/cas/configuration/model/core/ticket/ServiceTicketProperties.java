@@ -14,6 +14,14 @@ import java.io.Serializable;
 public class ServiceTicketProperties implements Serializable {
 
     private static final long serialVersionUID = -7445209580598499921L;
+
+    /**
+     * Whether service tickets should be issued as self-contained signed and encrypted tokens
+     * that are validated without a ticket registry lookup. One-time use is enforced by a replay filter.
+     * Requires protocol ticket encryption and signing (cas.ticket.crypto) to be enabled.
+     */
+    private boolean stateless;
+
     /**
      * Controls number of times a service ticket can be used within CAS server. Usage in CAS context means service ticket validation
      * transaction.
@@ -53,4 +61,12 @@ public class ServiceTicketProperties implements Serializable {
     public void setTimeToKillInSeconds(final long timeToKillInSeconds) {
         this.timeToKillInSeconds = timeToKillInSeconds;
     }
+
+    public boolean isStateless() {
+        return stateless;
+    }
+
+    public void setStateless(final boolean stateless) {
+        this.stateless = stateless;
+    }
 }
@@ -8,6 +8,7 @@ import org.apereo.cas.configuration.model.support.hazelcast.HazelcastTicketRegis
 import org.apereo.cas.configuration.model.support.ignite.IgniteProperties;
 import org.apereo.cas.configuration.model.support.infinispan.InfinispanProperties;
 import org.apereo.cas.configuration.model.support.jms.JmsTicketRegistryProperties;
+import org.apereo.cas.configuration.model.support.journal.JournalTicketRegistryProperties;
 import org.apereo.cas.configuration.model.support.jpa.ticketregistry.JpaTicketRegistryProperties;
 import org.apereo.cas.configuration.model.support.memcached.MemcachedTicketRegistryProperties;
 import org.apereo.cas.configuration.model.support.mongo.ticketregistry.MongoTicketRegistryProperties;
@@ -34,6 +35,12 @@ public class TicketRegistryProperties implements Serializable {
      */
     @NestedConfigurationProperty
     private JmsTicketRegistryProperties jms = new JmsTicketRegistryProperties();
+
+    /**
+     * Journal registry settings.
+     */
+    @NestedConfigurationProperty
+    private JournalTicketRegistryProperties journal = new JournalTicketRegistryProperties();
     
     /**
      * DynamoDb registry settings.
@@ -106,6 +113,13 @@ public class TicketRegistryProperties implements Serializable {
     @NestedConfigurationProperty
     private ScheduledJobProperties cleaner = new ScheduledJobProperties("PT10S", "PT1M");
 
+    /**
+     * Keep an index of ticket-granting tickets by principal and of tickets by the ticket-granting ticket
+     * that issued them, so that the sessions of a user and the descendants of a session can be found
+     * without scanning the registry. Registries that support the index maintain it natively.
+     */
+    private boolean indexSessions = true;
+
     public MongoTicketRegistryProperties getMongo() {
         return mongo;
     }
@@ -210,6 +224,22 @@ public class TicketRegistryProperties implements Serializable {
         this.jms = jms;
     }
 
+    public boolean isIndexSessions() {
+        return indexSessions;
+    }
+
+    public void setIndexSessions(final boolean indexSessions) {
+        this.indexSessions = indexSessions;
+    }
+
+    public JournalTicketRegistryProperties getJournal() {
+        return journal;
+    }
+
+    public void setJournal(final JournalTicketRegistryProperties journal) {
+        this.journal = journal;
+    }
+
     @RequiresModule(name = "cas-server-core-tickets", automated = true)
     public static class InMemory implements Serializable {
 
@@ -246,10 +276,23 @@ public class TicketRegistryProperties implements Serializable {
         @NestedConfigurationProperty
         private EncryptionRandomizedSigningJwtCryptographyProperties crypto = new EncryptionRandomizedSigningJwtCryptographyProperties();
 
+        /**
+         * Settings to keep tickets outside the java heap.
+         */
+        private OffHeap offHeap = new OffHeap();
+
         public InMemory() {
             crypto.setEnabled(false);
         }
 
+        public OffHeap getOffHeap() {
+            return offHeap;
+        }
+
+        public void setOffHeap(final OffHeap offHeap) {
+            this.offHeap = offHeap;
+        }
+
         public EncryptionRandomizedSigningJwtCryptographyProperties getCrypto() {
             return crypto;
         }
@@ -290,4 +333,78 @@ public class TicketRegistryProperties implements Serializable {
             this.cache = cache;
         }
     }
+
+    @RequiresModule(name = "cas-server-core-tickets", automated = true)
+    public static class OffHeap implements Serializable {
+
+        private static final long serialVersionUID = 3870253429541183571L;
+
+        /**
+         * Keep serialized tickets in direct memory outside the java heap,
+         * so that the heap size does not grow with the number of active sessions.
+         */
+        private boolean enabled;
+
+        /**
+         * Number of independently locked segments the store is split into.
+         * Must be a power of two.
+         */
+        private int segments = 16;
+
+        /**
+         * Size in bytes of each block of direct memory set aside for tickets.
+         * Must be a power of two. Tickets larger than this are given a block of their own.
+         */
+        private int pageSize = 1024 * 1024;
+
+        /**
+         * The number of tickets the store index is sized for before it needs to grow.
+         */
+        private int initialCapacity = 1000;
+
+        /**
+         * Maximum number of ticket-granting tickets kept decoded on the heap for fast access.
+         */
+        private long hotSetMaximumSize = 10_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getSegments() {
+            return segments;
+        }
+
+        public void setSegments(final int segments) {
+            this.segments = segments;
+        }
+
+        public int getPageSize() {
+            return pageSize;
+        }
+
+        public void setPageSize(final int pageSize) {
+            this.pageSize = pageSize;
+        }
+
+        public int getInitialCapacity() {
+            return initialCapacity;
+        }
+
+        public void setInitialCapacity(final int initialCapacity) {
+            this.initialCapacity = initialCapacity;
+        }
+
+        public long getHotSetMaximumSize() {
+            return hotSetMaximumSize;
+        }
+
+        public void setHotSetMaximumSize(final long hotSetMaximumSize) {
+            this.hotSetMaximumSize = hotSetMaximumSize;
+        }
+    }
 }
@@ -68,6 +68,13 @@ public class ViewProperties implements Serializable {
          */
         private boolean v3ForwardCompatible;
 
+        /**
+         * Whether service validation responses should be written directly to the response
+         * rather than rendered through the success and failure templates.
+         * Custom templates defined for this protocol version are ignored when enabled.
+         */
+        private boolean streaming;
+
         /**
          * Proxy views and settings.
          */
@@ -81,6 +88,14 @@ public class ViewProperties implements Serializable {
             this.v3ForwardCompatible = v3ForwardCompatible;
         }
 
+        public boolean isStreaming() {
+            return streaming;
+        }
+
+        public void setStreaming(final boolean streaming) {
+            this.streaming = streaming;
+        }
+
         public Proxy getProxy() {
             return proxy;
         }
@@ -145,6 +160,21 @@ public class ViewProperties implements Serializable {
          */
         private String failure = "protocol/3.0/casServiceValidationFailure";
 
+        /**
+         * Whether service validation responses, in XML and JSON, should be written directly
+         * to the response rather than rendered through the success and failure templates.
+         * Custom templates defined for this protocol version are ignored when enabled.
+         */
+        private boolean streaming;
+
+        public boolean isStreaming() {
+            return streaming;
+        }
+
+        public void setStreaming(final boolean streaming) {
+            this.streaming = streaming;
+        }
+
         public String getSuccess() {
             return success;
         }
@@ -142,6 +142,21 @@ public class ConsentProperties implements Serializable {
     @RequiresModule(name = "cas-server-consent-webflow")
     public static class Json extends SpringResourceProperties {
         private static final long serialVersionUID = 7079027843747126083L;
+
+        /**
+         * Changes to consent decisions are appended to a journal file next to the resource.
+         * Once the journal holds this many entries, decisions are written back
+         * to the resource and the journal is truncated.
+         */
+        private int compactionThreshold = 1000;
+
+        public int getCompactionThreshold() {
+            return compactionThreshold;
+        }
+
+        public void setCompactionThreshold(final int compactionThreshold) {
+            this.compactionThreshold = compactionThreshold;
+        }
     }
 
     @RequiresModule(name = "cas-server-consent-webflow")
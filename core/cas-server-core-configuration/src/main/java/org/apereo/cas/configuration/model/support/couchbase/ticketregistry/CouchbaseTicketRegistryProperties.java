@@ -2,6 +2,7 @@ package org.apereo.cas.configuration.model.support.couchbase.ticketregistry;
 
 import org.apereo.cas.configuration.model.core.util.EncryptionRandomizedSigningJwtCryptographyProperties;
 import org.apereo.cas.configuration.model.support.couchbase.BaseCouchbaseProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.configuration.support.RequiresModule;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
@@ -14,7 +15,25 @@ import org.springframework.boot.context.properties.NestedConfigurationProperty;
 @RequiresModule(name = "cas-server-support-couchbase-ticket-registry")
 public class CouchbaseTicketRegistryProperties extends BaseCouchbaseProperties {
     private static final long serialVersionUID = 2123040809519673836L;
-    
+
+    /**
+     * Whether binary ticket documents should be encoded via Kryo rather than JDK serialization.
+     * Documents written in one format cannot be decoded in the other, so switching this
+     * requires the bucket to be drained of tickets first.
+     */
+    private boolean kryoSerialization;
+
+    /**
+     * Number of documents fetched or removed concurrently by bulk operations.
+     */
+    private int bulkConcurrency = 64;
+
+    /**
+     * How often the ticket counters are recalculated from the tickets in the bucket,
+     * to account for tickets that Couchbase has removed on expiry. Set to zero to disable.
+     */
+    private String counterRecalculationInterval = "PT5M";
+
     /**
      * Crypto settings for the registry.
      */
@@ -32,4 +51,28 @@ public class CouchbaseTicketRegistryProperties extends BaseCouchbaseProperties {
     public void setCrypto(final EncryptionRandomizedSigningJwtCryptographyProperties crypto) {
         this.crypto = crypto;
     }
+
+    public boolean isKryoSerialization() {
+        return kryoSerialization;
+    }
+
+    public void setKryoSerialization(final boolean kryoSerialization) {
+        this.kryoSerialization = kryoSerialization;
+    }
+
+    public int getBulkConcurrency() {
+        return bulkConcurrency;
+    }
+
+    public void setBulkConcurrency(final int bulkConcurrency) {
+        this.bulkConcurrency = bulkConcurrency;
+    }
+
+    public long getCounterRecalculationInterval() {
+        return Beans.newDuration(counterRecalculationInterval).toMillis();
+    }
+
+    public void setCounterRecalculationInterval(final String counterRecalculationInterval) {
+        this.counterRecalculationInterval = counterRecalculationInterval;
+    }
 }
@@ -34,6 +34,23 @@ public class DynamoDbTicketRegistryProperties extends AbstractDynamoDbProperties
      */
     private String proxyGrantingTicketsTableName = "proxyGrantingTicketsTable";
 
+    /**
+     * Number of segments that tables are split into when scanned, each of which is scanned in parallel.
+     */
+    private int scanSegments = 4;
+
+    /**
+     * Whether tables should have DynamoDb time-to-live enabled, so that expired tickets are removed
+     * by DynamoDb rather than by the registry cleaner.
+     */
+    private boolean timeToLiveEnabled = true;
+
+    /**
+     * Whether tickets should be serialized via Kryo rather than the default strategy.
+     * Tickets written with one strategy cannot be read with the other.
+     */
+    private boolean kryoSerialization;
+
     /**
      * Crypto settings for the registry.
      */
@@ -80,6 +97,30 @@ public class DynamoDbTicketRegistryProperties extends AbstractDynamoDbProperties
         this.proxyGrantingTicketsTableName = proxyGrantingTicketsTableName;
     }
 
+    public int getScanSegments() {
+        return scanSegments;
+    }
+
+    public void setScanSegments(final int scanSegments) {
+        this.scanSegments = scanSegments;
+    }
+
+    public boolean isTimeToLiveEnabled() {
+        return timeToLiveEnabled;
+    }
+
+    public void setTimeToLiveEnabled(final boolean timeToLiveEnabled) {
+        this.timeToLiveEnabled = timeToLiveEnabled;
+    }
+
+    public boolean isKryoSerialization() {
+        return kryoSerialization;
+    }
+
+    public void setKryoSerialization(final boolean kryoSerialization) {
+        this.kryoSerialization = kryoSerialization;
+    }
+
     public void setCrypto(final EncryptionRandomizedSigningJwtCryptographyProperties crypto) {
         this.crypto = crypto;
     }
@@ -20,6 +20,13 @@ import java.io.Serializable;
 public class EhcacheProperties implements Serializable {
     private static final long serialVersionUID = 7772510035918976450L;
 
+    /**
+     * Whether cache elements should hold tickets encoded as Kryo byte arrays
+     * rather than the ticket objects themselves. Replicated and disk-backed caches
+     * then ship and persist the compact bytes instead of a JDK-serialized ticket.
+     */
+    private boolean kryoSerialization;
+
     /**
      * Sets the persistence write mode.
      */
@@ -327,6 +334,12 @@ public class EhcacheProperties implements Serializable {
     public void setPersistence(final String persistence) {
         this.persistence = persistence;
     }
-}
 
+    public boolean isKryoSerialization() {
+        return kryoSerialization;
+    }
 
+    public void setKryoSerialization(final boolean kryoSerialization) {
+        this.kryoSerialization = kryoSerialization;
+    }
+}
@@ -0,0 +1,85 @@
+package org.apereo.cas.configuration.model.support.hazelcast;
+
+import org.apereo.cas.configuration.support.RequiresModule;
+
+import java.io.Serializable;
+
+/**
+ * This is {@link HazelcastNearCacheProperties}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@RequiresModule(name = "cas-server-support-hazelcast-ticket-registry")
+public class HazelcastNearCacheProperties implements Serializable {
+    private static final long serialVersionUID = 2367155914371281953L;
+
+    /**
+     * Whether ticket-granting tickets should be kept in a member-local near cache.
+     * Entries are invalidated across the cluster when tickets are updated or removed.
+     */
+    private boolean enabled;
+
+    /**
+     * Maximum number of entries kept in the near cache.
+     */
+    private int maxSize = 10_000;
+
+    /**
+     * Maximum number of seconds an entry can stay in the near cache.
+     * Zero means infinite.
+     */
+    private int timeToLiveSeconds;
+
+    /**
+     * Maximum number of seconds an entry can stay in the near cache untouched.
+     * Zero means infinite.
+     */
+    private int maxIdleSeconds;
+
+    /**
+     * Eviction policy used once the maximum size is reached.
+     * Accepted values are {@code LRU, LFU, RANDOM, NONE}.
+     */
+    private String evictionPolicy = "LRU";
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getTimeToLiveSeconds() {
+        return timeToLiveSeconds;
+    }
+
+    public void setTimeToLiveSeconds(final int timeToLiveSeconds) {
+        this.timeToLiveSeconds = timeToLiveSeconds;
+    }
+
+    public int getMaxIdleSeconds() {
+        return maxIdleSeconds;
+    }
+
+    public void setMaxIdleSeconds(final int maxIdleSeconds) {
+        this.maxIdleSeconds = maxIdleSeconds;
+    }
+
+    public String getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
+    public void setEvictionPolicy(final String evictionPolicy) {
+        this.evictionPolicy = evictionPolicy;
+    }
+}
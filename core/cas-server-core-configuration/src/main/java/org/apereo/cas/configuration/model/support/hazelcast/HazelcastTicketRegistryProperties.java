@@ -15,10 +15,23 @@ public class HazelcastTicketRegistryProperties extends BaseHazelcastProperties {
     
     private static final long serialVersionUID = -1095208036374406772L;
 
+    /**
+     * Whether map entries should be encoded with a Kryo stream serializer registered
+     * for tickets, rather than Hazelcast's default Java serialization. Every member of
+     * the cluster must register the same serializer in order to read entries owned by others.
+     */
+    private boolean kryoSerialization;
+
     /**
      * Page size is used by a special Predicate which helps to get a page-by-page result of a query.
      */
     private int pageSize = 500;
+
+    /**
+     * Near cache settings for maps that hold ticket-granting tickets.
+     */
+    @NestedConfigurationProperty
+    private HazelcastNearCacheProperties nearCache = new HazelcastNearCacheProperties();
     
     /**
      * Crypto settings for the registry.
@@ -45,4 +58,20 @@ public class HazelcastTicketRegistryProperties extends BaseHazelcastProperties {
     public void setPageSize(final int pageSize) {
         this.pageSize = pageSize;
     }
+
+    public boolean isKryoSerialization() {
+        return kryoSerialization;
+    }
+
+    public void setKryoSerialization(final boolean kryoSerialization) {
+        this.kryoSerialization = kryoSerialization;
+    }
+
+    public HazelcastNearCacheProperties getNearCache() {
+        return nearCache;
+    }
+
+    public void setNearCache(final HazelcastNearCacheProperties nearCache) {
+        this.nearCache = nearCache;
+    }
 }
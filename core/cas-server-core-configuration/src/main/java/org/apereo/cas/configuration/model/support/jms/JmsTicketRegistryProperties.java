@@ -1,6 +1,7 @@
 package org.apereo.cas.configuration.model.support.jms;
 
 import org.apereo.cas.configuration.model.core.util.EncryptionRandomizedSigningJwtCryptographyProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.configuration.support.RequiresModule;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
@@ -17,6 +18,30 @@ public class JmsTicketRegistryProperties implements Serializable {
 
     private static final long serialVersionUID = -2600525447128979994L;
 
+    /**
+     * Whether queue commands should be sent as Kryo-encoded bytes messages
+     * rather than JSON text messages. Publishers and consumers must use the same format;
+     * a message in the other format is rejected by the receiving node.
+     */
+    private boolean kryoSerialization;
+
+    /**
+     * Whether changes to tickets should be coalesced and published in compressed batches,
+     * rather than as one message per change. All nodes must run a version that understands batches.
+     */
+    private boolean batchReplication;
+
+    /**
+     * How long changes are collected before they are published as a batch.
+     * Changes to the same ticket within this window are merged into one.
+     */
+    private String batchWindow = "PT0.05S";
+
+    /**
+     * Number of pending changes that causes a batch to be published before the window closes.
+     */
+    private int batchMaxSize = 500;
+
     /**
      * Crypto settings for the registry.
      */
@@ -30,4 +55,36 @@ public class JmsTicketRegistryProperties implements Serializable {
     public void setCrypto(final EncryptionRandomizedSigningJwtCryptographyProperties crypto) {
         this.crypto = crypto;
     }
+
+    public boolean isKryoSerialization() {
+        return kryoSerialization;
+    }
+
+    public void setKryoSerialization(final boolean kryoSerialization) {
+        this.kryoSerialization = kryoSerialization;
+    }
+
+    public boolean isBatchReplication() {
+        return batchReplication;
+    }
+
+    public void setBatchReplication(final boolean batchReplication) {
+        this.batchReplication = batchReplication;
+    }
+
+    public long getBatchWindow() {
+        return Beans.newDuration(batchWindow).toMillis();
+    }
+
+    public void setBatchWindow(final String batchWindow) {
+        this.batchWindow = batchWindow;
+    }
+
+    public int getBatchMaxSize() {
+        return batchMaxSize;
+    }
+
+    public void setBatchMaxSize(final int batchMaxSize) {
+        this.batchMaxSize = batchMaxSize;
+    }
 }
@@ -0,0 +1,163 @@
+package org.apereo.cas.configuration.model.support.journal;
+
+import org.apereo.cas.configuration.model.core.util.EncryptionRandomizedSigningJwtCryptographyProperties;
+import org.apereo.cas.configuration.support.Beans;
+import org.apereo.cas.configuration.support.RequiresModule;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
+
+import java.io.Serializable;
+
+/**
+ * This is {@link JournalTicketRegistryProperties}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@RequiresModule(name = "cas-server-support-journal-ticket-registry")
+public class JournalTicketRegistryProperties implements Serializable {
+
+    private static final long serialVersionUID = 2861735016542637114L;
+
+    /**
+     * Directory where the journal files are kept.
+     * The directory is created if it does not exist and must not be shared by other CAS servers.
+     */
+    private String location = "/etc/cas/ticket-journal";
+
+    /**
+     * Number of segments the journal is split into. Each segment has its own lock and files,
+     * and segments are replayed in parallel at startup. The number of segments is recorded
+     * in the journal when it is first created and cannot be changed afterwards.
+     */
+    private int segments = 16;
+
+    /**
+     * Number of threads that replay segments at startup. The threads are only kept for as long as recovery takes.
+     */
+    private int recoveryThreads = 4;
+
+    /**
+     * Size in bytes of each memory-mapped log file. A new file is started once the current one is full.
+     */
+    private int logFileSize = 16 * 1024 * 1024;
+
+    /**
+     * Once the log files of a segment grow beyond this many bytes, the segment is compacted:
+     * its live tickets are written to a snapshot and the log files preceding it are removed.
+     */
+    private long compactionThreshold = 64 * 1024 * 1024;
+
+    /**
+     * How often segments are examined to decide whether they should be compacted.
+     */
+    private String compactionInterval = "PT1M";
+
+    /**
+     * How often pending writes are flushed to disk. Writes that arrive within the same
+     * interval are made durable together with a single flush per segment.
+     */
+    private String groupCommitInterval = "PT0.005S";
+
+    /**
+     * Whether a write should wait until it has been flushed to disk before returning.
+     * Writes land in memory-mapped files and survive a crash of the CAS server process regardless;
+     * waiting for the flush also protects them against a failure of the host itself.
+     */
+    private boolean synchronousWrites = true;
+
+    /**
+     * Whether tickets should be serialized via Kryo rather than the default strategy.
+     * Journals written with one strategy cannot be read with the other.
+     */
+    private boolean kryoSerialization;
+
+    /**
+     * Crypto settings for the registry.
+     */
+    @NestedConfigurationProperty
+    private EncryptionRandomizedSigningJwtCryptographyProperties crypto = new EncryptionRandomizedSigningJwtCryptographyProperties();
+
+    public JournalTicketRegistryProperties() {
+        this.crypto.setEnabled(false);
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(final String location) {
+        this.location = location;
+    }
+
+    public int getSegments() {
+        return segments;
+    }
+
+    public void setSegments(final int segments) {
+        this.segments = segments;
+    }
+
+    public int getRecoveryThreads() {
+        return recoveryThreads;
+    }
+
+    public void setRecoveryThreads(final int recoveryThreads) {
+        this.recoveryThreads = recoveryThreads;
+    }
+
+    public int getLogFileSize() {
+        return logFileSize;
+    }
+
+    public void setLogFileSize(final int logFileSize) {
+        this.logFileSize = logFileSize;
+    }
+
+    public long getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    public void setCompactionThreshold(final long compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    public long getCompactionInterval() {
+        return Beans.newDuration(compactionInterval).toMillis();
+    }
+
+    public void setCompactionInterval(final String compactionInterval) {
+        this.compactionInterval = compactionInterval;
+    }
+
+    public long getGroupCommitInterval() {
+        return Beans.newDuration(groupCommitInterval).toMillis();
+    }
+
+    public void setGroupCommitInterval(final String groupCommitInterval) {
+        this.groupCommitInterval = groupCommitInterval;
+    }
+
+    public boolean isSynchronousWrites() {
+        return synchronousWrites;
+    }
+
+    public void setSynchronousWrites(final boolean synchronousWrites) {
+        this.synchronousWrites = synchronousWrites;
+    }
+
+    public boolean isKryoSerialization() {
+        return kryoSerialization;
+    }
+
+    public void setKryoSerialization(final boolean kryoSerialization) {
+        this.kryoSerialization = kryoSerialization;
+    }
+
+    public EncryptionRandomizedSigningJwtCryptographyProperties getCrypto() {
+        return crypto;
+    }
+
+    public void setCrypto(final EncryptionRandomizedSigningJwtCryptographyProperties crypto) {
+        this.crypto = crypto;
+    }
+}
@@ -36,6 +36,13 @@ public class JpaTicketRegistryProperties extends AbstractJpaProperties {
      */
     private String jpaLockingTimeout = DEFAULT_LOCK_TIMEOUT;
 
+    /**
+     * Whether ticket-granting tickets written before the principal id column was introduced
+     * should have it filled in at startup, so that sessions can be looked up by principal.
+     * Finding such tickets scans the table, so this may be turned off once they have all been migrated.
+     */
+    private boolean migratePrincipalIds = true;
+
     /**
      * Crypto settings for the registry.
      */
@@ -63,6 +70,14 @@ public class JpaTicketRegistryProperties extends AbstractJpaProperties {
         this.jpaLockingTimeout = jpaLockingTimeout;
     }
 
+    public boolean isMigratePrincipalIds() {
+        return migratePrincipalIds;
+    }
+
+    public void setMigratePrincipalIds(final boolean migratePrincipalIds) {
+        this.migratePrincipalIds = migratePrincipalIds;
+    }
+
     public LockModeType getTicketLockType() {
         return ticketLockType;
     }
@@ -1,8 +1,10 @@
 package org.apereo.cas.configuration.model.support.mfa;
 
+import org.apereo.cas.configuration.model.support.hazelcast.BaseHazelcastProperties;
 import org.apereo.cas.configuration.model.support.jpa.AbstractJpaProperties;
 import org.apereo.cas.configuration.model.support.mongo.SingleCollectionMongoDbProperties;
 import org.apereo.cas.configuration.model.support.quartz.ScheduledJobProperties;
+import org.apereo.cas.configuration.model.support.redis.BaseRedisProperties;
 import org.apereo.cas.configuration.support.RequiresModule;
 import org.apereo.cas.configuration.support.RequiredProperty;
 import org.apereo.cas.configuration.support.SpringResourceProperties;
@@ -68,6 +70,14 @@ public class GAuthMultifactorProperties extends BaseMultifactorProviderPropertie
      * Store google authenticator devices via a rest interface.
      */
     private Rest rest = new Rest();
+    /**
+     * Keep used tokens inside a Hazelcast cluster, shared by all CAS nodes, to prevent replay attacks.
+     */
+    private Hazelcast hazelcast = new Hazelcast();
+    /**
+     * Keep used tokens inside a Redis instance, shared by all CAS nodes, to prevent replay attacks.
+     */
+    private Redis redis = new Redis();
 
     /**
      * Control how stale expired tokens should be cleared from the underlying store.
@@ -87,6 +97,22 @@ public class GAuthMultifactorProperties extends BaseMultifactorProviderPropertie
         this.rest = rest;
     }
 
+    public Hazelcast getHazelcast() {
+        return hazelcast;
+    }
+
+    public void setHazelcast(final Hazelcast hazelcast) {
+        this.hazelcast = hazelcast;
+    }
+
+    public Redis getRedis() {
+        return redis;
+    }
+
+    public void setRedis(final Redis redis) {
+        this.redis = redis;
+    }
+
     public ScheduledJobProperties getCleaner() {
         return cleaner;
     }
@@ -163,6 +189,38 @@ public class GAuthMultifactorProperties extends BaseMultifactorProviderPropertie
         private static final long serialVersionUID = 4303355159388663888L;
     }
 
+    public static class Hazelcast extends BaseHazelcastProperties {
+        private static final long serialVersionUID = 2738151628315307146L;
+        /**
+         * Name of the distributed map where tokens are kept to prevent replay attacks.
+         */
+        private String mapName = "GoogleAuthenticatorTokenRepository";
+
+        public String getMapName() {
+            return mapName;
+        }
+
+        public void setMapName(final String mapName) {
+            this.mapName = mapName;
+        }
+    }
+
+    public static class Redis extends BaseRedisProperties {
+        private static final long serialVersionUID = -3417519630125488631L;
+        /**
+         * Key of the hash where tokens are kept to prevent replay attacks.
+         */
+        private String key = "GoogleAuthenticatorTokenRepository";
+
+        public String getKey() {
+            return key;
+        }
+
+        public void setKey(final String key) {
+            this.key = key;
+        }
+    }
+
     public static class Rest implements Serializable {
         private static final long serialVersionUID = 4518622579150572559L;
         /**
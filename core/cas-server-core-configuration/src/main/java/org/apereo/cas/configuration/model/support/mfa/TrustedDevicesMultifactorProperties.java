@@ -4,6 +4,7 @@ import org.apereo.cas.configuration.model.core.util.EncryptionJwtSigningJwtCrypt
 import org.apereo.cas.configuration.model.support.jpa.AbstractJpaProperties;
 import org.apereo.cas.configuration.model.support.mongo.SingleCollectionMongoDbProperties;
 import org.apereo.cas.configuration.model.support.quartz.ScheduledJobProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.configuration.support.RequiresModule;
 import org.apereo.cas.configuration.support.SpringResourceProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
@@ -42,6 +43,14 @@ public class TrustedDevicesMultifactorProperties implements Serializable {
      * Indicates the time unit by which record/devices are remembered as trusted devices.
      */
     private TimeUnit timeUnit = TimeUnit.DAYS;
+    /**
+     * Indicates how long a trusted device found for a principal is remembered by this CAS node,
+     * so that the principal signing in again from the same device is not looked up in storage.
+     * Devices that are not trusted are never remembered. Set to zero to always look up devices in storage.
+     * Only applies to JSON and in-memory storage; devices kept in storage shared by several nodes are always
+     * looked up, so that a device expired through one node is no longer trusted by the others.
+     */
+    private String cacheTimeToLive = "PT1M";
     /**
      * Store devices records via REST.
      */
@@ -72,6 +81,14 @@ public class TrustedDevicesMultifactorProperties implements Serializable {
     @NestedConfigurationProperty
     private EncryptionJwtSigningJwtCryptographyProperties crypto = new EncryptionJwtSigningJwtCryptographyProperties();
     
+    public long getCacheTimeToLive() {
+        return Beans.newDuration(cacheTimeToLive).toMillis();
+    }
+
+    public void setCacheTimeToLive(final String cacheTimeToLive) {
+        this.cacheTimeToLive = cacheTimeToLive;
+    }
+
     public Json getJson() {
         return json;
     }
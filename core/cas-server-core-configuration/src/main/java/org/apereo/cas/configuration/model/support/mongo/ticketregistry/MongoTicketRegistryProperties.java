@@ -19,6 +19,18 @@ public class MongoTicketRegistryProperties extends BaseMongoDbProperties {
     
     private static final long serialVersionUID = 8243690796900311918L;
 
+    /**
+     * Whether tickets should be stored as compact binary payloads alongside indexed
+     * ticket id, type, parent ticket-granting ticket id and expiration fields, rather than as JSON documents.
+     * Documents written in either mode remain readable after switching.
+     */
+    private boolean binaryStorage;
+
+    /**
+     * Number of documents fetched per round trip when tickets are enumerated in bulk.
+     */
+    private int streamBatchSize = 100;
+
     /**
      * Whether collections should be dropped on startup and re-created.
      */
@@ -50,4 +62,19 @@ public class MongoTicketRegistryProperties extends BaseMongoDbProperties {
         this.dropCollection = dropCollection;
     }
 
+    public int getStreamBatchSize() {
+        return streamBatchSize;
+    }
+
+    public void setStreamBatchSize(final int streamBatchSize) {
+        this.streamBatchSize = streamBatchSize;
+    }
+
+    public boolean isBinaryStorage() {
+        return binaryStorage;
+    }
+
+    public void setBinaryStorage(final boolean binaryStorage) {
+        this.binaryStorage = binaryStorage;
+    }
 }
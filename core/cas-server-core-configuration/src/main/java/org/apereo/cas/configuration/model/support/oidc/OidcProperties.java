@@ -1,5 +1,6 @@
 package org.apereo.cas.configuration.model.support.oidc;
 
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.configuration.support.RequiresModule;
 import org.apereo.cas.configuration.support.RequiredProperty;
 import org.apereo.cas.util.CollectionUtils;
@@ -25,6 +26,31 @@ public class OidcProperties implements Serializable {
      * Timeout that indicates how long should the JWKS file be kept in cache.
      */
     private int jwksCacheInMinutes = 60;
+    /**
+     * Maximum number of relying party keystores kept in cache.
+     * Should be at least the number of registered clients that encrypt tokens.
+     */
+    private long jwksCacheMaximumSize = 1000;
+    /**
+     * Timeout for establishing a connection to a relying party
+     * when its keystore is fetched over HTTP.
+     */
+    private String jwksConnectTimeout = "PT5S";
+    /**
+     * Timeout for reading the keystore of a relying party
+     * once the HTTP connection is established.
+     */
+    private String jwksReadTimeout = "PT10S";
+    /**
+     * Number of threads that refresh relying party keystores in the background.
+     */
+    private int jwksRefreshPoolSize = 2;
+    /**
+     * Maximum number of keystore refreshes waiting for a thread.
+     * Refreshes beyond this limit are skipped and attempted again on a later request,
+     * while the cached keys continue to be served.
+     */
+    private int jwksRefreshQueueSize = 100;
     /**
      * OIDC issuer.
      */
@@ -129,6 +155,14 @@ public class OidcProperties implements Serializable {
         this.dynamicClientRegistrationMode = dynamicClientRegistrationMode;
     }
 
+    public long getJwksCacheMaximumSize() {
+        return jwksCacheMaximumSize;
+    }
+
+    public void setJwksCacheMaximumSize(final long jwksCacheMaximumSize) {
+        this.jwksCacheMaximumSize = jwksCacheMaximumSize;
+    }
+
     public String getIssuer() {
         return issuer;
     }
@@ -145,6 +179,38 @@ public class OidcProperties implements Serializable {
         this.skew = skew;
     }
 
+    public long getJwksConnectTimeout() {
+        return Beans.newDuration(jwksConnectTimeout).toMillis();
+    }
+
+    public void setJwksConnectTimeout(final String jwksConnectTimeout) {
+        this.jwksConnectTimeout = jwksConnectTimeout;
+    }
+
+    public long getJwksReadTimeout() {
+        return Beans.newDuration(jwksReadTimeout).toMillis();
+    }
+
+    public void setJwksReadTimeout(final String jwksReadTimeout) {
+        this.jwksReadTimeout = jwksReadTimeout;
+    }
+
+    public int getJwksRefreshPoolSize() {
+        return jwksRefreshPoolSize;
+    }
+
+    public void setJwksRefreshPoolSize(final int jwksRefreshPoolSize) {
+        this.jwksRefreshPoolSize = jwksRefreshPoolSize;
+    }
+
+    public int getJwksRefreshQueueSize() {
+        return jwksRefreshQueueSize;
+    }
+
+    public void setJwksRefreshQueueSize(final int jwksRefreshQueueSize) {
+        this.jwksRefreshQueueSize = jwksRefreshQueueSize;
+    }
+
     public Resource getJwksFile() {
         return jwksFile;
     }
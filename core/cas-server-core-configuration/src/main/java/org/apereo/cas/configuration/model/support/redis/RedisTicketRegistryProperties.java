@@ -1,6 +1,7 @@
 package org.apereo.cas.configuration.model.support.redis;
 
 import org.apereo.cas.configuration.model.core.util.EncryptionRandomizedSigningJwtCryptographyProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.configuration.support.RequiresModule;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
@@ -14,6 +15,19 @@ import org.springframework.boot.context.properties.NestedConfigurationProperty;
 public class RedisTicketRegistryProperties extends BaseRedisProperties {
     private static final long serialVersionUID = -2600996050439638782L;
 
+    /**
+     * Whether ticket values kept in Redis should be encoded via Kryo rather than JDK serialization.
+     * Existing keys are not readable once this is switched, so flush the database or let
+     * the tickets expire when changing it on a running deployment.
+     */
+    private boolean kryoSerialization;
+
+    /**
+     * How often the ticket counters are reconciled with the tickets in Redis,
+     * to account for tickets that Redis has expired on its own. Set to zero to disable.
+     */
+    private String counterReconciliationInterval = "PT5M";
+
     /**
      * Crypto settings for the registry.
      */
@@ -32,4 +46,19 @@ public class RedisTicketRegistryProperties extends BaseRedisProperties {
         this.crypto = crypto;
     }
 
+    public boolean isKryoSerialization() {
+        return kryoSerialization;
+    }
+
+    public void setKryoSerialization(final boolean kryoSerialization) {
+        this.kryoSerialization = kryoSerialization;
+    }
+
+    public long getCounterReconciliationInterval() {
+        return Beans.newDuration(counterReconciliationInterval).toMillis();
+    }
+
+    public void setCounterReconciliationInterval(final String counterReconciliationInterval) {
+        this.counterReconciliationInterval = counterReconciliationInterval;
+    }
 }
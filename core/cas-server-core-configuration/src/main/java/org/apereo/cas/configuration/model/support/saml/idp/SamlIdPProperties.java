@@ -1,5 +1,6 @@
 package org.apereo.cas.configuration.model.support.saml.idp;
 
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.configuration.support.RequiredProperty;
 import org.apereo.cas.configuration.support.RequiresModule;
 import org.springframework.core.io.FileSystemResource;
@@ -160,6 +161,12 @@ public class SamlIdPProperties implements Serializable {
          */
         private String privateKeyAlgName = "RSA";
 
+        /**
+         * How often the signing key and certificate files are checked for changes.
+         * Until the interval has passed, the credentials read last are used without looking at the files.
+         */
+        private String signingCredentialCheckInterval = "PT5S";
+
         /**
          * Basic auth username in case the metadata instance is connecting to an MDQ server.
          */
@@ -173,6 +180,14 @@ public class SamlIdPProperties implements Serializable {
          */
         private List<String> supportedContentTypes = new ArrayList<>();
 
+        public long getSigningCredentialCheckInterval() {
+            return Beans.newDuration(signingCredentialCheckInterval).toMillis();
+        }
+
+        public void setSigningCredentialCheckInterval(final String signingCredentialCheckInterval) {
+            this.signingCredentialCheckInterval = signingCredentialCheckInterval;
+        }
+
         public boolean isFailFast() {
             return failFast;
         }
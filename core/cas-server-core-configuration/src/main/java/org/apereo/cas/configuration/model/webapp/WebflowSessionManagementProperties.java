@@ -1,6 +1,7 @@
 package org.apereo.cas.configuration.model.webapp;
 
 import org.apereo.cas.configuration.support.Beans;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 
@@ -49,6 +50,12 @@ public class WebflowSessionManagementProperties implements Serializable {
      */
     private Resource hzLocation = new ClassPathResource("hazelcast.xml");
 
+    /**
+     * Settings that control how flow execution snapshots are kept in a server-side state store.
+     */
+    @NestedConfigurationProperty
+    private WebflowStateStoreProperties stateStore = new WebflowStateStoreProperties();
+
     public long getLockTimeout() {
         return Beans.newDuration(lockTimeout).getSeconds();
     }
@@ -88,4 +95,12 @@ public class WebflowSessionManagementProperties implements Serializable {
     public void setHzLocation(final Resource hzLocation) {
         this.hzLocation = hzLocation;
     }
+
+    public WebflowStateStoreProperties getStateStore() {
+        return stateStore;
+    }
+
+    public void setStateStore(final WebflowStateStoreProperties stateStore) {
+        this.stateStore = stateStore;
+    }
 }
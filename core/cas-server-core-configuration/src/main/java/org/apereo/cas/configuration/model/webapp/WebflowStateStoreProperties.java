@@ -0,0 +1,72 @@
+package org.apereo.cas.configuration.model.webapp;
+
+import org.apereo.cas.configuration.support.Beans;
+import org.apereo.cas.util.CollectionUtils;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * This is {@link WebflowStateStoreProperties}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class WebflowStateStoreProperties implements Serializable {
+    private static final long serialVersionUID = -3406217325438297520L;
+
+    /**
+     * Whether flow execution snapshots should be kept in a server-side state store,
+     * handing out only a short random identifier as the flow execution key.
+     * Takes precedence over client-side state but not over servlet session storage.
+     */
+    private boolean enabled;
+
+    /**
+     * How long a stored flow execution snapshot remains valid after it was last written.
+     */
+    private String timeToLive = "PT15M";
+
+    /**
+     * Maximum number of snapshots kept by the default in-memory state store.
+     */
+    private long maximumSize = 100_000;
+
+    /**
+     * Package prefixes of the classes that may be read back from a stored flow execution snapshot.
+     * Snapshots that reference any other class are rejected before the class is instantiated.
+     */
+    private List<String> allowedPackages = CollectionUtils.wrapList("java.", "javax.", "org.apereo.", "org.springframework.", "org.pac4j.");
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getTimeToLive() {
+        return Beans.newDuration(timeToLive).getSeconds();
+    }
+
+    public void setTimeToLive(final String timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(final long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public List<String> getAllowedPackages() {
+        return allowedPackages;
+    }
+
+    public void setAllowedPackages(final List<String> allowedPackages) {
+        this.allowedPackages = allowedPackages;
+    }
+}
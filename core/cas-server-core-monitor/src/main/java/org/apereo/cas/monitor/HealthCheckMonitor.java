@@ -1,26 +1,68 @@
 package org.apereo.cas.monitor;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Simple health check monitor that reports the overall health as the greatest reported
  * {@link StatusCode} of an arbitrary number of individual checks.
+ * <p>
+ * Monitors are observed in parallel, each on a thread of its own, and are given a fixed amount of time
+ * to report back. A monitor that does not report back in time is reported with a {@link StatusCode#WARN}
+ * status, and is left to finish in the background; it is not observed again until it has, so that a monitor
+ * that hangs holds on to a single thread at most. Results may be reused for a while, in which case stale
+ * results are reported while monitors are observed again in the background, so that a burst of health checks
+ * does not turn into a burst of checks against the systems being monitored.
  *
  * @author Marvin S. Addison
  * @since 3.5.0
  */
-public class HealthCheckMonitor implements Monitor<HealthStatus> {
+public class HealthCheckMonitor implements Monitor<HealthStatus>, DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(HealthCheckMonitor.class);
+
+    private static final long DEFAULT_TIMEOUT = 5000;
+
     /**
      * Individual monitors that comprise health check.
      */
     private final Set<Monitor> monitors;
 
+    private final long timeout;
+    private final long cacheTimeToLive;
+    private final ExecutorService executor;
+    private final Map<String, Future<Observation>> observations = new ConcurrentHashMap<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile HealthStatus lastStatus;
+    private volatile long lastObservedAt;
+
     public HealthCheckMonitor(final Set<Monitor> monitors) {
+        this(monitors, DEFAULT_TIMEOUT, 0);
+    }
+
+    public HealthCheckMonitor(final Set<Monitor> monitors, final long timeout, final long cacheTimeToLive) {
         this.monitors = monitors;
+        this.timeout = timeout;
+        this.cacheTimeToLive = cacheTimeToLive;
+        this.executor = Executors.newCachedThreadPool(r -> {
+            final Thread thread = new Thread(r, getClass().getSimpleName());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     @Override
@@ -30,12 +72,82 @@ public class HealthCheckMonitor implements Monitor<HealthStatus> {
 
     @Override
     public HealthStatus observe() {
-        final Map<String, Status> results = this.monitors.stream()
-                .collect(Collectors.toMap(Monitor::getName, HealthCheckMonitor::getResultOf, (v1, v2) -> {
-                    throw new IllegalStateException(String.format("Duplicate key %s", v1));
-                }, LinkedHashMap::new));
+        final HealthStatus cached = this.lastStatus;
+        if (cached == null || this.cacheTimeToLive <= 0) {
+            return refresh();
+        }
+        if (System.currentTimeMillis() - this.lastObservedAt >= this.cacheTimeToLive && this.refreshing.compareAndSet(false, true)) {
+            LOGGER.trace("Health status is older than [{}] ms and will be refreshed in the background", this.cacheTimeToLive);
+            this.executor.execute(() -> {
+                try {
+                    refresh();
+                } finally {
+                    this.refreshing.set(false);
+                }
+            });
+        }
+        return cached;
+    }
+
+    @Override
+    public void destroy() {
+        this.executor.shutdownNow();
+    }
+
+    private HealthStatus refresh() {
+        final long start = System.currentTimeMillis();
+        final long deadline = start + this.timeout;
+
+        final Map<String, Future<Observation>> pending = new LinkedHashMap<>();
+        this.monitors.forEach(monitor -> {
+            if (pending.put(monitor.getName(), submit(monitor)) != null) {
+                throw new IllegalStateException(String.format("Duplicate key %s", monitor.getName()));
+            }
+        });
 
-        return new HealthStatus(getWorstStatusFrom(results), results);
+        final Map<String, Status> results = new LinkedHashMap<>();
+        final Map<String, Long> latencies = new LinkedHashMap<>();
+        pending.forEach((name, observation) -> {
+            final Observation result = getResultOf(name, observation, deadline, start);
+            results.put(name, result.status);
+            latencies.put(name, result.latency);
+        });
+
+        final HealthStatus status = new HealthStatus(getWorstStatusFrom(results), results, latencies);
+        this.lastStatus = status;
+        this.lastObservedAt = System.currentTimeMillis();
+        return status;
+    }
+
+    /**
+     * Observe the monitor on a thread of its own, unless an earlier observation
+     * of the monitor is still running, in which case that one is waited on instead.
+     */
+    private Future<Observation> submit(final Monitor monitor) {
+        return this.observations.compute(monitor.getName(), (name, previous) -> previous != null && !previous.isDone()
+                ? previous
+                : this.executor.submit(() -> {
+                    final long start = System.currentTimeMillis();
+                    final Status status = getResultOf(monitor);
+                    return new Observation(status, System.currentTimeMillis() - start);
+                }));
+    }
+
+    private Observation getResultOf(final String name, final Future<Observation> observation, final long deadline, final long start) {
+        try {
+            return observation.get(Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+        } catch (final TimeoutException e) {
+            LOGGER.warn("Monitor [{}] did not report back within [{}] ms", name, this.timeout);
+            return new Observation(new Status(StatusCode.WARN, String.format("Monitor did not report back within %s ms", this.timeout)),
+                    System.currentTimeMillis() - start);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Observation(new Status(StatusCode.UNKNOWN, "Interrupted while waiting for the monitor to report back"),
+                    System.currentTimeMillis() - start);
+        } catch (final ExecutionException e) {
+            return new Observation(new Status(StatusCode.ERROR, e.getCause().getClass().getSimpleName() + ": " + e.getCause().getMessage()),
+                    System.currentTimeMillis() - start);
+        }
     }
 
     private static StatusCode getWorstStatusFrom(final Map<String, Status> results) {
@@ -52,4 +164,17 @@ public class HealthCheckMonitor implements Monitor<HealthStatus> {
             return new Status(StatusCode.ERROR, e.getClass().getSimpleName() + ": " + e.getMessage());
         }
     }
+
+    /**
+     * The status a monitor reported, along with how long it took to report it.
+     */
+    private static class Observation {
+        private final Status status;
+        private final long latency;
+
+        Observation(final Status status, final long latency) {
+            this.status = status;
+            this.latency = latency;
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package org.apereo.cas.monitor;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -14,6 +15,9 @@ public class HealthStatus extends Status {
     /** Map of names (e.g. monitor that produced it) to status information. */
     private Map<String, Status> details;
 
+    /** Map of names to the time in milliseconds it took to produce their status information. */
+    private Map<String, Long> latencies;
+
     /**
      * Creates a new status object with the given code.
      *
@@ -23,8 +27,21 @@ public class HealthStatus extends Status {
      * @see #getCode()
      */
     public HealthStatus(final StatusCode code, final Map<String, Status> detailMap) {
+        this(code, detailMap, new HashMap<>(0));
+    }
+
+    /**
+     * Creates a new status object with the given code.
+     *
+     * @param code Status code.
+     * @param detailMap Map of names to status information.
+     * @param latencyMap Map of names to the time in milliseconds it took to produce their status information.
+     * @see #getCode()
+     */
+    public HealthStatus(final StatusCode code, final Map<String, Status> detailMap, final Map<String, Long> latencyMap) {
         super(code);
-        this.details = new HashMap<>(detailMap);
+        this.details = new LinkedHashMap<>(detailMap);
+        this.latencies = new LinkedHashMap<>(latencyMap);
     }
 
     /**
@@ -35,4 +52,13 @@ public class HealthStatus extends Status {
     public Map<String, Status> getDetails() {
         return this.details;
     }
+
+    /**
+     * Gets the time it took to produce the status details, where known.
+     *
+     * @return Map of named status items to the time in milliseconds it took to produce them.
+     */
+    public Map<String, Long> getLatencies() {
+        return this.latencies;
+    }
 }
@@ -38,7 +38,7 @@ public class SessionMonitor implements Monitor<SessionStatus> {
             final long sessionCount = this.registryState.sessionCount();
             final long ticketCount = this.registryState.serviceTicketCount();
 
-            if (sessionCount == Integer.MIN_VALUE || ticketCount == Integer.MIN_VALUE) {
+            if (isUnknown(sessionCount) || isUnknown(ticketCount)) {
                 return new SessionStatus(StatusCode.UNKNOWN,
                                          String.format("Ticket registry %s reports unknown session and/or ticket counts.",
                                          this.registryState.getClass().getName()),
@@ -68,4 +68,11 @@ public class SessionMonitor implements Monitor<SessionStatus> {
             return new SessionStatus(StatusCode.ERROR, e.getMessage());
         }
     }
+
+    /**
+     * Registries report counts they are unable to provide as the smallest value of either type.
+     */
+    private static boolean isUnknown(final long count) {
+        return count == Long.MIN_VALUE || count == Integer.MIN_VALUE;
+    }
 }
@@ -0,0 +1,41 @@
+package org.apereo.cas.monitor;
+
+import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * This is {@link TicketRegistryMetrics}.
+ * Publishes the number of sessions and service tickets held by the ticket registry as gauges.
+ * Counts that the registry reports as unknown are left out.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class TicketRegistryMetrics implements PublicMetrics {
+    private static final String PREFIX = "gauge.cas.tickets.";
+
+    private final TicketRegistry ticketRegistry;
+
+    public TicketRegistryMetrics(final TicketRegistry ticketRegistry) {
+        this.ticketRegistry = ticketRegistry;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        final List<Metric<?>> metrics = new ArrayList<>();
+        addIfKnown(metrics, PREFIX + "sessions", this.ticketRegistry.sessionCount());
+        addIfKnown(metrics, PREFIX + "serviceTickets", this.ticketRegistry.serviceTicketCount());
+        return metrics;
+    }
+
+    private static void addIfKnown(final List<Metric<?>> metrics, final String name, final long count) {
+        if (count != Long.MIN_VALUE && count != Integer.MIN_VALUE) {
+            metrics.add(new Metric<>(name, count));
+        }
+    }
+}
@@ -6,11 +6,13 @@ import org.apereo.cas.monitor.HealthCheckMonitor;
 import org.apereo.cas.monitor.MemoryMonitor;
 import org.apereo.cas.monitor.Monitor;
 import org.apereo.cas.monitor.SessionMonitor;
+import org.apereo.cas.monitor.TicketRegistryMetrics;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ConfigurableApplicationContext;
@@ -69,6 +71,12 @@ public class CasCoreMonitorConfiguration {
             LOGGER.debug("Session monitor is disabled from the configuration");
         }
 
-        return new HealthCheckMonitor(monitors);
+        return new HealthCheckMonitor(monitors, casProperties.getMonitor().getTimeout(), casProperties.getMonitor().getCacheTimeToLive());
+    }
+
+    @ConditionalOnMissingBean(name = "ticketRegistryMetrics")
+    @Bean
+    public PublicMetrics ticketRegistryMetrics() {
+        return new TicketRegistryMetrics(ticketRegistry);
     }
 }
@@ -6,6 +6,9 @@ import org.junit.Test;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.Arrays.asList;
 import static org.junit.Assert.*;
@@ -56,6 +59,64 @@ public class HealthCheckMonitorTests {
         assertEquals(StatusCode.ERROR, monitor.observe().getCode());
     }
 
+    @Test
+    public void verifySlowMonitorIsReportedAsWarning() {
+        final CountDownLatch release = new CountDownLatch(1);
+        final Monitor hangs = newMonitor("Hangs", () -> {
+            release.await();
+            return Status.OK;
+        });
+        final HealthCheckMonitor monitor = new HealthCheckMonitor(new HashSet<>(asList(hangs, new MemoryMonitor(0))), 100, 0);
+        try {
+            final long start = System.currentTimeMillis();
+            final HealthStatus status = monitor.observe();
+            assertTrue(System.currentTimeMillis() - start < 2000);
+            assertEquals(StatusCode.WARN, status.getCode());
+            assertEquals(StatusCode.WARN, status.getDetails().get("Hangs").getCode());
+            assertEquals(StatusCode.OK, status.getDetails().get(MemoryMonitor.class.getSimpleName()).getCode());
+            assertTrue(status.getLatencies().get("Hangs") >= 100);
+        } finally {
+            release.countDown();
+            monitor.destroy();
+        }
+    }
+
+    @Test
+    public void verifyResultsAreReusedWithinTimeToLive() {
+        final AtomicInteger observations = new AtomicInteger();
+        final Monitor counting = newMonitor("Counting", () -> {
+            observations.incrementAndGet();
+            return Status.OK;
+        });
+        final HealthCheckMonitor monitor = new HealthCheckMonitor(Collections.singleton(counting), 1000, 60_000);
+        try {
+            for (int i = 0; i < 10; i++) {
+                assertEquals(StatusCode.OK, monitor.observe().getCode());
+            }
+            assertEquals(1, observations.get());
+        } finally {
+            monitor.destroy();
+        }
+    }
+
+    private static Monitor newMonitor(final String name, final Callable<Status> observation) {
+        return new Monitor() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Status observe() {
+                try {
+                    return observation.call();
+                } catch (final Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+    }
+
     private static SessionMonitor newSessionMonitor() {
         return new SessionMonitor(new DefaultTicketRegistry(), 0, 0);
     }
@@ -12,6 +12,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -34,11 +35,16 @@ public class RegisteredServiceMappedRegexAttributeFilter implements RegisteredSe
     private boolean completeMatch;
     private int order;
 
+    /**
+     * Patterns compiled once per expression, rather than every time attributes are filtered.
+     */
+    private transient Map<String, Pattern> compiledPatterns;
+
     public RegisteredServiceMappedRegexAttributeFilter() {
     }
 
     public RegisteredServiceMappedRegexAttributeFilter(final Map<String, String> patterns) {
-        this.patterns = patterns;
+        setPatterns(patterns);
     }
 
     @Override
@@ -56,7 +62,7 @@ public class RegisteredServiceMappedRegexAttributeFilter implements RegisteredSe
                     final String attributeName = entry.getKey();
                     if (patterns.containsKey(attributeName)) {
                         final Set<Object> attributeValues = CollectionUtils.toCollection(entry.getValue());
-                        final Pattern pattern = RegexUtils.createPattern(patterns.get(attributeName));
+                        final Pattern pattern = getCompiledPattern(patterns.get(attributeName));
                         LOGGER.debug("Found attribute [{}] in the pattern definitions. Processing pattern [{}]", attributeName, pattern.pattern());
                         final List<Object> filteredValues = filterAttributeValuesByPattern(attributeValues, pattern);
                         LOGGER.debug("Filtered attribute values for [{}] are [{}]", attributeName, filteredValues);
@@ -100,6 +106,16 @@ public class RegisteredServiceMappedRegexAttributeFilter implements RegisteredSe
                 .collect(Collectors.toList());
     }
 
+    private Pattern getCompiledPattern(final String regex) {
+        if (this.compiledPatterns == null) {
+            this.compiledPatterns = new ConcurrentHashMap<>();
+        }
+        if (regex == null) {
+            return RegexUtils.createPattern(regex);
+        }
+        return this.compiledPatterns.computeIfAbsent(regex, RegexUtils::createPattern);
+    }
+
     @Override
     public int getOrder() {
         return order;
@@ -115,6 +131,10 @@ public class RegisteredServiceMappedRegexAttributeFilter implements RegisteredSe
 
     public void setPatterns(final Map<String, String> patterns) {
         this.patterns = patterns;
+        this.compiledPatterns = new ConcurrentHashMap<>();
+        if (patterns != null) {
+            patterns.values().forEach(this::getCompiledPattern);
+        }
     }
 
     public boolean isExcludeUnmappedAttributes() {
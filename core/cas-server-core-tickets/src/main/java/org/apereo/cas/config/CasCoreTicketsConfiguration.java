@@ -22,18 +22,25 @@ import org.apereo.cas.ticket.factory.DefaultProxyTicketFactory;
 import org.apereo.cas.ticket.factory.DefaultServiceTicketFactory;
 import org.apereo.cas.ticket.factory.DefaultTicketFactory;
 import org.apereo.cas.ticket.factory.DefaultTicketGrantingTicketFactory;
+import org.apereo.cas.ticket.factory.StatelessServiceTicketFactory;
 import org.apereo.cas.ticket.proxy.ProxyGrantingTicketFactory;
 import org.apereo.cas.ticket.proxy.ProxyHandler;
 import org.apereo.cas.ticket.proxy.ProxyTicketFactory;
 import org.apereo.cas.ticket.proxy.support.Cas10ProxyHandler;
 import org.apereo.cas.ticket.proxy.support.Cas20ProxyHandler;
+import org.apereo.cas.ticket.registry.AbstractTicketRegistry;
 import org.apereo.cas.ticket.registry.CachingTicketRegistry;
 import org.apereo.cas.ticket.registry.DefaultTicketRegistry;
 import org.apereo.cas.ticket.registry.DefaultTicketRegistrySupport;
+import org.apereo.cas.ticket.registry.InMemoryTicketRegistrySessionIndex;
 import org.apereo.cas.ticket.registry.NoOpLockingStrategy;
+import org.apereo.cas.ticket.registry.OffHeapTicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistrySupport;
 import org.apereo.cas.ticket.registry.support.LockingStrategy;
+import org.apereo.cas.ticket.stateless.ServiceTicketReplayFilter;
+import org.apereo.cas.ticket.stateless.StatelessServiceTicketCodec;
+import org.apereo.cas.ticket.stateless.TimePartitionedServiceTicketReplayFilter;
 import org.apereo.cas.ticket.support.AlwaysExpiresExpirationPolicy;
 import org.apereo.cas.ticket.support.HardTimeoutExpirationPolicy;
 import org.apereo.cas.ticket.support.MultiTimeUseOrTimeoutExpirationPolicy;
@@ -182,12 +189,37 @@ public class CasCoreTicketsConfiguration implements TransactionManagementConfigu
     @Lazy
     public ServiceTicketFactory defaultServiceTicketFactory() {
         final boolean onlyTrackMostRecentSession = casProperties.getTicket().getTgt().isOnlyTrackMostRecentSession();
+        if (casProperties.getTicket().getSt().isStateless()) {
+            if (casProperties.getTicket().getCrypto().isEnabled()) {
+                LOGGER.debug("Service tickets will be issued as self-contained tokens");
+                return new StatelessServiceTicketFactory(serviceTicketExpirationPolicy(),
+                        onlyTrackMostRecentSession,
+                        statelessServiceTicketCodec());
+            }
+            LOGGER.warn("Stateless service tickets require protocol ticket signing and encryption to be enabled; "
+                    + "Service tickets will be tracked by the ticket registry instead.");
+        }
         return new DefaultServiceTicketFactory(serviceTicketExpirationPolicy(),
                 uniqueIdGeneratorsMap,
                 onlyTrackMostRecentSession,
                 protocolTicketCipherExecutor());
     }
 
+    @ConditionalOnMissingBean(name = "serviceTicketReplayFilter")
+    @Bean
+    public ServiceTicketReplayFilter serviceTicketReplayFilter() {
+        return new TimePartitionedServiceTicketReplayFilter(casProperties.getTicket().getSt().getTimeToKillInSeconds());
+    }
+
+    @ConditionalOnMissingBean(name = "statelessServiceTicketCodec")
+    @Bean
+    public StatelessServiceTicketCodec statelessServiceTicketCodec() {
+        return new StatelessServiceTicketCodec(protocolTicketCipherExecutor(),
+                serviceTicketReplayFilter(),
+                serviceTicketExpirationPolicy(),
+                casProperties.getTicket().getSt().getNumberOfUses());
+    }
+
     @ConditionalOnMissingBean(name = "defaultTicketGrantingTicketFactory")
     @Bean
     public TicketGrantingTicketFactory defaultTicketGrantingTicketFactory() {
@@ -229,7 +261,18 @@ public class CasCoreTicketsConfiguration implements TransactionManagementConfigu
             final LogoutManager logoutManager = applicationContext.getBean("logoutManager", LogoutManager.class);
             return new CachingTicketRegistry(cipher, logoutManager);
         }
-        return new DefaultTicketRegistry(mem.getInitialCapacity(), mem.getLoadFactor(), mem.getConcurrency(), cipher);
+        final TicketRegistryProperties.OffHeap offHeap = mem.getOffHeap();
+        final AbstractTicketRegistry registry;
+        if (offHeap.isEnabled()) {
+            registry = new OffHeapTicketRegistry(offHeap.getSegments(), offHeap.getPageSize(),
+                    offHeap.getInitialCapacity(), offHeap.getHotSetMaximumSize(), cipher);
+        } else {
+            registry = new DefaultTicketRegistry(mem.getInitialCapacity(), mem.getLoadFactor(), mem.getConcurrency(), cipher);
+        }
+        if (casProperties.getTicket().getRegistry().isIndexSessions()) {
+            registry.setSessionIndex(new InMemoryTicketRegistrySessionIndex());
+        }
+        return registry;
     }
 
     @ConditionalOnMissingBean(name = "defaultTicketRegistrySupport")
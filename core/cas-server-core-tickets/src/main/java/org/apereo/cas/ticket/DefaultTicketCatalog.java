@@ -13,6 +13,11 @@ import java.util.stream.Collectors;
 
 /**
  * This is {@link DefaultTicketCatalog}.
+ * <p>
+ * Definitions are registered while the catalog is being configured, and looked up on every
+ * registry operation from then on. Each registration rebuilds a lookup that is never changed
+ * afterwards, keyed by prefix and holding the definitions in order, so that lookups neither
+ * lock nor scan the catalog.
  *
  * @author Misagh Moayyed
  * @since 5.1.0
@@ -22,45 +27,47 @@ public class DefaultTicketCatalog implements TicketCatalog {
 
     private final Map<String, TicketDefinition> ticketMetadataMap = new HashMap<>();
 
+    private volatile Lookup lookup = new Lookup(new HashMap<>(0));
+
     public DefaultTicketCatalog() {
     }
 
     @Override
     public TicketDefinition find(final String ticketId) {
-        final TicketDefinition defn = ticketMetadataMap.values()
-                .stream()
-                .filter(md -> ticketId.startsWith(md.getPrefix()))
-                .findFirst()
-                .orElse(null);
+        final TicketDefinition defn = this.lookup.findByTicketId(ticketId);
         if (defn == null) {
             LOGGER.error("Ticket definition for [{}] cannot be found in the ticket catalog "
                     + "which only contains the following ticket types: [{}]",
-                    ticketId, ticketMetadataMap.keySet());
+                    ticketId, this.lookup.byPrefix.keySet());
         }
         return defn;
     }
 
     @Override
     public TicketDefinition find(final Ticket ticket) {
-        LOGGER.debug("Locating ticket definition for ticket [{}]", ticket);
+        LOGGER.trace("Locating ticket definition for ticket [{}]", ticket);
+        final TicketDefinition defn = this.lookup.byPrefix.get(ticket.getPrefix());
+        if (defn != null) {
+            return defn;
+        }
         return find(ticket.getPrefix());
     }
 
     @Override
     public Collection<TicketDefinition> find(final Class<Ticket> ticketClass) {
-        final List list = ticketMetadataMap.values()
+        final List<TicketDefinition> list = this.lookup.ordered
                 .stream()
                 .filter(t -> t.getImplementationClass().isInstance(ticketClass))
                 .collect(Collectors.toList());
-        OrderComparator.sort(list);
         LOGGER.debug("Located all registered and known sorted ticket definitions [{}] that match [{}]", list, ticketClass);
         return list;
     }
 
     @Override
-    public void register(final TicketDefinition ticketDefinition) {
+    public synchronized void register(final TicketDefinition ticketDefinition) {
         LOGGER.debug("Registering/Updating ticket definition [{}]", ticketDefinition);
         ticketMetadataMap.put(ticketDefinition.getPrefix(), ticketDefinition);
+        this.lookup = new Lookup(ticketMetadataMap);
     }
 
     @Override
@@ -70,16 +77,54 @@ public class DefaultTicketCatalog implements TicketCatalog {
 
     @Override
     public boolean contains(final String ticketId) {
-        LOGGER.debug("Locating ticket definition for [{}]", ticketId);
-        return ticketMetadataMap.containsKey(ticketId);
+        LOGGER.trace("Locating ticket definition for [{}]", ticketId);
+        return this.lookup.byPrefix.containsKey(ticketId);
     }
 
     @Override
     public Collection<TicketDefinition> findAll() {
-        final List list = new ArrayList<>(ticketMetadataMap.values());
-        OrderComparator.sort(list);
-        LOGGER.debug("Located all registered and known sorted ticket definitions [{}]", list);
-        return list;
+        return new ArrayList<>(this.lookup.ordered);
     }
 
+    /**
+     * Definitions by prefix, along with the distinct prefix lengths from longest to shortest,
+     * so that a ticket id is matched by trying one prefix of each length rather than every definition.
+     * The longest matching prefix wins, so that a prefix that happens to begin another one
+     * does not capture its tickets.
+     */
+    private static class Lookup {
+        private final Map<String, TicketDefinition> byPrefix;
+        private final List<TicketDefinition> ordered;
+        private final int[] prefixLengths;
+
+        Lookup(final Map<String, TicketDefinition> definitions) {
+            this.byPrefix = new HashMap<>(definitions);
+            final List<TicketDefinition> list = new ArrayList<>(definitions.values());
+            OrderComparator.sort(list);
+            this.ordered = list;
+            this.prefixLengths = definitions.keySet()
+                    .stream()
+                    .mapToInt(String::length)
+                    .distinct()
+                    .map(length -> -length)
+                    .sorted()
+                    .map(length -> -length)
+                    .toArray();
+        }
+
+        TicketDefinition findByTicketId(final String ticketId) {
+            if (ticketId == null) {
+                return null;
+            }
+            for (final int length : this.prefixLengths) {
+                if (length <= ticketId.length()) {
+                    final TicketDefinition defn = this.byPrefix.get(ticketId.substring(0, length));
+                    if (defn != null) {
+                        return defn;
+                    }
+                }
+            }
+            return null;
+        }
+    }
 }
@@ -14,6 +14,7 @@ import javax.persistence.Column;
 import javax.persistence.DiscriminatorColumn;
 import javax.persistence.DiscriminatorValue;
 import javax.persistence.Entity;
+import javax.persistence.Index;
 import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
@@ -35,13 +36,18 @@ import java.util.Map;
  * @since 3.0.0
  */
 @Entity
-@Table(name = "TICKETGRANTINGTICKET")
+@Table(name = "TICKETGRANTINGTICKET", indexes = @Index(name = "TGT_PRINCIPAL_ID_IDX", columnList = "PRINCIPAL_ID"))
 @DiscriminatorColumn(name = "TYPE")
 @DiscriminatorValue(TicketGrantingTicket.PREFIX)
 @JsonIgnoreProperties(ignoreUnknown = true)
 @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.PROPERTY)
 public class TicketGrantingTicketImpl extends AbstractTicket implements TicketGrantingTicket {
 
+    /**
+     * Length of the principal id column.
+     */
+    public static final int PRINCIPAL_ID_LENGTH = 255;
+
     /**
      * Unique Id for serialization.
      */
@@ -54,6 +60,14 @@ public class TicketGrantingTicketImpl extends AbstractTicket implements TicketGr
     @Column(name = "AUTHENTICATION", nullable = false, length = Integer.MAX_VALUE)
     private Authentication authentication;
 
+    /**
+     * The id of the authenticated principal, kept apart from the authentication
+     * so that the sessions of a principal can be looked up. Ids that do not fit
+     * the column are cut short.
+     */
+    @Column(name = "PRINCIPAL_ID", length = PRINCIPAL_ID_LENGTH)
+    private String principalId;
+
     /**
      * Flag to enforce manual expiration.
      */
@@ -125,6 +139,9 @@ public class TicketGrantingTicketImpl extends AbstractTicket implements TicketGr
         Assert.notNull(authentication, "authentication cannot be null");
         this.ticketGrantingTicket = parentTicketGrantingTicket;
         this.authentication = authentication;
+        if (authentication.getPrincipal() != null) {
+            this.principalId = StringUtils.left(authentication.getPrincipal().getId(), PRINCIPAL_ID_LENGTH);
+        }
         this.proxiedBy = proxiedBy;
     }
 
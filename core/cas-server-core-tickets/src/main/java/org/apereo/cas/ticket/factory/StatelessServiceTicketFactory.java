@@ -0,0 +1,35 @@
+package org.apereo.cas.ticket.factory;
+
+import org.apereo.cas.authentication.principal.Service;
+import org.apereo.cas.ticket.ExpirationPolicy;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.stateless.StatelessServiceTicketCodec;
+
+import java.util.HashMap;
+
+/**
+ * The {@link StatelessServiceTicketFactory} creates service tickets whose id is a
+ * self-contained token produced by {@link StatelessServiceTicketCodec},
+ * so the ticket can be validated without being stored in the ticket registry.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class StatelessServiceTicketFactory extends DefaultServiceTicketFactory {
+
+    private final StatelessServiceTicketCodec statelessServiceTicketCodec;
+
+    public StatelessServiceTicketFactory(final ExpirationPolicy serviceTicketExpirationPolicy,
+                                         final boolean onlyTrackMostRecentSession,
+                                         final StatelessServiceTicketCodec statelessServiceTicketCodec) {
+        super(serviceTicketExpirationPolicy, new HashMap<>(0), onlyTrackMostRecentSession, null);
+        this.statelessServiceTicketCodec = statelessServiceTicketCodec;
+    }
+
+    @Override
+    public <T extends Ticket> T create(final TicketGrantingTicket ticketGrantingTicket, final Service service, final boolean credentialProvided) {
+        final String ticketId = this.statelessServiceTicketCodec.encode(ticketGrantingTicket, service, credentialProvided);
+        return produceTicket(ticketGrantingTicket, service, credentialProvided, ticketId);
+    }
+}
@@ -20,6 +20,7 @@ public abstract class AbstractMapBasedTicketRegistry extends AbstractTicketRegis
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractMapBasedTicketRegistry.class);
 
     public AbstractMapBasedTicketRegistry() {
+        setCounter(new InMemoryTicketRegistryCounter());
     }
 
     /**
@@ -29,6 +30,7 @@ public abstract class AbstractMapBasedTicketRegistry extends AbstractTicketRegis
      */
     public AbstractMapBasedTicketRegistry(final CipherExecutor cipherExecutor) {
         setCipherExecutor(cipherExecutor);
+        setCounter(new InMemoryTicketRegistryCounter());
     }
 
     @Override
@@ -36,7 +38,10 @@ public abstract class AbstractMapBasedTicketRegistry extends AbstractTicketRegis
         Assert.notNull(ticket, "ticket cannot be null");
         final Ticket encTicket = encodeTicket(ticket);
         LOGGER.debug("Added ticket [{}] to registry.", ticket.getId());
-        getMapInstance().put(encTicket.getId(), encTicket);
+        if (getMapInstance().put(encTicket.getId(), encTicket) == null) {
+            countTicket(ticket);
+        }
+        indexTicket(ticket);
     }
 
     @Override
@@ -49,7 +54,10 @@ public abstract class AbstractMapBasedTicketRegistry extends AbstractTicketRegis
         final Ticket result = decodeTicket(found);
         if (result != null && result.isExpired()) {
             LOGGER.debug("Ticket [{}] has expired and is now removed from the cache", result.getId());
-            getMapInstance().remove(encTicketId);
+            if (getMapInstance().remove(encTicketId) != null) {
+                uncountTicket(ticketId);
+            }
+            unindexTicket(result);
             return null;
         }
         return result;
@@ -61,13 +69,19 @@ public abstract class AbstractMapBasedTicketRegistry extends AbstractTicketRegis
         if (encTicketId == null) {
             return false;
         }
-        return getMapInstance().remove(encTicketId) != null;
+        if (getMapInstance().remove(encTicketId) == null) {
+            return false;
+        }
+        uncountTicket(ticketId);
+        return true;
     }
 
     @Override
     public long deleteAll() {
         final int size = getMapInstance().size();
         getMapInstance().clear();
+        clearSessionIndex();
+        clearCounter();
         return size;
     }
 
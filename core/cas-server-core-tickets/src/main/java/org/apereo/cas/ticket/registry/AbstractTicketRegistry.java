@@ -6,6 +6,8 @@ import org.apereo.cas.CipherExecutor;
 import org.apereo.cas.authentication.principal.Service;
 import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketCatalog;
+import org.apereo.cas.ticket.TicketDefinition;
 import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
 import org.apereo.cas.util.DigestUtils;
@@ -14,11 +16,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.Assert;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -40,6 +47,16 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
      */
     protected CipherExecutor cipherExecutor;
 
+    /**
+     * The index of sessions kept alongside the tickets, if any.
+     */
+    protected TicketRegistrySessionIndex sessionIndex;
+
+    /**
+     * The counter of sessions and service tickets kept alongside the tickets, if any.
+     */
+    protected TicketRegistryCounter counter;
+
     /**
      * Default constructor.
      */
@@ -74,6 +91,9 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
 
     @Override
     public long sessionCount() {
+        if (this.counter != null) {
+            return this.counter.getSessionCount();
+        }
         try {
             return getTickets().stream().filter(TicketGrantingTicket.class::isInstance).count();
         } catch (final Exception t) {
@@ -86,6 +106,9 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
 
     @Override
     public long serviceTicketCount() {
+        if (this.counter != null) {
+            return this.counter.getServiceTicketCount();
+        }
         try {
             return getTickets().stream().filter(ServiceTicket.class::isInstance).count();
         } catch (final Exception t) {
@@ -127,9 +150,29 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
             count.incrementAndGet();
         }
 
+        unindexTicket(ticket);
+
         return count.intValue();
     }
 
+    @Override
+    public Stream<TicketGrantingTicket> getSessionsFor(final String principalId) {
+        if (this.sessionIndex == null) {
+            return TicketRegistry.super.getSessionsFor(principalId);
+        }
+        final List<TicketGrantingTicket> sessions = new ArrayList<>();
+        this.sessionIndex.getSessions(principalId).forEach(ticketId -> {
+            final Ticket ticket = getTicket(ticketId);
+            if (ticket instanceof TicketGrantingTicket && !ticket.isExpired()) {
+                sessions.add((TicketGrantingTicket) ticket);
+            } else if (ticket == null) {
+                LOGGER.trace("Removing session [{}] of [{}] that is no longer in the registry from the index", ticketId, principalId);
+                this.sessionIndex.removeSession(principalId, ticketId);
+            }
+        });
+        return sessions.stream();
+    }
+
     /**
      * Delete tickets.
      *
@@ -175,21 +218,38 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
      */
 
     protected int deleteChildren(final TicketGrantingTicket ticket) {
-        final AtomicInteger count = new AtomicInteger(0);
+        final Set<String> children = new LinkedHashSet<>();
 
         // delete service tickets
         final Map<String, Service> services = ticket.getServices();
         if (services != null && !services.isEmpty()) {
-            services.keySet().stream().forEach(ticketId -> {
-                if (deleteSingleTicket(ticketId)) {
-                    LOGGER.debug("Removed ticket [{}]", ticketId);
-                    count.incrementAndGet();
-                } else {
-                    LOGGER.debug("Unable to remove ticket [{}]", ticketId);
-                }
-            });
+            children.addAll(services.keySet());
+        }
+        // and everything else issued on behalf of the session, if the registry keeps track of it
+        if (this.sessionIndex != null && ticket.isRoot()) {
+            children.addAll(this.sessionIndex.getDescendants(ticket.getId()));
         }
 
+        return deleteSingleTickets(children);
+    }
+
+    /**
+     * Delete a number of single ticket instances from the store.
+     * Registries that are able to remove many entries at once are expected to override this.
+     *
+     * @param ticketIds the ticket ids
+     * @return the number of tickets that were removed
+     */
+    protected int deleteSingleTickets(final Collection<String> ticketIds) {
+        final AtomicInteger count = new AtomicInteger(0);
+        ticketIds.forEach(ticketId -> {
+            if (deleteSingleTicket(ticketId)) {
+                LOGGER.debug("Removed ticket [{}]", ticketId);
+                count.incrementAndGet();
+            } else {
+                LOGGER.debug("Unable to remove ticket [{}]", ticketId);
+            }
+        });
         return count.intValue();
     }
 
@@ -205,6 +265,101 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
         this.cipherExecutor = cipherExecutor;
     }
 
+    public void setSessionIndex(final TicketRegistrySessionIndex sessionIndex) {
+        this.sessionIndex = sessionIndex;
+    }
+
+    public void setCounter(final TicketRegistryCounter counter) {
+        this.counter = counter;
+    }
+
+    /**
+     * Record the ticket in the session index, if the registry keeps one.
+     *
+     * @param ticket the ticket
+     */
+    protected void indexTicket(final Ticket ticket) {
+        if (this.sessionIndex != null) {
+            this.sessionIndex.index(ticket);
+        }
+    }
+
+    /**
+     * Remove the ticket from the session index, if the registry keeps one.
+     * Registries are expected to call this whenever they drop a ticket that they found to have expired.
+     *
+     * @param ticket the ticket
+     */
+    protected void unindexTicket(final Ticket ticket) {
+        if (this.sessionIndex != null && ticket != null) {
+            this.sessionIndex.remove(ticket);
+        }
+    }
+
+    /**
+     * Remove all entries from the session index, if the registry keeps one.
+     */
+    protected void clearSessionIndex() {
+        if (this.sessionIndex != null) {
+            this.sessionIndex.clear();
+        }
+    }
+
+    /**
+     * Count the ticket in, if the registry keeps a counter.
+     *
+     * @param ticket the ticket
+     */
+    protected void countTicket(final Ticket ticket) {
+        if (this.counter != null) {
+            this.counter.add(ticket);
+        }
+    }
+
+    /**
+     * Count the ticket out, if the registry keeps a counter.
+     *
+     * @param ticketId the ticket id
+     */
+    protected void uncountTicket(final String ticketId) {
+        if (this.counter != null) {
+            this.counter.remove(ticketId);
+        }
+    }
+
+    /**
+     * Reset the counter, if the registry keeps one.
+     */
+    protected void clearCounter() {
+        if (this.counter != null) {
+            this.counter.clear();
+        }
+    }
+
+    /**
+     * Count the tickets of the given type for registries that keep each type of ticket in a store
+     * of its own and are able to tell the size of a store without reading it.
+     * Stores shared by more than one type of ticket are counted once.
+     *
+     * @param <T>           the type of the store
+     * @param ticketCatalog the ticket catalog
+     * @param type          the type of ticket
+     * @param storeLocator  locates the store that holds tickets of a definition
+     * @param sizeOf        tells the size of a store
+     * @return the count
+     */
+    protected static <T> long countTickets(final TicketCatalog ticketCatalog, final Class<? extends Ticket> type,
+                                           final Function<TicketDefinition, T> storeLocator, final ToLongFunction<T> sizeOf) {
+        return ticketCatalog.findAll()
+                .stream()
+                .filter(definition -> type.isAssignableFrom(definition.getImplementationClass()))
+                .map(storeLocator)
+                .filter(Objects::nonNull)
+                .distinct()
+                .mapToLong(sizeOf)
+                .sum();
+    }
+
     /**
      * Encode ticket id into a SHA-512.
      *
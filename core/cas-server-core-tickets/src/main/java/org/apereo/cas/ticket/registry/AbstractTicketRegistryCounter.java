@@ -0,0 +1,120 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
+import org.apereo.cas.ticket.proxy.ProxyTicket;
+
+import java.util.Arrays;
+
+/**
+ * This is {@link AbstractTicketRegistryCounter} that works out what a ticket counts towards
+ * and leaves keeping the counts to subclasses.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public abstract class AbstractTicketRegistryCounter implements TicketRegistryCounter {
+
+    /**
+     * What a ticket counts towards.
+     */
+    protected enum Category {
+        /**
+         * Ticket-granting and proxy-granting tickets.
+         */
+        SESSION(TicketGrantingTicket.PREFIX, ProxyGrantingTicket.PROXY_GRANTING_TICKET_PREFIX),
+        /**
+         * Service and proxy tickets.
+         */
+        SERVICE_TICKET(ServiceTicket.PREFIX, ProxyTicket.PROXY_TICKET_PREFIX);
+
+        private final String[] prefixes;
+
+        Category(final String... prefixes) {
+            this.prefixes = prefixes;
+        }
+
+        /**
+         * Gets the prefixes of the ids of the tickets in the category.
+         *
+         * @return the prefixes
+         */
+        public String[] getPrefixes() {
+            return this.prefixes.clone();
+        }
+    }
+
+    @Override
+    public void add(final Ticket ticket) {
+        final Category category = categorize(ticket.getId());
+        if (category != null) {
+            add(category, ticket);
+        }
+    }
+
+    @Override
+    public void remove(final String ticketId) {
+        final Category category = categorize(ticketId);
+        if (category != null) {
+            remove(category, ticketId);
+        }
+    }
+
+    @Override
+    public long getSessionCount() {
+        return count(Category.SESSION);
+    }
+
+    @Override
+    public long getServiceTicketCount() {
+        return count(Category.SERVICE_TICKET);
+    }
+
+    /**
+     * Count the ticket in.
+     *
+     * @param category the category of the ticket
+     * @param ticket   the ticket
+     */
+    protected abstract void add(Category category, Ticket ticket);
+
+    /**
+     * Count the ticket out.
+     *
+     * @param category the category of the ticket
+     * @param ticketId the ticket id
+     */
+    protected abstract void remove(Category category, String ticketId);
+
+    /**
+     * Gets the number of tickets in the category.
+     *
+     * @param category the category
+     * @return the count
+     */
+    protected abstract long count(Category category);
+
+    /**
+     * Gets the prefix the ticket id starts with, out of the prefixes of the given category.
+     *
+     * @param category the category
+     * @param ticketId the ticket id
+     * @return the prefix, or null if the ticket id does not start with any
+     */
+    protected static String prefixOf(final Category category, final String ticketId) {
+        return Arrays.stream(category.prefixes).filter(prefix -> hasPrefix(ticketId, prefix)).findFirst().orElse(null);
+    }
+
+    private static Category categorize(final String ticketId) {
+        if (ticketId == null) {
+            return null;
+        }
+        return Arrays.stream(Category.values()).filter(category -> prefixOf(category, ticketId) != null).findFirst().orElse(null);
+    }
+
+    private static boolean hasPrefix(final String ticketId, final String prefix) {
+        return ticketId.length() > prefix.length() && ticketId.startsWith(prefix) && ticketId.charAt(prefix.length()) == '-';
+    }
+}
@@ -0,0 +1,125 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.CipherExecutor;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.util.DigestUtils;
+import org.apereo.cas.util.EncodingUtils;
+import org.apereo.cas.util.cipher.NoOpCipherExecutor;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This is {@link AbstractTicketRegistrySessionIndex} that works out where a ticket belongs in the index
+ * and leaves the storage of the entries to subclasses.
+ * <p>
+ * Indexes that are kept outside of this node are expected to look up entries by {@link #digest(String)}
+ * and to keep ids only in the form produced by {@link #encodeId(String)}, so that the index reveals no
+ * more about live tickets than the registry does when its tickets are encrypted.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public abstract class AbstractTicketRegistrySessionIndex implements TicketRegistrySessionIndex {
+
+    private final CipherExecutor cipherExecutor;
+
+    protected AbstractTicketRegistrySessionIndex() {
+        this(NoOpCipherExecutor.getInstance());
+    }
+
+    protected AbstractTicketRegistrySessionIndex(final CipherExecutor cipherExecutor) {
+        this.cipherExecutor = cipherExecutor;
+    }
+
+    @Override
+    public void index(final Ticket ticket) {
+        if (ticket instanceof TicketGrantingTicket && ((TicketGrantingTicket) ticket).isRoot()) {
+            final TicketGrantingTicket ticketGrantingTicket = (TicketGrantingTicket) ticket;
+            addSession(ticketGrantingTicket.getAuthentication().getPrincipal().getId(), ticketGrantingTicket);
+            return;
+        }
+        final TicketGrantingTicket parent = ticket.getGrantingTicket();
+        if (parent != null) {
+            addDescendant(parent.getRoot(), ticket.getId());
+        }
+    }
+
+    @Override
+    public void remove(final Ticket ticket) {
+        if (ticket instanceof TicketGrantingTicket && ((TicketGrantingTicket) ticket).isRoot()) {
+            final TicketGrantingTicket ticketGrantingTicket = (TicketGrantingTicket) ticket;
+            removeSession(ticketGrantingTicket.getAuthentication().getPrincipal().getId(), ticketGrantingTicket.getId());
+            return;
+        }
+        final TicketGrantingTicket parent = ticket.getGrantingTicket();
+        if (parent != null) {
+            removeDescendant(parent.getRoot().getId(), ticket.getId());
+        }
+    }
+
+    /**
+     * Record the session against the principal.
+     *
+     * @param principalId          the principal id
+     * @param ticketGrantingTicket the root ticket-granting ticket
+     */
+    protected abstract void addSession(String principalId, TicketGrantingTicket ticketGrantingTicket);
+
+    /**
+     * Record the ticket against the session.
+     *
+     * @param ticketGrantingTicket the root ticket-granting ticket
+     * @param ticketId             the ticket id
+     */
+    protected abstract void addDescendant(TicketGrantingTicket ticketGrantingTicket, String ticketId);
+
+    /**
+     * Remove the ticket from the session.
+     *
+     * @param ticketGrantingTicketId the root ticket-granting ticket id
+     * @param ticketId               the ticket id
+     */
+    protected abstract void removeDescendant(String ticketGrantingTicketId, String ticketId);
+
+    /**
+     * Digest the principal or ticket id into a key that entries can be looked up by,
+     * if ticket encryption is enabled.
+     *
+     * @param value the principal or ticket id
+     * @return the key
+     */
+    protected String digest(final String value) {
+        return isCipherExecutorEnabled() ? DigestUtils.sha512(value) : value;
+    }
+
+    /**
+     * Encrypt the ticket id to be kept in the index, if ticket encryption is enabled.
+     *
+     * @param ticketId the ticket id
+     * @return the encoded ticket id
+     */
+    protected String encodeId(final String ticketId) {
+        if (!isCipherExecutorEnabled()) {
+            return ticketId;
+        }
+        return EncodingUtils.encodeBase64((byte[]) this.cipherExecutor.encode(ticketId.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Decrypt the ticket id kept in the index, if ticket encryption is enabled.
+     *
+     * @param encodedId the encoded ticket id
+     * @return the ticket id
+     */
+    protected String decodeId(final String encodedId) {
+        if (!isCipherExecutorEnabled()) {
+            return encodedId;
+        }
+        return new String((byte[]) this.cipherExecutor.decode(EncodingUtils.decodeBase64(encodedId)), StandardCharsets.UTF_8);
+    }
+
+    private boolean isCipherExecutorEnabled() {
+        return this.cipherExecutor != null && this.cipherExecutor.isEnabled();
+    }
+}
@@ -57,6 +57,9 @@ public class CachingTicketRegistry extends AbstractMapBasedTicketRegistry {
     public class CachedTicketRemovalListener implements RemovalListener<String, Ticket> {
         @Override
         public void onRemoval(final String key, final Ticket value, final RemovalCause cause) {
+            if (cause.wasEvicted() && value != null) {
+                uncountTicket(decodeTicket(value).getId());
+            }
             if (cause == RemovalCause.EXPIRED) {
                 LOGGER.warn("Received removal notification for ticket [{}] with cause [{}]. Cleaning...", key, cause);
                 if (value instanceof TicketGrantingTicket) {
@@ -0,0 +1,45 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.ticket.Ticket;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This is {@link InMemoryTicketRegistryCounter} that keeps striped counters for registries whose tickets
+ * live in the memory of this node. Such registries see every ticket come and go, so they only count
+ * a ticket in when it is first stored and count it out when it is actually removed.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class InMemoryTicketRegistryCounter extends AbstractTicketRegistryCounter {
+    private final Map<Category, LongAdder> counters = new EnumMap<>(Category.class);
+
+    public InMemoryTicketRegistryCounter() {
+        for (final Category category : Category.values()) {
+            this.counters.put(category, new LongAdder());
+        }
+    }
+
+    @Override
+    protected void add(final Category category, final Ticket ticket) {
+        this.counters.get(category).increment();
+    }
+
+    @Override
+    protected void remove(final Category category, final String ticketId) {
+        this.counters.get(category).decrement();
+    }
+
+    @Override
+    protected long count(final Category category) {
+        return Math.max(this.counters.get(category).sum(), 0);
+    }
+
+    @Override
+    public void clear() {
+        this.counters.values().forEach(LongAdder::reset);
+    }
+}
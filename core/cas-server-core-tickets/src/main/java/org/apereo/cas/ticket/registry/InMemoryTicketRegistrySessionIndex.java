@@ -0,0 +1,72 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.ticket.TicketGrantingTicket;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This is {@link InMemoryTicketRegistrySessionIndex} that keeps the index in concurrent maps
+ * for registries whose tickets live in the memory of this node.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class InMemoryTicketRegistrySessionIndex extends AbstractTicketRegistrySessionIndex {
+    private final Map<String, Set<String>> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> descendants = new ConcurrentHashMap<>();
+
+    @Override
+    protected void addSession(final String principalId, final TicketGrantingTicket ticketGrantingTicket) {
+        this.sessions.compute(principalId, (k, ids) -> {
+            final Set<String> result = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+            result.add(ticketGrantingTicket.getId());
+            return result;
+        });
+    }
+
+    @Override
+    protected void addDescendant(final TicketGrantingTicket ticketGrantingTicket, final String ticketId) {
+        this.descendants.computeIfAbsent(ticketGrantingTicket.getId(), k -> ConcurrentHashMap.newKeySet()).add(ticketId);
+    }
+
+    @Override
+    protected void removeDescendant(final String ticketGrantingTicketId, final String ticketId) {
+        this.descendants.computeIfPresent(ticketGrantingTicketId, (k, ids) -> {
+            ids.remove(ticketId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    @Override
+    public Collection<String> getSessions(final String principalId) {
+        return copyOf(this.sessions.get(principalId));
+    }
+
+    @Override
+    public Collection<String> getDescendants(final String ticketGrantingTicketId) {
+        return copyOf(this.descendants.get(ticketGrantingTicketId));
+    }
+
+    @Override
+    public void removeSession(final String principalId, final String ticketGrantingTicketId) {
+        this.descendants.remove(ticketGrantingTicketId);
+        this.sessions.computeIfPresent(principalId, (k, ids) -> {
+            ids.remove(ticketGrantingTicketId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    @Override
+    public void clear() {
+        this.sessions.clear();
+        this.descendants.clear();
+    }
+
+    private static Collection<String> copyOf(final Set<String> ids) {
+        return ids == null ? new HashSet<>(0) : new HashSet<>(ids);
+    }
+}
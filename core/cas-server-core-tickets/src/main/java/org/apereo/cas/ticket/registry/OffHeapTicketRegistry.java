@@ -0,0 +1,165 @@
+package org.apereo.cas.ticket.registry;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.commons.lang3.StringUtils;
+import org.apereo.cas.CipherExecutor;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.registry.offheap.OffHeapTicketStore;
+import org.apereo.cas.util.cipher.NoOpCipherExecutor;
+import org.apereo.cas.util.serialization.BinarySerializer;
+import org.apereo.cas.util.serialization.JavaBinarySerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.Assert;
+
+import java.util.Collection;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This is {@link OffHeapTicketRegistry} that keeps tickets in memory, like {@link DefaultTicketRegistry},
+ * but outside the Java heap. Tickets are serialized into an {@link OffHeapTicketStore} and decoded again
+ * when asked for, so the size of the heap no longer grows with the number of active SSO sessions.
+ * A bounded set of recently used ticket-granting tickets is kept decoded on the heap, since those are
+ * read far more often than any other ticket type. The hot set is only ever filled or invalidated while the
+ * segment of the store that owns the ticket id is locked, so that a ticket removed from the store can never
+ * be put back into the hot set by a concurrent read.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class OffHeapTicketRegistry extends AbstractTicketRegistry implements DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OffHeapTicketRegistry.class);
+
+    private static final int DEFAULT_SEGMENTS = 16;
+    private static final int DEFAULT_PAGE_SIZE = 1024 * 1024;
+    private static final int DEFAULT_INITIAL_CAPACITY = 1000;
+    private static final int DEFAULT_HOT_SET_SIZE = 10_000;
+
+    private final OffHeapTicketStore store;
+    private final Cache<String, Ticket> hotSet;
+
+    private BinarySerializer<Ticket> ticketSerializer = new JavaBinarySerializer<>();
+
+    public OffHeapTicketRegistry() {
+        this(DEFAULT_SEGMENTS, DEFAULT_PAGE_SIZE, DEFAULT_INITIAL_CAPACITY, DEFAULT_HOT_SET_SIZE, NoOpCipherExecutor.getInstance());
+    }
+
+    public OffHeapTicketRegistry(final int segments, final int pageSize, final int initialCapacity,
+                                 final long hotSetMaximumSize, final CipherExecutor cipherExecutor) {
+        this.store = new OffHeapTicketStore(segments, pageSize, initialCapacity);
+        this.hotSet = Caffeine.newBuilder().maximumSize(hotSetMaximumSize).build();
+        setCipherExecutor(cipherExecutor);
+        setCounter(new InMemoryTicketRegistryCounter());
+    }
+
+    @Override
+    public void addTicket(final Ticket ticket) {
+        Assert.notNull(ticket, "ticket cannot be null");
+        final Ticket encTicket = encodeTicket(ticket);
+        final String encTicketId = encTicket.getId();
+        final boolean added = this.store.put(encTicketId, this.ticketSerializer.encode(encTicket), () -> {
+            if (ticket instanceof TicketGrantingTicket) {
+                this.hotSet.put(encTicketId, ticket);
+            } else {
+                this.hotSet.invalidate(encTicketId);
+            }
+        });
+        if (added) {
+            countTicket(ticket);
+        }
+        indexTicket(ticket);
+        LOGGER.debug("Added ticket [{}] to registry.", ticket.getId());
+    }
+
+    @Override
+    public Ticket getTicket(final String ticketId) {
+        if (StringUtils.isBlank(ticketId)) {
+            return null;
+        }
+        final String encTicketId = encodeTicketId(ticketId);
+        Ticket result = this.hotSet.getIfPresent(encTicketId);
+        if (result == null) {
+            result = this.store.get(encTicketId, payload -> {
+                final Ticket ticket = decodeTicket(this.ticketSerializer.decode(payload));
+                if (ticket instanceof TicketGrantingTicket && !ticket.isExpired()) {
+                    this.hotSet.put(encTicketId, ticket);
+                }
+                return ticket;
+            });
+        }
+        if (result != null && result.isExpired()) {
+            LOGGER.debug("Ticket [{}] has expired and is now removed from the registry", result.getId());
+            deleteSingleTicket(ticketId);
+            unindexTicket(result);
+            return null;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean deleteSingleTicket(final String ticketId) {
+        final String encTicketId = encodeTicketId(ticketId);
+        if (encTicketId == null) {
+            return false;
+        }
+        if (!this.store.remove(encTicketId, () -> this.hotSet.invalidate(encTicketId))) {
+            return false;
+        }
+        uncountTicket(ticketId);
+        return true;
+    }
+
+    @Override
+    public long deleteAll() {
+        final long count = this.store.clear();
+        this.hotSet.invalidateAll();
+        clearSessionIndex();
+        clearCounter();
+        return count;
+    }
+
+    @Override
+    public Collection<Ticket> getTickets() {
+        return getTicketsStream().collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<Ticket> getTicketsStream() {
+        return this.store.values().map(payload -> decodeTicket(this.ticketSerializer.decode(payload)));
+    }
+
+    @Override
+    public Ticket updateTicket(final Ticket ticket) {
+        addTicket(ticket);
+        return ticket;
+    }
+
+    /**
+     * Sets the serializer used to turn tickets into the payloads kept off the heap.
+     * Tickets already in the store are not converted, so this should be set before any ticket is added.
+     *
+     * @param ticketSerializer the ticket serializer
+     */
+    public void setTicketSerializer(final BinarySerializer<Ticket> ticketSerializer) {
+        this.ticketSerializer = ticketSerializer;
+    }
+
+    /**
+     * Bytes of direct memory held by the registry.
+     *
+     * @return the allocated bytes
+     */
+    public long getAllocatedBytes() {
+        return this.store.getAllocatedBytes();
+    }
+
+    @Override
+    public void destroy() {
+        LOGGER.debug("Releasing off-heap memory held by [{}] ticket(s)", this.store.size());
+        deleteAll();
+    }
+}
@@ -0,0 +1,241 @@
+package org.apereo.cas.ticket.registry.offheap;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This is {@link OffHeapSlabAllocator} that hands out fixed-size slots carved from direct memory pages.
+ * Each page serves a single power-of-two size class, starting at {@value #MIN_SLOT_SIZE} bytes,
+ * and keeps its own list of freed slots threaded through the freed memory itself. Allocations that
+ * do not fit in a page receive a dedicated page of their own. A page whose slots have all been freed
+ * is handed back to the garbage collector, as long as its size class has other pages with room left,
+ * so memory taken by a burst of sessions is returned once those sessions expire.
+ * <p>
+ * Addresses pack the page index in the upper half and the offset within the page in the lower half.
+ * The allocator is not thread-safe; callers are expected to guard it with their own lock.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class OffHeapSlabAllocator {
+    /**
+     * Smallest slot handed out by the allocator.
+     */
+    public static final int MIN_SLOT_SIZE = 64;
+
+    private static final int MIN_SLOT_SHIFT = 6;
+    private static final int NO_FREE_SLOT = -1;
+    private static final int DEDICATED_PAGE = -1;
+    private static final int OFFSET_BITS = 32;
+    private static final long OFFSET_MASK = 0xFFFFFFFFL;
+
+    private final int pageSize;
+    private final List<Page> pages = new ArrayList<>();
+    private final Deque<Integer> releasedPageIndexes = new ArrayDeque<>();
+    private final List<Set<Page>> availablePages = new ArrayList<>();
+
+    private long allocatedBytes;
+    private long usedBytes;
+
+    public OffHeapSlabAllocator(final int pageSize) {
+        if (pageSize < MIN_SLOT_SIZE || Integer.bitCount(pageSize) != 1) {
+            throw new IllegalArgumentException("Page size must be a power of two no smaller than " + MIN_SLOT_SIZE);
+        }
+        this.pageSize = pageSize;
+        final int classes = sizeClassOf(pageSize) + 1;
+        for (int i = 0; i < classes; i++) {
+            this.availablePages.add(new LinkedHashSet<>());
+        }
+    }
+
+    /**
+     * Allocate a slot able to hold the given number of bytes.
+     *
+     * @param length the length
+     * @return the address of the slot
+     */
+    public long allocate(final int length) {
+        if (length > this.pageSize) {
+            final Page page = newPage(length, DEDICATED_PAGE);
+            page.live = 1;
+            this.usedBytes += page.slotSize;
+            return address(page.index, 0);
+        }
+        final int sizeClass = sizeClassOf(length);
+        final Set<Page> available = this.availablePages.get(sizeClass);
+        final Page page;
+        if (available.isEmpty()) {
+            page = newPage(this.pageSize, sizeClass);
+            available.add(page);
+        } else {
+            page = available.iterator().next();
+        }
+
+        final int offset;
+        if (page.freeHead != NO_FREE_SLOT) {
+            offset = page.freeHead;
+            page.freeHead = page.buffer.getInt(offset);
+        } else {
+            offset = page.bumpOffset;
+            page.bumpOffset += page.slotSize;
+        }
+        page.live++;
+        this.usedBytes += page.slotSize;
+        if (page.isFull()) {
+            available.remove(page);
+        }
+        return address(page.index, offset);
+    }
+
+    /**
+     * Free the slot at the given address.
+     *
+     * @param address the address
+     */
+    public void free(final long address) {
+        final Page page = this.pages.get(pageIndexOf(address));
+        final int offset = offsetOf(address);
+        page.live--;
+        this.usedBytes -= page.slotSize;
+
+        if (page.sizeClass == DEDICATED_PAGE) {
+            releasePage(page);
+            return;
+        }
+        final Set<Page> available = this.availablePages.get(page.sizeClass);
+        final boolean otherPagesAvailable = available.contains(page) ? available.size() > 1 : !available.isEmpty();
+        if (page.live == 0 && otherPagesAvailable) {
+            available.remove(page);
+            releasePage(page);
+            return;
+        }
+        page.buffer.putInt(offset, page.freeHead);
+        page.freeHead = offset;
+        available.add(page);
+    }
+
+    /**
+     * Gets a private view of the page holding the address, positioned at the start of the slot.
+     * Views may be read concurrently by many threads as long as no slot is being allocated or freed.
+     *
+     * @param address the address
+     * @return the buffer
+     */
+    public ByteBuffer view(final long address) {
+        final ByteBuffer buffer = this.pages.get(pageIndexOf(address)).buffer.duplicate();
+        buffer.position(offsetOf(address));
+        return buffer;
+    }
+
+    /**
+     * Gets the page holding the address, for absolute reads and writes.
+     *
+     * @param address the address
+     * @return the buffer
+     */
+    public ByteBuffer page(final long address) {
+        return this.pages.get(pageIndexOf(address)).buffer;
+    }
+
+    /**
+     * Offset of the address within its page.
+     *
+     * @param address the address
+     * @return the offset
+     */
+    public static int offsetOf(final long address) {
+        return (int) (address & OFFSET_MASK);
+    }
+
+    /**
+     * Release every page.
+     */
+    public void clear() {
+        this.pages.clear();
+        this.releasedPageIndexes.clear();
+        this.availablePages.forEach(Set::clear);
+        this.allocatedBytes = 0;
+        this.usedBytes = 0;
+    }
+
+    /**
+     * Bytes of direct memory currently held by the pages.
+     *
+     * @return the allocated bytes
+     */
+    public long getAllocatedBytes() {
+        return this.allocatedBytes;
+    }
+
+    /**
+     * Bytes of direct memory taken by live slots.
+     *
+     * @return the used bytes
+     */
+    public long getUsedBytes() {
+        return this.usedBytes;
+    }
+
+    private Page newPage(final int capacity, final int sizeClass) {
+        final int index = this.releasedPageIndexes.isEmpty() ? this.pages.size() : this.releasedPageIndexes.pop();
+        final int slotSize = sizeClass == DEDICATED_PAGE ? capacity : MIN_SLOT_SIZE << sizeClass;
+        final Page page = new Page(index, ByteBuffer.allocateDirect(capacity), sizeClass, slotSize);
+        if (index == this.pages.size()) {
+            this.pages.add(page);
+        } else {
+            this.pages.set(index, page);
+        }
+        this.allocatedBytes += capacity;
+        return page;
+    }
+
+    private void releasePage(final Page page) {
+        this.pages.set(page.index, null);
+        this.releasedPageIndexes.push(page.index);
+        this.allocatedBytes -= page.buffer.capacity();
+    }
+
+    private static int sizeClassOf(final int length) {
+        if (length <= MIN_SLOT_SIZE) {
+            return 0;
+        }
+        return Integer.SIZE - Integer.numberOfLeadingZeros(length - 1) - MIN_SLOT_SHIFT;
+    }
+
+    private static long address(final int pageIndex, final int offset) {
+        return ((long) pageIndex << OFFSET_BITS) | (offset & OFFSET_MASK);
+    }
+
+    private static int pageIndexOf(final long address) {
+        return (int) (address >>> OFFSET_BITS);
+    }
+
+    /**
+     * A page of direct memory serving one size class.
+     */
+    private static class Page {
+        private final int index;
+        private final ByteBuffer buffer;
+        private final int sizeClass;
+        private final int slotSize;
+        private int freeHead = NO_FREE_SLOT;
+        private int bumpOffset;
+        private int live;
+
+        Page(final int index, final ByteBuffer buffer, final int sizeClass, final int slotSize) {
+            this.index = index;
+            this.buffer = buffer;
+            this.sizeClass = sizeClass;
+            this.slotSize = slotSize;
+        }
+
+        boolean isFull() {
+            return this.freeHead == NO_FREE_SLOT && this.bumpOffset + this.slotSize > this.buffer.capacity();
+        }
+    }
+}
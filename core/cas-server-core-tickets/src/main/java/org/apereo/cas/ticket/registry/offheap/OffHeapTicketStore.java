@@ -0,0 +1,417 @@
+package org.apereo.cas.ticket.registry.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * This is {@link OffHeapTicketStore} that keeps serialized tickets, keyed by ticket id, outside the Java heap.
+ * Keys are spread over a fixed number of segments, each guarded by its own read-write lock. Every segment
+ * holds an open-addressing hash index in a direct buffer, probed linearly and compacted with backward-shift
+ * deletion, whose slots point at entries laid out by an {@link OffHeapSlabAllocator} as
+ * {@code [id length][payload length][id][payload]}. Removing an entry hands its slot back to the allocator,
+ * so the memory used tracks the number of live tickets, while the heap holds little more than the page
+ * directory regardless of how many tickets are stored.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class OffHeapTicketStore {
+    private static final int SLOT_SIZE = 16;
+    private static final int ENTRY_HEADER_SIZE = 8;
+    private static final int MIN_INDEX_CAPACITY = 16;
+    private static final int MAX_INDEX_CAPACITY = 1 << 30;
+    private static final long LOAD_NUMERATOR = 3;
+    private static final long LOAD_DENOMINATOR = 4;
+    private static final int SEGMENT_SHIFT = 40;
+    private static final long EMPTY = 0L;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long MIX_1 = 0xff51afd7ed558ccdL;
+    private static final long MIX_2 = 0xc4ceb9fe1a85ec53L;
+    private static final int MIX_SHIFT = 33;
+    private static final int BYTE_MASK = 0xff;
+
+    private final Segment[] segments;
+
+    public OffHeapTicketStore(final int segments, final int pageSize, final int initialCapacity) {
+        if (segments < 1 || Integer.bitCount(segments) != 1) {
+            throw new IllegalArgumentException("Number of segments must be a positive power of two");
+        }
+        final int capacityPerSegment = Math.max(initialCapacity / segments, 1);
+        this.segments = new Segment[segments];
+        for (int i = 0; i < segments; i++) {
+            this.segments[i] = new Segment(pageSize, capacityPerSegment);
+        }
+    }
+
+    /**
+     * Store the payload under the id, replacing any previous payload.
+     *
+     * @param id      the id
+     * @param payload the payload
+     * @return true if there was no payload stored under the id
+     */
+    public boolean put(final String id, final byte[] payload) {
+        return put(id, payload, () -> {
+        });
+    }
+
+    /**
+     * Store the payload under the id, replacing any previous payload, and run the callback
+     * while the segment that owns the id is still locked for writing.
+     *
+     * @param id       the id
+     * @param payload  the payload
+     * @param onStored the callback to run once the payload is stored
+     * @return true if there was no payload stored under the id
+     */
+    public boolean put(final String id, final byte[] payload, final Runnable onStored) {
+        final byte[] key = id.getBytes(StandardCharsets.UTF_8);
+        final long hash = hash(key);
+        return segmentFor(hash).put(hash, key, payload, onStored);
+    }
+
+    /**
+     * Gets a copy of the payload stored under the id.
+     *
+     * @param id the id
+     * @return the payload, or null
+     */
+    public byte[] get(final String id) {
+        return get(id, Function.identity());
+    }
+
+    /**
+     * Read the payload stored under the id while the segment that owns the id is locked for reading,
+     * so that the id can neither be stored nor removed again until the reader returns.
+     *
+     * @param <T>    the type of the result
+     * @param id     the id
+     * @param reader the reader to apply to a copy of the payload
+     * @return the result of the reader, or null if there is no payload stored under the id
+     */
+    public <T> T get(final String id, final Function<byte[], T> reader) {
+        final byte[] key = id.getBytes(StandardCharsets.UTF_8);
+        final long hash = hash(key);
+        return segmentFor(hash).get(hash, key, reader);
+    }
+
+    /**
+     * Remove the payload stored under the id and free its memory.
+     *
+     * @param id the id
+     * @return true if an entry was removed
+     */
+    public boolean remove(final String id) {
+        return remove(id, () -> {
+        });
+    }
+
+    /**
+     * Remove the payload stored under the id, free its memory and run the callback
+     * while the segment that owns the id is still locked for writing.
+     *
+     * @param id        the id
+     * @param onRemoved the callback to run, whether or not an entry was removed
+     * @return true if an entry was removed
+     */
+    public boolean remove(final String id, final Runnable onRemoved) {
+        final byte[] key = id.getBytes(StandardCharsets.UTF_8);
+        final long hash = hash(key);
+        return segmentFor(hash).remove(hash, key, onRemoved);
+    }
+
+    /**
+     * Remove every entry.
+     *
+     * @return the number of entries removed
+     */
+    public long clear() {
+        return Arrays.stream(this.segments).mapToLong(Segment::clear).sum();
+    }
+
+    /**
+     * Number of entries.
+     *
+     * @return the size
+     */
+    public long size() {
+        return Arrays.stream(this.segments).mapToLong(Segment::size).sum();
+    }
+
+    /**
+     * Stream copies of all payloads. Segments are copied one at a time, as the stream reaches them,
+     * so at most one segment's worth of payloads is brought onto the heap at once.
+     *
+     * @return the payloads
+     */
+    public Stream<byte[]> values() {
+        return Arrays.stream(this.segments).flatMap(segment -> segment.values().stream());
+    }
+
+    /**
+     * Bytes of direct memory held by entries and indexes.
+     *
+     * @return the allocated bytes
+     */
+    public long getAllocatedBytes() {
+        return Arrays.stream(this.segments).mapToLong(Segment::getAllocatedBytes).sum();
+    }
+
+    private Segment segmentFor(final long hash) {
+        return this.segments[(int) (hash >>> SEGMENT_SHIFT) & (this.segments.length - 1)];
+    }
+
+    private static long hash(final byte[] key) {
+        long h = FNV_OFFSET_BASIS;
+        for (final byte b : key) {
+            h ^= b & BYTE_MASK;
+            h *= FNV_PRIME;
+        }
+        h ^= h >>> MIX_SHIFT;
+        h *= MIX_1;
+        h ^= h >>> MIX_SHIFT;
+        h *= MIX_2;
+        h ^= h >>> MIX_SHIFT;
+        return h == EMPTY ? 1 : h;
+    }
+
+    /**
+     * A lock-guarded slice of the store with its own index and allocator.
+     */
+    private static class Segment {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final OffHeapSlabAllocator allocator;
+        private final int initialCapacity;
+        private ByteBuffer index;
+        private int capacity;
+        private int size;
+
+        Segment(final int pageSize, final int initialCapacity) {
+            this.allocator = new OffHeapSlabAllocator(pageSize);
+            this.initialCapacity = tableSizeFor(initialCapacity);
+            resetIndex();
+        }
+
+        boolean put(final long hash, final byte[] key, final byte[] payload, final Runnable onStored) {
+            final Lock writeLock = this.lock.writeLock();
+            writeLock.lock();
+            try {
+                final long address = this.allocator.allocate(ENTRY_HEADER_SIZE + key.length + payload.length);
+                final ByteBuffer entry = this.allocator.view(address);
+                entry.putInt(key.length).putInt(payload.length).put(key).put(payload);
+
+                final int slot = find(hash, key);
+                final boolean added = slot < 0;
+                if (added) {
+                    if ((this.size + 1) * LOAD_DENOMINATOR > this.capacity * LOAD_NUMERATOR) {
+                        resize(this.capacity * 2);
+                    }
+                    insert(hash, address);
+                    this.size++;
+                } else {
+                    this.allocator.free(addressAt(slot));
+                    this.index.putLong(slot * SLOT_SIZE + Long.BYTES, address);
+                }
+                onStored.run();
+                return added;
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        <T> T get(final long hash, final byte[] key, final Function<byte[], T> reader) {
+            final Lock readLock = this.lock.readLock();
+            readLock.lock();
+            try {
+                final int slot = find(hash, key);
+                if (slot < 0) {
+                    return null;
+                }
+                return reader.apply(readPayload(addressAt(slot)));
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        boolean remove(final long hash, final byte[] key, final Runnable onRemoved) {
+            final Lock writeLock = this.lock.writeLock();
+            writeLock.lock();
+            try {
+                final int slot = find(hash, key);
+                final boolean removed = slot >= 0;
+                if (removed) {
+                    this.allocator.free(addressAt(slot));
+                    deleteSlot(slot);
+                    this.size--;
+                }
+                onRemoved.run();
+                return removed;
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        long clear() {
+            final Lock writeLock = this.lock.writeLock();
+            writeLock.lock();
+            try {
+                final int removed = this.size;
+                this.allocator.clear();
+                resetIndex();
+                return removed;
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        long size() {
+            final Lock readLock = this.lock.readLock();
+            readLock.lock();
+            try {
+                return this.size;
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        List<byte[]> values() {
+            final Lock readLock = this.lock.readLock();
+            readLock.lock();
+            try {
+                final List<byte[]> values = new ArrayList<>(this.size);
+                for (int slot = 0; slot < this.capacity; slot++) {
+                    if (hashAt(slot) != EMPTY) {
+                        values.add(readPayload(addressAt(slot)));
+                    }
+                }
+                return values;
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        long getAllocatedBytes() {
+            final Lock readLock = this.lock.readLock();
+            readLock.lock();
+            try {
+                return this.allocator.getAllocatedBytes() + this.index.capacity();
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        private int find(final long hash, final byte[] key) {
+            final int mask = this.capacity - 1;
+            int slot = (int) hash & mask;
+            while (true) {
+                final long candidate = hashAt(slot);
+                if (candidate == EMPTY) {
+                    return -1;
+                }
+                if (candidate == hash && keyMatches(addressAt(slot), key)) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        private boolean keyMatches(final long address, final byte[] key) {
+            final ByteBuffer page = this.allocator.page(address);
+            final int offset = OffHeapSlabAllocator.offsetOf(address);
+            if (page.getInt(offset) != key.length) {
+                return false;
+            }
+            final int start = offset + ENTRY_HEADER_SIZE;
+            for (int i = 0; i < key.length; i++) {
+                if (page.get(start + i) != key[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private byte[] readPayload(final long address) {
+            final ByteBuffer entry = this.allocator.view(address);
+            final int keyLength = entry.getInt();
+            final byte[] payload = new byte[entry.getInt()];
+            entry.position(entry.position() + keyLength);
+            entry.get(payload);
+            return payload;
+        }
+
+        private void insert(final long hash, final long address) {
+            final int mask = this.capacity - 1;
+            int slot = (int) hash & mask;
+            while (hashAt(slot) != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            this.index.putLong(slot * SLOT_SIZE, hash);
+            this.index.putLong(slot * SLOT_SIZE + Long.BYTES, address);
+        }
+
+        private void deleteSlot(final int removed) {
+            final int mask = this.capacity - 1;
+            int hole = removed;
+            int slot = removed;
+            while (true) {
+                slot = (slot + 1) & mask;
+                final long hash = hashAt(slot);
+                if (hash == EMPTY) {
+                    break;
+                }
+                final int home = (int) hash & mask;
+                final boolean movable = hole <= slot
+                        ? home <= hole || home > slot
+                        : home <= hole && home > slot;
+                if (movable) {
+                    this.index.putLong(hole * SLOT_SIZE, hash);
+                    this.index.putLong(hole * SLOT_SIZE + Long.BYTES, addressAt(slot));
+                    hole = slot;
+                }
+            }
+            this.index.putLong(hole * SLOT_SIZE, EMPTY);
+            this.index.putLong(hole * SLOT_SIZE + Long.BYTES, EMPTY);
+        }
+
+        private void resize(final int newCapacity) {
+            final ByteBuffer previous = this.index;
+            final int previousCapacity = this.capacity;
+            this.index = ByteBuffer.allocateDirect(newCapacity * SLOT_SIZE);
+            this.capacity = newCapacity;
+            for (int slot = 0; slot < previousCapacity; slot++) {
+                final long hash = previous.getLong(slot * SLOT_SIZE);
+                if (hash != EMPTY) {
+                    insert(hash, previous.getLong(slot * SLOT_SIZE + Long.BYTES));
+                }
+            }
+        }
+
+        private void resetIndex() {
+            this.capacity = this.initialCapacity;
+            this.index = ByteBuffer.allocateDirect(this.capacity * SLOT_SIZE);
+            this.size = 0;
+        }
+
+        private long hashAt(final int slot) {
+            return this.index.getLong(slot * SLOT_SIZE);
+        }
+
+        private long addressAt(final int slot) {
+            return this.index.getLong(slot * SLOT_SIZE + Long.BYTES);
+        }
+
+        private static int tableSizeFor(final int expected) {
+            final int needed = Math.max((int) Math.min(expected * LOAD_DENOMINATOR / LOAD_NUMERATOR + 1, MAX_INDEX_CAPACITY), MIN_INDEX_CAPACITY);
+            return Integer.highestOneBit(needed - 1) << 1;
+        }
+    }
+}
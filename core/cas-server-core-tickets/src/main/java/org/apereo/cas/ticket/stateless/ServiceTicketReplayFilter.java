@@ -0,0 +1,23 @@
+package org.apereo.cas.ticket.stateless;
+
+/**
+ * Tracks the use of self-contained service tickets, so that a ticket cannot
+ * be validated more often than its expiration policy allows without keeping the ticket itself.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@FunctionalInterface
+public interface ServiceTicketReplayFilter {
+
+    /**
+     * Record a use of the ticket identified by the given id.
+     *
+     * @param id        the unique id of the ticket
+     * @param maxUses   the maximum number of uses allowed for the ticket
+     * @param expiresAt the epoch second after which the ticket is no longer accepted,
+     *                  and after which the filter may forget about it
+     * @return true if the use is allowed; false if the ticket has already been used up
+     */
+    boolean use(String id, int maxUses, long expiresAt);
+}
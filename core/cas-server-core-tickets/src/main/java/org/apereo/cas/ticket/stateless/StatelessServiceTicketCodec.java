@@ -0,0 +1,213 @@
+package org.apereo.cas.ticket.stateless;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.StringUtils;
+import org.apereo.cas.CipherExecutor;
+import org.apereo.cas.authentication.principal.Service;
+import org.apereo.cas.authentication.principal.ServiceFactory;
+import org.apereo.cas.authentication.principal.WebApplicationService;
+import org.apereo.cas.authentication.principal.WebApplicationServiceFactory;
+import org.apereo.cas.ticket.ExpirationPolicy;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.ServiceTicketImpl;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.UniqueTicketIdGenerator;
+import org.apereo.cas.util.DefaultUniqueTicketIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Encodes service tickets as self-contained, signed and encrypted tokens that carry
+ * the id of the ticket-granting ticket, the service and the expiration time of the ticket.
+ * Such tickets are never stored; they are rebuilt from the token upon validation and their
+ * one-time use is enforced by a {@link ServiceTicketReplayFilter}.
+ * <p>
+ * Ticket ids start with {@code ST-SL-}, which no ticket id generator produces for tickets
+ * kept in the registry, since those follow the prefix with a numeric counter.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class StatelessServiceTicketCodec {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatelessServiceTicketCodec.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String TICKET_ID_PREFIX = ServiceTicket.PREFIX + "-SL-";
+
+    private static final String PROXY_GRANT_SUFFIX = "#pgt";
+
+    private static final String CLAIM_ID = "jti";
+    private static final String CLAIM_TICKET_GRANTING_TICKET = "tgt";
+    private static final String CLAIM_SERVICE = "svc";
+    private static final String CLAIM_NEW_LOGIN = "nl";
+    private static final String CLAIM_EXPIRES_AT = "exp";
+
+    private final CipherExecutor<String, String> cipherExecutor;
+    private final ServiceTicketReplayFilter replayFilter;
+    private final ExpirationPolicy expirationPolicy;
+    private final int numberOfUses;
+    private final ServiceFactory<WebApplicationService> serviceFactory = new WebApplicationServiceFactory();
+    private final UniqueTicketIdGenerator idGenerator = new DefaultUniqueTicketIdGenerator();
+    private final Clock clock;
+
+    public StatelessServiceTicketCodec(final CipherExecutor<String, String> cipherExecutor,
+                                       final ServiceTicketReplayFilter replayFilter,
+                                       final ExpirationPolicy expirationPolicy,
+                                       final int numberOfUses) {
+        this(cipherExecutor, replayFilter, expirationPolicy, numberOfUses, Clock.systemUTC());
+    }
+
+    public StatelessServiceTicketCodec(final CipherExecutor<String, String> cipherExecutor,
+                                       final ServiceTicketReplayFilter replayFilter,
+                                       final ExpirationPolicy expirationPolicy,
+                                       final int numberOfUses,
+                                       final Clock clock) {
+        this.cipherExecutor = cipherExecutor;
+        this.replayFilter = replayFilter;
+        this.expirationPolicy = expirationPolicy;
+        this.numberOfUses = numberOfUses;
+        this.clock = clock;
+    }
+
+    /**
+     * Produce the id of a self-contained service ticket.
+     *
+     * @param ticketGrantingTicket the ticket granting ticket
+     * @param service              the service
+     * @param credentialProvided   whether credentials were directly provided
+     * @return the ticket id
+     */
+    public String encode(final TicketGrantingTicket ticketGrantingTicket, final Service service, final boolean credentialProvided) {
+        final Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put(CLAIM_ID, this.idGenerator.getNewTicketId(ServiceTicket.PREFIX));
+        claims.put(CLAIM_TICKET_GRANTING_TICKET, ticketGrantingTicket.getId());
+        claims.put(CLAIM_SERVICE, service.getId());
+        claims.put(CLAIM_NEW_LOGIN, credentialProvided || ticketGrantingTicket.getCountOfUses() == 0);
+        claims.put(CLAIM_EXPIRES_AT, this.clock.millis() / 1000 + this.expirationPolicy.getTimeToLive());
+        try {
+            final String token = this.cipherExecutor.encode(MAPPER.writeValueAsString(claims));
+            return TICKET_ID_PREFIX + token;
+        } catch (final Exception e) {
+            throw new IllegalArgumentException("Unable to encode service ticket for " + service.getId(), e);
+        }
+    }
+
+    /**
+     * Determine whether the ticket id is in the format produced by this codec.
+     * Other tickets that are validated as service tickets, such as proxy tickets,
+     * are still kept in the ticket registry.
+     *
+     * @param ticketId the ticket id
+     * @return true/false
+     */
+    public boolean supports(final String ticketId) {
+        return StringUtils.startsWith(ticketId, TICKET_ID_PREFIX);
+    }
+
+    /**
+     * Rebuild the service ticket from its id without recording a use.
+     *
+     * @param ticketId                    the ticket id
+     * @param ticketGrantingTicketResolver resolves the ticket-granting ticket by id
+     * @return the service ticket, or null if the ticket is invalid or expired
+     */
+    public ServiceTicket decode(final String ticketId, final Function<String, TicketGrantingTicket> ticketGrantingTicketResolver) {
+        final Map<String, Object> claims = decodeClaims(ticketId);
+        if (claims == null) {
+            return null;
+        }
+        return buildServiceTicket(ticketId, claims, ticketGrantingTicketResolver);
+    }
+
+    /**
+     * Rebuild the service ticket from its id so that a proxy-granting ticket can be issued for it.
+     * Proxy-granting tickets are issued before the service ticket is validated, and like a stored
+     * service ticket, a stateless one issues at most one of them. The replay filter records the grant
+     * next to the uses of the ticket, and redeeming the ticket closes it, so a ticket that was
+     * already validated cannot issue proxy-granting tickets either.
+     *
+     * @param ticketId                    the ticket id
+     * @param ticketGrantingTicketResolver resolves the ticket-granting ticket by id
+     * @return the service ticket, or null if the ticket is invalid, expired, already redeemed or already proxied
+     */
+    public ServiceTicket redeemForProxying(final String ticketId, final Function<String, TicketGrantingTicket> ticketGrantingTicketResolver) {
+        final Map<String, Object> claims = decodeClaims(ticketId);
+        if (claims == null) {
+            return null;
+        }
+        final String id = claims.get(CLAIM_ID).toString();
+        final long expiresAt = ((Number) claims.get(CLAIM_EXPIRES_AT)).longValue();
+        if (!this.replayFilter.use(id + PROXY_GRANT_SUFFIX, 1, expiresAt)) {
+            LOGGER.warn("Service ticket [{}] has already been validated or has already issued a proxy-granting ticket", id);
+            return null;
+        }
+        return buildServiceTicket(ticketId, claims, ticketGrantingTicketResolver);
+    }
+
+    /**
+     * Rebuild the service ticket from its id and record a use of it.
+     * Once redeemed, the ticket can no longer issue proxy-granting tickets.
+     *
+     * @param ticketId                    the ticket id
+     * @param ticketGrantingTicketResolver resolves the ticket-granting ticket by id
+     * @return the service ticket, or null if the ticket is invalid, expired or already used up
+     */
+    public ServiceTicket redeem(final String ticketId, final Function<String, TicketGrantingTicket> ticketGrantingTicketResolver) {
+        final Map<String, Object> claims = decodeClaims(ticketId);
+        if (claims == null) {
+            return null;
+        }
+        final String id = claims.get(CLAIM_ID).toString();
+        final long expiresAt = ((Number) claims.get(CLAIM_EXPIRES_AT)).longValue();
+        if (!this.replayFilter.use(id, this.numberOfUses, expiresAt)) {
+            LOGGER.warn("Service ticket [{}] has already been used", id);
+            return null;
+        }
+        this.replayFilter.use(id + PROXY_GRANT_SUFFIX, 1, expiresAt);
+        return buildServiceTicket(ticketId, claims, ticketGrantingTicketResolver);
+    }
+
+    private ServiceTicket buildServiceTicket(final String ticketId, final Map<String, Object> claims,
+                                             final Function<String, TicketGrantingTicket> ticketGrantingTicketResolver) {
+        final TicketGrantingTicket ticketGrantingTicket = ticketGrantingTicketResolver.apply(claims.get(CLAIM_TICKET_GRANTING_TICKET).toString());
+        if (ticketGrantingTicket == null || ticketGrantingTicket.isExpired()) {
+            LOGGER.debug("Ticket-granting ticket for service ticket [{}] cannot be found or has expired", claims.get(CLAIM_ID));
+            return null;
+        }
+        final Service service = this.serviceFactory.createService(claims.get(CLAIM_SERVICE).toString());
+        final boolean newLogin = Boolean.TRUE.equals(claims.get(CLAIM_NEW_LOGIN));
+        return new ServiceTicketImpl(ticketId, ticketGrantingTicket, service, newLogin, this.expirationPolicy);
+    }
+
+    private Map<String, Object> decodeClaims(final String ticketId) {
+        if (!supports(ticketId)) {
+            return null;
+        }
+        try {
+            final String json = this.cipherExecutor.decode(ticketId.substring(TICKET_ID_PREFIX.length()));
+            if (StringUtils.isBlank(json)) {
+                LOGGER.warn("Service ticket [{}] could not be verified", ticketId);
+                return null;
+            }
+            final Map<String, Object> claims = MAPPER.readValue(json, new TypeReference<Map<String, Object>>() {
+            });
+            final long expiresAt = ((Number) claims.get(CLAIM_EXPIRES_AT)).longValue();
+            if (expiresAt < this.clock.millis() / 1000) {
+                LOGGER.info("Service ticket [{}] has expired", claims.get(CLAIM_ID));
+                return null;
+            }
+            return claims;
+        } catch (final Exception e) {
+            LOGGER.warn("Service ticket [{}] is not a valid ticket issued by CAS: [{}]", ticketId, e.getMessage());
+            LOGGER.debug(e.getMessage(), e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.apereo.cas.ticket.stateless;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Replay filter that keeps used ticket ids in partitions keyed by ticket expiration time.
+ * Since a ticket is rejected once it expires, its id only needs to be remembered until then;
+ * whole partitions are dropped as soon as every ticket in them has expired,
+ * which keeps the filter bounded by the number of tickets issued per expiration window.
+ * <p>
+ * This filter is local to the running node. Deployments that validate tickets
+ * on a node other than the one that last saw them must provide a shared implementation.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class TimePartitionedServiceTicketReplayFilter implements ServiceTicketReplayFilter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimePartitionedServiceTicketReplayFilter.class);
+
+    private final ConcurrentSkipListMap<Long, ConcurrentMap<String, Integer>> partitions = new ConcurrentSkipListMap<>();
+    private final long partitionSeconds;
+    private final Clock clock;
+
+    public TimePartitionedServiceTicketReplayFilter(final long partitionSeconds) {
+        this(partitionSeconds, Clock.systemUTC());
+    }
+
+    public TimePartitionedServiceTicketReplayFilter(final long partitionSeconds, final Clock clock) {
+        this.partitionSeconds = Math.max(1, partitionSeconds);
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean use(final String id, final int maxUses, final long expiresAt) {
+        final long now = this.clock.millis() / 1000;
+        evictExpiredPartitions(now);
+        if (expiresAt < now) {
+            LOGGER.debug("Ticket [{}] has expired and cannot be used", id);
+            return false;
+        }
+        final ConcurrentMap<String, Integer> partition =
+                this.partitions.computeIfAbsent(expiresAt / this.partitionSeconds, k -> new ConcurrentHashMap<>());
+        final int uses = partition.merge(id, 1, Integer::sum);
+        if (uses > maxUses) {
+            LOGGER.warn("Ticket [{}] has already been used [{}] time(s) and cannot be used again", id, maxUses);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of ticket ids currently remembered.
+     *
+     * @return the size
+     */
+    public long size() {
+        return this.partitions.values().stream().mapToLong(Map::size).sum();
+    }
+
+    private void evictExpiredPartitions(final long now) {
+        final Map<Long, ConcurrentMap<String, Integer>> expired = this.partitions.headMap(now / this.partitionSeconds);
+        if (!expired.isEmpty()) {
+            LOGGER.trace("Removing [{}] expired partition(s) of used ticket ids", expired.size());
+            expired.clear();
+        }
+    }
+}
@@ -10,6 +10,7 @@ import org.apereo.cas.ticket.TicketState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.ZonedDateTime;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -87,6 +88,11 @@ public abstract class BaseDelegatingExpirationPolicy extends AbstractCasExpirati
         return policy.isExpired(ticketState);
     }
 
+    @Override
+    public ZonedDateTime getMaximumExpirationTime(final TicketState ticketState) {
+        return getExpirationPolicyFor(ticketState).map(policy -> policy.getMaximumExpirationTime(ticketState)).orElse(null);
+    }
+
     @JsonIgnore
     @Override
     public Long getTimeToLive() {
@@ -59,6 +59,11 @@ public class HardTimeoutExpirationPolicy extends AbstractCasExpirationPolicy {
         return this.timeToKillInSeconds;
     }
 
+    @Override
+    public ZonedDateTime getMaximumExpirationTime(final TicketState ticketState) {
+        return ticketState == null ? null : ticketState.getCreationTime().plus(this.timeToKillInSeconds, ChronoUnit.SECONDS);
+    }
+
     @JsonIgnore
     @Override
     public Long getTimeToIdle() {
@@ -109,6 +109,22 @@ public class TicketGrantingTicketExpirationPolicy extends AbstractCasExpirationP
         return this.maxTimeToLiveInSeconds;
     }
 
+    /**
+     * The hard window counts from creation, so however often the ticket is used it expires by then.
+     *
+     * @param ticketState the ticket state
+     * @return the expiration time
+     */
+    @Override
+    public ZonedDateTime getMaximumExpirationTime(final TicketState ticketState) {
+        if (ticketState == null) {
+            return null;
+        }
+        final ZonedDateTime hardExpiration = ticketState.getCreationTime().plus(this.maxTimeToLiveInSeconds, ChronoUnit.SECONDS);
+        final ZonedDateTime idleExpiration = ticketState.getLastTimeUsed().plus(this.timeToKillInSeconds, ChronoUnit.SECONDS);
+        return hardExpiration.isBefore(idleExpiration) ? hardExpiration : idleExpiration;
+    }
+
     @Override
     public Long getTimeToIdle() {
         return this.timeToKillInSeconds;
@@ -6,6 +6,7 @@ import org.apereo.cas.util.gen.Base64RandomStringGenerator;
 import org.apereo.cas.util.gen.DefaultLongNumericGenerator;
 import org.apereo.cas.util.gen.NumericGenerator;
 import org.apereo.cas.util.gen.RandomStringGenerator;
+import org.apereo.cas.util.gen.ThreadLocalBase64RandomStringGenerator;
 
 /**
  * Default implementation of {@link UniqueTicketIdGenerator}. Implementation
@@ -99,10 +100,59 @@ public class DefaultUniqueTicketIdGenerator implements UniqueTicketIdGenerator {
     @Override
     public String getNewTicketId(final String prefix) {
         final String number = this.numericGenerator.getNextNumberAsString();
+        if (isEncodedInPlace(this.randomStringGenerator)) {
+            return buildTicketId(prefix, number, this.randomStringGenerator.getNewStringAsBytes());
+        }
         final String ticketBody = this.randomStringGenerator.getNewString().replace("_", "-");
         return prefix + '-' + number + '-' + ticketBody + StringUtils.defaultString(this.suffix);
     }
 
+    /**
+     * Determine whether the random part of the id can be encoded in place from the generated bytes.
+     * That only holds for the stock base64 generators; subclasses may change how strings are built,
+     * so they always go through {@link RandomStringGenerator#getNewString()}.
+     *
+     * @param generator the generator
+     * @return true/false
+     */
+    private static boolean isEncodedInPlace(final RandomStringGenerator generator) {
+        final Class<?> type = generator.getClass();
+        return type == Base64RandomStringGenerator.class || type == ThreadLocalBase64RandomStringGenerator.class;
+    }
+
+    /**
+     * Write the ticket id into a single array, encoding the random bytes in place
+     * rather than through intermediate strings.
+     *
+     * @param prefix the prefix
+     * @param number the number
+     * @param random the random bytes
+     * @return the ticket id
+     */
+    private String buildTicketId(final String prefix, final String number, final byte[] random) {
+        final String ticketSuffix = StringUtils.defaultString(this.suffix);
+        final int bodyLength = Base64RandomStringGenerator.getEncodedLength(random.length);
+        final char[] id = new char[prefix.length() + number.length() + bodyLength + ticketSuffix.length() + 2];
+
+        int position = 0;
+        prefix.getChars(0, prefix.length(), id, position);
+        position += prefix.length();
+        id[position++] = '-';
+        number.getChars(0, number.length(), id, position);
+        position += number.length();
+        id[position++] = '-';
+
+        final int bodyStart = position;
+        position += Base64RandomStringGenerator.encode(random, id, position);
+        for (int i = bodyStart; i < position; i++) {
+            if (id[i] == '_') {
+                id[i] = '-';
+            }
+        }
+        ticketSuffix.getChars(0, ticketSuffix.length(), id, position);
+        return new String(id);
+    }
+
     /**
      * Sets suffix.
      *
@@ -118,7 +168,7 @@ public class DefaultUniqueTicketIdGenerator implements UniqueTicketIdGenerator {
      * @param maxLength the max length
      */
     public void setMaxLength(final int maxLength) {
-        this.randomStringGenerator = new Base64RandomStringGenerator(maxLength);
+        this.randomStringGenerator = new ThreadLocalBase64RandomStringGenerator(maxLength);
         this.numericGenerator = new DefaultLongNumericGenerator(1);
     }
 }
@@ -1,5 +1,6 @@
 package org.apereo.cas;
 
+import org.apereo.cas.ticket.DefaultTicketCatalogTests;
 import org.apereo.cas.ticket.InvalidTicketExceptionTests;
 import org.apereo.cas.ticket.ServiceTicketImplTests;
 import org.apereo.cas.ticket.TicketGrantingTicketImplTests;
@@ -8,6 +9,12 @@ import org.apereo.cas.ticket.proxy.support.Cas10ProxyHandlerTests;
 import org.apereo.cas.ticket.proxy.support.Cas20ProxyHandlerTests;
 import org.apereo.cas.ticket.registry.DefaultTicketRegistryTests;
 import org.apereo.cas.ticket.registry.DistributedTicketRegistryTests;
+import org.apereo.cas.ticket.registry.InMemoryTicketRegistryCounterTests;
+import org.apereo.cas.ticket.registry.InMemoryTicketRegistrySessionIndexTests;
+import org.apereo.cas.ticket.registry.OffHeapTicketRegistryTests;
+import org.apereo.cas.ticket.registry.offheap.OffHeapTicketStoreTests;
+import org.apereo.cas.ticket.stateless.StatelessServiceTicketCodecTests;
+import org.apereo.cas.ticket.stateless.TimePartitionedServiceTicketReplayFilterTests;
 import org.apereo.cas.ticket.support.MultiTimeUseOrTimeoutExpirationPolicyTests;
 import org.apereo.cas.ticket.support.RememberMeDelegatingExpirationPolicyTests;
 import org.apereo.cas.ticket.support.ThrottledUseAndTimeoutExpirationPolicyTests;
@@ -29,6 +36,10 @@ import org.junit.runners.Suite;
         ThrottledUseAndTimeoutExpirationPolicyTests.class, TicketGrantingTicketExpirationPolicyTests.class,
         TimeoutExpirationPolicyTests.class, DefaultTicketRegistryTests.class,
         DistributedTicketRegistryTests.class, Cas10ProxyHandlerTests.class,
-        Cas20ProxyHandlerTests.class})
+        Cas20ProxyHandlerTests.class, StatelessServiceTicketCodecTests.class,
+        TimePartitionedServiceTicketReplayFilterTests.class,
+        OffHeapTicketRegistryTests.class, OffHeapTicketStoreTests.class,
+        InMemoryTicketRegistrySessionIndexTests.class, DefaultTicketCatalogTests.class,
+        InMemoryTicketRegistryCounterTests.class})
 public class AllTestsSuite {
 }
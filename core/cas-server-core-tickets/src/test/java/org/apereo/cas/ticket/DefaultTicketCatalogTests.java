@@ -0,0 +1,58 @@
+package org.apereo.cas.ticket;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link DefaultTicketCatalogTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class DefaultTicketCatalogTests {
+
+    private DefaultTicketCatalog catalog;
+
+    @Before
+    public void setUp() {
+        this.catalog = new DefaultTicketCatalog();
+        this.catalog.register(new DefaultTicketDefinition(ServiceTicketImpl.class, "ST", 2));
+        this.catalog.register(new DefaultTicketDefinition(TicketGrantingTicketImpl.class, "TGT", 0));
+        this.catalog.register(new DefaultTicketDefinition(TicketGrantingTicketImpl.class, "STS", 1));
+    }
+
+    @Test
+    public void verifyTicketIdIsMatchedByLongestPrefix() {
+        assertEquals("ST", this.catalog.find("ST-1-abcdef").getPrefix());
+        assertEquals("STS", this.catalog.find("STS-1-abcdef").getPrefix());
+        assertEquals("TGT", this.catalog.find("TGT-1-abcdef").getPrefix());
+    }
+
+    @Test
+    public void verifyUnknownTicketIdIsNotFound() {
+        assertNull(this.catalog.find("XYZ-1-abcdef"));
+        assertNull(this.catalog.find("S"));
+        assertNull(this.catalog.find((String) null));
+    }
+
+    @Test
+    public void verifyDefinitionsAreListedInOrder() {
+        final List<TicketDefinition> all = new ArrayList<>(this.catalog.findAll());
+        assertEquals(3, all.size());
+        assertEquals("TGT", all.get(0).getPrefix());
+        assertEquals("STS", all.get(1).getPrefix());
+        assertEquals("ST", all.get(2).getPrefix());
+    }
+
+    @Test
+    public void verifyUpdateReplacesDefinition() {
+        this.catalog.update(new DefaultTicketDefinition(ServiceTicketImpl.class, "ST", -1));
+        assertEquals("ST", this.catalog.findAll().iterator().next().getPrefix());
+        assertTrue(this.catalog.contains("ST"));
+    }
+}
@@ -0,0 +1,81 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link InMemoryTicketRegistryCounterTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class InMemoryTicketRegistryCounterTests {
+
+    private DefaultTicketRegistry ticketRegistry;
+
+    @Before
+    public void setUp() {
+        this.ticketRegistry = new DefaultTicketRegistry();
+    }
+
+    @Test
+    public void verifyTicketsAreCountedOnceAsTheyAreAddedAndRemoved() {
+        final TicketGrantingTicket tgt = newTicketGrantingTicket("TGT-1");
+        this.ticketRegistry.addTicket(tgt);
+        this.ticketRegistry.addTicket(newTicketGrantingTicket("TGT-2"));
+        final ServiceTicket st = grantServiceTicket(tgt, "ST-1");
+        this.ticketRegistry.addTicket(st);
+        this.ticketRegistry.updateTicket(tgt);
+        this.ticketRegistry.addTicket(grantServiceTicket(tgt, "ST-2"));
+        this.ticketRegistry.updateTicket(tgt);
+
+        assertEquals(2, this.ticketRegistry.sessionCount());
+        assertEquals(2, this.ticketRegistry.serviceTicketCount());
+
+        this.ticketRegistry.deleteTicket(st.getId());
+        this.ticketRegistry.deleteTicket(st.getId());
+        assertEquals(1, this.ticketRegistry.serviceTicketCount());
+
+        this.ticketRegistry.deleteTicket(tgt.getId());
+        assertEquals(1, this.ticketRegistry.sessionCount());
+        assertEquals(0, this.ticketRegistry.serviceTicketCount());
+    }
+
+    @Test
+    public void verifyExpiredTicketsAreCountedOut() {
+        final TicketGrantingTicket tgt = newTicketGrantingTicket("TGT-1");
+        this.ticketRegistry.addTicket(tgt);
+        assertEquals(1, this.ticketRegistry.sessionCount());
+
+        tgt.markTicketExpired();
+        assertNull(this.ticketRegistry.getTicket(tgt.getId()));
+        assertEquals(0, this.ticketRegistry.sessionCount());
+    }
+
+    @Test
+    public void verifyCountsAreResetWithRegistry() {
+        final TicketGrantingTicket tgt = newTicketGrantingTicket("TGT-1");
+        this.ticketRegistry.addTicket(tgt);
+        this.ticketRegistry.addTicket(grantServiceTicket(tgt, "ST-1"));
+        this.ticketRegistry.deleteAll();
+
+        assertEquals(0, this.ticketRegistry.sessionCount());
+        assertEquals(0, this.ticketRegistry.serviceTicketCount());
+    }
+
+    private static ServiceTicket grantServiceTicket(final TicketGrantingTicket tgt, final String id) {
+        return tgt.grantServiceTicket(id, RegisteredServiceTestUtils.getService(id), new NeverExpiresExpirationPolicy(), false, true);
+    }
+
+    private static TicketGrantingTicket newTicketGrantingTicket(final String id) {
+        return new TicketGrantingTicketImpl(id, CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+    }
+}
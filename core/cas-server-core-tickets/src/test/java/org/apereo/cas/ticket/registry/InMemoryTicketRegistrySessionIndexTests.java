@@ -0,0 +1,131 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.authentication.principal.Service;
+import org.apereo.cas.logout.LogoutManager;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
+import org.apereo.cas.ticket.proxy.ProxyTicket;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link InMemoryTicketRegistrySessionIndexTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class InMemoryTicketRegistrySessionIndexTests {
+
+    private InMemoryTicketRegistrySessionIndex sessionIndex;
+    private DefaultTicketRegistry ticketRegistry;
+
+    @Before
+    public void setUp() {
+        this.sessionIndex = new InMemoryTicketRegistrySessionIndex();
+        this.ticketRegistry = new DefaultTicketRegistry();
+        this.ticketRegistry.setSessionIndex(this.sessionIndex);
+    }
+
+    @Test
+    public void verifySessionsAreFoundByPrincipal() {
+        this.ticketRegistry.addTicket(newTicketGrantingTicket("TGT-1", "casuser"));
+        this.ticketRegistry.addTicket(newTicketGrantingTicket("TGT-2", "casuser"));
+        this.ticketRegistry.addTicket(newTicketGrantingTicket("TGT-3", "someone-else"));
+
+        final List<String> sessions = this.ticketRegistry.getSessionsFor("casuser")
+                .map(TicketGrantingTicket::getId)
+                .sorted()
+                .collect(Collectors.toList());
+        assertEquals(2, sessions.size());
+        assertEquals("TGT-1", sessions.get(0));
+        assertEquals("TGT-2", sessions.get(1));
+        assertEquals(0, this.ticketRegistry.getSessionsFor("unknown").count());
+    }
+
+    @Test
+    public void verifyDescendantsAreRemovedWithSession() {
+        final Authentication authentication = CoreAuthenticationTestUtils.getAuthentication("casuser");
+        final TicketGrantingTicket tgt = new TicketGrantingTicketImpl("TGT-1", authentication, new NeverExpiresExpirationPolicy());
+        this.ticketRegistry.addTicket(tgt);
+
+        final Service service = RegisteredServiceTestUtils.getService("SESSION_INDEX_TEST");
+        final ServiceTicket st = tgt.grantServiceTicket("ST-1", service, new NeverExpiresExpirationPolicy(), false, true);
+        this.ticketRegistry.addTicket(st);
+        final ProxyGrantingTicket pgt = st.grantProxyGrantingTicket("PGT-1", authentication, new NeverExpiresExpirationPolicy());
+        this.ticketRegistry.addTicket(pgt);
+        final ProxyTicket pt = pgt.grantProxyTicket("PT-1", service, new NeverExpiresExpirationPolicy(), false);
+        this.ticketRegistry.addTicket(pt);
+        this.ticketRegistry.updateTicket(tgt);
+
+        assertEquals(3, this.sessionIndex.getDescendants("TGT-1").size());
+        assertEquals(4, this.ticketRegistry.deleteTicket("TGT-1"));
+        assertNull(this.ticketRegistry.getTicket("PT-1"));
+        assertTrue(this.ticketRegistry.getTickets().isEmpty());
+        assertTrue(this.sessionIndex.getSessions("casuser").isEmpty());
+        assertTrue(this.sessionIndex.getDescendants("TGT-1").isEmpty());
+    }
+
+    @Test
+    public void verifySessionsNoLongerInRegistryAreDropped() {
+        this.ticketRegistry.addTicket(newTicketGrantingTicket("TGT-1", "casuser"));
+        this.ticketRegistry.deleteSingleTicket("TGT-1");
+
+        assertEquals(0, this.ticketRegistry.getSessionsFor("casuser").count());
+        assertTrue(this.sessionIndex.getSessions("casuser").isEmpty());
+    }
+
+    @Test
+    public void verifyUsedTicketsArePrunedFromSession() {
+        final TicketGrantingTicket tgt = newTicketGrantingTicket("TGT-1", "casuser");
+        this.ticketRegistry.addTicket(tgt);
+        final Service service = RegisteredServiceTestUtils.getService("SESSION_INDEX_TEST");
+        this.ticketRegistry.addTicket(tgt.grantServiceTicket("ST-1", service, new NeverExpiresExpirationPolicy(), false, true));
+        this.ticketRegistry.addTicket(tgt.grantServiceTicket("ST-2", service, new NeverExpiresExpirationPolicy(), false, true));
+
+        assertEquals(1, this.ticketRegistry.deleteTicket("ST-1"));
+        assertEquals(1, this.sessionIndex.getDescendants("TGT-1").size());
+        assertTrue(this.sessionIndex.getDescendants("TGT-1").contains("ST-2"));
+    }
+
+    @Test
+    public void verifyExpiredSessionsAreDroppedByCleaner() {
+        final TicketGrantingTicket tgt = newTicketGrantingTicket("TGT-1", "casuser");
+        this.ticketRegistry.addTicket(tgt);
+        final Service service = RegisteredServiceTestUtils.getService("SESSION_INDEX_TEST");
+        this.ticketRegistry.addTicket(tgt.grantServiceTicket("ST-1", service, new NeverExpiresExpirationPolicy(), false, true));
+        this.ticketRegistry.addTicket(newTicketGrantingTicket("TGT-2", "casuser"));
+        tgt.markTicketExpired();
+
+        final DefaultTicketRegistryCleaner cleaner = new DefaultTicketRegistryCleaner(new NoOpLockingStrategy(),
+                mock(LogoutManager.class), this.ticketRegistry);
+        cleaner.clean();
+
+        assertNull(this.ticketRegistry.getTicket("TGT-1"));
+        assertEquals(1, this.sessionIndex.getSessions("casuser").size());
+        assertTrue(this.sessionIndex.getSessions("casuser").contains("TGT-2"));
+        assertTrue(this.sessionIndex.getDescendants("TGT-1").isEmpty());
+    }
+
+    @Test
+    public void verifyIndexIsClearedWithRegistry() {
+        this.ticketRegistry.addTicket(newTicketGrantingTicket("TGT-1", "casuser"));
+        this.ticketRegistry.deleteAll();
+        assertTrue(this.sessionIndex.getSessions("casuser").isEmpty());
+    }
+
+    private static TicketGrantingTicket newTicketGrantingTicket(final String id, final String principal) {
+        return new TicketGrantingTicketImpl(id, CoreAuthenticationTestUtils.getAuthentication(principal), new NeverExpiresExpirationPolicy());
+    }
+}
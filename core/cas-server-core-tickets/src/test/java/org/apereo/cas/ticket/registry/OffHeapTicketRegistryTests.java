@@ -0,0 +1,86 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.apereo.cas.util.cipher.NoOpCipherExecutor;
+import org.apereo.cas.util.serialization.BinarySerializer;
+import org.apereo.cas.util.serialization.JavaBinarySerializer;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case to test the {@link OffHeapTicketRegistry} based on test cases to test all
+ * Ticket Registries.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@RunWith(Parameterized.class)
+public class OffHeapTicketRegistryTests extends AbstractTicketRegistryTests {
+
+    public OffHeapTicketRegistryTests(final boolean useEncryption) {
+        super(useEncryption);
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object> getTestParameters() {
+        return Arrays.asList(false, true);
+    }
+
+    @Override
+    public TicketRegistry getNewTicketRegistry() {
+        return new OffHeapTicketRegistry(4, 4096, 16, 2, NoOpCipherExecutor.getInstance());
+    }
+
+    @Test
+    public void verifyTicketsOutliveHotSet() {
+        final OffHeapTicketRegistry registry = new OffHeapTicketRegistry(4, 4096, 16, 2, NoOpCipherExecutor.getInstance());
+        IntStream.range(0, 500).forEach(i -> registry.addTicket(new TicketGrantingTicketImpl("TGT-" + i,
+                CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy())));
+        assertEquals(500, registry.getTickets().size());
+        IntStream.range(0, 500).forEach(i -> assertNotNull(registry.getTicket("TGT-" + i, TicketGrantingTicket.class)));
+
+        final long allocated = registry.getAllocatedBytes();
+        IntStream.range(0, 500).forEach(i -> assertTrue(registry.deleteSingleTicket("TGT-" + i)));
+        assertTrue(registry.getTickets().isEmpty());
+        assertTrue(registry.getAllocatedBytes() < allocated);
+    }
+
+    @Test
+    public void verifyTicketSerializerIsUsed() {
+        final OffHeapTicketRegistry registry = new OffHeapTicketRegistry(4, 4096, 16, 0, NoOpCipherExecutor.getInstance());
+        final AtomicInteger encoded = new AtomicInteger();
+        final AtomicInteger decoded = new AtomicInteger();
+        final BinarySerializer<Ticket> delegate = new JavaBinarySerializer<>();
+        registry.setTicketSerializer(new BinarySerializer<Ticket>() {
+            @Override
+            public byte[] encode(final Ticket object) {
+                encoded.incrementAndGet();
+                return delegate.encode(object);
+            }
+
+            @Override
+            public Ticket decode(final byte[] data) {
+                decoded.incrementAndGet();
+                return delegate.decode(data);
+            }
+        });
+        registry.addTicket(new TicketGrantingTicketImpl("TGT-1", CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy()));
+        assertEquals(1, encoded.get());
+        assertEquals(1, registry.getTickets().size());
+        assertTrue(decoded.get() > 0);
+        assertTrue(registry.deleteSingleTicket("TGT-1"));
+        assertNull(registry.getTicket("TGT-1"));
+    }
+}
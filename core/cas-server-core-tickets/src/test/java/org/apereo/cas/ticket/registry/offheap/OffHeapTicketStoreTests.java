@@ -0,0 +1,118 @@
+package org.apereo.cas.ticket.registry.offheap;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link OffHeapTicketStoreTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class OffHeapTicketStoreTests {
+
+    @Test
+    public void verifyPutGetAndReplace() {
+        final OffHeapTicketStore store = new OffHeapTicketStore(2, 1024, 4);
+        store.put("ST-1", bytes("first"));
+        assertEquals("first", string(store.get("ST-1")));
+        store.put("ST-1", bytes("a much longer second value that needs a larger slot than the first"));
+        assertEquals("a much longer second value that needs a larger slot than the first", string(store.get("ST-1")));
+        assertEquals(1, store.size());
+        assertNull(store.get("ST-2"));
+    }
+
+    @Test
+    public void verifyIndexGrowsAndShrinks() {
+        final OffHeapTicketStore store = new OffHeapTicketStore(1, 4096, 1);
+        IntStream.range(0, 2000).forEach(i -> store.put("TGT-" + i, bytes("value-" + i)));
+        assertEquals(2000, store.size());
+        IntStream.range(0, 2000).filter(i -> i % 3 == 0).forEach(i -> assertTrue(store.remove("TGT-" + i)));
+        IntStream.range(0, 2000).forEach(i -> {
+            final byte[] value = store.get("TGT-" + i);
+            if (i % 3 == 0) {
+                assertNull(value);
+            } else {
+                assertEquals("value-" + i, string(value));
+            }
+        });
+        assertEquals(store.size(), store.values().count());
+        assertFalse(store.remove("TGT-0"));
+    }
+
+    @Test
+    public void verifyLargeEntriesAndClear() {
+        final OffHeapTicketStore store = new OffHeapTicketStore(4, 128, 16);
+        final String large = IntStream.range(0, 100).mapToObj(String::valueOf).collect(Collectors.joining(","));
+        store.put("PGT-1", bytes(large));
+        store.put("PGT-2", bytes("small"));
+        assertEquals(large, string(store.get("PGT-1")));
+        final long allocated = store.getAllocatedBytes();
+        assertTrue(store.remove("PGT-1"));
+        assertTrue(store.getAllocatedBytes() < allocated);
+        assertEquals(1, store.clear());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void verifyRemovalWaitsForConcurrentReader() throws Exception {
+        final OffHeapTicketStore store = new OffHeapTicketStore(1, 1024, 4);
+        store.put("TGT-1", bytes("value"));
+        final List<String> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch reading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final CompletableFuture<String> reader = CompletableFuture.supplyAsync(() -> store.get("TGT-1", payload -> {
+            reading.countDown();
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            events.add("read");
+            return string(payload);
+        }));
+        assertTrue(reading.await(5, TimeUnit.SECONDS));
+
+        final CompletableFuture<Boolean> remover = CompletableFuture.supplyAsync(() -> store.remove("TGT-1", () -> events.add("removed")));
+        Thread.sleep(200);
+        assertFalse(remover.isDone());
+
+        release.countDown();
+        assertEquals("value", reader.get(5, TimeUnit.SECONDS));
+        assertTrue(remover.get(5, TimeUnit.SECONDS));
+        assertEquals(2, events.size());
+        assertEquals("read", events.get(0));
+        assertEquals("removed", events.get(1));
+        assertNull(store.get("TGT-1", OffHeapTicketStoreTests::string));
+    }
+
+    @Test
+    public void verifyCallbacksRunWhenStored() {
+        final OffHeapTicketStore store = new OffHeapTicketStore(1, 1024, 4);
+        final List<String> events = new CopyOnWriteArrayList<>();
+        assertTrue(store.put("ST-1", bytes("first"), () -> events.add("added")));
+        assertFalse(store.put("ST-1", bytes("second"), () -> events.add("replaced")));
+        assertFalse(store.remove("ST-2", () -> events.add("missing")));
+        assertEquals(3, events.size());
+        assertEquals("second", store.get("ST-1", OffHeapTicketStoreTests::string));
+    }
+
+    private static byte[] bytes(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(final byte[] value) {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
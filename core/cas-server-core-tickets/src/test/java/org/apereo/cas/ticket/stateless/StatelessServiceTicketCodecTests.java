@@ -0,0 +1,88 @@
+package org.apereo.cas.ticket.stateless;
+
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.authentication.principal.Service;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.MultiTimeUseOrTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.apereo.cas.util.EncodingUtils;
+import org.apereo.cas.util.cipher.ProtocolTicketCipherExecutor;
+import org.junit.Test;
+
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link StatelessServiceTicketCodecTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class StatelessServiceTicketCodecTests {
+
+    private final TicketGrantingTicket tgt = new TicketGrantingTicketImpl("TGT-1",
+            CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+
+    private final Function<String, TicketGrantingTicket> resolver = id -> tgt.getId().equals(id) ? tgt : null;
+
+    private final StatelessServiceTicketCodec codec = new StatelessServiceTicketCodec(
+            new ProtocolTicketCipherExecutor(null, null, EncodingUtils.DEFAULT_CONTENT_ENCRYPTION_ALGORITHM),
+            new TimePartitionedServiceTicketReplayFilter(10),
+            new MultiTimeUseOrTimeoutExpirationPolicy(1, 10),
+            1);
+
+    @Test
+    public void verifyTicketIsRebuiltFromItsId() {
+        final Service service = CoreAuthenticationTestUtils.getService();
+        final String id = codec.encode(tgt, service, true);
+        assertTrue(id.startsWith(ServiceTicket.PREFIX + "-SL-"));
+        assertTrue(codec.supports(id));
+        assertFalse(codec.supports("ST-1-3jD0uKs3pDWG2XQuWXJj-cas"));
+
+        final ServiceTicket ticket = codec.decode(id, resolver);
+        assertNotNull(ticket);
+        assertEquals(id, ticket.getId());
+        assertEquals(service.getId(), ticket.getService().getId());
+        assertSame(tgt, ticket.getGrantingTicket());
+        assertTrue(ticket.isFromNewLogin());
+    }
+
+    @Test
+    public void verifyTicketCanOnlyBeRedeemedOnce() {
+        final String id = codec.encode(tgt, CoreAuthenticationTestUtils.getService(), false);
+        assertNotNull(codec.redeem(id, resolver));
+        assertNull(codec.redeem(id, resolver));
+    }
+
+    @Test
+    public void verifyTamperedTicketIsRejected() {
+        final String id = codec.encode(tgt, CoreAuthenticationTestUtils.getService(), false);
+        final String tampered = id.substring(0, id.length() - 4) + "abcd";
+        assertNull(codec.decode(tampered, resolver));
+        assertNull(codec.decode("ST-1-unknown", resolver));
+    }
+
+    @Test
+    public void verifyTicketWithoutTicketGrantingTicketIsRejected() {
+        final String id = codec.encode(tgt, CoreAuthenticationTestUtils.getService(), false);
+        assertNull(codec.redeem(id, ticketId -> null));
+    }
+
+    @Test
+    public void verifyTicketIssuesOneProxyGrantingTicketBeforeItIsRedeemed() {
+        final String id = codec.encode(tgt, CoreAuthenticationTestUtils.getService(), false);
+        assertNotNull(codec.redeemForProxying(id, resolver));
+        assertNull(codec.redeemForProxying(id, resolver));
+        assertNotNull(codec.redeem(id, resolver));
+    }
+
+    @Test
+    public void verifyRedeemedTicketCannotIssueProxyGrantingTickets() {
+        final String id = codec.encode(tgt, CoreAuthenticationTestUtils.getService(), false);
+        assertNotNull(codec.redeem(id, resolver));
+        assertNull(codec.redeemForProxying(id, resolver));
+    }
+}
@@ -0,0 +1,70 @@
+package org.apereo.cas.ticket.stateless;
+
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link TimePartitionedServiceTicketReplayFilterTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class TimePartitionedServiceTicketReplayFilterTests {
+
+    private static final long NOW = 1_000_000L;
+
+    @Test
+    public void verifyTicketUsesAreLimited() {
+        final TimePartitionedServiceTicketReplayFilter filter = new TimePartitionedServiceTicketReplayFilter(10, clockAt(NOW));
+        assertTrue(filter.use("ST-1", 2, NOW + 5));
+        assertTrue(filter.use("ST-1", 2, NOW + 5));
+        assertFalse(filter.use("ST-1", 2, NOW + 5));
+        assertTrue(filter.use("ST-2", 1, NOW + 5));
+    }
+
+    @Test
+    public void verifyExpiredTicketsAreForgotten() {
+        final MutableClock clock = new MutableClock(NOW);
+        final TimePartitionedServiceTicketReplayFilter filter = new TimePartitionedServiceTicketReplayFilter(10, clock);
+        assertTrue(filter.use("ST-1", 1, NOW + 5));
+        assertTrue(filter.use("ST-2", 1, NOW + 50));
+        assertEquals(2, filter.size());
+
+        clock.epochSecond = NOW + 30;
+        assertFalse(filter.use("ST-1", 1, NOW + 5));
+        assertEquals(1, filter.size());
+    }
+
+    private static Clock clockAt(final long epochSecond) {
+        return Clock.fixed(Instant.ofEpochSecond(epochSecond), ZoneOffset.UTC);
+    }
+
+    private static class MutableClock extends Clock {
+        private long epochSecond;
+
+        MutableClock(final long epochSecond) {
+            this.epochSecond = epochSecond;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochSecond(this.epochSecond);
+        }
+    }
+}
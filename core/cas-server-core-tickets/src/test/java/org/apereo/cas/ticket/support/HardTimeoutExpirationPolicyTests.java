@@ -3,12 +3,16 @@ package org.apereo.cas.ticket.support;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.io.FileUtils;
 import org.apereo.cas.ticket.ExpirationPolicy;
+import org.apereo.cas.ticket.TicketState;
 import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
 
 /**
  * @author Misagh Moayyed
@@ -26,4 +30,15 @@ public class HardTimeoutExpirationPolicyTests {
         final ExpirationPolicy policyRead = MAPPER.readValue(JSON_FILE, HardTimeoutExpirationPolicy.class);
         assertEquals(policyWritten, policyRead);
     }
+
+    @Test
+    public void verifyMaximumExpirationTimeDoesNotMoveWithUse() {
+        final ZonedDateTime creationTime = ZonedDateTime.now(ZoneOffset.UTC).minusSeconds(30);
+        final TicketState state = mock(TicketState.class);
+        when(state.getCreationTime()).thenReturn(creationTime);
+        when(state.getLastTimeUsed()).thenReturn(creationTime.plusSeconds(20));
+        assertEquals(creationTime.plusSeconds(60), new HardTimeoutExpirationPolicy(60).getMaximumExpirationTime(state));
+        assertEquals(creationTime.plusSeconds(80), new MultiTimeUseOrTimeoutExpirationPolicy(1, 60).getMaximumExpirationTime(state));
+        assertNull(new NeverExpiresExpirationPolicy().getMaximumExpirationTime(state));
+    }
 }
@@ -7,6 +7,7 @@ import org.apereo.cas.services.RegisteredServiceTestUtils;
 import org.apereo.cas.ticket.ExpirationPolicy;
 import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.TicketState;
 import org.joda.time.DateTimeUtils;
 import org.junit.Before;
 import org.junit.Test;
@@ -16,10 +17,12 @@ import org.springframework.test.annotation.DirtiesContext;
 
 import java.io.File;
 import java.io.IOException;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
 
 /**
  * @author William G. Thompson, Jr.
@@ -70,6 +73,20 @@ public class TicketGrantingTicketExpirationPolicyTests {
         assertTrue(ticketGrantingTicket.isExpired());
     }
 
+    @Test
+    public void verifyMaximumExpirationTimeIsBoundByHardTimeout() {
+        final TicketGrantingTicketExpirationPolicy policy = new TicketGrantingTicketExpirationPolicy(100, 10);
+        final ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        final TicketState state = mock(TicketState.class);
+        when(state.getCreationTime()).thenReturn(now.minusSeconds(50));
+        when(state.getLastTimeUsed()).thenReturn(now.minusSeconds(5));
+        assertEquals(now.plusSeconds(5), policy.getMaximumExpirationTime(state));
+
+        when(state.getCreationTime()).thenReturn(now.minusSeconds(95));
+        when(state.getLastTimeUsed()).thenReturn(now);
+        assertEquals(now.plusSeconds(5), policy.getMaximumExpirationTime(state));
+    }
+
     @Test
     public void verifyTgtIsExpiredBySlidingWindow() {
         ticketGrantingTicket.grantServiceTicket(TGT_ID, RegisteredServiceTestUtils.getService(), expirationPolicy, false, true);
@@ -1,7 +1,11 @@
 package org.apereo.cas.util;
 
+import org.apereo.cas.util.gen.Base64RandomStringGenerator;
+import org.apereo.cas.util.gen.DefaultLongNumericGenerator;
 import org.junit.Test;
 
+import java.util.Arrays;
+
 import static org.junit.Assert.*;
 
 /**
@@ -35,4 +39,32 @@ public class DefaultUniqueTicketIdGeneratorTests {
         final String ticketId = generator.getNewTicketId("test");
         assertEquals(lengthWithoutSuffix, ticketId.length());
     }
+
+    @Test
+    public void verifyTicketBodyIsSanitized() {
+        final Base64RandomStringGenerator randomStringGenerator = new Base64RandomStringGenerator(4) {
+            @Override
+            public byte[] getNewStringAsBytes(final int size) {
+                final byte[] random = new byte[size];
+                Arrays.fill(random, (byte) 0xff);
+                return random;
+            }
+        };
+        final DefaultUniqueTicketIdGenerator generator =
+                new DefaultUniqueTicketIdGenerator(new DefaultLongNumericGenerator(1), randomStringGenerator, "node");
+        assertEquals("ST-1------w-node", generator.getNewTicketId("ST"));
+    }
+
+    @Test
+    public void verifyGeneratorSubclassIsHonored() {
+        final Base64RandomStringGenerator randomStringGenerator = new Base64RandomStringGenerator(4) {
+            @Override
+            public String getNewString() {
+                return "custom_body";
+            }
+        };
+        final DefaultUniqueTicketIdGenerator generator =
+                new DefaultUniqueTicketIdGenerator(new DefaultLongNumericGenerator(1), randomStringGenerator, "node");
+        assertEquals("ST-1-custom-body-node", generator.getNewTicketId("ST"));
+    }
 }
@@ -1,7 +1,5 @@
 package org.apereo.cas.util.gen;
 
-import org.apereo.cas.util.EncodingUtils;
-
 /**
  * This is {@link Base64RandomStringGenerator}.
  *
@@ -14,6 +12,16 @@ import org.apereo.cas.util.EncodingUtils;
  */
 public class Base64RandomStringGenerator extends AbstractRandomStringGenerator {
 
+    private static final char[] URL_SAFE_ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+
+    private static final int SEXTET_MASK = 0x3f;
+    private static final int BYTE_MASK = 0xff;
+    private static final int BITS_PER_CHAR = 6;
+    private static final int BITS_PER_BYTE = 8;
+    private static final int BYTES_PER_GROUP = 3;
+    private static final int CHARS_PER_GROUP = 4;
+
     public Base64RandomStringGenerator() {
         super();
     }
@@ -29,7 +37,47 @@ public class Base64RandomStringGenerator extends AbstractRandomStringGenerator {
      * @return a converted String
      */
     protected String convertBytesToString(final byte[] random) {
-        return EncodingUtils.encodeUrlSafeBase64(random);
+        final char[] output = new char[getEncodedLength(random.length)];
+        encode(random, output, 0);
+        return new String(output);
+    }
+
+    /**
+     * Gets the number of characters needed to encode the given number of bytes, without padding.
+     *
+     * @param size the number of bytes
+     * @return the encoded length
+     */
+    public static int getEncodedLength(final int size) {
+        return (size * CHARS_PER_GROUP + BYTES_PER_GROUP - 1) / BYTES_PER_GROUP;
     }
 
+    /**
+     * Encode bytes as URL safe base64, without padding, into the given array.
+     *
+     * @param random the bytes
+     * @param output the output
+     * @param offset the position in the output to start writing at
+     * @return the number of characters written
+     */
+    public static int encode(final byte[] random, final char[] output, final int offset) {
+        int out = offset;
+        int in = 0;
+        while (in < random.length) {
+            final int count = Math.min(BYTES_PER_GROUP, random.length - in);
+            int bits = 0;
+            for (int i = 0; i < BYTES_PER_GROUP; i++) {
+                bits <<= BITS_PER_BYTE;
+                if (i < count) {
+                    bits |= random[in + i] & BYTE_MASK;
+                }
+            }
+            final int chars = getEncodedLength(count);
+            for (int i = 0; i < chars; i++) {
+                output[out++] = URL_SAFE_ALPHABET[bits >>> (CHARS_PER_GROUP - 1 - i) * BITS_PER_CHAR & SEXTET_MASK];
+            }
+            in += count;
+        }
+        return out - offset;
+    }
 }
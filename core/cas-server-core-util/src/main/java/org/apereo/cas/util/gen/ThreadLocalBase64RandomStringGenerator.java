@@ -0,0 +1,36 @@
+package org.apereo.cas.util.gen;
+
+/**
+ * This is {@link ThreadLocalBase64RandomStringGenerator}.
+ *
+ * URL safe base64 encoding implementation of the RandomStringGenerator whose random bytes
+ * come from a generator owned by the calling thread, rather than from a single
+ * {@link java.security.SecureRandom} shared by all threads.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class ThreadLocalBase64RandomStringGenerator extends Base64RandomStringGenerator {
+
+    private static final ThreadLocalSecureRandom RANDOM = new ThreadLocalSecureRandom();
+
+    public ThreadLocalBase64RandomStringGenerator() {
+        super();
+    }
+
+    public ThreadLocalBase64RandomStringGenerator(final int defaultLength) {
+        super(defaultLength);
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return RANDOM.getAlgorithm();
+    }
+
+    @Override
+    public byte[] getNewStringAsBytes(final int size) {
+        final byte[] random = new byte[size];
+        RANDOM.nextBytes(random);
+        return random;
+    }
+}
@@ -0,0 +1,96 @@
+package org.apereo.cas.util.gen;
+
+import org.apereo.cas.util.RandomUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * This is {@link ThreadLocalSecureRandom}.
+ * Gives every thread its own deterministic random bit generator, so that threads producing
+ * random values do not contend on a single shared {@link SecureRandom}. Each generator is
+ * seeded from the native source of the platform when first used by a thread, and is reseeded
+ * from the same source once it has produced the configured number of bytes.
+ * The {@code DRBG} algorithm is used when the runtime offers it, and {@code SHA1PRNG} otherwise.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class ThreadLocalSecureRandom {
+    /**
+     * Default number of bytes produced by a generator before it is reseeded.
+     */
+    public static final long DEFAULT_RESEED_INTERVAL = 1024 * 1024;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ThreadLocalSecureRandom.class);
+
+    private static final int SEED_LENGTH = 32;
+
+    private static final String[] ALGORITHMS = {"DRBG", "SHA1PRNG"};
+
+    private final SecureRandom seedSource = RandomUtils.getInstanceNative();
+
+    private final long reseedInterval;
+
+    private final ThreadLocal<Generator> generators = ThreadLocal.withInitial(this::newGenerator);
+
+    public ThreadLocalSecureRandom() {
+        this(DEFAULT_RESEED_INTERVAL);
+    }
+
+    public ThreadLocalSecureRandom(final long reseedInterval) {
+        this.reseedInterval = reseedInterval;
+    }
+
+    /**
+     * Fill the given array with random bytes, using the generator of the calling thread.
+     *
+     * @param bytes the bytes
+     */
+    public void nextBytes(final byte[] bytes) {
+        final Generator generator = this.generators.get();
+        if (generator.bytesSinceSeed >= this.reseedInterval) {
+            generator.random.setSeed(generateSeed());
+            generator.bytesSinceSeed = 0;
+        }
+        generator.random.nextBytes(bytes);
+        generator.bytesSinceSeed += bytes.length;
+    }
+
+    /**
+     * Gets the algorithm of the generators.
+     *
+     * @return the algorithm
+     */
+    public String getAlgorithm() {
+        return this.generators.get().random.getAlgorithm();
+    }
+
+    private Generator newGenerator() {
+        for (final String algorithm : ALGORITHMS) {
+            try {
+                final SecureRandom random = SecureRandom.getInstance(algorithm);
+                random.setSeed(generateSeed());
+                return new Generator(random);
+            } catch (final NoSuchAlgorithmException e) {
+                LOGGER.trace("Random number generation algorithm [{}] is not available", algorithm);
+            }
+        }
+        return new Generator(new SecureRandom(generateSeed()));
+    }
+
+    private byte[] generateSeed() {
+        return this.seedSource.generateSeed(SEED_LENGTH);
+    }
+
+    private static class Generator {
+        private final SecureRandom random;
+        private long bytesSinceSeed;
+
+        Generator(final SecureRandom random) {
+            this.random = random;
+        }
+    }
+}
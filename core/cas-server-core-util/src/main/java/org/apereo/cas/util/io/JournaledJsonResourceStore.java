@@ -0,0 +1,480 @@
+package org.apereo.cas.util.io;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apereo.cas.util.ResourceUtils;
+import org.hjson.JsonValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * This is {@link JournaledJsonResourceStore} that keeps records, each under a key of its own, in a JSON resource
+ * without rewriting the resource on every change.
+ * <p>
+ * Records are read from the resource once and are held in an index by key, from which they are read from then on.
+ * Changes are appended to a journal that sits next to the resource, one JSON line per change, so that a change
+ * costs as much as the record it carries. Once the journal has collected enough entries, it is set aside and
+ * a fresh one is started, and the resource is rewritten from the index in the background; the rewritten resource
+ * is swapped in atomically and only then is the old journal removed. Every append is forced to the device before
+ * the change is applied, and so are the rewritten resource and the directory entries of the files that are created,
+ * renamed and removed along the way. When the store is loaded, both journals
+ * are replayed on top of the resource. Replaying an entry that the resource already reflects has no further effect,
+ * and a line torn by an interrupted write is skipped, so whatever point a crash occurs at, the store comes back
+ * with every change that made it into the journal.
+ * <p>
+ * The resource keeps the layout that it always had; by default this is a JSON array of records, and subclasses
+ * may read and write other layouts by overriding {@link #readSnapshot(String)} and {@link #writeSnapshot(File, Collection)}.
+ *
+ * @param <T> the type of record
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class JournaledJsonResourceStore<T> {
+    /**
+     * Default number of journal entries after which the resource is rewritten.
+     */
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 1000;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournaledJsonResourceStore.class);
+
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String COMPACTING_JOURNAL_SUFFIX = ".journal.compacting";
+    private static final String SNAPSHOT_SUFFIX = ".tmp";
+
+    private static final String FIELD_KEY = "key";
+    private static final String FIELD_RECORD = "record";
+
+    /**
+     * Mapper that reads and writes records.
+     */
+    protected final ObjectMapper mapper;
+
+    /**
+     * Type of record.
+     */
+    protected final JavaType recordType;
+
+    private final Resource resource;
+    private final Function<T, String> keyFunction;
+    private final int compactionThreshold;
+    private final Map<String, T> records = new ConcurrentHashMap<>();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final Object compactionLock = new Object();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        final Thread thread = new Thread(r, getClass().getSimpleName());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean loaded;
+    private int journalEntries;
+    private FileChannel journal;
+
+    public JournaledJsonResourceStore(final Resource resource, final ObjectMapper mapper,
+                                      final Class<T> recordType, final Function<T, String> keyFunction) {
+        this(resource, mapper, recordType, keyFunction, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    public JournaledJsonResourceStore(final Resource resource, final ObjectMapper mapper,
+                                      final Class<T> recordType, final Function<T, String> keyFunction,
+                                      final int compactionThreshold) {
+        this.resource = resource;
+        this.mapper = mapper;
+        this.recordType = mapper.getTypeFactory().constructType(recordType);
+        this.keyFunction = keyFunction;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Gets the record stored under the key.
+     *
+     * @param key the key
+     * @return the record, or null
+     */
+    public T get(final String key) {
+        load();
+        return this.records.get(key);
+    }
+
+    /**
+     * Gets all records.
+     *
+     * @return the records
+     */
+    public Collection<T> values() {
+        load();
+        return new ArrayList<>(this.records.values());
+    }
+
+    /**
+     * Store the record, replacing any record stored under the same key.
+     *
+     * @param record the record
+     */
+    public synchronized void put(final T record) {
+        load();
+        final String key = this.keyFunction.apply(record);
+        append(toJournalEntry(key, record));
+        index(key, record);
+        compactIfNeeded();
+    }
+
+    /**
+     * Remove the record stored under the key.
+     *
+     * @param key the key
+     * @return true if a record was removed
+     */
+    public synchronized boolean remove(final String key) {
+        load();
+        if (!this.records.containsKey(key)) {
+            return false;
+        }
+        append(toJournalEntry(key, null));
+        unindex(key);
+        compactIfNeeded();
+        return true;
+    }
+
+    /**
+     * Remove all records that match the predicate.
+     *
+     * @param predicate the predicate
+     * @return the number of records removed
+     */
+    public synchronized int removeIf(final Predicate<T> predicate) {
+        load();
+        final List<String> keys = new ArrayList<>();
+        this.records.forEach((key, record) -> {
+            if (predicate.test(record)) {
+                keys.add(key);
+            }
+        });
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        final StringBuilder entries = new StringBuilder();
+        keys.forEach(key -> entries.append(toJournalEntry(key, null)));
+        append(entries.toString(), keys.size());
+        keys.forEach(this::unindex);
+        compactIfNeeded();
+        return keys.size();
+    }
+
+    /**
+     * Rewrite the resource from the records held by the store, and drop the journal.
+     */
+    public synchronized void compact() {
+        load();
+        compactJournals();
+    }
+
+    /**
+     * Stop compacting the store in the background and close the journal.
+     */
+    public synchronized void destroy() {
+        this.compactor.shutdown();
+        closeJournal();
+    }
+
+    /**
+     * Called as a record is added to the index of the store, or replaces another, so that subclasses
+     * may keep indexes of their own. Called with the lock of the store held, or while the store is being loaded.
+     *
+     * @param key    the key
+     * @param record the record
+     */
+    protected void recordAdded(final String key, final T record) {
+    }
+
+    /**
+     * Called as a record is removed from the index of the store, or replaced by another.
+     *
+     * @param key    the key
+     * @param record the record
+     */
+    protected void recordRemoved(final String key, final T record) {
+    }
+
+    /**
+     * Read records from the JSON held by the resource.
+     *
+     * @param json the json
+     * @return the records
+     * @throws IOException the exception
+     */
+    protected Collection<T> readSnapshot(final String json) throws IOException {
+        return this.mapper.readValue(json, this.mapper.getTypeFactory().constructCollectionType(List.class, this.recordType));
+    }
+
+    /**
+     * Write records to the file, in the layout of the resource.
+     *
+     * @param file    the file
+     * @param records the records
+     * @throws IOException the exception
+     */
+    protected void writeSnapshot(final File file, final Collection<T> records) throws IOException {
+        this.mapper.writerWithDefaultPrettyPrinter()
+                .forType(this.mapper.getTypeFactory().constructCollectionType(List.class, this.recordType))
+                .writeValue(file, records);
+    }
+
+    /**
+     * Read the resource and replay the journals, unless the store is loaded already.
+     */
+    protected void load() {
+        if (this.loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (this.loaded) {
+                return;
+            }
+            if (ResourceUtils.doesResourceExist(this.resource)) {
+                try (Reader reader = new InputStreamReader(this.resource.getInputStream(), StandardCharsets.UTF_8)) {
+                    final String json = IOUtils.toString(reader);
+                    if (StringUtils.isNotBlank(json)) {
+                        readSnapshot(JsonValue.readHjson(json).toString()).forEach(r -> index(this.keyFunction.apply(r), r));
+                    }
+                } catch (final Exception e) {
+                    throw new RuntimeException(e.getMessage(), e);
+                }
+            }
+            try {
+                final File compactingJournal = getJournalFile(COMPACTING_JOURNAL_SUFFIX);
+                final File journal = getJournalFile(JOURNAL_SUFFIX);
+                final boolean journaled = compactingJournal.exists() || journal.exists();
+                final int replayed = replay(compactingJournal) + replay(journal);
+                LOGGER.debug("Loaded [{}] record(s) from [{}] and replayed [{}] journal entries", this.records.size(), this.resource, replayed);
+                if (journaled) {
+                    compactJournals();
+                }
+            } catch (final IOException e) {
+                LOGGER.debug("No journal can be kept for [{}] as it does not resolve to a file", this.resource);
+            }
+            this.loaded = true;
+        }
+    }
+
+    /**
+     * Rewrite the resource from the records held by the store and remove both journals.
+     * Callers are expected to hold the lock of the store.
+     */
+    private void compactJournals() {
+        try {
+            synchronized (this.compactionLock) {
+                closeJournal();
+                replaceResourceWith(new ArrayList<>(this.records.values()));
+                Files.deleteIfExists(getJournalFile(COMPACTING_JOURNAL_SUFFIX).toPath());
+                Files.deleteIfExists(getJournalFile(JOURNAL_SUFFIX).toPath());
+                syncDirectory(this.resource.getFile().getParentFile());
+                this.journalEntries = 0;
+            }
+        } catch (final IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    private int replay(final File journal) throws IOException {
+        if (!journal.exists()) {
+            return 0;
+        }
+        try (Stream<String> lines = Files.lines(journal.toPath(), StandardCharsets.UTF_8)) {
+            return (int) lines.filter(line -> !line.trim().isEmpty()).filter(this::replay).count();
+        }
+    }
+
+    private boolean replay(final String line) {
+        try {
+            final JsonNode entry = this.mapper.readTree(line);
+            final String key = entry.get(FIELD_KEY).asText();
+            final JsonNode record = entry.get(FIELD_RECORD);
+            if (record == null || record.isNull()) {
+                unindex(key);
+            } else {
+                index(key, this.mapper.readerFor(this.recordType).readValue(record.toString()));
+            }
+            return true;
+        } catch (final Exception e) {
+            LOGGER.warn("Skipping journal entry that cannot be read, which may be left behind by an interrupted write: [{}]", e.getMessage());
+            return false;
+        }
+    }
+
+    private String toJournalEntry(final String key, final T record) {
+        try {
+            final StringBuilder entry = new StringBuilder()
+                    .append("{\"").append(FIELD_KEY).append("\":").append(this.mapper.writeValueAsString(key));
+            if (record != null) {
+                entry.append(",\"").append(FIELD_RECORD).append("\":").append(this.mapper.writerFor(this.recordType).writeValueAsString(record));
+            }
+            return entry.append('}').append(System.lineSeparator()).toString();
+        } catch (final IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    private void append(final String entry) {
+        append(entry, 1);
+    }
+
+    /**
+     * Append the entries to the journal and force them to the device before the change is applied,
+     * so that a change that is reported as made survives a power loss as well as a crash.
+     * The journal is kept open between appends; callers are expected to hold the lock of the store.
+     */
+    private void append(final String entries, final int count) {
+        try {
+            if (this.journal == null) {
+                final File file = getJournalFile(JOURNAL_SUFFIX);
+                final boolean created = !file.exists();
+                this.journal = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+                if (created) {
+                    syncDirectory(file.getParentFile());
+                }
+            }
+            final ByteBuffer buffer = ByteBuffer.wrap(entries.getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                this.journal.write(buffer);
+            }
+            this.journal.force(false);
+        } catch (final IOException e) {
+            closeJournal();
+            throw new RuntimeException(e.getMessage(), e);
+        }
+        this.journalEntries += count;
+    }
+
+    private void closeJournal() {
+        if (this.journal != null) {
+            try {
+                this.journal.close();
+            } catch (final IOException e) {
+                LOGGER.debug("Unable to close journal of [{}]: [{}]", this.resource, e.getMessage());
+            }
+            this.journal = null;
+        }
+    }
+
+    private void index(final String key, final T record) {
+        final T previous = this.records.put(key, record);
+        if (previous != null) {
+            recordRemoved(key, previous);
+        }
+        recordAdded(key, record);
+    }
+
+    private void unindex(final String key) {
+        final T previous = this.records.remove(key);
+        if (previous != null) {
+            recordRemoved(key, previous);
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (this.journalEntries >= this.compactionThreshold && this.compacting.compareAndSet(false, true)) {
+            scheduleCompaction();
+        }
+    }
+
+    /**
+     * Set the journal aside while holding the lock, so that records written from here on go to a fresh journal,
+     * and rewrite the resource with the records as they were at this point in the background.
+     */
+    private void scheduleCompaction() {
+        try {
+            final File compactingJournal = getJournalFile(COMPACTING_JOURNAL_SUFFIX);
+            if (compactingJournal.exists()) {
+                LOGGER.debug("Journal [{}] has not been compacted yet; compaction is deferred", compactingJournal);
+                this.compacting.set(false);
+                return;
+            }
+            closeJournal();
+            Files.move(getJournalFile(JOURNAL_SUFFIX).toPath(), compactingJournal.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory(compactingJournal.getParentFile());
+            this.journalEntries = 0;
+            final List<T> snapshot = new ArrayList<>(this.records.values());
+            this.compactor.execute(() -> {
+                try {
+                    writeSnapshotAndDropJournal(snapshot, compactingJournal);
+                } catch (final Exception e) {
+                    LOGGER.error("Unable to compact journal [{}]: [{}]", compactingJournal, e.getMessage());
+                } finally {
+                    this.compacting.set(false);
+                }
+            });
+        } catch (final Exception e) {
+            this.compacting.set(false);
+            LOGGER.error("Unable to set journal aside for compaction: [{}]", e.getMessage());
+        }
+    }
+
+    private void writeSnapshotAndDropJournal(final Collection<T> snapshot, final File compactingJournal) throws IOException {
+        synchronized (this.compactionLock) {
+            if (!compactingJournal.exists()) {
+                LOGGER.debug("Journal [{}] is already compacted", compactingJournal);
+                return;
+            }
+            replaceResourceWith(snapshot);
+            Files.deleteIfExists(compactingJournal.toPath());
+            syncDirectory(compactingJournal.getParentFile());
+        }
+    }
+
+    private void replaceResourceWith(final Collection<T> snapshot) throws IOException {
+        final File file = this.resource.getFile();
+        final File temp = new File(file.getParentFile(), file.getName() + SNAPSHOT_SUFFIX);
+        writeSnapshot(temp, snapshot);
+        try (FileChannel channel = FileChannel.open(temp.toPath(), StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory(file.getParentFile());
+        LOGGER.debug("Compacted journal into [{}] with [{}] record(s)", file, snapshot.size());
+    }
+
+    /**
+     * Force the directory entries of the directory to the device, so that files created, renamed or removed
+     * in it stay that way after a power loss. Not every platform allows directories to be opened, in which
+     * case this has no effect.
+     */
+    private static void syncDirectory(final File directory) {
+        try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (final IOException e) {
+            LOGGER.debug("Unable to sync directory [{}]: [{}]", directory, e.getMessage());
+        }
+    }
+
+    private File getJournalFile(final String suffix) throws IOException {
+        final File file = this.resource.getFile();
+        return new File(file.getParentFile(), file.getName() + suffix);
+    }
+}
@@ -0,0 +1,27 @@
+package org.apereo.cas.util.serialization;
+
+/**
+ * Interface to define operations needed to map objects from/to compact binary payloads,
+ * independent of the storage or transport that ultimately carries the bytes.
+ *
+ * @author Misagh Moayyed
+ * @param <T> the type parameter
+ * @since 5.3.0
+ */
+public interface BinarySerializer<T> {
+    /**
+     * Serialize the given object into bytes.
+     *
+     * @param object the object to serialize
+     * @return the serialized bytes
+     */
+    byte[] encode(T object);
+
+    /**
+     * Create the object type from the given bytes.
+     *
+     * @param data the serialized bytes
+     * @return the object instance constructed from
+     */
+    T decode(byte[] data);
+}
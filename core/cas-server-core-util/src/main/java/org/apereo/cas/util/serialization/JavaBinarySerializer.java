@@ -0,0 +1,23 @@
+package org.apereo.cas.util.serialization;
+
+import java.io.Serializable;
+
+/**
+ * This is {@link JavaBinarySerializer} that delegates to default Java serialization.
+ * It is used when no faster serialization strategy is configured.
+ *
+ * @author Misagh Moayyed
+ * @param <T> the type parameter
+ * @since 5.3.0
+ */
+public class JavaBinarySerializer<T> implements BinarySerializer<T> {
+    @Override
+    public byte[] encode(final T object) {
+        return SerializationUtils.serialize((Serializable) object);
+    }
+
+    @Override
+    public T decode(final byte[] data) {
+        return SerializationUtils.deserialize(data);
+    }
+}
@@ -0,0 +1,50 @@
+package org.apereo.cas.util;
+
+import org.apereo.cas.util.gen.Base64RandomStringGenerator;
+import org.apereo.cas.util.gen.ThreadLocalBase64RandomStringGenerator;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ThreadLocalBase64RandomStringGenerator}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class ThreadLocalBase64RandomStringGeneratorTests {
+
+    private static final int LENGTH = 36;
+
+    private final ThreadLocalBase64RandomStringGenerator randomStringGenerator = new ThreadLocalBase64RandomStringGenerator(LENGTH);
+
+    @Test
+    public void verifyEncodingMatchesBase64() {
+        for (int size = 0; size < LENGTH; size++) {
+            final byte[] random = randomStringGenerator.getNewStringAsBytes(size);
+            final char[] output = new char[Base64RandomStringGenerator.getEncodedLength(size)];
+            assertEquals(output.length, Base64RandomStringGenerator.encode(random, output, 0));
+            assertEquals(EncodingUtils.encodeUrlSafeBase64(random), new String(output));
+        }
+    }
+
+    @Test
+    public void verifyRandomStringsAcrossThreads() throws Exception {
+        final Set<String> values = ConcurrentHashMap.newKeySet();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 1000; i++) {
+            executor.execute(() -> values.add(randomStringGenerator.getNewString()));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        assertEquals(1000, values.size());
+        values.forEach(value -> assertEquals(Base64RandomStringGenerator.getEncodedLength(LENGTH), value.length()));
+        assertNotNull(randomStringGenerator.getAlgorithm());
+    }
+}
@@ -0,0 +1,190 @@
+package org.apereo.cas.util.io;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link JournaledJsonResourceStoreTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class JournaledJsonResourceStoreTests {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+
+    @Before
+    public void setUp() {
+        this.file = new File(folder.getRoot(), "records.json");
+    }
+
+    @Test
+    public void verifyChangesAreRecoveredFromJournal() {
+        final JournaledJsonResourceStore<Record> store = newStore(JournaledJsonResourceStore.DEFAULT_COMPACTION_THRESHOLD);
+        store.put(new Record("one", "1"));
+        store.put(new Record("two", "2"));
+        store.put(new Record("one", "10"));
+        assertTrue(store.remove("two"));
+        assertFalse(store.remove("two"));
+        assertFalse(file.exists());
+
+        final JournaledJsonResourceStore<Record> recovered = newStore(JournaledJsonResourceStore.DEFAULT_COMPACTION_THRESHOLD);
+        assertEquals(1, recovered.values().size());
+        assertEquals("10", recovered.get("one").getValue());
+        assertTrue(file.exists());
+        assertFalse(journal(".journal").exists());
+    }
+
+    @Test
+    public void verifyConcurrentReadersWaitForJournalReplay() throws Exception {
+        final JournaledJsonResourceStore<Record> store = newStore(JournaledJsonResourceStore.DEFAULT_COMPACTION_THRESHOLD);
+        IntStream.range(0, 100).forEach(i -> store.put(new Record(String.valueOf(i), String.valueOf(i))));
+
+        final JournaledJsonResourceStore<Record> recovered = newStore(JournaledJsonResourceStore.DEFAULT_COMPACTION_THRESHOLD);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<Record>> results = IntStream.range(0, 8)
+                    .mapToObj(i -> executor.submit(() -> {
+                        start.await();
+                        return recovered.get("99");
+                    }))
+                    .collect(Collectors.toList());
+            start.countDown();
+            for (final Future<Record> result : results) {
+                assertNotNull(result.get(1, TimeUnit.MINUTES));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void verifyTornJournalEntryIsSkipped() throws Exception {
+        final JournaledJsonResourceStore<Record> store = newStore(JournaledJsonResourceStore.DEFAULT_COMPACTION_THRESHOLD);
+        store.put(new Record("one", "1"));
+        Files.write(journal(".journal").toPath(), "{\"key\":\"two\",\"rec".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        final JournaledJsonResourceStore<Record> recovered = newStore(JournaledJsonResourceStore.DEFAULT_COMPACTION_THRESHOLD);
+        assertEquals(1, recovered.values().size());
+        assertNotNull(recovered.get("one"));
+    }
+
+    @Test
+    public void verifyJournalSetAsideForCompactionIsRecovered() throws Exception {
+        final JournaledJsonResourceStore<Record> store = newStore(JournaledJsonResourceStore.DEFAULT_COMPACTION_THRESHOLD);
+        store.put(new Record("one", "1"));
+        Files.move(journal(".journal").toPath(), journal(".journal.compacting").toPath());
+        store.put(new Record("two", "2"));
+
+        final JournaledJsonResourceStore<Record> recovered = newStore(JournaledJsonResourceStore.DEFAULT_COMPACTION_THRESHOLD);
+        assertEquals(2, recovered.values().size());
+        assertFalse(journal(".journal.compacting").exists());
+    }
+
+    @Test
+    public void verifyResourceIsCompactedOnceThresholdIsReached() throws Exception {
+        final JournaledJsonResourceStore<Record> store = newStore(2);
+        store.put(new Record("one", "1"));
+        store.put(new Record("two", "2"));
+        store.removeIf(r -> "1".equals(r.getValue()));
+
+        for (int i = 0; i < 50 && !file.exists(); i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(file.exists());
+        store.compact();
+        final List<Record> records = MAPPER.readValue(file, MAPPER.getTypeFactory().constructCollectionType(List.class, Record.class));
+        assertEquals(1, records.size());
+        assertEquals("two", records.get(0).getId());
+    }
+
+    @Test
+    public void verifySubclassesAreToldOfIndexChanges() {
+        final Map<String, String> values = new ConcurrentHashMap<>();
+        final JournaledJsonResourceStore<Record> store = new JournaledJsonResourceStore<Record>(new FileSystemResource(file),
+                MAPPER, Record.class, Record::getId) {
+            @Override
+            protected void recordAdded(final String key, final Record record) {
+                values.put(key, record.getValue());
+            }
+
+            @Override
+            protected void recordRemoved(final String key, final Record record) {
+                values.remove(key, record.getValue());
+            }
+        };
+        store.put(new Record("one", "1"));
+        store.put(new Record("two", "2"));
+        store.put(new Record("one", "10"));
+        store.removeIf(r -> "2".equals(r.getValue()));
+        assertEquals(1, values.size());
+        assertEquals("10", values.get("one"));
+        store.destroy();
+    }
+
+    private File journal(final String suffix) {
+        return new File(folder.getRoot(), file.getName() + suffix);
+    }
+
+    private JournaledJsonResourceStore<Record> newStore(final int compactionThreshold) {
+        return new JournaledJsonResourceStore<>(new FileSystemResource(file), MAPPER, Record.class, Record::getId, compactionThreshold);
+    }
+
+    /**
+     * Record kept by the store.
+     */
+    public static class Record {
+        private String id;
+        private String value;
+
+        public Record() {
+        }
+
+        public Record(final String id, final String value) {
+            this.id = id;
+            this.value = value;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(final String id) {
+            this.id = id;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(final String value) {
+            this.value = value;
+        }
+    }
+}
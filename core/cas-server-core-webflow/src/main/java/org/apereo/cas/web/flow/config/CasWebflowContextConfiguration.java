@@ -2,6 +2,7 @@ package org.apereo.cas.web.flow.config;
 
 import org.apereo.cas.CipherExecutor;
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.model.webapp.WebflowStateStoreProperties;
 import org.apereo.cas.util.CollectionUtils;
 import org.apereo.cas.web.flow.CasFlowHandlerAdapter;
 import org.apereo.cas.web.flow.CasWebflowConfigurer;
@@ -9,6 +10,9 @@ import org.apereo.cas.web.flow.actions.CasDefaultFlowUrlHandler;
 import org.apereo.cas.web.flow.actions.LogoutConversionService;
 import org.apereo.cas.web.flow.configurer.DefaultWebflowConfigurer;
 import org.apereo.cas.web.flow.configurer.GroovyWebflowConfigurer;
+import org.apereo.cas.web.flow.executor.CaffeineFlowExecutionStateStore;
+import org.apereo.cas.web.flow.executor.FlowExecutionStateStore;
+import org.apereo.cas.web.flow.executor.StoredFlowExecutionRepository;
 import org.apereo.spring.webflow.plugin.ClientFlowExecutionRepository;
 import org.apereo.spring.webflow.plugin.EncryptedTranscoder;
 import org.apereo.spring.webflow.plugin.Transcoder;
@@ -55,6 +59,7 @@ import org.springframework.webflow.mvc.servlet.FlowHandlerMapping;
 import javax.naming.OperationNotSupportedException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -258,9 +263,33 @@ public class CasWebflowContextConfiguration {
         if (casProperties.getWebflow().getSession().isStorage()) {
             return flowExecutorViaServerSessionBindingExecution();
         }
+        if (casProperties.getWebflow().getSession().getStateStore().isEnabled()) {
+            return flowExecutorViaStateStoreExecution();
+        }
         return flowExecutorViaClientFlowExecution();
     }
 
+    @ConditionalOnMissingBean(name = "loginFlowExecutionStateStore")
+    @Bean
+    public FlowExecutionStateStore loginFlowExecutionStateStore() {
+        final WebflowStateStoreProperties store = casProperties.getWebflow().getSession().getStateStore();
+        return new CaffeineFlowExecutionStateStore(Duration.ofSeconds(store.getTimeToLive()), store.getMaximumSize());
+    }
+
+    @Bean
+    public FlowExecutor flowExecutorViaStateStoreExecution() {
+        final FlowDefinitionRegistry loginFlowRegistry = loginFlowRegistry();
+        final StoredFlowExecutionRepository repository = new StoredFlowExecutionRepository(loginFlowExecutionStateStore(),
+            casProperties.getWebflow().getSession().isCompress(),
+            casProperties.getWebflow().getSession().getStateStore().getAllowedPackages());
+        repository.setFlowDefinitionLocator(loginFlowRegistry);
+
+        final FlowExecutionImplFactory factory = new FlowExecutionImplFactory();
+        factory.setExecutionKeyFactory(repository);
+        repository.setFlowExecutionFactory(factory);
+        return new FlowExecutorImpl(loginFlowRegistry, factory, repository);
+    }
+
     @Bean
     public FlowExecutor flowExecutorViaServerSessionBindingExecution() {
         final FlowDefinitionRegistry loginFlowRegistry = loginFlowRegistry();
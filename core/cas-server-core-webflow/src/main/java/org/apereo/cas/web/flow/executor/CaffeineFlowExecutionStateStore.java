@@ -0,0 +1,68 @@
+package org.apereo.cas.web.flow.executor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.webflow.execution.repository.FlowExecutionLock;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/**
+ * This is {@link CaffeineFlowExecutionStateStore} that keeps flow execution snapshots
+ * in a local, size and time-bounded cache. Deployments that need any node to resume a flow
+ * should register a distributed {@link FlowExecutionStateStore} instead.
+ * <p>
+ * Identifiers are locked through a fixed set of striped locks, so locking never allocates
+ * and two identifiers only contend when they share a stripe.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class CaffeineFlowExecutionStateStore implements FlowExecutionStateStore {
+    private static final int LOCK_STRIPES = 64;
+
+    private final Cache<String, byte[]> storage;
+
+    private final ReentrantLock[] locks = IntStream.range(0, LOCK_STRIPES)
+        .mapToObj(i -> new ReentrantLock())
+        .toArray(ReentrantLock[]::new);
+
+    public CaffeineFlowExecutionStateStore(final Duration timeToLive, final long maximumSize) {
+        this.storage = Caffeine.newBuilder()
+            .expireAfterWrite(timeToLive)
+            .maximumSize(maximumSize)
+            .build();
+    }
+
+    @Override
+    public void put(final String id, final byte[] state) {
+        this.storage.put(id, state);
+    }
+
+    @Override
+    public byte[] get(final String id) {
+        return this.storage.getIfPresent(id);
+    }
+
+    @Override
+    public void remove(final String id) {
+        this.storage.invalidate(id);
+    }
+
+    @Override
+    public FlowExecutionLock getLock(final String id) {
+        final ReentrantLock lock = this.locks[(id.hashCode() & Integer.MAX_VALUE) % LOCK_STRIPES];
+        return new FlowExecutionLock() {
+            @Override
+            public void lock() {
+                lock.lock();
+            }
+
+            @Override
+            public void unlock() {
+                lock.unlock();
+            }
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package org.apereo.cas.web.flow.executor;
+
+import org.springframework.webflow.execution.repository.FlowExecutionLock;
+
+/**
+ * This is {@link FlowExecutionStateStore} that holds serialized flow execution snapshots
+ * on the server, keyed by a short identifier handed out to the client as the flow execution key.
+ * Implementations are expected to expire entries on their own once they are no longer needed.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public interface FlowExecutionStateStore {
+
+    /**
+     * Store the serialized flow execution state.
+     *
+     * @param id    the identifier
+     * @param state the state
+     */
+    void put(String id, byte[] state);
+
+    /**
+     * Retrieve the serialized flow execution state.
+     *
+     * @param id the identifier
+     * @return the state, or null if it cannot be found or has expired
+     */
+    byte[] get(String id);
+
+    /**
+     * Remove the flow execution state.
+     *
+     * @param id the identifier
+     */
+    void remove(String id);
+
+    /**
+     * Obtain the lock that guards the flow execution state stored under the identifier,
+     * so that concurrent requests for the same flow execution are processed one at a time.
+     * The lock must be held across every node that shares the store.
+     *
+     * @param id the identifier
+     * @return the lock
+     */
+    FlowExecutionLock getLock(String id);
+}
@@ -0,0 +1,53 @@
+package org.apereo.cas.web.flow.executor;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.util.Collection;
+
+/**
+ * This is {@link StoredFlowExecutionInputStream} that only resolves classes from an allowed set
+ * of packages while reading a flow execution snapshot back from the {@link FlowExecutionStateStore}.
+ * Any other class in the stream fails the read before it is instantiated.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+class StoredFlowExecutionInputStream extends ObjectInputStream {
+    private final Collection<String> allowedPackages;
+
+    StoredFlowExecutionInputStream(final InputStream in, final Collection<String> allowedPackages) throws IOException {
+        super(in);
+        this.allowedPackages = allowedPackages;
+    }
+
+    @Override
+    protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+        verifyAllowed(desc.getName());
+        return super.resolveClass(desc);
+    }
+
+    @Override
+    protected Class<?> resolveProxyClass(final String[] interfaces) throws IOException, ClassNotFoundException {
+        for (final String name : interfaces) {
+            verifyAllowed(name);
+        }
+        return super.resolveProxyClass(interfaces);
+    }
+
+    private void verifyAllowed(final String name) throws InvalidClassException {
+        final String componentType = StringUtils.stripStart(name, "[");
+        if (componentType.length() == 1 && !componentType.equals(name)) {
+            return;
+        }
+        final String className = StringUtils.removeEnd(StringUtils.removeStart(componentType, "L"), ";");
+        final String candidate = componentType.equals(name) ? name : className;
+        if (this.allowedPackages.stream().noneMatch(candidate::startsWith)) {
+            throw new InvalidClassException(name, "Class is not allowed in a stored flow execution");
+        }
+    }
+}
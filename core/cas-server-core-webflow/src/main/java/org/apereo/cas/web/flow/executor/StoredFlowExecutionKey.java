@@ -0,0 +1,45 @@
+package org.apereo.cas.web.flow.executor;
+
+import org.springframework.webflow.execution.FlowExecutionKey;
+
+/**
+ * This is {@link StoredFlowExecutionKey} that only carries the identifier
+ * of a snapshot kept in a {@link FlowExecutionStateStore}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class StoredFlowExecutionKey extends FlowExecutionKey {
+    private static final long serialVersionUID = -2715429370154542126L;
+
+    private final String id;
+
+    public StoredFlowExecutionKey(final String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return this.id.equals(((StoredFlowExecutionKey) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.id.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.id;
+    }
+}
@@ -0,0 +1,180 @@
+package org.apereo.cas.web.flow.executor;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apereo.cas.util.gen.Base64RandomStringGenerator;
+import org.apereo.cas.util.gen.RandomStringGenerator;
+import org.apereo.cas.util.serialization.SerializationUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.webflow.core.collection.LocalAttributeMap;
+import org.springframework.webflow.definition.FlowDefinition;
+import org.springframework.webflow.definition.registry.FlowDefinitionLocator;
+import org.springframework.webflow.engine.impl.FlowExecutionImpl;
+import org.springframework.webflow.execution.FlowExecution;
+import org.springframework.webflow.execution.FlowExecutionFactory;
+import org.springframework.webflow.execution.FlowExecutionKey;
+import org.springframework.webflow.execution.FlowExecutionKeyFactory;
+import org.springframework.webflow.execution.repository.BadlyFormattedFlowExecutionKeyException;
+import org.springframework.webflow.execution.repository.FlowExecutionLock;
+import org.springframework.webflow.execution.repository.FlowExecutionRepository;
+import org.springframework.webflow.execution.repository.FlowExecutionRepositoryException;
+import org.springframework.webflow.execution.repository.FlowExecutionRestorationFailureException;
+import org.springframework.webflow.execution.repository.NoSuchFlowExecutionException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.util.Collection;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This is {@link StoredFlowExecutionRepository} that keeps serialized flow executions
+ * in a {@link FlowExecutionStateStore} and only hands out a short random identifier
+ * to the client as the flow execution key. Unlike client-side state, the snapshot is neither
+ * round-tripped nor encrypted per request, and unlike servlet session storage any node
+ * that shares the store can resume the flow. Snapshots are read back through an
+ * {@link ObjectInputStream} that only resolves classes from the allowed packages.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class StoredFlowExecutionRepository implements FlowExecutionRepository, FlowExecutionKeyFactory {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StoredFlowExecutionRepository.class);
+
+    private static final int KEY_LENGTH = 30;
+
+    private final RandomStringGenerator keyGenerator = new Base64RandomStringGenerator(KEY_LENGTH);
+
+    private final FlowExecutionStateStore stateStore;
+
+    private final boolean compress;
+
+    private final Collection<String> allowedPackages;
+
+    private FlowDefinitionLocator flowDefinitionLocator;
+
+    private FlowExecutionFactory flowExecutionFactory;
+
+    public StoredFlowExecutionRepository(final FlowExecutionStateStore stateStore, final boolean compress,
+                                         final Collection<String> allowedPackages) {
+        this.stateStore = stateStore;
+        this.compress = compress;
+        this.allowedPackages = allowedPackages;
+    }
+
+    public void setFlowDefinitionLocator(final FlowDefinitionLocator flowDefinitionLocator) {
+        this.flowDefinitionLocator = flowDefinitionLocator;
+    }
+
+    public void setFlowExecutionFactory(final FlowExecutionFactory flowExecutionFactory) {
+        this.flowExecutionFactory = flowExecutionFactory;
+    }
+
+    @Override
+    public FlowExecutionKey parseFlowExecutionKey(final String encodedKey) throws FlowExecutionRepositoryException {
+        if (StringUtils.isBlank(encodedKey)) {
+            throw new BadlyFormattedFlowExecutionKeyException(encodedKey, "<random-identifier>");
+        }
+        return new StoredFlowExecutionKey(encodedKey);
+    }
+
+    @Override
+    public FlowExecutionLock getLock(final FlowExecutionKey key) throws FlowExecutionRepositoryException {
+        return this.stateStore.getLock(key.toString());
+    }
+
+    @Override
+    public FlowExecution getFlowExecution(final FlowExecutionKey key) throws FlowExecutionRepositoryException {
+        final byte[] encoded = this.stateStore.get(key.toString());
+        if (encoded == null) {
+            LOGGER.debug("No flow execution state could be found for [{}]; it may have expired", key);
+            throw new NoSuchFlowExecutionException(key, null);
+        }
+        try {
+            final StoredFlowExecutionState state = decode(encoded);
+            final FlowDefinition flow = this.flowDefinitionLocator.getFlowDefinition(state.getFlowId());
+            return this.flowExecutionFactory.restoreFlowExecution(state.getExecution(), flow, key,
+                state.getConversationScope(), this.flowDefinitionLocator);
+        } catch (final Exception e) {
+            throw new FlowExecutionRestorationFailureException(key, e);
+        }
+    }
+
+    @Override
+    public void putFlowExecution(final FlowExecution flowExecution) throws FlowExecutionRepositoryException {
+        final FlowExecutionKey key = flowExecution.getKey();
+        LOGGER.trace("Storing flow execution state under [{}]", key);
+        this.stateStore.put(key.toString(), encode(flowExecution));
+    }
+
+    @Override
+    public void removeFlowExecution(final FlowExecution flowExecution) throws FlowExecutionRepositoryException {
+        removeFlowExecutionSnapshot(flowExecution);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A flow execution is given a new key every time it pauses, which replaces the snapshot
+     * stored under its previous key; that snapshot is removed rather than left to expire.
+     */
+    @Override
+    public FlowExecutionKey getKey(final FlowExecution execution) {
+        final FlowExecutionKey previous = execution.getKey();
+        if (previous != null) {
+            LOGGER.trace("Removing flow execution state replaced by a new snapshot under [{}]", previous);
+            this.stateStore.remove(previous.toString());
+        }
+        return new StoredFlowExecutionKey(this.keyGenerator.getNewString());
+    }
+
+    @Override
+    public void updateFlowExecutionSnapshot(final FlowExecution execution) {
+        putFlowExecution(execution);
+    }
+
+    @Override
+    public void removeFlowExecutionSnapshot(final FlowExecution execution) {
+        final FlowExecutionKey key = execution.getKey();
+        if (key != null) {
+            this.stateStore.remove(key.toString());
+        }
+    }
+
+    @Override
+    public void removeAllFlowExecutionSnapshots(final FlowExecution execution) {
+        removeFlowExecutionSnapshot(execution);
+    }
+
+    private byte[] encode(final FlowExecution flowExecution) {
+        final FlowExecutionImpl execution = (FlowExecutionImpl) flowExecution;
+        final StoredFlowExecutionState state = new StoredFlowExecutionState(execution.getDefinition().getId(),
+            execution, new LocalAttributeMap<>(execution.getConversationScope().asMap()));
+        if (!this.compress) {
+            return SerializationUtils.serialize(state);
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            SerializationUtils.serialize(state, out);
+        } catch (final IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private StoredFlowExecutionState decode(final byte[] encoded) throws IOException, ClassNotFoundException {
+        final InputStream bytes = new ByteArrayInputStream(encoded);
+        try (InputStream in = this.compress ? new GZIPInputStream(bytes) : bytes;
+             ObjectInputStream objects = new StoredFlowExecutionInputStream(in, this.allowedPackages)) {
+            final Object state = objects.readObject();
+            if (!(state instanceof StoredFlowExecutionState)) {
+                throw new InvalidObjectException("Stored flow execution state is not a " + StoredFlowExecutionState.class.getSimpleName());
+            }
+            return (StoredFlowExecutionState) state;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.apereo.cas.web.flow.executor;
+
+import org.springframework.webflow.core.collection.LocalAttributeMap;
+import org.springframework.webflow.engine.impl.FlowExecutionImpl;
+
+import java.io.Serializable;
+
+/**
+ * This is {@link StoredFlowExecutionState} that captures what is needed
+ * to restore a paused flow execution from a {@link FlowExecutionStateStore}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class StoredFlowExecutionState implements Serializable {
+    private static final long serialVersionUID = 2385061946378221713L;
+
+    private final String flowId;
+
+    private final FlowExecutionImpl execution;
+
+    private final LocalAttributeMap<Object> conversationScope;
+
+    public StoredFlowExecutionState(final String flowId, final FlowExecutionImpl execution,
+                                    final LocalAttributeMap<Object> conversationScope) {
+        this.flowId = flowId;
+        this.execution = execution;
+        this.conversationScope = conversationScope;
+    }
+
+    public String getFlowId() {
+        return flowId;
+    }
+
+    public FlowExecutionImpl getExecution() {
+        return execution;
+    }
+
+    public LocalAttributeMap<Object> getConversationScope() {
+        return conversationScope;
+    }
+}
@@ -0,0 +1,159 @@
+package org.apereo.cas.web.flow.executor;
+
+import org.junit.Test;
+import org.springframework.webflow.core.collection.LocalAttributeMap;
+import org.springframework.webflow.core.collection.MutableAttributeMap;
+import org.springframework.webflow.engine.Flow;
+import org.springframework.webflow.engine.impl.FlowExecutionImplFactory;
+import org.springframework.webflow.execution.FlowExecution;
+import org.springframework.webflow.execution.FlowExecutionKey;
+import org.springframework.webflow.execution.repository.BadlyFormattedFlowExecutionKeyException;
+import org.springframework.webflow.execution.repository.FlowExecutionLock;
+import org.springframework.webflow.execution.repository.FlowExecutionRestorationFailureException;
+import org.springframework.webflow.execution.repository.NoSuchFlowExecutionException;
+
+import java.nio.charset.StandardCharsets;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link StoredFlowExecutionRepositoryTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class StoredFlowExecutionRepositoryTests {
+
+    private final FlowExecutionStateStore stateStore = new CaffeineFlowExecutionStateStore(Duration.ofMinutes(1), 100);
+
+    private final StoredFlowExecutionRepository repository = new StoredFlowExecutionRepository(stateStore, true,
+        Arrays.asList("java.", "org.springframework.", StoredFlowExecutionState.class.getName()));
+
+    @Test
+    public void verifyKeysAreShortAndUnique() {
+        final FlowExecution execution = mock(FlowExecution.class);
+        final FlowExecutionKey key1 = repository.getKey(execution);
+        final FlowExecutionKey key2 = repository.getKey(execution);
+        assertNotEquals(key1, key2);
+        assertEquals(40, key1.toString().length());
+        assertEquals(key1, repository.parseFlowExecutionKey(key1.toString()));
+    }
+
+    @Test(expected = BadlyFormattedFlowExecutionKeyException.class)
+    public void verifyBlankKeyIsRejected() {
+        repository.parseFlowExecutionKey(" ");
+    }
+
+    @Test(expected = NoSuchFlowExecutionException.class)
+    public void verifyUnknownKeyFails() {
+        repository.getFlowExecution(new StoredFlowExecutionKey("unknown"));
+    }
+
+    @Test
+    public void verifySnapshotRemoval() {
+        final FlowExecutionKey key = new StoredFlowExecutionKey("key");
+        stateStore.put(key.toString(), "state".getBytes(StandardCharsets.UTF_8));
+        final FlowExecution execution = mock(FlowExecution.class);
+        when(execution.getKey()).thenReturn(key);
+        repository.removeFlowExecution(execution);
+        assertNull(stateStore.get(key.toString()));
+    }
+
+    @Test
+    public void verifySnapshotRoundTrip() {
+        final Flow flow = new Flow("login");
+        final FlowExecutionImplFactory factory = new FlowExecutionImplFactory();
+        factory.setExecutionKeyFactory(repository);
+        repository.setFlowExecutionFactory(factory);
+        repository.setFlowDefinitionLocator(id -> flow);
+
+        final MutableAttributeMap<Object> conversationScope = new LocalAttributeMap<>();
+        conversationScope.put("service", "https://example.org");
+        final FlowExecutionKey key = repository.getKey(factory.createFlowExecution(flow));
+        final FlowExecution execution = factory.restoreFlowExecution(factory.createFlowExecution(flow), flow, key, conversationScope, repository);
+        repository.putFlowExecution(execution);
+
+        final FlowExecution restored = repository.getFlowExecution(key);
+        assertEquals(key, restored.getKey());
+        assertEquals("login", restored.getDefinition().getId());
+        assertEquals("https://example.org", restored.getConversationScope().get("service"));
+
+        final FlowExecutionKey nextKey = repository.getKey(restored);
+        assertNull(stateStore.get(key.toString()));
+        final FlowExecution paused = factory.restoreFlowExecution(restored, flow, nextKey, restored.getConversationScope(), repository);
+        repository.putFlowExecution(paused);
+        assertNotNull(stateStore.get(nextKey.toString()));
+
+        repository.removeFlowExecution(paused);
+        assertNull(stateStore.get(nextKey.toString()));
+    }
+
+    @Test
+    public void verifyUnexpectedClassesAreNotRead() throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeObject(new UnexpectedState());
+        }
+        final FlowExecutionKey key = new StoredFlowExecutionKey("unexpected");
+        stateStore.put(key.toString(), bytes.toByteArray());
+        try {
+            repository.getFlowExecution(key);
+            fail("Expected the snapshot to be rejected");
+        } catch (final FlowExecutionRestorationFailureException e) {
+            assertTrue(e.getCause() instanceof InvalidClassException);
+            assertFalse(UnexpectedState.READ);
+        }
+    }
+
+    @Test
+    public void verifyFlowExecutionIsLocked() throws Exception {
+        final FlowExecutionKey key = new StoredFlowExecutionKey("locked");
+        final FlowExecutionLock lock = repository.getLock(key);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            lock.lock();
+            final CountDownLatch acquired = new CountDownLatch(1);
+            final Future<?> waiter = executor.submit(() -> {
+                final FlowExecutionLock other = repository.getLock(key);
+                other.lock();
+                acquired.countDown();
+                other.unlock();
+            });
+            assertFalse(acquired.await(200, TimeUnit.MILLISECONDS));
+            lock.unlock();
+            assertTrue(acquired.await(1, TimeUnit.MINUTES));
+            waiter.get(1, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Stands in for a class outside of the allowed packages.
+     */
+    private static class UnexpectedState implements Serializable {
+        private static final long serialVersionUID = -2371625373457358126L;
+
+        private static boolean READ;
+
+        private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            READ = true;
+        }
+    }
+}
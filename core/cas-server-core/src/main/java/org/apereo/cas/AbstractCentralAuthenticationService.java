@@ -185,6 +185,12 @@ public abstract class AbstractCentralAuthenticationService implements CentralAut
                 .collect(Collectors.toSet());
     }
 
+    @Transactional(transactionManager = "ticketTransactionManager")
+    @Override
+    public Collection<TicketGrantingTicket> getSessionsFor(final String principalId) {
+        return this.ticketRegistry.getSessionsFor(principalId).collect(Collectors.toList());
+    }
+
     @Transactional(transactionManager = "ticketTransactionManager", readOnly = false)
     @Timed(name = "DELETE_TICKET_TIMER")
     @Metered(name = "DELETE_TICKET_METER")
@@ -44,6 +44,7 @@ import org.apereo.cas.ticket.proxy.ProxyGrantingTicketFactory;
 import org.apereo.cas.ticket.proxy.ProxyTicket;
 import org.apereo.cas.ticket.proxy.ProxyTicketFactory;
 import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.ticket.stateless.StatelessServiceTicketCodec;
 import org.apereo.cas.util.DigestUtils;
 import org.apereo.cas.validation.Assertion;
 import org.apereo.cas.validation.DefaultAssertionBuilder;
@@ -74,6 +75,8 @@ public class DefaultCentralAuthenticationService extends AbstractCentralAuthenti
 
     private static final long serialVersionUID = -8943828074939533986L;
 
+    private transient StatelessServiceTicketCodec statelessServiceTicketCodec;
+
     /**
      * Build the central authentication service implementation.
      *
@@ -159,7 +162,9 @@ public class DefaultCentralAuthenticationService extends AbstractCentralAuthenti
        
         final ServiceTicket serviceTicket = factory.create(ticketGrantingTicket, service, credentialProvided);
         this.ticketRegistry.updateTicket(ticketGrantingTicket);
-        this.ticketRegistry.addTicket(serviceTicket);
+        if (!isStatelessServiceTicket(serviceTicket.getId())) {
+            this.ticketRegistry.addTicket(serviceTicket);
+        }
 
         LOGGER.info("Granted ticket [{}] for service [{}] and principal [{}]",
                 serviceTicket.getId(), DigestUtils.abbreviate(service.getId()), principal.getId());
@@ -225,7 +230,9 @@ public class DefaultCentralAuthenticationService extends AbstractCentralAuthenti
             throws AuthenticationException, AbstractTicketException {
 
         AuthenticationCredentialsLocalBinder.bindCurrent(authenticationResult.getAuthentication());
-        final ServiceTicket serviceTicket = this.ticketRegistry.getTicket(serviceTicketId, ServiceTicket.class);
+        final ServiceTicket serviceTicket = isStatelessServiceTicket(serviceTicketId)
+                ? this.statelessServiceTicketCodec.redeemForProxying(serviceTicketId, this::getStatelessServiceTicketGrantingTicket)
+                : this.ticketRegistry.getTicket(serviceTicketId, ServiceTicket.class);
 
         if (serviceTicket == null || serviceTicket.isExpired()) {
             LOGGER.debug("ServiceTicket [{}] has expired or cannot be found in the ticket registry", serviceTicketId);
@@ -265,13 +272,18 @@ public class DefaultCentralAuthenticationService extends AbstractCentralAuthenti
     @Override
     public Assertion validateServiceTicket(final String serviceTicketId, final Service service) throws AbstractTicketException {
 
-        if (!isTicketAuthenticityVerified(serviceTicketId)) {
-            LOGGER.info("Service ticket [{}] is not a valid ticket issued by CAS.", serviceTicketId);
-            throw new InvalidTicketException(serviceTicketId);
+        final boolean stateless = isStatelessServiceTicket(serviceTicketId);
+        final ServiceTicket serviceTicket;
+        if (stateless) {
+            serviceTicket = this.statelessServiceTicketCodec.redeem(serviceTicketId, this::getStatelessServiceTicketGrantingTicket);
+        } else {
+            if (!isTicketAuthenticityVerified(serviceTicketId)) {
+                LOGGER.info("Service ticket [{}] is not a valid ticket issued by CAS.", serviceTicketId);
+                throw new InvalidTicketException(serviceTicketId);
+            }
+            serviceTicket = this.ticketRegistry.getTicket(serviceTicketId, ServiceTicket.class);
         }
 
-        final ServiceTicket serviceTicket = this.ticketRegistry.getTicket(serviceTicketId, ServiceTicket.class);
-
         if (serviceTicket == null) {
             LOGGER.warn("Service ticket [{}] does not exist.", serviceTicketId);
             throw new InvalidTicketException(serviceTicketId);
@@ -338,14 +350,34 @@ public class DefaultCentralAuthenticationService extends AbstractCentralAuthenti
 
             return assertion;
         } finally {
-            if (serviceTicket.isExpired()) {
-                deleteTicket(serviceTicketId);
-            } else {
-                this.ticketRegistry.updateTicket(serviceTicket);
+            if (!stateless) {
+                if (serviceTicket.isExpired()) {
+                    deleteTicket(serviceTicketId);
+                } else {
+                    this.ticketRegistry.updateTicket(serviceTicket);
+                }
             }
         }
     }
 
+    private boolean isStatelessServiceTicket(final String serviceTicketId) {
+        return this.statelessServiceTicketCodec != null && this.statelessServiceTicketCodec.supports(serviceTicketId);
+    }
+
+    private TicketGrantingTicket getStatelessServiceTicketGrantingTicket(final String ticketGrantingTicketId) {
+        return this.ticketRegistry.getTicket(ticketGrantingTicketId, TicketGrantingTicket.class);
+    }
+
+    /**
+     * Issue service tickets as self-contained tokens that are validated
+     * without being stored in or read from the ticket registry.
+     *
+     * @param statelessServiceTicketCodec the stateless service ticket codec
+     */
+    public void setStatelessServiceTicketCodec(final StatelessServiceTicketCodec statelessServiceTicketCodec) {
+        this.statelessServiceTicketCodec = statelessServiceTicketCodec;
+    }
+
     @Audit(
             action = "TICKET_GRANTING_TICKET",
             actionResolverName = "CREATE_TICKET_GRANTING_TICKET_RESOLVER",
@@ -17,6 +17,9 @@ import org.apereo.cas.services.ServiceContext;
 import org.apereo.cas.services.ServicesManager;
 import org.apereo.cas.ticket.TicketFactory;
 import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.ticket.stateless.ServiceTicketReplayFilter;
+import org.apereo.cas.ticket.stateless.StatelessServiceTicketCodec;
+import org.apereo.cas.ticket.stateless.TimePartitionedServiceTicketReplayFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -91,10 +94,24 @@ public class CasCoreConfiguration {
             @Qualifier("principalFactory")
             final PrincipalFactory principalFactory,
             @Qualifier("protocolTicketCipherExecutor")
-            final CipherExecutor cipherExecutor) {
-        return new DefaultCentralAuthenticationService(ticketRegistry, ticketFactory, 
+            final CipherExecutor cipherExecutor,
+            @Qualifier("statelessServiceTicketCodec")
+            final StatelessServiceTicketCodec statelessServiceTicketCodec,
+            @Qualifier("serviceTicketReplayFilter")
+            final ServiceTicketReplayFilter serviceTicketReplayFilter) {
+        final DefaultCentralAuthenticationService cas = new DefaultCentralAuthenticationService(ticketRegistry, ticketFactory,
                 servicesManager, logoutManager,
                 selectionStrategies, authenticationPolicyFactory(), 
                 principalFactory, cipherExecutor);
+        if (casProperties.getTicket().getSt().isStateless() && casProperties.getTicket().getCrypto().isEnabled()) {
+            LOGGER.debug("Service tickets will be validated without a ticket registry lookup");
+            if (serviceTicketReplayFilter instanceof TimePartitionedServiceTicketReplayFilter) {
+                LOGGER.warn("Stateless service tickets are guarded by a replay filter that is local to this node. "
+                        + "In a cluster, a service ticket may be validated once on every node unless a shared "
+                        + "[serviceTicketReplayFilter] bean is defined");
+            }
+            cas.setStatelessServiceTicketCodec(statelessServiceTicketCodec);
+        }
+        return cas;
     }
 }
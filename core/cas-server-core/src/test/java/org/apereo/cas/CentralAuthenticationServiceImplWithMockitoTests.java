@@ -53,7 +53,11 @@ import org.apereo.cas.ticket.factory.DefaultServiceTicketFactory;
 import org.apereo.cas.ticket.factory.DefaultTicketFactory;
 import org.apereo.cas.ticket.factory.DefaultTicketGrantingTicketFactory;
 import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.ticket.stateless.StatelessServiceTicketCodec;
+import org.apereo.cas.ticket.stateless.TimePartitionedServiceTicketReplayFilter;
 import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.apereo.cas.util.EncodingUtils;
+import org.apereo.cas.util.cipher.ProtocolTicketCipherExecutor;
 import org.apereo.cas.validation.Assertion;
 import org.junit.Before;
 import org.junit.Rule;
@@ -113,6 +117,7 @@ public class CentralAuthenticationServiceImplWithMockitoTests {
 
     private static final String ST_ID = "st-id";
     private static final String ST2_ID = "st2-id";
+    private static final String PT_ID = "PT-1-proxied";
 
     private static final String SVC1_ID = "test1";
     private static final String SVC2_ID = "test2";
@@ -274,6 +279,24 @@ public class CentralAuthenticationServiceImplWithMockitoTests {
                 .forEach(i -> assertEquals(assertion.getChainedAuthentications().get(i), authentication));
     }
 
+    @Test
+    public void verifyProxyTicketIsValidatedFromRegistryWhenServiceTicketsAreStateless() {
+        this.cas.setStatelessServiceTicketCodec(new StatelessServiceTicketCodec(
+                new ProtocolTicketCipherExecutor(null, null, EncodingUtils.DEFAULT_CONTENT_ENCRYPTION_ALGORITHM),
+                new TimePartitionedServiceTicketReplayFilter(10), new NeverExpiresExpirationPolicy(), 1));
+
+        final Service svc = RegisteredServiceTestUtils.getService(SVC2_ID);
+        final ServiceTicket pt = createMockServiceTicket(PT_ID, svc);
+        final TicketGrantingTicket tgt = this.ticketRegMock.getTicket(TGT2_ID, TicketGrantingTicket.class);
+        when(pt.getGrantingTicket()).thenReturn(tgt);
+        when(this.ticketRegMock.getTicket(eq(PT_ID), eq(ServiceTicket.class))).thenReturn(pt);
+
+        final Assertion assertion = this.cas.validateServiceTicket(PT_ID, svc);
+        assertEquals(svc, assertion.getService());
+        assertEquals(PRINCIPAL, assertion.getPrimaryAuthentication().getPrincipal().getId());
+        verify(this.ticketRegMock).updateTicket(pt);
+    }
+
     private TicketGrantingTicket createRootTicketGrantingTicket() {
         final TicketGrantingTicket tgtRootMock = mock(TicketGrantingTicket.class);
         when(tgtRootMock.isExpired()).thenReturn(false);
@@ -7,79 +7,109 @@ import org.apereo.cas.util.RandomUtils;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
  * This is {@link BaseConsentRepository}.
+ * Decisions are indexed by principal and then by service, so that locating the decision
+ * made by a principal for a service, or all decisions made by a principal, does not scan
+ * through decisions made by anyone else.
  *
  * @author Misagh Moayyed
  * @since 5.2.0
  */
 public abstract class BaseConsentRepository implements ConsentRepository {
     private static final long serialVersionUID = 1736846688546785564L;
-    
-    private Set<ConsentDecision> consentDecisions;
 
-    public BaseConsentRepository() {
-        this.consentDecisions = new LinkedHashSet<>();
-    }
+    private final Map<String, Map<String, ConsentDecision>> consentDecisions = new ConcurrentHashMap<>();
 
     @Override
     public ConsentDecision findConsentDecision(final Service service, final RegisteredService registeredService,
                                                final Authentication authentication) {
-        return this.consentDecisions
-                .stream()
-                .filter(d -> d.getPrincipal().equals(authentication.getPrincipal().getId())
-                        && d.getService().equals(service.getId()))
-                .findFirst()
-                .orElse(null);
+        final Map<String, ConsentDecision> decisions = this.consentDecisions.get(authentication.getPrincipal().getId());
+        return decisions == null ? null : decisions.get(service.getId());
     }
 
     @Override
     public Collection<ConsentDecision> findConsentDecisions(final String principal) {
-        return this.consentDecisions
-                .stream()
-                .filter(d -> d.getPrincipal().equals(principal))
-                .collect(Collectors.toSet());
+        final Map<String, ConsentDecision> decisions = this.consentDecisions.get(principal);
+        return decisions == null ? new HashSet<>(0) : new HashSet<>(decisions.values());
     }
 
     @Override
     public Collection<ConsentDecision> findConsentDecisions() {
-        return new ArrayList<>(this.consentDecisions);
+        return this.consentDecisions.values()
+                .stream()
+                .flatMap(d -> d.values().stream())
+                .collect(Collectors.toCollection(ArrayList::new));
     }
 
     @Override
     public boolean storeConsentDecision(final ConsentDecision decision) {
-        final ConsentDecision consent = getConsentDecisions()
-                .stream()
-                .filter(d -> d.getId() == decision.getId())
-                .findFirst()
-                .orElse(null);
-        if (consent != null) {
-            getConsentDecisions().remove(decision);
-        } else {
+        final Map<String, ConsentDecision> decisions = this.consentDecisions.get(decision.getPrincipal());
+        final boolean exists = decisions != null && decisions.values().stream().anyMatch(d -> d.getId() == decision.getId());
+        if (!exists) {
             decision.setId(Math.abs(RandomUtils.getInstanceNative().nextInt()));
         }
-        getConsentDecisions().add(decision);
+        putConsentDecision(decision);
         return true;
     }
 
     @Override
     public boolean deleteConsentDecision(final long decisionId, final String principal) {
-        final Collection<ConsentDecision> decisions = findConsentDecisions(principal);
-        return this.consentDecisions.remove(decisions
-            .stream()
-            .filter(d -> d.getId() == decisionId)
-            .findFirst().get());
+        return removeConsentDecision(decisionId, principal);
     }
 
+    /**
+     * Index the decision as it is, replacing any decision with the same id
+     * or made by the same principal for the same service.
+     *
+     * @param decision the decision
+     */
+    protected void putConsentDecision(final ConsentDecision decision) {
+        this.consentDecisions.compute(decision.getPrincipal(), (principal, decisions) -> {
+            final Map<String, ConsentDecision> results = decisions == null ? new ConcurrentHashMap<>() : decisions;
+            results.values().removeIf(d -> d.getId() == decision.getId());
+            results.put(decision.getService(), decision);
+            return results;
+        });
+    }
+
+    /**
+     * Remove the decision with the given id made by the principal.
+     *
+     * @param decisionId the decision id
+     * @param principal  the principal
+     * @return true if a decision was removed
+     */
+    protected boolean removeConsentDecision(final long decisionId, final String principal) {
+        final boolean[] removed = new boolean[1];
+        this.consentDecisions.computeIfPresent(principal, (p, decisions) -> {
+            removed[0] = decisions.values().removeIf(d -> d.getId() == decisionId);
+            return decisions.isEmpty() ? null : decisions;
+        });
+        return removed[0];
+    }
+
+    /**
+     * Gets a copy of the decisions held by the repository. Changes to the copy are not reflected
+     * in the repository; pass them back through {@link #setConsentDecisions(Set)}.
+     *
+     * @return the decisions
+     */
     protected Set<ConsentDecision> getConsentDecisions() {
-        return this.consentDecisions;
+        return new LinkedHashSet<>(findConsentDecisions());
     }
 
     protected void setConsentDecisions(final Set<ConsentDecision> consentDecisions) {
-        this.consentDecisions = consentDecisions;
+        this.consentDecisions.clear();
+        if (consentDecisions != null) {
+            consentDecisions.forEach(this::putConsentDecision);
+        }
     }
 }
@@ -2,6 +2,8 @@ package org.apereo.cas.consent;
 
 import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.CipherExecutor;
 import org.apereo.cas.authentication.principal.Service;
@@ -16,10 +18,14 @@ import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
  * This is {@link DefaultConsentDecisionBuilder}.
+ * The hashes of attribute names and values held by a decision are remembered against the encoded attributes
+ * of the decision, so that checking a decision again does not decipher and decode its attributes again,
+ * and updating a decision with the attributes it already holds does not encode them again.
  *
  * @author Misagh Moayyed
  * @since 5.2.0
@@ -29,16 +35,28 @@ public class DefaultConsentDecisionBuilder implements ConsentDecisionBuilder {
     
     private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
 
+    private static final int MAX_CACHED_HASHES = 10_000;
+
     private final CipherExecutor<Serializable, String> consentCipherExecutor;
 
+    private final Cache<String, ConsentAttributeHashes> consentAttributeHashes = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_HASHES)
+            .build();
+
     public DefaultConsentDecisionBuilder(final CipherExecutor consentCipherExecutor) {
         this.consentCipherExecutor = consentCipherExecutor;
     }
 
     @Override
     public ConsentDecision update(final ConsentDecision consent, final Map<String, Object> attributes) {
-        final String encodedNames = buildAndEncodeConsentAttributes(attributes);
-        consent.setAttributes(encodedNames);
+        final ConsentAttributeHashes hashes = new ConsentAttributeHashes(attributes);
+        if (!isHeldBy(consent, hashes)) {
+            final String encodedNames = buildAndEncodeConsentAttributes(attributes);
+            consent.setAttributes(encodedNames);
+            this.consentAttributeHashes.put(encodedNames, hashes);
+        } else {
+            LOGGER.trace("Attributes of consent decision [{}] are unchanged and are not encoded again", consent.getId());
+        }
         consent.setCreatedDate(LocalDateTime.now());
         return consent;
     }
@@ -57,23 +75,15 @@ public class DefaultConsentDecisionBuilder implements ConsentDecisionBuilder {
     @Override
     public boolean doesAttributeReleaseRequireConsent(final ConsentDecision decision,
                                                       final Map<String, Object> attributes) {
-        final Map<String, Object> consentAttributes = getConsentableAttributesFrom(decision);
+        final ConsentAttributeHashes consentAttributesHashes = getConsentAttributeHashesFrom(decision);
+        final ConsentAttributeHashes currentAttributesHashes = new ConsentAttributeHashes(attributes);
 
         if (decision.getOptions() == ConsentOptions.ATTRIBUTE_NAME) {
-            final String consentAttributesHash = sha512ConsentAttributeNames(consentAttributes);
-            final String currentAttributesHash = sha512ConsentAttributeNames(attributes);
-            return !StringUtils.equals(consentAttributesHash, currentAttributesHash);
+            return !StringUtils.equals(consentAttributesHashes.names, currentAttributesHashes.names);
         }
         
         if (decision.getOptions() == ConsentOptions.ATTRIBUTE_VALUE) {
-            final String consentAttributesHash = sha512ConsentAttributeNames(consentAttributes);
-            final String currentAttributesHash = sha512ConsentAttributeNames(attributes);
-
-            final String consentAttributeValuesHash = sha512ConsentAttributeValues(consentAttributes);
-            final String currentAttributeValuesHash = sha512ConsentAttributeValues(attributes);
-            
-            return !StringUtils.equals(consentAttributesHash, currentAttributesHash) 
-                    || !StringUtils.equals(consentAttributeValuesHash, currentAttributeValuesHash);
+            return !consentAttributesHashes.equals(currentAttributesHashes);
         }
         return true;
     }
@@ -94,12 +104,31 @@ public class DefaultConsentDecisionBuilder implements ConsentDecisionBuilder {
         }
     }
 
-    private String sha512ConsentAttributeNames(final Map<String, Object> attributes) {
+    private boolean isHeldBy(final ConsentDecision decision, final ConsentAttributeHashes hashes) {
+        if (decision.getAttributes() == null) {
+            return false;
+        }
+        try {
+            return hashes.equals(getConsentAttributeHashesFrom(decision));
+        } catch (final Exception e) {
+            LOGGER.debug("Attributes of consent decision [{}] cannot be read and will be encoded again", decision.getId());
+            return false;
+        }
+    }
+
+    private ConsentAttributeHashes getConsentAttributeHashesFrom(final ConsentDecision decision) {
+        if (decision.getAttributes() == null) {
+            return new ConsentAttributeHashes(getConsentableAttributesFrom(decision));
+        }
+        return this.consentAttributeHashes.get(decision.getAttributes(), k -> new ConsentAttributeHashes(getConsentableAttributesFrom(decision)));
+    }
+
+    private static String sha512ConsentAttributeNames(final Map<String, Object> attributes) {
         final String allNames = attributes.keySet().stream().collect(Collectors.joining("|"));
         return DigestUtils.sha512(allNames);
     }
 
-    private String sha512ConsentAttributeValues(final Map<String, Object> attributes) {
+    private static String sha512ConsentAttributeValues(final Map<String, Object> attributes) {
         final String allValues = attributes.values().stream()
                 .map(CollectionUtils::toCollection)
                 .map(c -> c.stream().map(Object::toString).collect(Collectors.joining()))
@@ -123,4 +152,31 @@ public class DefaultConsentDecisionBuilder implements ConsentDecisionBuilder {
             throw new IllegalArgumentException("Could not serialize attributes for consent decision");
         }
     }
+
+    /**
+     * The hashes of attribute names and values that make up a consent decision.
+     */
+    private static class ConsentAttributeHashes {
+        private final String names;
+        private final String values;
+
+        ConsentAttributeHashes(final Map<String, Object> attributes) {
+            this.names = sha512ConsentAttributeNames(attributes);
+            this.values = sha512ConsentAttributeValues(attributes);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof ConsentAttributeHashes)) {
+                return false;
+            }
+            final ConsentAttributeHashes other = (ConsentAttributeHashes) obj;
+            return StringUtils.equals(this.names, other.names) && StringUtils.equals(this.values, other.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.names, this.values);
+        }
+    }
 }
@@ -1,19 +1,15 @@
 package org.apereo.cas.consent;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.apereo.cas.util.ResourceUtils;
-import org.hjson.JsonValue;
+import org.apereo.cas.util.io.JournaledJsonResourceStore;
 import org.springframework.core.io.Resource;
 
-import java.io.InputStreamReader;
-import java.io.Reader;
-import java.nio.charset.StandardCharsets;
 import java.util.LinkedHashSet;
-import java.util.Set;
 
 /**
  * This is {@link JsonConsentRepository}.
+ * Decisions are kept in a {@link JournaledJsonResourceStore}, so that storing or deleting a decision
+ * appends it to a journal next to the resource rather than rewriting the resource.
  *
  * @author Misagh Moayyed
  * @since 5.2.0
@@ -22,47 +18,39 @@ public class JsonConsentRepository extends BaseConsentRepository {
     private static final long serialVersionUID = -402728417464783825L;
 
     private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
-    private final Resource jsonResource;
+
+    private final transient JournaledJsonResourceStore<ConsentDecision> store;
 
     public JsonConsentRepository(final Resource jsonResource) {
-        this.jsonResource = jsonResource;
-        setConsentDecisions(readDecisionsFromJsonResource());
+        this(jsonResource, JournaledJsonResourceStore.DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    public JsonConsentRepository(final Resource jsonResource, final int compactionThreshold) {
+        this.store = new JournaledJsonResourceStore<>(jsonResource, MAPPER, ConsentDecision.class,
+                d -> String.valueOf(d.getId()), compactionThreshold);
+        setConsentDecisions(new LinkedHashSet<>(this.store.values()));
     }
-    
+
     @Override
-    public boolean storeConsentDecision(final ConsentDecision decision) {
+    public synchronized boolean storeConsentDecision(final ConsentDecision decision) {
         final boolean result = super.storeConsentDecision(decision);
-        writeAccountToJsonResource();
+        this.store.put(decision);
         return result;
     }
-    
+
     @Override
-    public boolean deleteConsentDecision(final long decisionId, final String principal) {
+    public synchronized boolean deleteConsentDecision(final long decisionId, final String principal) {
         final boolean result = super.deleteConsentDecision(decisionId, principal);
-        writeAccountToJsonResource();
-        return result;
-    }
-    
-    private Set<ConsentDecision> readDecisionsFromJsonResource() {
-        if (ResourceUtils.doesResourceExist(jsonResource)) {
-            try (Reader reader = new InputStreamReader(jsonResource.getInputStream(), StandardCharsets.UTF_8)) {
-                final TypeReference<Set<ConsentDecision>> personList = new TypeReference<Set<ConsentDecision>>() {
-                };
-                return MAPPER.readValue(JsonValue.readHjson(reader).toString(), personList);
-            } catch (final Exception e) {
-                throw new RuntimeException(e.getMessage(), e);
-            }
+        if (result) {
+            this.store.remove(String.valueOf(decisionId));
         }
-        return new LinkedHashSet<>(0);
+        return result;
     }
 
-    private boolean writeAccountToJsonResource() {
-        try {
-            MAPPER.writerWithDefaultPrettyPrinter().writeValue(this.jsonResource.getFile(), getConsentDecisions());
-            readDecisionsFromJsonResource();
-        } catch (final Exception e) {
-            throw new RuntimeException(e.getMessage(), e);
-        }
-        return true;
+    /**
+     * Write all decisions back to the JSON resource and drop the journal.
+     */
+    public void compact() {
+        this.store.compact();
     }
 }
@@ -67,6 +67,16 @@ public class DefaultConsentDecisionBuilderTests {
         assertEquals(attrs.get("attr1"), "value1");
     }
     
+    @Test
+    public void verifyUnchangedAttributesAreNotEncodedAgain() {
+        final ConsentDecision consentDecision = getConsentDecision();
+        final String attributes = consentDecision.getAttributes();
+        consentDecisionBuilder.update(consentDecision, CollectionUtils.wrap("attr1", "value1"));
+        assertSame(attributes, consentDecision.getAttributes());
+        consentDecisionBuilder.update(consentDecision, CollectionUtils.wrap("attr1", "value2"));
+        assertNotEquals(attributes, consentDecision.getAttributes());
+    }
+
     private ConsentDecision getConsentDecision() {
         return consentDecisionBuilder.build(RegisteredServiceTestUtils.getService(),
                 RegisteredServiceTestUtils.getRegisteredService("test"),
@@ -0,0 +1,93 @@
+package org.apereo.cas.consent;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link JsonConsentRepositoryTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class JsonConsentRepositoryTests {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        this.file = new File(folder.getRoot(), "consent.json");
+    }
+
+    @Test
+    public void verifyDecisionsAreIndexedByPrincipal() {
+        final JsonConsentRepository repository = new JsonConsentRepository(new FileSystemResource(file));
+        repository.storeConsentDecision(newConsentDecision("casuser", "https://example.org"));
+        repository.storeConsentDecision(newConsentDecision("casuser", "https://example.net"));
+        repository.storeConsentDecision(newConsentDecision("another", "https://example.org"));
+
+        assertEquals(2, repository.findConsentDecisions("casuser").size());
+        assertEquals(3, repository.findConsentDecisions().size());
+        assertTrue(repository.findConsentDecisions("unknown").isEmpty());
+    }
+
+    @Test
+    public void verifyJournalIsReplayedOnStartup() {
+        final JsonConsentRepository repository = new JsonConsentRepository(new FileSystemResource(file));
+        final ConsentDecision kept = newConsentDecision("casuser", "https://example.org");
+        final ConsentDecision deleted = newConsentDecision("casuser", "https://example.net");
+        repository.storeConsentDecision(kept);
+        repository.storeConsentDecision(deleted);
+        assertTrue(repository.deleteConsentDecision(deleted.getId(), "casuser"));
+        assertFalse(file.exists());
+
+        final JsonConsentRepository recovered = new JsonConsentRepository(new FileSystemResource(file));
+        assertTrue(file.exists());
+        assertEquals(1, recovered.findConsentDecisions("casuser").size());
+        assertEquals(kept.getId(), recovered.findConsentDecisions("casuser").iterator().next().getId());
+    }
+
+    @Test
+    public void verifyJournalIsCompacted() {
+        final JsonConsentRepository repository = new JsonConsentRepository(new FileSystemResource(file));
+        repository.storeConsentDecision(newConsentDecision("casuser", "https://example.org"));
+        repository.storeConsentDecision(newConsentDecision("casuser", "https://example.net"));
+        repository.compact();
+
+        assertTrue(file.exists());
+        assertFalse(new File(folder.getRoot(), "consent.json.journal").exists());
+        assertEquals(2, new JsonConsentRepository(new FileSystemResource(file)).findConsentDecisions("casuser").size());
+    }
+
+    @Test
+    public void verifyJournalIsCompactedOnceThresholdIsReached() throws Exception {
+        final JsonConsentRepository repository = new JsonConsentRepository(new FileSystemResource(file), 2);
+        repository.storeConsentDecision(newConsentDecision("casuser", "https://example.org"));
+        repository.storeConsentDecision(newConsentDecision("casuser", "https://example.net"));
+
+        final File compactingJournal = new File(folder.getRoot(), "consent.json.journal.compacting");
+        for (int i = 0; i < 50 && (!file.exists() || compactingJournal.exists()); i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(file.exists());
+        assertFalse(compactingJournal.exists());
+        assertFalse(new File(folder.getRoot(), "consent.json.journal").exists());
+        assertEquals(2, new JsonConsentRepository(new FileSystemResource(file)).findConsentDecisions("casuser").size());
+    }
+
+    private static ConsentDecision newConsentDecision(final String principal, final String service) {
+        final ConsentDecision decision = new ConsentDecision();
+        decision.setPrincipal(principal);
+        decision.setService(service);
+        decision.setAttributes("attributes");
+        return decision;
+    }
+}
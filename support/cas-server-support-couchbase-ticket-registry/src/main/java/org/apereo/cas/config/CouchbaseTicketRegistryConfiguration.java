@@ -4,11 +4,15 @@ import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.model.support.couchbase.ticketregistry.CouchbaseTicketRegistryProperties;
 import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.couchbase.core.CouchbaseClientFactory;
+import org.apereo.cas.kryo.KryoBinarySerializer;
+import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketCatalog;
 import org.apereo.cas.ticket.registry.CouchbaseTicketRegistry;
 import org.apereo.cas.ticket.registry.NoOpTicketRegistryCleaner;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistryCleaner;
+import org.apereo.cas.util.serialization.BinarySerializer;
+import org.apereo.cas.util.serialization.JavaBinarySerializer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -38,8 +42,7 @@ public class CouchbaseTicketRegistryConfiguration {
         final CouchbaseTicketRegistryProperties cb = casProperties.getTicket().getRegistry().getCouchbase();
         final Set<String> nodes = StringUtils.commaDelimitedListToSet(cb.getNodeSet());
         return new CouchbaseClientFactory(nodes, cb.getBucket(),
-                cb.getBucket(), cb.getTimeout(), CouchbaseTicketRegistry.UTIL_DOCUMENT,
-                CouchbaseTicketRegistry.ALL_VIEWS);
+                cb.getBucket(), cb.getTimeout(), null, null);
     }
 
     @Autowired
@@ -47,7 +50,11 @@ public class CouchbaseTicketRegistryConfiguration {
     @Bean
     public TicketRegistry ticketRegistry(@Qualifier("ticketCatalog") final TicketCatalog ticketCatalog) {
         final CouchbaseTicketRegistryProperties couchbase = casProperties.getTicket().getRegistry().getCouchbase();
-        final CouchbaseTicketRegistry c = new CouchbaseTicketRegistry(ticketRegistryCouchbaseClientFactory(), ticketCatalog);
+        final BinarySerializer<Ticket> serializer = couchbase.isKryoSerialization()
+                ? new KryoBinarySerializer<>()
+                : new JavaBinarySerializer<>();
+        final CouchbaseTicketRegistry c = new CouchbaseTicketRegistry(ticketRegistryCouchbaseClientFactory(), ticketCatalog,
+                serializer, couchbase.getBulkConcurrency(), couchbase.getCounterRecalculationInterval());
         c.setCipherExecutor(Beans.newTicketRegistryCipherExecutor(couchbase.getCrypto(), "couchbase"));
         System.setProperty("com.couchbase.queryEnabled", Boolean.toString(couchbase.isQueryEnabled()));
         return c;
@@ -1,85 +1,119 @@
 package org.apereo.cas.ticket.registry;
 
-import com.couchbase.client.java.document.SerializableDocument;
-import com.couchbase.client.java.view.DefaultView;
-import com.couchbase.client.java.view.View;
-import com.couchbase.client.java.view.ViewQuery;
-import com.couchbase.client.java.view.ViewResult;
-import com.couchbase.client.java.view.ViewRow;
+import com.couchbase.client.java.AsyncBucket;
+import com.couchbase.client.java.Bucket;
+import com.couchbase.client.java.document.ByteArrayDocument;
+import com.couchbase.client.java.document.JsonLongDocument;
+import com.couchbase.client.java.document.json.JsonArray;
+import com.couchbase.client.java.error.DocumentAlreadyExistsException;
+import com.couchbase.client.java.error.DocumentDoesNotExistException;
+import com.couchbase.client.java.query.AsyncN1qlQueryResult;
+import com.couchbase.client.java.query.N1qlParams;
+import com.couchbase.client.java.query.N1qlQuery;
+import com.couchbase.client.java.query.N1qlQueryResult;
+import com.couchbase.client.java.query.consistency.ScanConsistency;
 import org.apereo.cas.couchbase.core.CouchbaseClientFactory;
 import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketCatalog;
+import org.apereo.cas.ticket.TicketDefinition;
 import org.apereo.cas.ticket.TicketGrantingTicket;
-import org.apereo.cas.util.CollectionUtils;
+import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
+import org.apereo.cas.ticket.proxy.ProxyTicket;
+import org.apereo.cas.util.serialization.BinarySerializer;
+import org.apereo.cas.util.serialization.JavaBinarySerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import rx.Observable;
 
 import javax.annotation.PreDestroy;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A Ticket Registry storage backend which uses the memcached protocol.
  * CouchBase is a multi host NoSQL database with a memcached interface
  * to persistent storage which also is quite usable as a replicated
  * ticket storage engine for multiple front end CAS servers.
+ * <p>
+ * Tickets are stored as binary documents whose keys start with the prefix of their ticket type,
+ * so that tickets of one type may be enumerated with a key-range N1QL query over the primary index;
+ * documents are then fetched or removed in bulk through the asynchronous API. The number of tickets of each type
+ * is kept in a counter document that is updated as tickets are added and removed, and recalculated
+ * periodically to account for tickets that Couchbase removes on expiry.
  *
  * @author Fredrik Jönsson "fjo@kth.se"
  * @author Misagh Moayyed
  * @since 4.2.0
  */
 public class CouchbaseTicketRegistry extends AbstractTicketRegistry {
-    /**
-     * The all tickets view name.
-     */
-    public static final String VIEW_NAME_ALL_TICKETS = "all_tickets";
-
-    /**
-     * All tickets view.
-     */
-    public static final View ALL_TICKETS_VIEW = DefaultView.create(
-            VIEW_NAME_ALL_TICKETS,
-            "function(d,m) {emit(m.id);}",
-            "_count");
-
-    /**
-     * Views available.
-     */
-    public static final Collection<View> ALL_VIEWS = CollectionUtils.wrap(ALL_TICKETS_VIEW);
-
-    /**
-     * "statistics" document.
-     */
-    public static final String UTIL_DOCUMENT = "statistics";
-
     private static final Logger LOGGER = LoggerFactory.getLogger(CouchbaseTicketRegistry.class);
 
     private static final long MAX_EXP_TIME_IN_DAYS = 30;
-    private static final String END_TOKEN = "\u02ad";
+    private static final int DEFAULT_BULK_CONCURRENCY = 64;
+    private static final char KEY_DELIMITER = ':';
+    private static final String COUNTER_KEY_PREFIX = "cas-ticket-count:";
 
     private final TicketCatalog ticketCatalog;
     private final CouchbaseClientFactory couchbase;
+    private final BinarySerializer<Ticket> ticketSerializer;
+    private final int bulkConcurrency;
+    private final ScheduledExecutorService scheduler;
 
     public CouchbaseTicketRegistry(final CouchbaseClientFactory couchbase,
                                    final TicketCatalog ticketCatalog) {
+        this(couchbase, ticketCatalog, new JavaBinarySerializer<>(), DEFAULT_BULK_CONCURRENCY, 0);
+    }
+
+    public CouchbaseTicketRegistry(final CouchbaseClientFactory couchbase,
+                                   final TicketCatalog ticketCatalog,
+                                   final BinarySerializer<Ticket> ticketSerializer,
+                                   final int bulkConcurrency,
+                                   final long counterRecalculationInterval) {
         this.couchbase = couchbase;
         this.ticketCatalog = ticketCatalog;
+        this.ticketSerializer = ticketSerializer;
+        this.bulkConcurrency = Math.max(bulkConcurrency, 1);
 
         LOGGER.info("Setting up Couchbase Ticket Registry instance with bucket [{}]", this.couchbase.getBucket().name());
+        try {
+            this.couchbase.getBucket().bucketManager().createN1qlPrimaryIndex(true, false);
+        } catch (final Exception e) {
+            LOGGER.warn("Unable to ensure a primary index exists in bucket [{}]; tickets cannot be enumerated without one: [{}]",
+                    this.couchbase.getBucket().name(), e.getMessage());
+        }
+
+        if (counterRecalculationInterval > 0) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                final Thread thread = new Thread(r, getClass().getSimpleName());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.scheduler.scheduleWithFixedDelay(this::recalculateCounters, counterRecalculationInterval,
+                    counterRecalculationInterval, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
     }
 
     @Override
     public Ticket updateTicket(final Ticket ticket) {
         LOGGER.debug("Updating ticket [{}]", ticket);
+        final TicketDefinition definition = this.ticketCatalog.find(ticket);
         try {
-            final SerializableDocument document = SerializableDocument.create(ticket.getId(), getTimeToLive(ticket), ticket);
-
-            LOGGER.debug("Upserting document [{}] into couchbase getBucket [{}]", document.id(), this.couchbase.getBucket().name());
-            this.couchbase.getBucket().upsert(document);
+            final Ticket encTicket = encodeTicket(ticket);
+            final ByteArrayDocument document = ByteArrayDocument.create(documentKey(definition, encTicket.getId()),
+                    getTimeToLive(ticket), this.ticketSerializer.encode(encTicket));
+            LOGGER.debug("Replacing document [{}] in couchbase bucket [{}]", document.id(), this.couchbase.getBucket().name());
+            this.couchbase.getBucket().replace(document);
+        } catch (final DocumentDoesNotExistException e) {
+            LOGGER.debug("Ticket [{}] is no longer in the registry and is added again", ticket.getId());
+            addTicket(ticket);
         } catch (final Exception e) {
             LOGGER.error("Failed updating [{}]: [{}]", ticket, e);
         }
@@ -89,11 +123,19 @@ public class CouchbaseTicketRegistry extends AbstractTicketRegistry {
     @Override
     public void addTicket(final Ticket ticketToAdd) {
         LOGGER.debug("Adding ticket [{}]", ticketToAdd);
+        final TicketDefinition definition = this.ticketCatalog.find(ticketToAdd);
         try {
             final Ticket ticket = encodeTicket(ticketToAdd);
-            final SerializableDocument document = SerializableDocument.create(ticket.getId(), getTimeToLive(ticketToAdd), ticket);
-            LOGGER.debug("Created document for ticket [{}]. Upserting into getBucket [{}]", ticketToAdd, this.couchbase.getBucket().name());
-            this.couchbase.getBucket().upsert(document);
+            final ByteArrayDocument document = ByteArrayDocument.create(documentKey(definition, ticket.getId()),
+                    getTimeToLive(ticketToAdd), this.ticketSerializer.encode(ticket));
+            LOGGER.debug("Created document for ticket [{}]. Inserting into bucket [{}]", ticketToAdd, this.couchbase.getBucket().name());
+            try {
+                this.couchbase.getBucket().insert(document);
+                this.couchbase.getBucket().counter(counterKey(definition.getPrefix()), 1, 1);
+            } catch (final DocumentAlreadyExistsException e) {
+                LOGGER.debug("Ticket [{}] is already in the registry and is replaced", ticketToAdd.getId());
+                this.couchbase.getBucket().upsert(document);
+            }
         } catch (final Exception e) {
             LOGGER.error("Failed adding [{}]: [{}]", ticketToAdd, e);
         }
@@ -104,14 +146,21 @@ public class CouchbaseTicketRegistry extends AbstractTicketRegistry {
         try {
             LOGGER.debug("Locating ticket id [{}]", ticketId);
             final String encTicketId = encodeTicketId(ticketId);
-            if (encTicketId == null) {
+            final TicketDefinition definition = encTicketId == null ? null : this.ticketCatalog.find(ticketId);
+            if (definition == null) {
                 LOGGER.debug("Ticket id [{}] could not be found", ticketId);
                 return null;
             }
 
-            final SerializableDocument document = this.couchbase.getBucket().get(encTicketId, SerializableDocument.class);
+            final String key = documentKey(definition, encTicketId);
+            final ByteArrayDocument document = this.couchbase.getBucket().get(key, ByteArrayDocument.class);
             if (document != null) {
-                final Ticket t = (Ticket) document.content();
+                final Ticket t = decodeTicket(this.ticketSerializer.decode(document.content()));
+                if (t != null && t.isExpired()) {
+                    LOGGER.debug("Ticket [{}] has expired and is now removed from the registry", t.getId());
+                    removeDocument(definition, key);
+                    return null;
+                }
                 LOGGER.debug("Got ticket [{}] from the registry.", t);
                 return t;
             }
@@ -130,6 +179,9 @@ public class CouchbaseTicketRegistry extends AbstractTicketRegistry {
     public void destroy() {
         try {
             LOGGER.debug("Shutting down Couchbase");
+            if (this.scheduler != null) {
+                this.scheduler.shutdownNow();
+            }
             this.couchbase.shutdown();
         } catch (final Exception e) {
             throw new RuntimeException(e.getMessage(), e);
@@ -138,26 +190,42 @@ public class CouchbaseTicketRegistry extends AbstractTicketRegistry {
 
     @Override
     public Collection<Ticket> getTickets() {
-        LOGGER.debug("getTickets() isn't supported. Returning empty list");
-        return new ArrayList<>(0);
+        return getTicketsStream().collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<Ticket> getTicketsStream() {
+        final AsyncBucket bucket = this.couchbase.getBucket().async();
+        return this.ticketCatalog.findAll()
+                .stream()
+                .flatMap(definition -> {
+                    final Observable<Ticket> tickets = queryDocumentKeys(definition)
+                            .flatMap(key -> bucket.get(key, ByteArrayDocument.class), this.bulkConcurrency)
+                            .map(document -> decodeTicket(this.ticketSerializer.decode(document.content())));
+                    return StreamSupport.stream(tickets.toBlocking().toIterable().spliterator(), false);
+                });
     }
 
     @Override
     public long sessionCount() {
-        return runQuery(TicketGrantingTicket.PREFIX + '-');
+        return getCounter(TicketGrantingTicket.PREFIX) + getCounter(ProxyGrantingTicket.PROXY_GRANTING_TICKET_PREFIX);
     }
 
     @Override
     public long serviceTicketCount() {
-        return runQuery(ServiceTicket.PREFIX + '-');
+        return getCounter(ServiceTicket.PREFIX) + getCounter(ProxyTicket.PROXY_TICKET_PREFIX);
     }
 
     @Override
     public boolean deleteSingleTicket(final String ticketIdToDelete) {
         final String ticketId = encodeTicketId(ticketIdToDelete);
+        final TicketDefinition definition = ticketId == null ? null : this.ticketCatalog.find(ticketIdToDelete);
+        if (definition == null) {
+            return false;
+        }
         LOGGER.debug("Deleting ticket [{}]", ticketId);
         try {
-            return this.couchbase.getBucket().remove(ticketId) != null;
+            return removeDocument(definition, documentKey(definition, ticketId));
         } catch (final Exception e) {
             LOGGER.error("Failed deleting [{}]: [{}]", ticketId, e);
             return false;
@@ -166,39 +234,88 @@ public class CouchbaseTicketRegistry extends AbstractTicketRegistry {
 
     @Override
     public long deleteAll() {
-        final Consumer<? super ViewRow> remove = t -> this.couchbase.getBucket().remove(t.document());
-        return this.ticketCatalog.findAll().stream().mapToLong(t -> {
-            final Iterator<ViewRow> it = getViewResultIteratorForPrefixedTickets(t.getPrefix() + '-').iterator();
-            final int count = getViewRowCountFromViewResultIterator(it);
-            it.forEachRemaining(remove);
+        final AsyncBucket bucket = this.couchbase.getBucket().async();
+        return this.ticketCatalog.findAll().stream().mapToLong(definition -> {
+            final long count = queryDocumentKeys(definition)
+                    .flatMap(key -> bucket.remove(key, ByteArrayDocument.class)
+                            .onErrorResumeNext(e -> e instanceof DocumentDoesNotExistException
+                                    ? Observable.<ByteArrayDocument>empty()
+                                    : Observable.<ByteArrayDocument>error(e)),
+                            this.bulkConcurrency)
+                    .countLong()
+                    .toBlocking()
+                    .single();
+            if (count > 0) {
+                this.couchbase.getBucket().counter(counterKey(definition.getPrefix()), -count, 0);
+            }
+            LOGGER.debug("Removed [{}] ticket(s) of type [{}]", count, definition.getPrefix());
             return count;
         }).sum();
     }
 
-    private int runQuery(final String prefix) {
-        final Iterator<ViewRow> iterator = getViewResultIteratorForPrefixedTickets(prefix).iterator();
-        return getViewRowCountFromViewResultIterator(iterator);
+    /**
+     * Recalculate the ticket counters from the tickets that are in the bucket.
+     * Tickets that Couchbase removes on expiry are not accounted for until the counters are recalculated.
+     */
+    public void recalculateCounters() {
+        try {
+            final Bucket bucket = this.couchbase.getBucket();
+            this.ticketCatalog.findAll().forEach(definition -> {
+                final N1qlQuery query = N1qlQuery.parameterized("SELECT COUNT(*) AS total FROM `" + bucket.name()
+                                + "` t WHERE META(t).id LIKE $1", JsonArray.from(documentKey(definition, "%")),
+                        N1qlParams.build().consistency(ScanConsistency.REQUEST_PLUS));
+                final N1qlQueryResult result = bucket.query(query);
+                if (result.finalSuccess() && !result.allRows().isEmpty()) {
+                    final long total = result.allRows().get(0).value().getLong("total");
+                    bucket.upsert(JsonLongDocument.create(counterKey(definition.getPrefix()), total));
+                    LOGGER.debug("Recalculated the number of tickets of type [{}] as [{}]", definition.getPrefix(), total);
+                } else {
+                    LOGGER.warn("Unable to count tickets of type [{}]: [{}]", definition.getPrefix(), result.errors());
+                }
+            });
+        } catch (final Exception e) {
+            LOGGER.error("Unable to recalculate ticket counters: [{}]", e.getMessage(), e);
+        }
     }
 
-    private static int getViewRowCountFromViewResultIterator(final Iterator<ViewRow> iterator) {
-        if (iterator.hasNext()) {
-            final ViewRow res = iterator.next();
-            final Integer count = (Integer) res.value();
-            LOGGER.debug("Found [{}] rows", count);
-            return count;
+    private boolean removeDocument(final TicketDefinition definition, final String key) {
+        try {
+            this.couchbase.getBucket().remove(key, ByteArrayDocument.class);
+            this.couchbase.getBucket().counter(counterKey(definition.getPrefix()), -1, 0);
+            return true;
+        } catch (final DocumentDoesNotExistException e) {
+            LOGGER.debug("Ticket document [{}] is not found in the registry", key);
+            return false;
+        }
+    }
+
+    private long getCounter(final String prefix) {
+        try {
+            final JsonLongDocument counter = this.couchbase.getBucket().get(counterKey(prefix), JsonLongDocument.class);
+            return counter == null || counter.content() == null ? 0 : counter.content();
+        } catch (final Exception e) {
+            LOGGER.error("Unable to read the number of tickets of type [{}]: [{}]", prefix, e.getMessage());
+            return 0;
         }
-        LOGGER.debug("No rows could be found by the query iterator.");
-        return 0;
     }
 
-    private ViewResult getViewResultIteratorForPrefixedTickets(final String prefix) {
-        LOGGER.debug("Running query on document [{}] and view [{}] with prefix [{}]",
-                UTIL_DOCUMENT, VIEW_NAME_ALL_TICKETS, prefix);
-        return this.couchbase.getBucket().query(
-                ViewQuery.from(UTIL_DOCUMENT, VIEW_NAME_ALL_TICKETS)
-                        .startKey(prefix)
-                        .endKey(prefix + END_TOKEN)
-                        .reduce());
+    private Observable<String> queryDocumentKeys(final TicketDefinition definition) {
+        final String bucketName = this.couchbase.getBucket().name();
+        final N1qlQuery query = N1qlQuery.parameterized("SELECT META(t).id AS id FROM `" + bucketName + "` t WHERE META(t).id LIKE $1",
+                JsonArray.from(documentKey(definition, "%")), N1qlParams.build().consistency(ScanConsistency.REQUEST_PLUS));
+        LOGGER.debug("Running query [{}] on bucket [{}]", query, bucketName);
+        return this.couchbase.getBucket().async()
+                .query(query)
+                .flatMap(AsyncN1qlQueryResult::rows)
+                .map(row -> row.value().getString("id"));
+    }
+
+    private static String documentKey(final TicketDefinition definition, final String encTicketId) {
+        return definition.getPrefix() + KEY_DELIMITER + encTicketId;
+    }
+
+    private static String counterKey(final String prefix) {
+        return COUNTER_KEY_PREFIX + prefix;
     }
 
     /**
@@ -218,4 +335,3 @@ public class CouchbaseTicketRegistry extends AbstractTicketRegistry {
         return expTime;
     }
 }
-
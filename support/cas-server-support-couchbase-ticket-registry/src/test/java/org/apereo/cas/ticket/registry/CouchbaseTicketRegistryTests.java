@@ -0,0 +1,181 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.authentication.principal.Service;
+import org.apereo.cas.config.CasCoreAuthenticationConfiguration;
+import org.apereo.cas.config.CasCoreAuthenticationHandlersConfiguration;
+import org.apereo.cas.config.CasCoreAuthenticationMetadataConfiguration;
+import org.apereo.cas.config.CasCoreAuthenticationPolicyConfiguration;
+import org.apereo.cas.config.CasCoreAuthenticationPrincipalConfiguration;
+import org.apereo.cas.config.CasCoreAuthenticationServiceSelectionStrategyConfiguration;
+import org.apereo.cas.config.CasCoreAuthenticationSupportConfiguration;
+import org.apereo.cas.config.CasCoreConfiguration;
+import org.apereo.cas.config.CasCoreHttpConfiguration;
+import org.apereo.cas.config.CasCoreServicesAuthenticationConfiguration;
+import org.apereo.cas.config.CasCoreServicesConfiguration;
+import org.apereo.cas.config.CasCoreTicketCatalogConfiguration;
+import org.apereo.cas.config.CasCoreTicketsConfiguration;
+import org.apereo.cas.config.CasPersonDirectoryConfiguration;
+import org.apereo.cas.config.CouchbaseTicketRegistryConfiguration;
+import org.apereo.cas.couchbase.core.CouchbaseClientFactory;
+import org.apereo.cas.kryo.KryoBinarySerializer;
+import org.apereo.cas.logout.config.CasCoreLogoutConfiguration;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketCatalog;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
+import org.apereo.cas.ticket.proxy.ProxyTicket;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
+import org.springframework.test.annotation.IfProfileValue;
+import org.springframework.test.util.AopTestUtils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link CouchbaseTicketRegistryTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@IfProfileValue(name = "couchbaseEnabled", value = "true")
+@RunWith(Parameterized.class)
+@SpringBootTest(classes = {CouchbaseTicketRegistryConfiguration.class,
+        CasCoreTicketsConfiguration.class,
+        CasCoreTicketCatalogConfiguration.class,
+        CasCoreLogoutConfiguration.class,
+        CasCoreHttpConfiguration.class,
+        CasCoreServicesConfiguration.class,
+        CasCoreAuthenticationConfiguration.class,
+        CasCoreServicesAuthenticationConfiguration.class,
+        CasCoreConfiguration.class,
+        CasCoreAuthenticationServiceSelectionStrategyConfiguration.class,
+        CasCoreAuthenticationHandlersConfiguration.class,
+        CasCoreAuthenticationMetadataConfiguration.class,
+        CasCoreAuthenticationPolicyConfiguration.class,
+        CasCoreAuthenticationPrincipalConfiguration.class,
+        CasCoreAuthenticationSupportConfiguration.class,
+        CasPersonDirectoryConfiguration.class,
+        RefreshAutoConfiguration.class})
+public class CouchbaseTicketRegistryTests extends AbstractTicketRegistryTests {
+
+    @Autowired
+    @Qualifier("ticketRegistry")
+    private TicketRegistry ticketRegistry;
+
+    @Autowired
+    @Qualifier("ticketRegistryCouchbaseClientFactory")
+    private CouchbaseClientFactory couchbaseClientFactory;
+
+    @Autowired
+    @Qualifier("ticketCatalog")
+    private TicketCatalog ticketCatalog;
+
+    public CouchbaseTicketRegistryTests(final boolean useEncryption) {
+        super(useEncryption);
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object> getTestParameters() {
+        return Arrays.asList(false, true);
+    }
+
+    @Override
+    public TicketRegistry getNewTicketRegistry() {
+        return ticketRegistry;
+    }
+
+    @Test
+    public void verifyTicketsAreCounted() {
+        final CouchbaseTicketRegistry registry = AopTestUtils.getTargetObject(this.ticketRegistry);
+        registry.recalculateCounters();
+        assertEquals(0, registry.sessionCount());
+        assertEquals(0, registry.serviceTicketCount());
+
+        final TicketGrantingTicket tgt1 = newTicketGrantingTicket("TGT-COUNT-1");
+        final TicketGrantingTicket tgt2 = newTicketGrantingTicket("TGT-COUNT-2");
+        registry.addTicket(tgt1);
+        registry.addTicket(tgt2);
+        registry.addTicket(tgt1.grantServiceTicket("ST-COUNT-1", RegisteredServiceTestUtils.getService(),
+                new NeverExpiresExpirationPolicy(), false, true));
+        assertEquals(2, registry.sessionCount());
+        assertEquals(1, registry.serviceTicketCount());
+
+        registry.updateTicket(tgt2);
+        assertEquals(2, registry.sessionCount());
+
+        registry.deleteSingleTicket(tgt2.getId());
+        registry.deleteSingleTicket(tgt2.getId());
+        assertEquals(1, registry.sessionCount());
+
+        registry.recalculateCounters();
+        assertEquals(1, registry.sessionCount());
+        assertEquals(1, registry.serviceTicketCount());
+
+        assertEquals(2, registry.deleteAll());
+        assertEquals(0, registry.sessionCount());
+        assertEquals(0, registry.serviceTicketCount());
+    }
+
+    @Test
+    public void verifyTicketsOfEveryTypeAreListedAndDeleted() {
+        final Set<Ticket> tickets = addTicketsOfEveryType(this.ticketRegistry);
+
+        final Collection<Ticket> results = this.ticketRegistry.getTickets();
+        assertEquals(tickets, new HashSet<>(results));
+        assertEquals(tickets.size(), this.ticketRegistry.getTicketsStream().count());
+
+        assertEquals(tickets.size(), this.ticketRegistry.deleteAll());
+        assertTrue(this.ticketRegistry.getTickets().isEmpty());
+        tickets.forEach(ticket -> assertNull(this.ticketRegistry.getTicket(ticket.getId())));
+    }
+
+    @Test
+    public void verifyTicketsRoundTripWithKryo() {
+        final CouchbaseTicketRegistry registry = new CouchbaseTicketRegistry(this.couchbaseClientFactory, this.ticketCatalog,
+                new KryoBinarySerializer<>(), 8, 0);
+        final Set<Ticket> tickets = addTicketsOfEveryType(registry);
+        tickets.forEach(ticket -> assertEquals(ticket, registry.getTicket(ticket.getId())));
+
+        final TicketGrantingTicket tgt = registry.getTicket("TGT-TYPES", TicketGrantingTicket.class);
+        tgt.markTicketExpired();
+        registry.updateTicket(tgt);
+        assertNull(registry.getTicket(tgt.getId()));
+
+        assertEquals(tickets.size() - 1, registry.deleteAll());
+        assertTrue(registry.getTickets().isEmpty());
+    }
+
+    private static Set<Ticket> addTicketsOfEveryType(final TicketRegistry registry) {
+        final Service service = RegisteredServiceTestUtils.getService();
+        final TicketGrantingTicket tgt = newTicketGrantingTicket("TGT-TYPES");
+        final ServiceTicket st = tgt.grantServiceTicket("ST-TYPES", service, new NeverExpiresExpirationPolicy(), false, true);
+        final ProxyGrantingTicket pgt = st.grantProxyGrantingTicket("PGT-TYPES",
+                CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        final ProxyTicket pt = pgt.grantProxyTicket("PT-TYPES", service, new NeverExpiresExpirationPolicy(), false);
+
+        final Set<Ticket> tickets = new HashSet<>(Arrays.asList(tgt, st, pgt, pt));
+        tickets.forEach(registry::addTicket);
+        registry.updateTicket(tgt);
+        registry.updateTicket(pgt);
+        return tickets;
+    }
+
+    private static TicketGrantingTicket newTicketGrantingTicket(final String id) {
+        return new TicketGrantingTicketImpl(id, CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+    }
+}
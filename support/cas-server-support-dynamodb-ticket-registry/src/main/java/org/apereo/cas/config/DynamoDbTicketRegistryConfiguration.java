@@ -13,10 +13,14 @@ import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.model.core.util.EncryptionRandomizedSigningJwtCryptographyProperties;
 import org.apereo.cas.configuration.model.support.dynamodb.DynamoDbTicketRegistryProperties;
 import org.apereo.cas.configuration.support.Beans;
+import org.apereo.cas.kryo.KryoBinarySerializer;
+import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketCatalog;
 import org.apereo.cas.ticket.registry.DynamoDbTicketRegistry;
 import org.apereo.cas.ticket.registry.DynamoDbTicketRegistryFacilitator;
 import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.util.serialization.BinarySerializer;
+import org.apereo.cas.util.serialization.JavaBinarySerializer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -53,7 +57,10 @@ public class DynamoDbTicketRegistryConfiguration {
     @Bean
     public DynamoDbTicketRegistryFacilitator dynamoDbTicketRegistryFacilitator(@Qualifier("ticketCatalog") final TicketCatalog ticketCatalog) {
         final DynamoDbTicketRegistryProperties db = casProperties.getTicket().getRegistry().getDynamoDb();
-        return new DynamoDbTicketRegistryFacilitator(ticketCatalog, db, amazonDynamoDbClient());
+        final BinarySerializer<Ticket> serializer = db.isKryoSerialization()
+                ? new KryoBinarySerializer<>()
+                : new JavaBinarySerializer<>();
+        return new DynamoDbTicketRegistryFacilitator(ticketCatalog, db, amazonDynamoDbClient(), serializer);
     }
 
     @RefreshScope
@@ -7,6 +7,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * This is {@link DynamoDbTicketRegistry}.
@@ -42,8 +44,13 @@ public class DynamoDbTicketRegistry extends AbstractTicketRegistry {
         final String encTicketId = encodeTicketId(ticketId);
         if (StringUtils.isNotBlank(encTicketId)) {
             LOGGER.debug("Retrieving ticket [{}] ", ticketId);
-            final Ticket ticket = this.dbTableService.get(ticketId);
-            return decodeTicket(ticket);
+            final Ticket ticket = decodeTicket(this.dbTableService.get(ticketId, encTicketId));
+            if (ticket != null && ticket.isExpired()) {
+                LOGGER.debug("Ticket [{}] has expired and is now removed from the registry", ticket.getId());
+                this.dbTableService.delete(ticketId, encTicketId);
+                return null;
+            }
+            return ticket;
         }
         return null;
     }
@@ -55,7 +62,12 @@ public class DynamoDbTicketRegistry extends AbstractTicketRegistry {
 
     @Override
     public Collection<Ticket> getTickets() {
-        return decodeTickets(this.dbTableService.getAll());
+        return getTicketsStream().collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<Ticket> getTicketsStream() {
+        return this.dbTableService.stream().map(this::decodeTicket);
     }
 
     @Override
@@ -66,7 +78,7 @@ public class DynamoDbTicketRegistry extends AbstractTicketRegistry {
 
     @Override
     public boolean deleteSingleTicket(final String ticketIdToDelete) {
-        final String ticketId = encodeTicketId(ticketIdToDelete);
-        return this.dbTableService.delete(ticketId);
+        final String encTicketId = encodeTicketId(ticketIdToDelete);
+        return this.dbTableService.delete(ticketIdToDelete, encTicketId);
     }
 }
@@ -1,13 +1,17 @@
 package org.apereo.cas.ticket.registry;
 
+import com.amazonaws.AmazonServiceException;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClient;
 import com.amazonaws.services.dynamodbv2.model.AttributeDefinition;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
 import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
 import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
 import com.amazonaws.services.dynamodbv2.model.DeleteItemResult;
+import com.amazonaws.services.dynamodbv2.model.DeleteRequest;
 import com.amazonaws.services.dynamodbv2.model.DeleteTableRequest;
 import com.amazonaws.services.dynamodbv2.model.DescribeTableRequest;
+import com.amazonaws.services.dynamodbv2.model.DescribeTimeToLiveRequest;
 import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
 import com.amazonaws.services.dynamodbv2.model.KeySchemaElement;
 import com.amazonaws.services.dynamodbv2.model.KeyType;
@@ -18,27 +22,55 @@ import com.amazonaws.services.dynamodbv2.model.ScalarAttributeType;
 import com.amazonaws.services.dynamodbv2.model.ScanRequest;
 import com.amazonaws.services.dynamodbv2.model.ScanResult;
 import com.amazonaws.services.dynamodbv2.model.TableDescription;
+import com.amazonaws.services.dynamodbv2.model.TimeToLiveDescription;
+import com.amazonaws.services.dynamodbv2.model.TimeToLiveSpecification;
+import com.amazonaws.services.dynamodbv2.model.TimeToLiveStatus;
+import com.amazonaws.services.dynamodbv2.model.UpdateTimeToLiveRequest;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
 import com.amazonaws.services.dynamodbv2.util.TableUtils;
-import org.apache.commons.lang3.SerializationUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apereo.cas.configuration.model.support.dynamodb.DynamoDbTicketRegistryProperties;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketCatalog;
 import org.apereo.cas.ticket.TicketDefinition;
+import org.apereo.cas.ticket.TicketState;
 import org.apereo.cas.util.CollectionUtils;
+import org.apereo.cas.util.serialization.BinarySerializer;
 import org.jooq.lambda.Unchecked;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PreDestroy;
 import java.nio.ByteBuffer;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * This is {@link DynamoDbTicketRegistryFacilitator}.
+ * <p>
+ * Tables are read with parallel scans, split into a configurable number of segments.
+ * The next page of every segment is fetched concurrently on threads owned by the facilitator,
+ * while the tickets are handed to callers as a sequential stream, one round of pages at a time.
+ * Tables are emptied with batched deletes rather than being dropped and created again. Each item carries the time after which its ticket
+ * is certain to have expired, as given by the expiration policy of the ticket, which DynamoDb may use to remove the item by itself
+ * once time-to-live is enabled for the table.
  *
  * @author Misagh Moayyed
  * @since 5.1.0
@@ -53,7 +85,8 @@ public class DynamoDbTicketRegistryFacilitator {
         COUNT_OF_USES("countOfUses"),
         TIME_TO_LIVE("timeToLive"),
         TIME_TO_IDLE("timeToIdle"),
-        ENCODED("encoded");
+        ENCODED("encoded"),
+        EXPIRE_AT("expireAt");
 
         private final String name;
 
@@ -66,34 +99,63 @@ public class DynamoDbTicketRegistryFacilitator {
         }
     }
 
+    /**
+     * Most write requests that a single batch write may carry.
+     */
+    private static final int BATCH_WRITE_LIMIT = 25;
+
+    /**
+     * Pause before retrying unprocessed batch writes, doubled on every attempt up to the maximum.
+     */
+    private static final long BATCH_WRITE_BACKOFF_MILLIS = 50;
+    private static final long BATCH_WRITE_MAX_BACKOFF_MILLIS = 2000;
+
     private final TicketCatalog ticketCatalog;
     private final DynamoDbTicketRegistryProperties dynamoDbProperties;
     private final AmazonDynamoDBClient amazonDynamoDBClient;
+    private final BinarySerializer<Ticket> ticketSerializer;
+    private final ExecutorService scanExecutor;
 
     public DynamoDbTicketRegistryFacilitator(final TicketCatalog ticketCatalog,
                                              final DynamoDbTicketRegistryProperties dynamoDbProperties,
-                                             final AmazonDynamoDBClient amazonDynamoDBClient) {
+                                             final AmazonDynamoDBClient amazonDynamoDBClient,
+                                             final BinarySerializer<Ticket> ticketSerializer) {
         this.ticketCatalog = ticketCatalog;
         this.dynamoDbProperties = dynamoDbProperties;
         this.amazonDynamoDBClient = amazonDynamoDBClient;
+        this.ticketSerializer = ticketSerializer;
+        this.scanExecutor = Executors.newFixedThreadPool(Math.max(dynamoDbProperties.getScanSegments(), 1), r -> {
+            final Thread thread = new Thread(r, getClass().getSimpleName());
+            thread.setDaemon(true);
+            return thread;
+        });
 
         if (!dynamoDbProperties.isPreventTableCreationOnStartup()) {
             createTicketTables(dynamoDbProperties.isDropTablesOnStartup());
         }
     }
 
+    /**
+     * Stop the threads that fetch pages of table scans.
+     */
+    @PreDestroy
+    public void destroy() {
+        this.scanExecutor.shutdownNow();
+    }
+
     /**
      * Delete.
      *
-     * @param ticketId the ticket id
+     * @param ticketId    the ticket id, which locates the table
+     * @param encTicketId the encoded ticket id, which is the key of the item
      * @return the boolean
      */
-    public boolean delete(final String ticketId) {
+    public boolean delete(final String ticketId, final String encTicketId) {
         final TicketDefinition metadata = this.ticketCatalog.find(ticketId);
         if (metadata != null) {
             final DeleteItemRequest del = new DeleteItemRequest()
                     .withTableName(metadata.getProperties().getStorageName())
-                    .withKey(CollectionUtils.wrap(ColumnNames.ID.getName(), new AttributeValue(ticketId)));
+                    .withKey(CollectionUtils.wrap(ColumnNames.ID.getName(), new AttributeValue(encTicketId)));
             LOGGER.debug("Submitting delete request [{}] for ticket [{}]", del, ticketId);
             final DeleteItemResult res = amazonDynamoDBClient.deleteItem(del);
             LOGGER.debug("Delete request came back with result [{}]", res);
@@ -103,20 +165,20 @@ public class DynamoDbTicketRegistryFacilitator {
     }
 
     /**
-     * Delete all.
+     * Delete all tickets by scanning the keys of each table and removing them in batches.
      *
-     * @return the int
+     * @return the number of tickets removed
      */
     public int deleteAll() {
-        final AtomicInteger count = new AtomicInteger();
-        final Collection<TicketDefinition> metadata = this.ticketCatalog.findAll();
-        metadata.forEach(r -> {
-            final ScanRequest scan = new ScanRequest(r.getProperties().getStorageName());
-            LOGGER.debug("Submitting scan request [{}] to table [{}]", scan, r.getProperties().getStorageName());
-            count.addAndGet(this.amazonDynamoDBClient.scan(scan).getCount());
-        });
-        createTicketTables(true);
-        return count.get();
+        return scanPages(newScanRequests().map(scan -> scan.withProjectionExpression(ColumnNames.ID.getName())))
+                .mapToInt(page -> {
+                    final List<Map<String, AttributeValue>> keys = page.getValue();
+                    for (int i = 0; i < keys.size(); i += BATCH_WRITE_LIMIT) {
+                        deleteBatch(page.getKey(), keys.subList(i, Math.min(i + BATCH_WRITE_LIMIT, keys.size())));
+                    }
+                    return keys.size();
+                })
+                .sum();
     }
 
     /**
@@ -125,34 +187,35 @@ public class DynamoDbTicketRegistryFacilitator {
      * @return the all
      */
     public Collection<Ticket> getAll() {
-        final Collection<Ticket> tickets = new ArrayList<>();
-        final Collection<TicketDefinition> metadata = this.ticketCatalog.findAll();
-        metadata.forEach(r -> {
-            final ScanRequest scan = new ScanRequest(r.getProperties().getStorageName());
-            LOGGER.debug("Scanning table with request [{}]", scan);
-            final ScanResult result = this.amazonDynamoDBClient.scan(scan);
-            LOGGER.debug("Scanned table with result [{}]", scan);
-
-            tickets.addAll(result.getItems()
-                    .stream()
-                    .map(DynamoDbTicketRegistryFacilitator::deserializeTicket)
-                    .collect(Collectors.toList()));
-        });
-        return tickets;
+        return stream().collect(Collectors.toList());
+    }
+
+    /**
+     * Stream all tickets. Every table is scanned in parallel segments, whose pages are fetched
+     * as the stream is consumed. The stream itself is sequential, so callers never run on the threads
+     * that fetch the pages.
+     *
+     * @return the stream
+     */
+    public Stream<Ticket> stream() {
+        return scanPages(newScanRequests())
+                .flatMap(page -> page.getValue().stream())
+                .map(this::deserializeTicket);
     }
 
     /**
      * Get ticket.
      *
-     * @param ticketId the ticket id
+     * @param ticketId    the ticket id, which locates the table
+     * @param encTicketId the encoded ticket id, which is the key of the item
      * @return the ticket
      */
-    public Ticket get(final String ticketId) {
+    public Ticket get(final String ticketId, final String encTicketId) {
         final TicketDefinition metadata = this.ticketCatalog.find(ticketId);
         if (metadata != null) {
             final Map<String, AttributeValue> keys = new HashMap<>();
 
-            keys.put(ColumnNames.ID.getName(), new AttributeValue(ticketId));
+            keys.put(ColumnNames.ID.getName(), new AttributeValue(encTicketId));
             final GetItemRequest request = new GetItemRequest()
                     .withKey(keys)
                     .withTableName(metadata.getProperties().getStorageName());
@@ -171,10 +234,109 @@ public class DynamoDbTicketRegistryFacilitator {
         return null;
     }
 
-    private static Ticket deserializeTicket(final Map<String, AttributeValue> returnItem) {
+    private Ticket deserializeTicket(final Map<String, AttributeValue> returnItem) {
         final ByteBuffer bb = returnItem.get(ColumnNames.ENCODED.getName()).getB();
         LOGGER.debug("Located binary encoding of ticket item [{}]. Transforming item into ticket object", returnItem);
-        return SerializationUtils.deserialize(bb.array());
+        final byte[] encoded = new byte[bb.remaining()];
+        bb.duplicate().get(encoded);
+        return this.ticketSerializer.decode(encoded);
+    }
+
+    private Stream<ScanRequest> newScanRequests() {
+        final int totalSegments = Math.max(dynamoDbProperties.getScanSegments(), 1);
+        return this.ticketCatalog.findAll()
+                .stream()
+                .map(r -> r.getProperties().getStorageName())
+                .flatMap(tableName -> IntStream.range(0, totalSegments)
+                        .mapToObj(segment -> new ScanRequest(tableName)
+                                .withSegment(segment)
+                                .withTotalSegments(totalSegments)));
+    }
+
+    /**
+     * Page through the results of all scans lazily. Each round fetches the next page of every scan
+     * that has not reached its end concurrently, and resumes each scan from where its previous page stopped.
+     * Pages are paired with the name of the table they were read from.
+     */
+    private Stream<Pair<String, List<Map<String, AttributeValue>>>> scanPages(final Stream<ScanRequest> scans) {
+        final List<ScanRequest> pending = scans.collect(Collectors.toList());
+        final Iterator<List<Pair<String, List<Map<String, AttributeValue>>>>> rounds =
+                new Iterator<List<Pair<String, List<Map<String, AttributeValue>>>>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return !pending.isEmpty();
+                    }
+
+                    @Override
+                    public List<Pair<String, List<Map<String, AttributeValue>>>> next() {
+                        if (pending.isEmpty()) {
+                            throw new NoSuchElementException();
+                        }
+                        final List<CompletableFuture<ScanResult>> results = pending.stream()
+                                .map(scan -> CompletableFuture.supplyAsync(() -> scan(scan), scanExecutor))
+                                .collect(Collectors.toList());
+                        final List<Pair<String, List<Map<String, AttributeValue>>>> pages = new ArrayList<>(pending.size());
+                        final List<ScanRequest> remaining = new ArrayList<>(pending.size());
+                        for (int i = 0; i < pending.size(); i++) {
+                            final ScanRequest scan = pending.get(i);
+                            final ScanResult result = join(results.get(i));
+                            pages.add(Pair.of(scan.getTableName(), result.getItems()));
+                            final Map<String, AttributeValue> lastKey = result.getLastEvaluatedKey();
+                            if (lastKey != null && !lastKey.isEmpty()) {
+                                scan.setExclusiveStartKey(lastKey);
+                                remaining.add(scan);
+                            }
+                        }
+                        pending.clear();
+                        pending.addAll(remaining);
+                        return pages;
+                    }
+                };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rounds, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .flatMap(List::stream);
+    }
+
+    private ScanResult scan(final ScanRequest scan) {
+        LOGGER.debug("Scanning table with request [{}]", scan);
+        final ScanResult result = amazonDynamoDBClient.scan(scan);
+        LOGGER.debug("Scanned [{}] item(s) from table [{}]", result.getCount(), scan.getTableName());
+        return result;
+    }
+
+    private static ScanResult join(final CompletableFuture<ScanResult> result) {
+        try {
+            return result.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Delete the items with the given keys in a single batch, retrying items that DynamoDb
+     * leaves unprocessed when the table is being throttled.
+     */
+    private void deleteBatch(final String tableName, final List<Map<String, AttributeValue>> keys) {
+        Map<String, List<WriteRequest>> requests = CollectionUtils.wrap(tableName, keys.stream()
+                .map(key -> new WriteRequest(new DeleteRequest(key)))
+                .collect(Collectors.toList()));
+        long backoff = BATCH_WRITE_BACKOFF_MILLIS;
+        while (requests != null && !requests.isEmpty()) {
+            LOGGER.debug("Submitting batch delete request for [{}] item(s) to table [{}]", keys.size(), tableName);
+            requests = amazonDynamoDBClient.batchWriteItem(new BatchWriteItemRequest(requests)).getUnprocessedItems();
+            if (requests != null && !requests.isEmpty()) {
+                LOGGER.debug("Batch delete left unprocessed items in table [{}]; retrying in [{}] ms", tableName, backoff);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(backoff);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while deleting tickets from table " + tableName, e);
+                }
+                backoff = Math.min(backoff * 2, BATCH_WRITE_MAX_BACKOFF_MILLIS);
+            }
+        }
     }
 
     /**
@@ -191,7 +353,6 @@ public class DynamoDbTicketRegistryFacilitator {
         LOGGER.debug("Submitting put request [{}] for ticket id [{}]", putItemRequest, encodedTicket.getId());
         final PutItemResult putItemResult = amazonDynamoDBClient.putItem(putItemRequest);
         LOGGER.debug("Ticket added with result [{}]", putItemResult);
-        getAll();
     }
 
     /**
@@ -226,9 +387,35 @@ public class DynamoDbTicketRegistryFacilitator {
             
             final TableDescription tableDescription = amazonDynamoDBClient.describeTable(describeTableRequest).getTable();
             LOGGER.debug("Located newly created table with description: [{}]", tableDescription);
+
+            if (dynamoDbProperties.isTimeToLiveEnabled()) {
+                enableTimeToLive(request.getTableName());
+            }
         }));
     }
 
+    private void enableTimeToLive(final String tableName) {
+        try {
+            final TimeToLiveDescription ttl = amazonDynamoDBClient.describeTimeToLive(
+                    new DescribeTimeToLiveRequest().withTableName(tableName)).getTimeToLiveDescription();
+            if (ttl != null && (TimeToLiveStatus.ENABLED.toString().equals(ttl.getTimeToLiveStatus())
+                    || TimeToLiveStatus.ENABLING.toString().equals(ttl.getTimeToLiveStatus()))) {
+                LOGGER.debug("Time-to-live is already enabled for table [{}] on attribute [{}]", tableName, ttl.getAttributeName());
+                return;
+            }
+            final UpdateTimeToLiveRequest request = new UpdateTimeToLiveRequest()
+                    .withTableName(tableName)
+                    .withTimeToLiveSpecification(new TimeToLiveSpecification()
+                            .withAttributeName(ColumnNames.EXPIRE_AT.getName())
+                            .withEnabled(Boolean.TRUE));
+            LOGGER.debug("Sending request [{}] to enable time-to-live for table [{}]", request, tableName);
+            amazonDynamoDBClient.updateTimeToLive(request);
+        } catch (final AmazonServiceException e) {
+            LOGGER.warn("Unable to enable time-to-live for table [{}]; expired tickets are left to the registry cleaner: [{}]",
+                    tableName, e.getMessage());
+        }
+    }
+
     /**
      * Build table attribute values from ticket map.
      *
@@ -244,7 +431,14 @@ public class DynamoDbTicketRegistryFacilitator {
         values.put(ColumnNames.COUNT_OF_USES.getName(), new AttributeValue().withN(Integer.toString(ticket.getCountOfUses())));
         values.put(ColumnNames.TIME_TO_LIVE.getName(), new AttributeValue().withN(Long.toString(ticket.getExpirationPolicy().getTimeToLive())));
         values.put(ColumnNames.TIME_TO_IDLE.getName(), new AttributeValue().withN(Long.toString(ticket.getExpirationPolicy().getTimeToIdle())));
-        values.put(ColumnNames.ENCODED.getName(), new AttributeValue().withB(ByteBuffer.wrap(SerializationUtils.serialize(encTicket))));
+        values.put(ColumnNames.ENCODED.getName(), new AttributeValue().withB(ByteBuffer.wrap(this.ticketSerializer.encode(encTicket))));
+
+        if (ticket instanceof TicketState) {
+            final ZonedDateTime expireAt = ticket.getExpirationPolicy().getMaximumExpirationTime((TicketState) ticket);
+            if (expireAt != null) {
+                values.put(ColumnNames.EXPIRE_AT.getName(), new AttributeValue().withN(Long.toString(expireAt.toEpochSecond())));
+            }
+        }
 
         LOGGER.debug("Created attribute values [{}] based on provided ticket [{}]", values, encTicket.getId());
         return values;
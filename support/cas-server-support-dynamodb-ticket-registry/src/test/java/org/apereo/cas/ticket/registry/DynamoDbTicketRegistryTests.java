@@ -2,7 +2,9 @@ package org.apereo.cas.ticket.registry;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.stream.IntStream;
 
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
 import org.apereo.cas.config.CasCoreAuthenticationConfiguration;
 import org.apereo.cas.config.CasCoreAuthenticationHandlersConfiguration;
 import org.apereo.cas.config.CasCoreAuthenticationMetadataConfiguration;
@@ -20,6 +22,9 @@ import org.apereo.cas.config.CasPersonDirectoryConfiguration;
 import org.apereo.cas.config.DynamoDbTicketRegistryConfiguration;
 import org.apereo.cas.config.DynamoDbTicketRegistryTicketCatalogConfiguration;
 import org.apereo.cas.logout.config.CasCoreLogoutConfiguration;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +34,8 @@ import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
 import org.springframework.test.annotation.IfProfileValue;
 import org.springframework.test.context.TestPropertySource;
 
+import static org.junit.Assert.*;
+
 /**
  * This is {@link DynamoDbTicketRegistryTests}.
  *
@@ -78,4 +85,15 @@ public class DynamoDbTicketRegistryTests extends AbstractTicketRegistryTests {
     public TicketRegistry getNewTicketRegistry() {
         return ticketRegistry;
     }
+
+    @Test
+    public void verifyTicketsAreScannedAndDeletedAcrossSegments() {
+        IntStream.range(0, 100).forEach(i -> ticketRegistry.addTicket(new TicketGrantingTicketImpl("TGT-" + i,
+                CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy())));
+        assertEquals(100, ticketRegistry.getTickets().size());
+        assertFalse(ticketRegistry.getTicketsStream().isParallel());
+        assertEquals(100, ticketRegistry.getTicketsStream().count());
+        assertEquals(100, ticketRegistry.deleteAll());
+        assertTrue(ticketRegistry.getTickets().isEmpty());
+    }
 }
@@ -13,6 +13,7 @@ import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.model.core.util.EncryptionRandomizedSigningJwtCryptographyProperties;
 import org.apereo.cas.configuration.model.support.ehcache.EhcacheProperties;
 import org.apereo.cas.configuration.support.Beans;
+import org.apereo.cas.kryo.KryoBinarySerializer;
 import org.apereo.cas.ticket.TicketCatalog;
 import org.apereo.cas.ticket.TicketDefinition;
 import org.apereo.cas.ticket.registry.EhCacheTicketRegistry;
@@ -166,6 +167,11 @@ public class EhcacheTicketRegistryConfiguration {
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("The following caches are available: [{}]", (Object[]) manager.getCacheNames());
         }
-        return new EhCacheTicketRegistry(ticketCatalog, manager, Beans.newTicketRegistryCipherExecutor(crypto, "ehcache"));
+        final EhCacheTicketRegistry registry = new EhCacheTicketRegistry(ticketCatalog, manager,
+            Beans.newTicketRegistryCipherExecutor(crypto, "ehcache"));
+        if (casProperties.getTicket().getRegistry().getEhcache().isKryoSerialization()) {
+            registry.setTicketSerializer(new KryoBinarySerializer<>());
+        }
+        return registry;
     }
 }
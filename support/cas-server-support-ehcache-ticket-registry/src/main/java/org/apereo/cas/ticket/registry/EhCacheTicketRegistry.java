@@ -6,9 +6,12 @@ import net.sf.ehcache.Element;
 import net.sf.ehcache.config.CacheConfiguration;
 import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.CipherExecutor;
+import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketCatalog;
 import org.apereo.cas.ticket.TicketDefinition;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.util.serialization.BinarySerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -16,6 +19,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -34,6 +38,9 @@ public class EhCacheTicketRegistry extends AbstractTicketRegistry {
     private final TicketCatalog ticketCatalog;
 
     private final CacheManager cacheManager;
+    private final Map<String, Ehcache> caches = new ConcurrentHashMap<>();
+
+    private BinarySerializer<Ticket> ticketSerializer;
 
     /**
      * Instantiates a new EhCache ticket registry.
@@ -55,7 +62,7 @@ public class EhCacheTicketRegistry extends AbstractTicketRegistry {
         final TicketDefinition metadata = this.ticketCatalog.find(ticketToAdd);
 
         final Ticket ticket = encodeTicket(ticketToAdd);
-        final Element element = new Element(ticket.getId(), ticket);
+        final Element element = new Element(ticket.getId(), toElementValue(ticket));
 
         int idleValue = ticketToAdd.getExpirationPolicy().getTimeToIdle().intValue();
         if (idleValue <= 0) {
@@ -134,7 +141,7 @@ public class EhCacheTicketRegistry extends AbstractTicketRegistry {
             LOGGER.debug("No ticket by id [{}] is found in the registry", ticketId);
             return null;
         }
-        final Ticket ticket = decodeTicket((Ticket) element.getObjectValue());
+        final Ticket ticket = decodeTicket(fromElementValue(element.getObjectValue()));
 
         final CacheConfiguration config = new CacheConfiguration();
         config.setTimeToIdleSeconds(ticket.getExpirationPolicy().getTimeToIdle());
@@ -149,12 +156,22 @@ public class EhCacheTicketRegistry extends AbstractTicketRegistry {
         return ticket;
     }
 
+    @Override
+    public long sessionCount() {
+        return countTickets(this.ticketCatalog, TicketGrantingTicket.class, this::getTicketCacheFor, Ehcache::getSize);
+    }
+
+    @Override
+    public long serviceTicketCount() {
+        return countTickets(this.ticketCatalog, ServiceTicket.class, this::getTicketCacheFor, Ehcache::getSize);
+    }
+
     @Override
     public Collection<Ticket> getTickets() {
         return this.ticketCatalog.findAll().stream()
                 .map(this::getTicketCacheFor)
                 .flatMap(map -> getAllExpired(map).values().stream())
-                .map(e -> (Ticket) e.getObjectValue())
+                .map(e -> fromElementValue(e.getObjectValue()))
                 .map(this::decodeTicket)
                 .collect(Collectors.toSet());
     }
@@ -165,10 +182,43 @@ public class EhCacheTicketRegistry extends AbstractTicketRegistry {
         return ticket;
     }
 
+    /**
+     * Store tickets as compact binary payloads rather than relying on
+     * Ehcache's own Java serialization for replication and overflow to disk.
+     *
+     * @param ticketSerializer the ticket serializer
+     */
+    public void setTicketSerializer(final BinarySerializer<Ticket> ticketSerializer) {
+        this.ticketSerializer = ticketSerializer;
+    }
+
+    private Object toElementValue(final Ticket ticket) {
+        if (this.ticketSerializer == null) {
+            return ticket;
+        }
+        return this.ticketSerializer.encode(ticket);
+    }
+
+    private Ticket fromElementValue(final Object value) {
+        if (value instanceof byte[]) {
+            return this.ticketSerializer.decode((byte[]) value);
+        }
+        return (Ticket) value;
+    }
+
+    /**
+     * Gets the cache that holds tickets of the given definition. The cache manager hands out the same
+     * cache for a name for as long as it is running, so the name is looked up the first time a ticket
+     * of that kind is seen rather than on every registry operation.
+     *
+     * @param metadata the ticket definition
+     * @return the cache
+     */
     private Ehcache getTicketCacheFor(final TicketDefinition metadata) {
-        final String mapName = metadata.getProperties().getStorageName();
-        LOGGER.debug("Locating cache name [{}] for ticket definition [{}]", mapName, metadata);
-        return this.cacheManager.getCache(mapName);
+        return this.caches.computeIfAbsent(metadata.getProperties().getStorageName(), mapName -> {
+            LOGGER.debug("Locating cache name [{}] for ticket definition [{}]", mapName, metadata);
+            return this.cacheManager.getCache(mapName);
+        });
     }
 
     private Map<Object, Element> getAllExpired(final Ehcache map) {
@@ -4,6 +4,7 @@ import org.apereo.cas.otp.repository.token.OneTimeToken;
 
 import javax.persistence.Entity;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 
 /**
  * This is {@link GoogleAuthenticatorToken}.
@@ -12,7 +13,7 @@ import javax.persistence.Table;
  * @since 5.1.0
  */
 @Entity
-@Table(name = "GoogleAuthenticatorToken")
+@Table(name = "GoogleAuthenticatorToken", uniqueConstraints = @UniqueConstraint(columnNames = {"userId", "token"}))
 public class GoogleAuthenticatorToken extends OneTimeToken {
     private static final long serialVersionUID = 8494781829798273770L;
 
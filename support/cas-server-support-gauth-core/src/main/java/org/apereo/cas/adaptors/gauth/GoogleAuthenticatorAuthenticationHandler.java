@@ -75,15 +75,13 @@ public class GoogleAuthenticatorAuthenticationHandler extends AbstractPreAndPost
             throw new AccountNotFoundException(uid + " cannot be found in the registry");
         }
 
-        LOGGER.debug("Locating OTP [{}] for principal [{}] in token repository", otp, uid);
-        if (this.tokenRepository.exists(uid, otp)) {
-            throw new AccountExpiredException(uid + " cannot reuse OTP " + otp + " as it may be expired/invalid");
-        }
-
         LOGGER.debug("Attempting to authorize OTP [{}]", otp);
         final boolean isCodeValid = this.googleAuthenticatorInstance.authorize(acct.getSecretKey(), otp);
         if (isCodeValid) {
-            this.tokenRepository.store(new GoogleAuthenticatorToken(otp, uid));
+            LOGGER.debug("Recording OTP [{}] for principal [{}] in token repository", otp, uid);
+            if (this.tokenRepository.store(new GoogleAuthenticatorToken(otp, uid))) {
+                throw new AccountExpiredException(uid + " cannot reuse OTP " + otp + " as it may be expired/invalid");
+            }
             return createHandlerResult(tokenCredential, this.principalFactory.createPrincipal(uid), null);
         }
         LOGGER.warn("Token authorization for OTP [{}] has failed", otp);
@@ -35,16 +35,15 @@ public class JsonGoogleAuthenticatorTokenCredentialRepositoryTests {
     private IGoogleAuthenticator google;
 
     @Before
-    public void setup() {
+    public void setup() throws Exception {
         final GoogleAuthenticatorConfig.GoogleAuthenticatorConfigBuilder bldr = new GoogleAuthenticatorConfig.GoogleAuthenticatorConfigBuilder();
         this.google = new GoogleAuthenticator(bldr.build());
+        FileUtils.deleteQuietly(JSON_FILE.getFile());
+        FileUtils.deleteQuietly(new File(JSON_FILE.getFile().getPath() + ".journal"));
     }
 
     @Test
     public void verifyCreate() throws Exception {
-        if (JSON_FILE.exists()) {
-            FileUtils.forceDelete(JSON_FILE.getFile());
-        }
         final JsonGoogleAuthenticatorTokenCredentialRepository repo = new JsonGoogleAuthenticatorTokenCredentialRepository(JSON_FILE, google);
         final OneTimeTokenAccount acct = repo.create("casuser");
         assertNotNull(acct);
@@ -52,9 +51,6 @@ public class JsonGoogleAuthenticatorTokenCredentialRepositoryTests {
 
     @Test
     public void verifyGet() throws Exception {
-        if (JSON_FILE.exists()) {
-            FileUtils.forceDelete(JSON_FILE.getFile());
-        }
         final JsonGoogleAuthenticatorTokenCredentialRepository repo = new JsonGoogleAuthenticatorTokenCredentialRepository(JSON_FILE, google);
         OneTimeTokenAccount acct = repo.get("casuser");
         assertNull(acct);
@@ -62,5 +58,6 @@ public class JsonGoogleAuthenticatorTokenCredentialRepositoryTests {
         repo.save(acct.getUsername(), acct.getSecretKey(), acct.getValidationCode(), acct.getScratchCodes());
         acct = repo.get("casuser");
         assertNotNull(acct);
+        assertNotNull(new JsonGoogleAuthenticatorTokenCredentialRepository(JSON_FILE, google).get("casuser"));
     }
 }
@@ -0,0 +1,55 @@
+package org.apereo.cas.config;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.model.support.mfa.GAuthMultifactorProperties;
+import org.apereo.cas.hz.HazelcastConfigurationFactory;
+import org.apereo.cas.otp.repository.token.CompactOneTimeTokenRepository;
+import org.apereo.cas.otp.repository.token.OneTimeTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * This is {@link GoogleAuthenticatorHazelcastConfiguration}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Configuration("googleAuthenticatorHazelcastConfiguration")
+@EnableConfigurationProperties(CasConfigurationProperties.class)
+@EnableScheduling
+public class GoogleAuthenticatorHazelcastConfiguration {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GoogleAuthenticatorHazelcastConfiguration.class);
+
+    @Autowired
+    private CasConfigurationProperties casProperties;
+
+    @Bean
+    public HazelcastInstance googleAuthenticatorHazelcastInstance() {
+        final GAuthMultifactorProperties gauth = casProperties.getAuthn().getMfa().getGauth();
+        final GAuthMultifactorProperties.Hazelcast hz = gauth.getHazelcast();
+        final long validity = gauth.getTimeStepSize() * gauth.getWindowSize();
+
+        final HazelcastConfigurationFactory factory = new HazelcastConfigurationFactory();
+        final MapConfig mapConfig = factory.buildMapConfig(hz, hz.getMapName(), validity)
+                .setTimeToLiveSeconds((int) validity);
+        final Config cfg = factory.build(hz, mapConfig);
+        LOGGER.debug("Creating hazelcast instance [{}] to keep used tokens for [{}] second(s)", hz.getMapName(), validity);
+        return Hazelcast.newHazelcastInstance(cfg);
+    }
+
+    @Bean
+    public OneTimeTokenRepository oneTimeTokenAuthenticatorTokenRepository() {
+        final GAuthMultifactorProperties gauth = casProperties.getAuthn().getMfa().getGauth();
+        return new CompactOneTimeTokenRepository(googleAuthenticatorHazelcastInstance().getMap(gauth.getHazelcast().getMapName()),
+                gauth.getTimeStepSize(), gauth.getWindowSize());
+    }
+}
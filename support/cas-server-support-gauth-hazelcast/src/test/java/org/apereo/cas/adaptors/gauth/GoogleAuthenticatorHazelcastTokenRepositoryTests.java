@@ -0,0 +1,77 @@
+package org.apereo.cas.adaptors.gauth;
+
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import org.apereo.cas.configuration.model.support.mfa.GAuthMultifactorProperties;
+import org.apereo.cas.hz.HazelcastConfigurationFactory;
+import org.apereo.cas.otp.repository.token.CompactOneTimeTokenRepository;
+import org.apereo.cas.otp.repository.token.OneTimeToken;
+import org.apereo.cas.otp.repository.token.OneTimeTokenReplayEntry;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link GoogleAuthenticatorHazelcastTokenRepositoryTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class GoogleAuthenticatorHazelcastTokenRepositoryTests {
+    private static final long TIME_STEP_SIZE = 30;
+    private static final int WINDOW_SIZE = 3;
+
+    private static HazelcastInstance INSTANCE;
+
+    private IMap<String, OneTimeTokenReplayEntry> storage;
+
+    @BeforeClass
+    public static void setUpClass() {
+        final GAuthMultifactorProperties.Hazelcast hz = new GAuthMultifactorProperties.Hazelcast();
+        hz.getCluster().setInstanceName(GoogleAuthenticatorHazelcastTokenRepositoryTests.class.getSimpleName());
+        INSTANCE = Hazelcast.newHazelcastInstance(new HazelcastConfigurationFactory().build(hz));
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        INSTANCE.shutdown();
+    }
+
+    @Before
+    public void setUp() {
+        this.storage = INSTANCE.getMap("tokens");
+        this.storage.clear();
+    }
+
+    @Test
+    public void verifyTokenIsRejectedByOtherNodes() {
+        final CompactOneTimeTokenRepository node1 = new CompactOneTimeTokenRepository(storage, TIME_STEP_SIZE, WINDOW_SIZE);
+        final CompactOneTimeTokenRepository node2 = new CompactOneTimeTokenRepository(storage, TIME_STEP_SIZE, WINDOW_SIZE);
+
+        assertFalse(node1.store(new OneTimeToken(123456, "casuser")));
+        assertFalse(node2.store(new OneTimeToken(654321, "casuser")));
+        assertTrue(node2.store(new OneTimeToken(123456, "casuser")));
+
+        assertTrue(node2.exists("casuser", 123456));
+        assertTrue(node1.exists("casuser", 654321));
+        assertFalse(node1.exists("another", 123456));
+        assertEquals(1, storage.size());
+    }
+
+    @Test
+    public void verifyOnlyRecentTokensAreKept() {
+        final CompactOneTimeTokenRepository repository = new CompactOneTimeTokenRepository(storage, TIME_STEP_SIZE, WINDOW_SIZE);
+        for (int code = 0; code <= 2 * WINDOW_SIZE; code++) {
+            repository.store(new OneTimeToken(code, "casuser"));
+        }
+        assertFalse(repository.exists("casuser", 0));
+        for (int code = 1; code <= 2 * WINDOW_SIZE; code++) {
+            assertTrue(repository.exists("casuser", code));
+        }
+        assertEquals(2 * WINDOW_SIZE, storage.get("casuser").getCapacity());
+    }
+}
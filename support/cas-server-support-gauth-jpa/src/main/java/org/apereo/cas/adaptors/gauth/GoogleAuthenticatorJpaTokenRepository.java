@@ -5,16 +5,22 @@ import org.apereo.cas.otp.repository.token.BaseOneTimeTokenRepository;
 import org.apereo.cas.otp.repository.token.OneTimeToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceException;
 import java.time.LocalDateTime;
 
 /**
  * This is {@link GoogleAuthenticatorJpaTokenRepository}.
+ * Used tokens are unique per user and code, so that a code stored concurrently
+ * by two nodes is inserted only once and reported as used to the other.
  *
  * @author Misagh Moayyed
  * @since 5.1.0
@@ -28,9 +34,13 @@ public class GoogleAuthenticatorJpaTokenRepository extends BaseOneTimeTokenRepos
     private EntityManager entityManager;
 
     private final long expireTokensInSeconds;
-    
-    public GoogleAuthenticatorJpaTokenRepository(final long expireTokensInSeconds) {
+
+    private final TransactionTemplate transactionTemplate;
+
+    public GoogleAuthenticatorJpaTokenRepository(final long expireTokensInSeconds,
+                                                 final PlatformTransactionManager transactionManager) {
         this.expireTokensInSeconds = expireTokensInSeconds;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
@@ -43,8 +53,22 @@ public class GoogleAuthenticatorJpaTokenRepository extends BaseOneTimeTokenRepos
     }
 
     @Override
-    public void store(final OneTimeToken token) {
-        this.entityManager.merge(token);
+    @Transactional(transactionManager = "transactionManagerGoogleAuthenticator", propagation = Propagation.NOT_SUPPORTED)
+    public boolean store(final OneTimeToken token) {
+        try {
+            this.transactionTemplate.execute(status -> {
+                this.entityManager.merge(token);
+                this.entityManager.flush();
+                return null;
+            });
+            return false;
+        } catch (final PersistenceException e) {
+            if (exists(token.getUserId(), token.getToken())) {
+                LOGGER.debug("Token [{}] for user [{}] has been used before", token.getToken(), token.getUserId());
+                return true;
+            }
+            throw e;
+        }
     }
     
     @Override
@@ -96,11 +96,14 @@ public class GoogleAuthenticatorJpaConfiguration {
         return new JpaGoogleAuthenticatorTokenCredentialRepository(googleAuthenticatorInstance);
     }
 
+    @Autowired
     @ConditionalOnMissingBean(name = "oneTimeTokenAuthenticatorTokenRepository")
     @Bean
-    public OneTimeTokenRepository oneTimeTokenAuthenticatorTokenRepository() {
+    public OneTimeTokenRepository oneTimeTokenAuthenticatorTokenRepository(@Qualifier("transactionManagerGoogleAuthenticator")
+                                                                           final PlatformTransactionManager transactionManager) {
         return new GoogleAuthenticatorJpaTokenRepository(
-                casProperties.getAuthn().getMfa().getGauth().getTimeStepSize()
+                casProperties.getAuthn().getMfa().getGauth().getTimeStepSize(),
+                transactionManager
         );
     }
 
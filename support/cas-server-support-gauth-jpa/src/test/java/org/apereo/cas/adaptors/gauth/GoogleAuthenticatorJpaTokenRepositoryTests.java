@@ -82,7 +82,8 @@ public class GoogleAuthenticatorJpaTokenRepositoryTests {
     @Test
     public void verifyTokenSave() {
         final GoogleAuthenticatorToken token = new GoogleAuthenticatorToken(1234, "casuser");
-        repository.store(token);
+        assertFalse(repository.store(token));
         assertTrue(repository.exists("casuser", 1234));
+        assertTrue(repository.store(new GoogleAuthenticatorToken(1234, "casuser")));
     }
 }
@@ -5,7 +5,10 @@ import org.apereo.cas.otp.repository.token.BaseOneTimeTokenRepository;
 import org.apereo.cas.otp.repository.token.OneTimeToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.index.Index;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 
@@ -21,28 +24,52 @@ import java.time.LocalDateTime;
 public class GoogleAuthenticatorMongoDbTokenRepository extends BaseOneTimeTokenRepository {
     private static final Logger LOGGER = LoggerFactory.getLogger(GoogleAuthenticatorMongoDbTokenRepository.class);
 
+    private static final String FIELD_USER_ID = "userId";
+    private static final String FIELD_TOKEN = "token";
+
     private final long expireTokensInSeconds;
     private final String collectionName;
     private final MongoOperations mongoTemplate;
 
+    /**
+     * Instantiates a new repository.
+     * Used tokens are kept unique per user and code through a unique index, so that a code stored
+     * concurrently by two nodes is inserted only once and reported as used to the other.
+     *
+     * @param mongoTemplate         the mongo template
+     * @param collectionName        the collection name
+     * @param expireTokensInSeconds the expire tokens in seconds
+     */
     public GoogleAuthenticatorMongoDbTokenRepository(final MongoOperations mongoTemplate,
                                                      final String collectionName,
                                                      final long expireTokensInSeconds) {
         this.mongoTemplate = mongoTemplate;
         this.collectionName = collectionName;
         this.expireTokensInSeconds = expireTokensInSeconds;
+
+        this.mongoTemplate.indexOps(this.collectionName)
+                .ensureIndex(new Index().on(FIELD_USER_ID, Sort.Direction.ASC).on(FIELD_TOKEN, Sort.Direction.ASC).unique());
     }
 
     @Override
-    public void store(final OneTimeToken token) {
-        this.mongoTemplate.save(token, this.collectionName);
+    public boolean store(final OneTimeToken token) {
+        try {
+            this.mongoTemplate.insert(token, this.collectionName);
+            return false;
+        } catch (final DuplicateKeyException e) {
+            if (exists(token.getUserId(), token.getToken())) {
+                LOGGER.debug("Token [{}] for user [{}] has been used before", token.getToken(), token.getUserId());
+                return true;
+            }
+            throw e;
+        }
     }
 
     @Override
     public GoogleAuthenticatorToken get(final String uid, final Integer otp) {
         try {
             final Query query = new Query();
-            query.addCriteria(Criteria.where("userId").is(uid).and("token").is(otp));
+            query.addCriteria(Criteria.where(FIELD_USER_ID).is(uid).and(FIELD_TOKEN).is(otp));
             final GoogleAuthenticatorToken r = this.mongoTemplate.findOne(query, GoogleAuthenticatorToken.class, this.collectionName);
             return r;
         } catch (final NoResultException e) {
@@ -93,6 +93,7 @@ public class GoogleAuthenticatorMongoDbTokenRepositoryTests {
         OneTimeToken token = new GoogleAuthenticatorToken(1234, "casuser");
         repository.store(token);
         assertTrue(repository.exists("casuser", 1234));
+        assertTrue(repository.store(new GoogleAuthenticatorToken(1234, "casuser")));
         token = repository.get("casuser", 1234);
         assertTrue(token.getId() > 0);
     }
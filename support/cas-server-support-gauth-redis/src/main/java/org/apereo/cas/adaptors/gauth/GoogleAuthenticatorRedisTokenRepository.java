@@ -0,0 +1,36 @@
+package org.apereo.cas.adaptors.gauth;
+
+import org.apereo.cas.otp.repository.token.CompactOneTimeTokenRepository;
+import org.apereo.cas.otp.repository.token.OneTimeToken;
+import org.apereo.cas.otp.repository.token.OneTimeTokenReplayEntry;
+import org.springframework.data.redis.support.collections.RedisMap;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is {@link GoogleAuthenticatorRedisTokenRepository}.
+ * Used tokens are kept inside a single Redis hash, whose expiration is pushed forward
+ * by the validity window every time a token is stored. Under steady traffic the hash therefore
+ * never expires on its own; it only goes away once no token has been stored for a whole window.
+ * Since Redis may not expire fields of a hash individually, entries that outlive their validity window
+ * are ignored when looked up and are only removed by the cleaner, which must be left enabled.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class GoogleAuthenticatorRedisTokenRepository extends CompactOneTimeTokenRepository {
+    private final RedisMap<String, OneTimeTokenReplayEntry> storage;
+
+    public GoogleAuthenticatorRedisTokenRepository(final RedisMap<String, OneTimeTokenReplayEntry> storage,
+                                                   final long timeStepSize, final int windowSize) {
+        super(storage, timeStepSize, windowSize);
+        this.storage = storage;
+    }
+
+    @Override
+    public boolean store(final OneTimeToken token) {
+        final boolean used = super.store(token);
+        this.storage.expire(getValidityWindow(), TimeUnit.SECONDS);
+        return used;
+    }
+}
@@ -0,0 +1,62 @@
+package org.apereo.cas.config;
+
+import org.apereo.cas.adaptors.gauth.GoogleAuthenticatorRedisTokenRepository;
+import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.model.support.mfa.GAuthMultifactorProperties;
+import org.apereo.cas.otp.repository.token.OneTimeTokenReplayEntry;
+import org.apereo.cas.otp.repository.token.OneTimeTokenRepository;
+import org.apereo.cas.redis.core.RedisObjectFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.context.config.annotation.RefreshScope;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.data.redis.support.collections.DefaultRedisMap;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * This is {@link GoogleAuthenticatorRedisConfiguration}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Configuration("googleAuthenticatorRedisConfiguration")
+@EnableConfigurationProperties(CasConfigurationProperties.class)
+@EnableScheduling
+public class GoogleAuthenticatorRedisConfiguration {
+
+    @Autowired
+    private CasConfigurationProperties casProperties;
+
+    @Bean
+    @RefreshScope
+    public RedisConnectionFactory googleAuthenticatorRedisConnectionFactory() {
+        final GAuthMultifactorProperties.Redis redis = casProperties.getAuthn().getMfa().getGauth().getRedis();
+        final RedisObjectFactory obj = new RedisObjectFactory();
+        return obj.newRedisConnectionFactory(redis);
+    }
+
+    @Bean
+    @RefreshScope
+    public RedisTemplate<String, OneTimeTokenReplayEntry> googleAuthenticatorRedisTemplate() {
+        final RedisTemplate<String, OneTimeTokenReplayEntry> template = new RedisTemplate<>();
+        final StringRedisSerializer string = new StringRedisSerializer();
+        template.setKeySerializer(string);
+        template.setHashKeySerializer(string);
+        template.setHashValueSerializer(new JdkSerializationRedisSerializer());
+        template.setConnectionFactory(googleAuthenticatorRedisConnectionFactory());
+        return template;
+    }
+
+    @Bean
+    public OneTimeTokenRepository oneTimeTokenAuthenticatorTokenRepository() {
+        final GAuthMultifactorProperties gauth = casProperties.getAuthn().getMfa().getGauth();
+        return new GoogleAuthenticatorRedisTokenRepository(
+                new DefaultRedisMap<>(gauth.getRedis().getKey(), googleAuthenticatorRedisTemplate()),
+                gauth.getTimeStepSize(), gauth.getWindowSize());
+    }
+}
@@ -0,0 +1,110 @@
+package org.apereo.cas.adaptors.gauth;
+
+import org.apereo.cas.otp.repository.token.OneTimeToken;
+import org.apereo.cas.otp.repository.token.OneTimeTokenReplayEntry;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.data.redis.support.collections.DefaultRedisMap;
+import redis.embedded.RedisServer;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link GoogleAuthenticatorRedisTokenRepositoryTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class GoogleAuthenticatorRedisTokenRepositoryTests {
+    private static final int PORT = 6381;
+    private static final String KEY = "CAS_GAUTH_TOKENS";
+    private static final long TIME_STEP_SIZE = 30;
+    private static final int WINDOW_SIZE = 3;
+
+    private static RedisServer REDIS_SERVER;
+    private static JedisConnectionFactory CONNECTION_FACTORY;
+
+    private RedisTemplate<String, OneTimeTokenReplayEntry> template;
+
+    @BeforeClass
+    public static void startRedis() throws Exception {
+        REDIS_SERVER = new RedisServer(PORT);
+        REDIS_SERVER.start();
+        CONNECTION_FACTORY = new JedisConnectionFactory();
+        CONNECTION_FACTORY.setHostName("localhost");
+        CONNECTION_FACTORY.setPort(PORT);
+        CONNECTION_FACTORY.afterPropertiesSet();
+    }
+
+    @AfterClass
+    public static void stopRedis() {
+        CONNECTION_FACTORY.destroy();
+        REDIS_SERVER.stop();
+    }
+
+    @Before
+    public void setUp() {
+        this.template = new RedisTemplate<>();
+        final StringRedisSerializer string = new StringRedisSerializer();
+        this.template.setKeySerializer(string);
+        this.template.setHashKeySerializer(string);
+        this.template.setHashValueSerializer(new JdkSerializationRedisSerializer());
+        this.template.setConnectionFactory(CONNECTION_FACTORY);
+        this.template.afterPropertiesSet();
+        this.template.delete(KEY);
+    }
+
+    @Test
+    public void verifyTokenIsRejectedByOtherNodes() {
+        final GoogleAuthenticatorRedisTokenRepository node1 = newRepository();
+        final GoogleAuthenticatorRedisTokenRepository node2 = newRepository();
+
+        assertFalse(node1.store(new OneTimeToken(123456, "casuser")));
+        assertTrue(node2.store(new OneTimeToken(123456, "casuser")));
+        assertFalse(node2.store(new OneTimeToken(654321, "casuser")));
+
+        assertTrue(node1.exists("casuser", 654321));
+        assertFalse(node1.exists("another", 123456));
+        assertEquals(1, this.template.opsForHash().size(KEY).longValue());
+    }
+
+    @Test
+    public void verifyStorageExpiresWithValidityWindow() {
+        final GoogleAuthenticatorRedisTokenRepository repository = newRepository();
+        repository.store(new OneTimeToken(123456, "casuser"));
+
+        final long ttl = this.template.getExpire(KEY, TimeUnit.SECONDS);
+        assertTrue(ttl > 0);
+        assertTrue(ttl <= repository.getValidityWindow());
+    }
+
+    @Test
+    public void verifyExpiredTokensAreCleaned() {
+        final GoogleAuthenticatorRedisTokenRepository repository = newRepository();
+        repository.store(new OneTimeToken(123456, "casuser"));
+        final GoogleAuthenticatorRedisTokenRepository later = new GoogleAuthenticatorRedisTokenRepository(
+                new DefaultRedisMap<>(KEY, this.template), TIME_STEP_SIZE, WINDOW_SIZE) {
+            @Override
+            protected long getCurrentTimeStep() {
+                return super.getCurrentTimeStep() + WINDOW_SIZE;
+            }
+        };
+
+        assertFalse(later.exists("casuser", 123456));
+        later.clean();
+        assertEquals(0, this.template.opsForHash().size(KEY).longValue());
+        assertFalse(later.store(new OneTimeToken(123456, "casuser")));
+    }
+
+    private GoogleAuthenticatorRedisTokenRepository newRepository() {
+        return new GoogleAuthenticatorRedisTokenRepository(new DefaultRedisMap<>(KEY, this.template), TIME_STEP_SIZE, WINDOW_SIZE);
+    }
+}
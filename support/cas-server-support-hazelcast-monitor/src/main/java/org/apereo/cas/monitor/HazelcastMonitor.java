@@ -4,6 +4,7 @@ import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.IMap;
 import com.hazelcast.monitor.LocalMapStats;
+import com.hazelcast.monitor.NearCacheStats;
 import org.apereo.cas.configuration.model.support.hazelcast.HazelcastTicketRegistryProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -76,6 +77,43 @@ public class HazelcastMonitor extends AbstractCacheMonitor {
             return this.map.getName();
         }
 
+        /**
+         * Gets the number of reads served locally by the near cache.
+         *
+         * @return the near cache hits
+         */
+        public long getNearCacheHits() {
+            final NearCacheStats stats = getNearCacheStats();
+            return stats != null ? stats.getHits() : 0;
+        }
+
+        /**
+         * Gets the number of reads that missed the near cache and were fetched from the owning member.
+         *
+         * @return the near cache misses
+         */
+        public long getNearCacheMisses() {
+            final NearCacheStats stats = getNearCacheStats();
+            return stats != null ? stats.getMisses() : 0;
+        }
+
+        /**
+         * Gets the percentage of reads served locally by the near cache.
+         * Hazelcast reports hits over misses, which is not bounded by a hundred, so the ratio is worked out here.
+         *
+         * @return the near cache hit percentage
+         */
+        public double getNearCacheHitPercentage() {
+            final long hits = getNearCacheHits();
+            final long reads = hits + getNearCacheMisses();
+            return reads == 0 ? 0 : hits * PERCENTAGE_VALUE / (double) reads;
+        }
+
+        private NearCacheStats getNearCacheStats() {
+            final LocalMapStats localMapStats = this.map.getLocalMapStats();
+            return localMapStats != null ? localMapStats.getNearCacheStats() : null;
+        }
+
         @Override
         public int getPercentFree() {
             final long capacity = getCapacity();
@@ -132,8 +170,14 @@ public class HazelcastMonitor extends AbstractCacheMonitor {
                     .append(localMapStats.getHeapCost());
 
             if (localMapStats.getNearCacheStats() != null) {
-                builder.append(", Misses: ")
-                        .append(localMapStats.getNearCacheStats().getMisses());
+                builder.append(", Near cache hits: ")
+                        .append(getNearCacheHits())
+                        .append(", Near cache misses: ")
+                        .append(getNearCacheMisses())
+                        .append(", Near cache hit percentage: ")
+                        .append(getNearCacheHitPercentage())
+                        .append(", Near cache entry count: ")
+                        .append(localMapStats.getNearCacheStats().getOwnedEntryCount());
             }
         }
 
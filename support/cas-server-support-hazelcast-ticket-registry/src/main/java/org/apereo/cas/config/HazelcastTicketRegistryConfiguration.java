@@ -1,19 +1,34 @@
 package org.apereo.cas.config;
 
 import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MapIndexConfig;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.config.SerializerConfig;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
+import org.apereo.cas.CipherExecutor;
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.model.support.hazelcast.HazelcastNearCacheProperties;
 import org.apereo.cas.configuration.model.support.hazelcast.HazelcastTicketRegistryProperties;
 import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.hz.HazelcastConfigurationFactory;
+import org.apereo.cas.kryo.KryoBinarySerializer;
+import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketCatalog;
 import org.apereo.cas.ticket.TicketDefinition;
+import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.ticket.registry.HazelcastTicketRegistry;
+import org.apereo.cas.ticket.registry.HazelcastTicketRegistrySessionIndex;
+import org.apereo.cas.ticket.registry.HazelcastTicketSerializer;
 import org.apereo.cas.ticket.registry.NoOpTicketRegistryCleaner;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistryCleaner;
+import org.apereo.cas.web.flow.executor.FlowExecutionStateStore;
+import org.apereo.cas.web.flow.executor.HazelcastFlowExecutionStateStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -54,7 +69,11 @@ public class HazelcastTicketRegistryConfiguration {
         final HazelcastTicketRegistry r = new HazelcastTicketRegistry(hazelcast(ticketCatalog),
                 ticketCatalog,
                 hz.getPageSize());
-        r.setCipherExecutor(Beans.newTicketRegistryCipherExecutor(hz.getCrypto(), "hazelcast"));
+        final CipherExecutor cipher = Beans.newTicketRegistryCipherExecutor(hz.getCrypto(), "hazelcast");
+        r.setCipherExecutor(cipher);
+        if (casProperties.getTicket().getRegistry().isIndexSessions()) {
+            r.setSessionIndex(new HazelcastTicketRegistrySessionIndex(hazelcast(ticketCatalog), cipher));
+        }
         return r;
     }
 
@@ -63,6 +82,12 @@ public class HazelcastTicketRegistryConfiguration {
         return NoOpTicketRegistryCleaner.getInstance();
     }
 
+    @Autowired
+    @Bean
+    public FlowExecutionStateStore loginFlowExecutionStateStore(@Qualifier("ticketCatalog") final TicketCatalog ticketCatalog) {
+        return new HazelcastFlowExecutionStateStore(hazelcast(ticketCatalog));
+    }
+
     @Autowired
     @Bean
     public HazelcastInstance hazelcast(@Qualifier("ticketCatalog") final TicketCatalog ticketCatalog) {
@@ -73,7 +98,15 @@ public class HazelcastTicketRegistryConfiguration {
         final HazelcastTicketRegistryProperties hz = casProperties.getTicket().getRegistry().getHazelcast();
         final Map<String, MapConfig> configs = buildHazelcastMapConfigurations(ticketCatalog);
         final HazelcastConfigurationFactory factory = new HazelcastConfigurationFactory();
-        return factory.build(hz, configs);
+        final Config config = factory.build(hz, configs);
+        if (hz.isKryoSerialization()) {
+            LOGGER.debug("Registering Kryo-backed serializer for tickets with Hazelcast");
+            final SerializerConfig serializer = new SerializerConfig()
+                .setTypeClass(Ticket.class)
+                .setImplementation(new HazelcastTicketSerializer(new KryoBinarySerializer<>()));
+            config.getSerializationConfig().addSerializerConfig(serializer);
+        }
+        return config;
     }
 
     private Map<String, MapConfig> buildHazelcastMapConfigurations(final TicketCatalog ticketCatalog) {
@@ -85,9 +118,48 @@ public class HazelcastTicketRegistryConfiguration {
         final Collection<TicketDefinition> definitions = ticketCatalog.findAll();
         definitions.forEach(t -> {
             final MapConfig mapConfig = factory.buildMapConfig(hz, t.getProperties().getStorageName(), t.getProperties().getStorageTimeout());
+            if (hz.getNearCache().isEnabled() && TicketGrantingTicket.class.isAssignableFrom(t.getImplementationClass())) {
+                LOGGER.debug("Enabling near cache for Hazelcast map [{}]", mapConfig.getName());
+                mapConfig.setNearCacheConfig(buildNearCacheConfig(hz.getNearCache()));
+            }
             LOGGER.debug("Created Hazelcast map configuration for [{}]", t);
             mapConfigs.put(t.getProperties().getStorageName(), mapConfig);
         });
+        if (casProperties.getTicket().getRegistry().isIndexSessions()) {
+            buildSessionIndexMapConfig(factory, hz, HazelcastTicketRegistrySessionIndex.SESSIONS_MAP_NAME, mapConfigs);
+            buildSessionIndexMapConfig(factory, hz, HazelcastTicketRegistrySessionIndex.DESCENDANTS_MAP_NAME, mapConfigs);
+        }
+        final long flowExecutionTimeToLive = casProperties.getWebflow().getSession().getStateStore().getTimeToLive();
+        mapConfigs.put(HazelcastFlowExecutionStateStore.MAP_NAME, factory.buildMapConfig(hz, HazelcastFlowExecutionStateStore.MAP_NAME, 0)
+            .setTimeToLiveSeconds((int) flowExecutionTimeToLive));
         return mapConfigs;
     }
+
+    /**
+     * Entries of the session index carry the lifetime of their session, and are looked up by value.
+     */
+    private static void buildSessionIndexMapConfig(final HazelcastConfigurationFactory factory, final HazelcastTicketRegistryProperties hz,
+                                                   final String mapName, final Map<String, MapConfig> mapConfigs) {
+        final MapConfig mapConfig = factory.buildMapConfig(hz, mapName, 0);
+        mapConfig.addMapIndexConfig(new MapIndexConfig(HazelcastTicketRegistrySessionIndex.INDEXED_ATTRIBUTE, false));
+        LOGGER.debug("Created Hazelcast map configuration for session index [{}]", mapName);
+        mapConfigs.put(mapName, mapConfig);
+    }
+
+    /**
+     * Near-cached tickets are kept in binary form so that each read hands out
+     * a private copy, and entries are invalidated whenever the owning partition changes them.
+     */
+    private static NearCacheConfig buildNearCacheConfig(final HazelcastNearCacheProperties nearCache) {
+        final EvictionConfig evictionConfig = new EvictionConfig()
+            .setEvictionPolicy(EvictionPolicy.valueOf(nearCache.getEvictionPolicy()))
+            .setMaximumSizePolicy(EvictionConfig.MaxSizePolicy.ENTRY_COUNT)
+            .setSize(nearCache.getMaxSize());
+        return new NearCacheConfig()
+            .setInMemoryFormat(InMemoryFormat.BINARY)
+            .setInvalidateOnChange(true)
+            .setTimeToLiveSeconds(nearCache.getTimeToLiveSeconds())
+            .setMaxIdleSeconds(nearCache.getMaxIdleSeconds())
+            .setEvictionConfig(evictionConfig);
+    }
 }
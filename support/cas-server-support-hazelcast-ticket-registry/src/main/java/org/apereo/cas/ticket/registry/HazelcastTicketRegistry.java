@@ -2,17 +2,26 @@ package org.apereo.cas.ticket.registry;
 
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.IMap;
+import com.hazelcast.query.PagingPredicate;
 import org.apache.commons.lang3.StringUtils;
+import org.apereo.cas.authentication.principal.Service;
+import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketCatalog;
 import org.apereo.cas.ticket.TicketDefinition;
+import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.PreDestroy;
 import java.io.Closeable;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -33,6 +42,7 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements C
     private final HazelcastInstance hazelcastInstance;
     private final TicketCatalog ticketCatalog;
     private final int pageSize;
+    private final Map<String, IMap<String, Ticket>> ticketMaps = new ConcurrentHashMap<>();
 
     /**
      * Instantiates a new Hazelcast ticket ticketGrantingTicketsRegistry.
@@ -51,10 +61,69 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements C
 
     @Override
     public Ticket updateTicket(final Ticket ticket) {
+        if (ticket instanceof TicketGrantingTicket && !isCipherExecutorEnabled() && updateTicketGrantingTicketInPlace((TicketGrantingTicket) ticket)) {
+            return ticket;
+        }
         addTicket(ticket);
         return ticket;
     }
 
+    /**
+     * Ships the changes made to a ticket-granting ticket to the partition that owns it
+     * via an entry processor, rather than replacing the full ticket. Changes are calculated
+     * against the stored copy, which is only worth doing when the map is near-cached and
+     * the stored copy can be read locally.
+     * <p>
+     * The stored copy may already carry services that other members granted after the caller
+     * read the ticket, so services are only ever added; a stored service missing from the caller's
+     * copy means the caller only tracks the most recent session per service, which is replayed as such.
+     *
+     * @param ticket the ticket
+     * @return true if the ticket was updated in place, or had been removed in the meantime and must not be stored again
+     */
+    private boolean updateTicketGrantingTicketInPlace(final TicketGrantingTicket ticket) {
+        final TicketDefinition metadata = this.ticketCatalog.find(ticket);
+        final IMap<String, Ticket> ticketMap = getTicketMapInstanceByMetadata(metadata);
+        if (ticketMap == null || !isNearCacheEnabled(ticketMap)) {
+            return false;
+        }
+        final Ticket stored = ticketMap.get(ticket.getId());
+        if (!(stored instanceof TicketGrantingTicket)) {
+            return false;
+        }
+        final TicketGrantingTicket current = (TicketGrantingTicket) stored;
+        final Map<String, Service> storedServices = current.getServices();
+        final Map<String, Service> grantedServices = new HashMap<>(ticket.getServices());
+        grantedServices.keySet().removeAll(storedServices.keySet());
+        final boolean onlyTrackMostRecentSession = !grantedServices.isEmpty()
+                && !ticket.getServices().keySet().containsAll(storedServices.keySet());
+
+        final Map<String, Service> storedProxyGrantingTickets = current.getProxyGrantingTickets();
+        final Map<String, Service> proxyGrantingTickets = ticket.getProxyGrantingTickets();
+        final Map<String, Service> grantedProxyGrantingTickets = new HashMap<>(proxyGrantingTickets);
+        grantedProxyGrantingTickets.keySet().removeAll(storedProxyGrantingTickets.keySet());
+        final Set<String> removedProxyGrantingTickets = new HashSet<>(storedProxyGrantingTickets.keySet());
+        removedProxyGrantingTickets.removeAll(proxyGrantingTickets.keySet());
+
+        final Set<String> descendants = new HashSet<>(ticket.getDescendantTickets());
+        descendants.removeAll(current.getDescendantTickets());
+        final int additionalUses = Math.max(0, ticket.getCountOfUses() - current.getCountOfUses());
+
+        LOGGER.debug("Updating ticket [{}] in place with [{}] granted service(s), [{}] proxy-granting ticket(s) and [{}] descendant ticket(s)",
+                ticket.getId(), grantedServices.size(), grantedProxyGrantingTickets.size(), descendants.size());
+        final Object result = ticketMap.executeOnKey(ticket.getId(),
+                new TicketGrantingTicketUpdateEntryProcessor(grantedServices, onlyTrackMostRecentSession,
+                        grantedProxyGrantingTickets, removedProxyGrantingTickets, descendants, additionalUses, ticket.isExpired()));
+        if (!Boolean.TRUE.equals(result)) {
+            LOGGER.debug("Ticket [{}] was removed while it was being updated and will not be stored again", ticket.getId());
+        }
+        return true;
+    }
+
+    private boolean isNearCacheEnabled(final IMap<String, Ticket> ticketMap) {
+        return this.hazelcastInstance.getConfig().findMapConfig(ticketMap.getName()).getNearCacheConfig() != null;
+    }
+
     @Override
     public void addTicket(final Ticket ticket) {
         final long ttl = ticket.getExpirationPolicy().getTimeToLive();
@@ -69,13 +138,23 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements C
         final IMap<String, Ticket> ticketMap = getTicketMapInstanceByMetadata(metadata);
 
         ticketMap.set(encTicket.getId(), encTicket, ttl, TimeUnit.SECONDS);
+        indexTicket(ticket);
         LOGGER.debug("Added ticket [{}] with ttl [{}s]", encTicket.getId(), ttl);
     }
 
+    /**
+     * Gets the map that holds tickets of the given definition. {@code HazelcastInstance#getMap} resolves
+     * a distributed object proxy on every call; the proxy it returns is safe to share between threads,
+     * so it is held on to for each map name the first time a ticket of that kind is seen.
+     *
+     * @param metadata the ticket definition
+     * @return the map
+     */
     private IMap<String, Ticket> getTicketMapInstanceByMetadata(final TicketDefinition metadata) {
-        final String mapName = metadata.getProperties().getStorageName();
-        LOGGER.debug("Locating map name [{}] for ticket definition [{}]", mapName, metadata);
-        return getTicketMapInstance(mapName);
+        return this.ticketMaps.computeIfAbsent(metadata.getProperties().getStorageName(), mapName -> {
+            LOGGER.debug("Locating map name [{}] for ticket definition [{}]", mapName, metadata);
+            return getTicketMapInstance(mapName);
+        });
     }
 
     @Override
@@ -90,6 +169,7 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements C
                 if (result != null && result.isExpired()) {
                     LOGGER.debug("Ticket [{}] has expired and is now removed from the cache", result.getId());
                     map.remove(encTicketId);
+                    unindexTicket(result);
                     return null;
                 }
                 return result;
@@ -109,6 +189,7 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements C
 
     @Override
     public long deleteAll() {
+        clearSessionIndex();
         return this.ticketCatalog.findAll().stream()
                 .map(this::getTicketMapInstanceByMetadata)
                 .filter(Objects::nonNull)
@@ -121,15 +202,55 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements C
                 .sum();
     }
 
+    /**
+     * Maps expire tickets on their own, so their sizes are added up across the cluster
+     * rather than counting tickets as they are added and removed.
+     */
+    @Override
+    public long sessionCount() {
+        return countTickets(this.ticketCatalog, TicketGrantingTicket.class, this::getTicketMapInstanceByMetadata, IMap::size);
+    }
+
+    @Override
+    public long serviceTicketCount() {
+        return countTickets(this.ticketCatalog, ServiceTicket.class, this::getTicketMapInstanceByMetadata, IMap::size);
+    }
+
     @Override
     public Collection<Ticket> getTickets() {
         return this.ticketCatalog.findAll().stream()
-                .map(metadata -> getTicketMapInstanceByMetadata(metadata).values())
-                .flatMap(tickets -> tickets.stream().limit(pageSize).collect(Collectors.toList()).stream())
+                .map(this::getTicketMapInstanceByMetadata)
+                .filter(Objects::nonNull)
+                .map(this::getTicketsByPage)
+                .flatMap(Collection::stream)
                 .map(this::decodeTicket)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toSet());
     }
 
+    /**
+     * Collect the map values one page at a time, so no single call
+     * needs to assemble the entire map across the cluster.
+     *
+     * @param ticketMap the ticket map
+     * @return the tickets
+     */
+    private Collection<Ticket> getTicketsByPage(final IMap<String, Ticket> ticketMap) {
+        final Collection<Ticket> tickets = new HashSet<>();
+        final PagingPredicate<String, Ticket> predicate = new PagingPredicate<>(this.pageSize);
+        Collection<Ticket> page = ticketMap.values(predicate);
+        while (!page.isEmpty()) {
+            tickets.addAll(page);
+            if (page.size() < this.pageSize) {
+                break;
+            }
+            predicate.nextPage();
+            page = ticketMap.values(predicate);
+        }
+        LOGGER.debug("Collected [{}] ticket(s) from map [{}] in pages of [{}]", tickets.size(), ticketMap.getName(), this.pageSize);
+        return tickets;
+    }
+
     /**
      * Make sure we shutdown HazelCast when the context is destroyed.
      */
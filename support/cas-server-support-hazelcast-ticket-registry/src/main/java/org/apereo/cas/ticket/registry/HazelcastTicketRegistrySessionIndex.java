@@ -0,0 +1,128 @@
+package org.apereo.cas.ticket.registry;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.query.Predicates;
+import org.apereo.cas.CipherExecutor;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.util.cipher.NoOpCipherExecutor;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * This is {@link HazelcastTicketRegistrySessionIndex} that keeps the index in two distributed maps,
+ * one from ticket-granting tickets to the principal that owns them and one from tickets to the ticket-granting
+ * ticket that they belong to. Both maps are expected to carry an index on the owner of their entries, so that
+ * lookups by principal or by ticket-granting ticket are answered from the index on each member rather than
+ * by a scan. Entries expire along with the session they belong to. When tickets are encrypted, keys and owners
+ * are digests and ticket ids are kept encrypted, so that live tickets cannot be listed by reading the maps.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class HazelcastTicketRegistrySessionIndex extends AbstractTicketRegistrySessionIndex {
+    /**
+     * Name of the map that records sessions against principals.
+     */
+    public static final String SESSIONS_MAP_NAME = "sessionIndexCache";
+
+    /**
+     * Name of the map that records tickets against sessions.
+     */
+    public static final String DESCENDANTS_MAP_NAME = "descendantIndexCache";
+
+    /**
+     * The attribute to index in both maps.
+     */
+    public static final String INDEXED_ATTRIBUTE = "owner";
+
+    private final IMap<String, Entry> sessions;
+    private final IMap<String, Entry> descendants;
+
+    public HazelcastTicketRegistrySessionIndex(final HazelcastInstance hazelcastInstance) {
+        this(hazelcastInstance, NoOpCipherExecutor.getInstance());
+    }
+
+    public HazelcastTicketRegistrySessionIndex(final HazelcastInstance hazelcastInstance, final CipherExecutor cipherExecutor) {
+        super(cipherExecutor);
+        this.sessions = hazelcastInstance.getMap(SESSIONS_MAP_NAME);
+        this.descendants = hazelcastInstance.getMap(DESCENDANTS_MAP_NAME);
+    }
+
+    @Override
+    protected void addSession(final String principalId, final TicketGrantingTicket ticketGrantingTicket) {
+        final String ticketGrantingTicketId = ticketGrantingTicket.getId();
+        this.sessions.set(digest(ticketGrantingTicketId), new Entry(digest(principalId), encodeId(ticketGrantingTicketId)),
+                getTimeToLive(ticketGrantingTicket), TimeUnit.SECONDS);
+    }
+
+    @Override
+    protected void addDescendant(final TicketGrantingTicket ticketGrantingTicket, final String ticketId) {
+        this.descendants.set(digest(ticketId), new Entry(digest(ticketGrantingTicket.getId()), encodeId(ticketId)),
+                getTimeToLive(ticketGrantingTicket), TimeUnit.SECONDS);
+    }
+
+    @Override
+    protected void removeDescendant(final String ticketGrantingTicketId, final String ticketId) {
+        this.descendants.delete(digest(ticketId));
+    }
+
+    @Override
+    public Collection<String> getSessions(final String principalId) {
+        return this.sessions.values(Predicates.equal(INDEXED_ATTRIBUTE, digest(principalId)))
+                .stream()
+                .map(entry -> decodeId(entry.getTicketId()))
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public Collection<String> getDescendants(final String ticketGrantingTicketId) {
+        return this.descendants.values(Predicates.equal(INDEXED_ATTRIBUTE, digest(ticketGrantingTicketId)))
+                .stream()
+                .map(entry -> decodeId(entry.getTicketId()))
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public void removeSession(final String principalId, final String ticketGrantingTicketId) {
+        this.sessions.delete(digest(ticketGrantingTicketId));
+        this.descendants.keySet(Predicates.equal(INDEXED_ATTRIBUTE, digest(ticketGrantingTicketId))).forEach(this.descendants::delete);
+    }
+
+    @Override
+    public void clear() {
+        this.sessions.clear();
+        this.descendants.clear();
+    }
+
+    private static long getTimeToLive(final TicketGrantingTicket ticketGrantingTicket) {
+        return Math.max(ticketGrantingTicket.getExpirationPolicy().getTimeToLive(), 1);
+    }
+
+    /**
+     * An entry of the index that records a ticket against its owner,
+     * which is the principal for sessions and the ticket-granting ticket for descendants.
+     */
+    public static class Entry implements Serializable {
+        private static final long serialVersionUID = -2467187512640356734L;
+
+        private final String owner;
+        private final String ticketId;
+
+        public Entry(final String owner, final String ticketId) {
+            this.owner = owner;
+            this.ticketId = ticketId;
+        }
+
+        public String getOwner() {
+            return owner;
+        }
+
+        public String getTicketId() {
+            return ticketId;
+        }
+    }
+}
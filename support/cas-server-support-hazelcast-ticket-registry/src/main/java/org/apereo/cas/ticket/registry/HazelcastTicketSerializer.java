@@ -0,0 +1,44 @@
+package org.apereo.cas.ticket.registry;
+
+import com.hazelcast.nio.serialization.ByteArraySerializer;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.util.serialization.BinarySerializer;
+
+/**
+ * This is {@link HazelcastTicketSerializer} that allows Hazelcast to store tickets
+ * using a compact {@link BinarySerializer} instead of default Java serialization.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class HazelcastTicketSerializer implements ByteArraySerializer<Ticket> {
+    /**
+     * Hazelcast type id assigned to tickets; must be positive and unique across registered serializers.
+     */
+    public static final int TYPE_ID = 1024;
+
+    private final BinarySerializer<Ticket> serializer;
+
+    public HazelcastTicketSerializer(final BinarySerializer<Ticket> serializer) {
+        this.serializer = serializer;
+    }
+
+    @Override
+    public byte[] write(final Ticket ticket) {
+        return this.serializer.encode(ticket);
+    }
+
+    @Override
+    public Ticket read(final byte[] bytes) {
+        return this.serializer.decode(bytes);
+    }
+
+    @Override
+    public int getTypeId() {
+        return TYPE_ID;
+    }
+
+    @Override
+    public void destroy() {
+    }
+}
@@ -0,0 +1,83 @@
+package org.apereo.cas.ticket.registry;
+
+import com.hazelcast.map.AbstractEntryProcessor;
+import org.apereo.cas.authentication.principal.Service;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies the changes made to a {@link TicketGrantingTicket} to the copy that is stored
+ * in the owning partition, so that only the newly granted services and descendant ticket ids
+ * travel over the wire rather than the full ticket graph. Proxy-granting tickets issued
+ * by the ticket's service tickets are carried the same way. Changes are applied via the
+ * same public operations that produced them on the caller's copy of the ticket, and are
+ * merged into whatever other members have stored in the meantime.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class TicketGrantingTicketUpdateEntryProcessor extends AbstractEntryProcessor<String, Ticket> {
+    private static final long serialVersionUID = -2315683196591290187L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TicketGrantingTicketUpdateEntryProcessor.class);
+
+    private final HashMap<String, Service> grantedServices;
+    private final boolean onlyTrackMostRecentSession;
+    private final HashMap<String, Service> proxyGrantingTickets;
+    private final ArrayList<String> removedProxyGrantingTickets;
+    private final ArrayList<String> descendantTickets;
+    private final int additionalUses;
+    private final boolean expired;
+
+    public TicketGrantingTicketUpdateEntryProcessor(final Map<String, Service> grantedServices,
+                                                    final boolean onlyTrackMostRecentSession,
+                                                    final Map<String, Service> proxyGrantingTickets,
+                                                    final Set<String> removedProxyGrantingTickets,
+                                                    final Set<String> descendantTickets,
+                                                    final int additionalUses,
+                                                    final boolean expired) {
+        super(true);
+        this.grantedServices = new HashMap<>(grantedServices);
+        this.onlyTrackMostRecentSession = onlyTrackMostRecentSession;
+        this.proxyGrantingTickets = new HashMap<>(proxyGrantingTickets);
+        this.removedProxyGrantingTickets = new ArrayList<>(removedProxyGrantingTickets);
+        this.descendantTickets = new ArrayList<>(descendantTickets);
+        this.additionalUses = additionalUses;
+        this.expired = expired;
+    }
+
+    @Override
+    public Object process(final Map.Entry<String, Ticket> entry) {
+        final Ticket value = entry.getValue();
+        if (!(value instanceof TicketGrantingTicket)) {
+            LOGGER.debug("Ticket [{}] is no longer available and cannot be updated in place", entry.getKey());
+            return Boolean.FALSE;
+        }
+        final TicketGrantingTicket ticket = (TicketGrantingTicket) value;
+        this.grantedServices.forEach((id, service) ->
+                ticket.grantServiceTicket(id, service, ticket.getExpirationPolicy(), false, this.onlyTrackMostRecentSession));
+        ticket.getProxyGrantingTickets().putAll(this.proxyGrantingTickets);
+        ticket.getProxyGrantingTickets().keySet().removeAll(this.removedProxyGrantingTickets);
+        ticket.getDescendantTickets().addAll(this.descendantTickets);
+
+        if (ticket instanceof TicketState) {
+            final TicketState state = (TicketState) ticket;
+            for (int i = this.grantedServices.size(); i < this.additionalUses; i++) {
+                state.update();
+            }
+        }
+        if (this.expired) {
+            ticket.markTicketExpired();
+        }
+        entry.setValue(ticket);
+        return Boolean.TRUE;
+    }
+}
@@ -0,0 +1,57 @@
+package org.apereo.cas.web.flow.executor;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import org.springframework.webflow.execution.repository.FlowExecutionLock;
+
+/**
+ * This is {@link HazelcastFlowExecutionStateStore} that keeps flow execution snapshots
+ * in a distributed map of the cluster that backs the ticket registry, so any member can
+ * resume a flow started on another. Entries expire through the time-to-live of the map,
+ * and flow executions are locked with the cluster-wide lock of their map entry.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class HazelcastFlowExecutionStateStore implements FlowExecutionStateStore {
+    /**
+     * Name of the map that holds flow execution snapshots.
+     */
+    public static final String MAP_NAME = "flowExecutionStatesCache";
+
+    private final IMap<String, byte[]> storage;
+
+    public HazelcastFlowExecutionStateStore(final HazelcastInstance hazelcastInstance) {
+        this.storage = hazelcastInstance.getMap(MAP_NAME);
+    }
+
+    @Override
+    public void put(final String id, final byte[] state) {
+        this.storage.set(id, state);
+    }
+
+    @Override
+    public byte[] get(final String id) {
+        return this.storage.get(id);
+    }
+
+    @Override
+    public void remove(final String id) {
+        this.storage.delete(id);
+    }
+
+    @Override
+    public FlowExecutionLock getLock(final String id) {
+        return new FlowExecutionLock() {
+            @Override
+            public void lock() {
+                storage.lock(id);
+            }
+
+            @Override
+            public void unlock() {
+                storage.unlock(id);
+            }
+        };
+    }
+}
@@ -0,0 +1,118 @@
+package org.apereo.cas.ticket.registry;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.DefaultTicketCatalog;
+import org.apereo.cas.ticket.DefaultTicketDefinition;
+import org.apereo.cas.ticket.TicketCatalog;
+import org.apereo.cas.ticket.TicketDefinition;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Updates the same ticket-granting ticket from two members of a cluster at once.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class HazelcastTicketRegistryConcurrentUpdateTests {
+    private static final String MAP_NAME = "ticketGrantingTicketsCache";
+    private static final String TGT_ID = "TGT-CONCURRENT";
+    private static final int UPDATES_PER_MEMBER = 20;
+
+    private static HazelcastInstance MEMBER1;
+    private static HazelcastInstance MEMBER2;
+
+    @BeforeClass
+    public static void setUpClass() {
+        MEMBER1 = Hazelcast.newHazelcastInstance(newConfig("member1"));
+        MEMBER2 = Hazelcast.newHazelcastInstance(newConfig("member2"));
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        MEMBER1.shutdown();
+        MEMBER2.shutdown();
+    }
+
+    @Test
+    public void verifyServicesGrantedOnBothMembersAreKept() throws Exception {
+        final TicketCatalog catalog = newTicketCatalog();
+        final TicketRegistry registry1 = new HazelcastTicketRegistry(MEMBER1, catalog, 100);
+        final TicketRegistry registry2 = new HazelcastTicketRegistry(MEMBER2, catalog, 100);
+        registry1.addTicket(new TicketGrantingTicketImpl(TGT_ID,
+                CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy()));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final Future<?> updates1 = executor.submit(() -> grantServices(start, registry1, "member1"));
+            final Future<?> updates2 = executor.submit(() -> grantServices(start, registry2, "member2"));
+            start.countDown();
+            updates1.get(1, TimeUnit.MINUTES);
+            updates2.get(1, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final Set<String> expected = IntStream.range(0, UPDATES_PER_MEMBER)
+                .boxed()
+                .flatMap(i -> Stream.of("ST-member1-" + i, "ST-member2-" + i))
+                .collect(Collectors.toSet());
+        assertEquals(expected, registry1.getTicket(TGT_ID, TicketGrantingTicket.class).getServices().keySet());
+        assertEquals(expected, registry2.getTicket(TGT_ID, TicketGrantingTicket.class).getServices().keySet());
+    }
+
+    private static Void grantServices(final CountDownLatch start, final TicketRegistry registry, final String member) throws Exception {
+        start.await();
+        for (int i = 0; i < UPDATES_PER_MEMBER; i++) {
+            final TicketGrantingTicket tgt = registry.getTicket(TGT_ID, TicketGrantingTicket.class);
+            tgt.grantServiceTicket("ST-" + member + '-' + i,
+                    RegisteredServiceTestUtils.getService("https://" + member + ".example.org/" + i),
+                    new NeverExpiresExpirationPolicy(), false, true);
+            registry.updateTicket(tgt);
+        }
+        return null;
+    }
+
+    private static TicketCatalog newTicketCatalog() {
+        final DefaultTicketCatalog catalog = new DefaultTicketCatalog();
+        final TicketDefinition definition = new DefaultTicketDefinition(TicketGrantingTicketImpl.class, TicketGrantingTicket.PREFIX, 0);
+        definition.getProperties().setStorageName(MAP_NAME);
+        catalog.register(definition);
+        return catalog;
+    }
+
+    private static Config newConfig(final String name) {
+        final Config config = new Config();
+        config.setInstanceName(HazelcastTicketRegistryConcurrentUpdateTests.class.getSimpleName() + '-' + name);
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.getNetworkConfig().getJoin().getTcpIpConfig().setEnabled(true).addMember("127.0.0.1");
+        config.addMapConfig(new MapConfig(MAP_NAME).setNearCacheConfig(new NearCacheConfig()
+                .setInMemoryFormat(InMemoryFormat.BINARY)
+                .setInvalidateOnChange(true)));
+        return config;
+    }
+}
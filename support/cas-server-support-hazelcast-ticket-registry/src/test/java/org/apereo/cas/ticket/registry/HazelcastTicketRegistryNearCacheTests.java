@@ -0,0 +1,53 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.authentication.principal.Service;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.junit.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link HazelcastTicketRegistry} with near-cached ticket-granting tickets.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@TestPropertySource(properties = {
+        "cas.ticket.registry.hazelcast.cluster.instanceName=testnearcacheinstance",
+        "cas.ticket.registry.hazelcast.nearCache.enabled=true"
+})
+public class HazelcastTicketRegistryNearCacheTests extends HazelcastTicketRegistryTests {
+
+    public HazelcastTicketRegistryNearCacheTests(final boolean useEncryption) {
+        super(useEncryption);
+    }
+
+    @Test
+    public void verifyProxyGrantingTicketIsKeptOnUpdate() {
+        final TicketRegistry registry = getNewTicketRegistry();
+        final Authentication authentication = CoreAuthenticationTestUtils.getAuthentication();
+        registry.addTicket(new TicketGrantingTicketImpl("TGT-PROXY", authentication, new NeverExpiresExpirationPolicy()));
+        final TicketGrantingTicket tgt = registry.getTicket("TGT-PROXY", TicketGrantingTicket.class);
+
+        final Service service = RegisteredServiceTestUtils.getService("proxy");
+        final ServiceTicket st = tgt.grantServiceTicket("ST-PROXY", service, new NeverExpiresExpirationPolicy(), false, true);
+        registry.addTicket(st);
+        registry.updateTicket(tgt);
+
+        final ProxyGrantingTicket pgt = st.grantProxyGrantingTicket("PGT-PROXY", authentication, new NeverExpiresExpirationPolicy());
+        registry.addTicket(pgt);
+        registry.updateTicket(tgt);
+
+        final TicketGrantingTicket result = registry.getTicket("TGT-PROXY", TicketGrantingTicket.class);
+        assertEquals(service, result.getProxyGrantingTickets().get("PGT-PROXY"));
+        assertTrue(result.getServices().containsKey("ST-PROXY"));
+    }
+}
@@ -0,0 +1,91 @@
+package org.apereo.cas.ticket.registry;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import org.apereo.cas.CipherExecutor;
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.configuration.model.core.util.EncryptionRandomizedSigningJwtCryptographyProperties;
+import org.apereo.cas.configuration.support.Beans;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link HazelcastTicketRegistrySessionIndexTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class HazelcastTicketRegistrySessionIndexTests {
+    private static HazelcastInstance INSTANCE;
+
+    private DefaultTicketRegistry ticketRegistry;
+    private HazelcastTicketRegistrySessionIndex sessionIndex;
+
+    @BeforeClass
+    public static void setUpClass() {
+        final Config config = new Config();
+        config.setInstanceName(HazelcastTicketRegistrySessionIndexTests.class.getSimpleName());
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        INSTANCE = Hazelcast.newHazelcastInstance(config);
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        INSTANCE.shutdown();
+    }
+
+    @Before
+    public void setUp() {
+        final CipherExecutor cipher = Beans.newTicketRegistryCipherExecutor(
+                new EncryptionRandomizedSigningJwtCryptographyProperties(), true, "[tests]");
+        this.sessionIndex = new HazelcastTicketRegistrySessionIndex(INSTANCE, cipher);
+        this.sessionIndex.clear();
+        this.ticketRegistry = new DefaultTicketRegistry();
+        this.ticketRegistry.setSessionIndex(this.sessionIndex);
+    }
+
+    @Test
+    public void verifyTicketIdsAreNotKeptInPlainText() {
+        final TicketGrantingTicket tgt = new TicketGrantingTicketImpl("TGT-1",
+                CoreAuthenticationTestUtils.getAuthentication("casuser"), new NeverExpiresExpirationPolicy());
+        this.ticketRegistry.addTicket(tgt);
+        final ServiceTicket st = tgt.grantServiceTicket("ST-1", RegisteredServiceTestUtils.getService(),
+                new NeverExpiresExpirationPolicy(), false, true);
+        this.ticketRegistry.addTicket(st);
+
+        assertPlainIdsAreNotStored(HazelcastTicketRegistrySessionIndex.SESSIONS_MAP_NAME);
+        assertPlainIdsAreNotStored(HazelcastTicketRegistrySessionIndex.DESCENDANTS_MAP_NAME);
+        assertEquals(Collections.singleton("TGT-1"), this.sessionIndex.getSessions("casuser"));
+        assertEquals(Collections.singleton("ST-1"), this.sessionIndex.getDescendants("TGT-1"));
+
+        this.ticketRegistry.deleteTicket("ST-1");
+        assertTrue(this.sessionIndex.getDescendants("TGT-1").isEmpty());
+        this.ticketRegistry.deleteTicket("TGT-1");
+        assertTrue(this.sessionIndex.getSessions("casuser").isEmpty());
+    }
+
+    private static void assertPlainIdsAreNotStored(final String mapName) {
+        final IMap<String, HazelcastTicketRegistrySessionIndex.Entry> map = INSTANCE.getMap(mapName);
+        assertFalse(map.isEmpty());
+        for (final Map.Entry<String, HazelcastTicketRegistrySessionIndex.Entry> entry : map.entrySet()) {
+            final String stored = entry.getKey() + entry.getValue().getOwner() + entry.getValue().getTicketId();
+            assertFalse(stored.contains("TGT-1"));
+            assertFalse(stored.contains("ST-1"));
+            assertFalse(stored.contains("casuser"));
+        }
+    }
+}
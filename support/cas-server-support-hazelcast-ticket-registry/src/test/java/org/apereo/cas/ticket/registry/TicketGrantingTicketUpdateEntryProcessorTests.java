@@ -0,0 +1,93 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.authentication.principal.Service;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.junit.Test;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link TicketGrantingTicketUpdateEntryProcessorTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class TicketGrantingTicketUpdateEntryProcessorTests {
+
+    private static final String TGT_ID = "TGT-1";
+    private static final String ST_ID = "ST-1";
+
+    @Test
+    public void verifyChangesAreAppliedToStoredTicket() {
+        final TicketGrantingTicket stored = new TicketGrantingTicketImpl(TGT_ID,
+                CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        final Map.Entry<String, Ticket> entry = new AbstractMap.SimpleEntry<>(TGT_ID, stored);
+        final Service service = CoreAuthenticationTestUtils.getService();
+
+        final TicketGrantingTicketUpdateEntryProcessor processor = new TicketGrantingTicketUpdateEntryProcessor(
+                Collections.singletonMap(ST_ID, service), false, Collections.singletonMap("PGT-1", service),
+                Collections.emptySet(), Collections.singleton("PGT-1"), 2, false);
+        assertEquals(Boolean.TRUE, processor.process(entry));
+
+        final TicketGrantingTicket result = (TicketGrantingTicket) entry.getValue();
+        assertTrue(result.getServices().containsKey(ST_ID));
+        assertTrue(result.getDescendantTickets().contains("PGT-1"));
+        assertEquals(service, result.getProxyGrantingTickets().get("PGT-1"));
+        assertEquals(2, result.getCountOfUses());
+        assertFalse(result.isExpired());
+    }
+
+    @Test
+    public void verifyTicketIsMarkedExpired() {
+        final TicketGrantingTicket stored = new TicketGrantingTicketImpl(TGT_ID,
+                CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        final Map.Entry<String, Ticket> entry = new AbstractMap.SimpleEntry<>(TGT_ID, stored);
+
+        final TicketGrantingTicketUpdateEntryProcessor processor = new TicketGrantingTicketUpdateEntryProcessor(
+                Collections.emptyMap(), false, Collections.emptyMap(), Collections.emptySet(), Collections.emptySet(), 0, true);
+        processor.process(entry);
+        assertTrue(entry.getValue().isExpired());
+    }
+
+    @Test
+    public void verifyMissingTicketIsNotUpdated() {
+        final Map.Entry<String, Ticket> entry = new AbstractMap.SimpleEntry<>(TGT_ID, null);
+        final TicketGrantingTicketUpdateEntryProcessor processor = new TicketGrantingTicketUpdateEntryProcessor(
+                Collections.emptyMap(), false, Collections.emptyMap(), Collections.emptySet(), Collections.emptySet(), 1, false);
+        assertEquals(Boolean.FALSE, processor.process(entry));
+        assertNull(entry.getValue());
+    }
+
+    @Test
+    public void verifyChangesAreMergedIntoStoredTicket() {
+        final TicketGrantingTicket stored = new TicketGrantingTicketImpl(TGT_ID,
+                CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        final Service other = RegisteredServiceTestUtils.getService("https://other.example.org");
+        stored.grantServiceTicket("ST-OTHER", other, new NeverExpiresExpirationPolicy(), false, true);
+        stored.getProxyGrantingTickets().put("PGT-OTHER", other);
+        stored.getProxyGrantingTickets().put("PGT-REMOVED", other);
+        final Map.Entry<String, Ticket> entry = new AbstractMap.SimpleEntry<>(TGT_ID, stored);
+
+        final Service service = RegisteredServiceTestUtils.getService("https://app.example.org");
+        final TicketGrantingTicketUpdateEntryProcessor processor = new TicketGrantingTicketUpdateEntryProcessor(
+                Collections.singletonMap(ST_ID, service), true, Collections.emptyMap(),
+                Collections.singleton("PGT-REMOVED"), Collections.emptySet(), 1, false);
+        processor.process(entry);
+
+        final TicketGrantingTicket result = (TicketGrantingTicket) entry.getValue();
+        assertEquals(2, result.getServices().size());
+        assertTrue(result.getServices().containsKey("ST-OTHER"));
+        assertTrue(result.getServices().containsKey(ST_ID));
+        assertEquals(Collections.singleton("PGT-OTHER"), result.getProxyGrantingTickets().keySet());
+        assertEquals(2, result.getCountOfUses());
+    }
+}
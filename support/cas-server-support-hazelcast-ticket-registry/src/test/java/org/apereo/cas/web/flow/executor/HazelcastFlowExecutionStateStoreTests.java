@@ -0,0 +1,82 @@
+package org.apereo.cas.web.flow.executor;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.webflow.execution.repository.FlowExecutionLock;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link HazelcastFlowExecutionStateStoreTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class HazelcastFlowExecutionStateStoreTests {
+    private static HazelcastInstance MEMBER1;
+    private static HazelcastInstance MEMBER2;
+
+    @BeforeClass
+    public static void setUpClass() {
+        MEMBER1 = Hazelcast.newHazelcastInstance(newConfig("member1"));
+        MEMBER2 = Hazelcast.newHazelcastInstance(newConfig("member2"));
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        MEMBER1.shutdown();
+        MEMBER2.shutdown();
+    }
+
+    @Test
+    public void verifyStateIsSharedAcrossMembers() {
+        final FlowExecutionStateStore store1 = new HazelcastFlowExecutionStateStore(MEMBER1);
+        final FlowExecutionStateStore store2 = new HazelcastFlowExecutionStateStore(MEMBER2);
+
+        store1.put("shared", "state".getBytes(StandardCharsets.UTF_8));
+        assertArrayEquals("state".getBytes(StandardCharsets.UTF_8), store2.get("shared"));
+        store2.remove("shared");
+        assertNull(store1.get("shared"));
+    }
+
+    @Test
+    public void verifyLockIsHeldAcrossMembers() throws Exception {
+        final FlowExecutionLock lock1 = new HazelcastFlowExecutionStateStore(MEMBER1).getLock("locked");
+        final FlowExecutionLock lock2 = new HazelcastFlowExecutionStateStore(MEMBER2).getLock("locked");
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            lock1.lock();
+            final CountDownLatch acquired = new CountDownLatch(1);
+            final Future<?> waiter = executor.submit(() -> {
+                lock2.lock();
+                acquired.countDown();
+                lock2.unlock();
+            });
+            assertFalse(acquired.await(500, TimeUnit.MILLISECONDS));
+            lock1.unlock();
+            assertTrue(acquired.await(1, TimeUnit.MINUTES));
+            waiter.get(1, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Config newConfig(final String name) {
+        final Config config = new Config();
+        config.setInstanceName(HazelcastFlowExecutionStateStoreTests.class.getSimpleName() + '-' + name);
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.getNetworkConfig().getJoin().getTcpIpConfig().setEnabled(true).addMember("127.0.0.1");
+        return config;
+    }
+}
@@ -10,9 +10,11 @@ import org.apache.ignite.cache.query.ScanQuery;
 import org.apache.ignite.configuration.IgniteConfiguration;
 import org.apache.ignite.ssl.SslContextFactory;
 import org.apereo.cas.configuration.model.support.ignite.IgniteProperties;
+import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketCatalog;
 import org.apereo.cas.ticket.TicketDefinition;
+import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,7 +23,9 @@ import javax.cache.Cache;
 import javax.cache.expiry.Duration;
 import javax.cache.expiry.ExpiryPolicy;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -48,6 +52,7 @@ public class IgniteTicketRegistry extends AbstractTicketRegistry {
     private final IgniteProperties properties;
 
     private final TicketCatalog ticketCatalog;
+    private final Map<String, IgniteCache<String, Ticket>> caches = new ConcurrentHashMap<>();
     private Ignite ignite;
 
     /**
@@ -125,6 +130,16 @@ public class IgniteTicketRegistry extends AbstractTicketRegistry {
         return decodeTicket(ticket);
     }
 
+    @Override
+    public long sessionCount() {
+        return countTickets(this.ticketCatalog, TicketGrantingTicket.class, this::getIgniteCacheFromMetadata, cache -> cache.size());
+    }
+
+    @Override
+    public long serviceTicketCount() {
+        return countTickets(this.ticketCatalog, ServiceTicket.class, this::getIgniteCacheFromMetadata, cache -> cache.size());
+    }
+
     @Override
     public Collection<Ticket> getTickets() {
         return this.ticketCatalog.findAll().stream()
@@ -188,6 +203,7 @@ public class IgniteTicketRegistry extends AbstractTicketRegistry {
             LOGGER.debug("igniteConfiguration.getSslContextFactory=[{}]", this.igniteConfiguration.getSslContextFactory());
         }
 
+        this.caches.clear();
         if (Ignition.state() == IgniteState.STOPPED) {
             this.ignite = Ignition.start(this.igniteConfiguration);
             LOGGER.debug("Starting ignite cache engine");
@@ -202,6 +218,7 @@ public class IgniteTicketRegistry extends AbstractTicketRegistry {
      */
     @PreDestroy
     public void shutdown() {
+        this.caches.clear();
         Ignition.stopAll(true);
     }
 
@@ -213,10 +230,19 @@ public class IgniteTicketRegistry extends AbstractTicketRegistry {
                 .toString();
     }
 
+    /**
+     * Gets the cache that holds tickets of the given definition. Since {@code getOrCreateCache}
+     * may have to create the cache across the cluster, it is only called the first time a ticket
+     * of that kind is seen, and the cache proxy it returns is used for every operation after that.
+     *
+     * @param metadata the ticket definition
+     * @return the cache
+     */
     private IgniteCache<String, Ticket> getIgniteCacheFromMetadata(final TicketDefinition metadata) {
-        final String mapName = metadata.getProperties().getStorageName();
-        LOGGER.debug("Locating cache name [{}] for ticket definition [{}]", mapName, metadata);
-        return getIgniteCacheInstanceByName(mapName);
+        return this.caches.computeIfAbsent(metadata.getProperties().getStorageName(), mapName -> {
+            LOGGER.debug("Locating cache name [{}] for ticket definition [{}]", mapName, metadata);
+            return getIgniteCacheInstanceByName(mapName);
+        });
     }
 
     private IgniteCache<String, Ticket> getIgniteCacheInstanceByName(final String name) {
@@ -6,9 +6,11 @@ import org.apereo.cas.StringBean;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.model.support.jms.JmsTicketRegistryProperties;
 import org.apereo.cas.configuration.support.Beans;
+import org.apereo.cas.kryo.KryoBinarySerializer;
 import org.apereo.cas.ticket.registry.JmsTicketRegistry;
 import org.apereo.cas.ticket.registry.JmsTicketRegistryReceiver;
 import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.ticket.registry.queue.BinaryMessageQueueCommandConverter;
 import org.apereo.cas.util.serialization.AbstractJacksonBackedStringSerializer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.jms.DefaultJmsListenerContainerFactoryConfigurer;
@@ -55,6 +57,10 @@ public class JmsTicketRegistryConfiguration {
     public TicketRegistry ticketRegistry() {
         final JmsTicketRegistryProperties jms = casProperties.getTicket().getRegistry().getJms();
         final CipherExecutor cipher = Beans.newTicketRegistryCipherExecutor(jms.getCrypto(), "jms");
+        if (jms.isBatchReplication()) {
+            return new JmsTicketRegistry(this.jmsTemplate, messageQueueTicketRegistryIdentifier(), cipher,
+                    jms.getBatchWindow(), jms.getBatchMaxSize());
+        }
         return new JmsTicketRegistry(this.jmsTemplate, messageQueueTicketRegistryIdentifier(), cipher);
     }
 
@@ -69,6 +75,9 @@ public class JmsTicketRegistryConfiguration {
 
     @Bean
     public MessageConverter jacksonJmsMessageConverter() {
+        if (casProperties.getTicket().getRegistry().getJms().isKryoSerialization()) {
+            return new BinaryMessageQueueCommandConverter(new KryoBinarySerializer<>());
+        }
         final MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
         converter.setTargetType(MessageType.TEXT);
         converter.setTypeIdPropertyName("_type");
@@ -7,19 +7,24 @@ import org.apereo.cas.ticket.registry.queue.AddTicketMessageQueueCommand;
 import org.apereo.cas.ticket.registry.queue.BaseMessageQueueCommand;
 import org.apereo.cas.ticket.registry.queue.DeleteTicketMessageQueueCommand;
 import org.apereo.cas.ticket.registry.queue.DeleteTicketsMessageQueueCommand;
+import org.apereo.cas.ticket.registry.queue.MessageQueueCommandBatcher;
 import org.apereo.cas.ticket.registry.queue.UpdateTicketMessageQueueCommand;
 import org.apereo.cas.util.cipher.NoOpCipherExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.jms.core.JmsTemplate;
 
 /**
  * This is {@link JmsTicketRegistry}.
+ * <p>
+ * Changes are published either one message per change, or when batch replication is enabled,
+ * coalesced and published in batches by a {@link MessageQueueCommandBatcher}.
  *
  * @author Misagh Moayyed
  * @since 5.2.0
  */
-public class JmsTicketRegistry extends DefaultTicketRegistry {
+public class JmsTicketRegistry extends DefaultTicketRegistry implements DisposableBean {
     /**
      * Queue destination name.
      */
@@ -29,44 +34,94 @@ public class JmsTicketRegistry extends DefaultTicketRegistry {
 
     private final JmsTemplate jmsTemplate;
     private final StringBean id;
+    private final MessageQueueCommandBatcher batcher;
 
     public JmsTicketRegistry(final JmsTemplate jmsTemplate, final StringBean id) {
         this(jmsTemplate, id, NoOpCipherExecutor.getInstance());
     }
     
     public JmsTicketRegistry(final JmsTemplate jmsTemplate, final StringBean id, final CipherExecutor cipherExecutor) {
+        this(jmsTemplate, id, cipherExecutor, 0, 0);
+    }
+
+    /**
+     * Instantiates a new registry that publishes changes in batches.
+     *
+     * @param jmsTemplate    the jms template
+     * @param id             the id
+     * @param cipherExecutor the cipher executor
+     * @param batchWindow    how long changes are collected before they are published, in milliseconds; batching is off if not positive
+     * @param batchMaxSize   number of pending changes that causes a batch to be published early
+     */
+    public JmsTicketRegistry(final JmsTemplate jmsTemplate, final StringBean id, final CipherExecutor cipherExecutor,
+                             final long batchWindow, final int batchMaxSize) {
         super(cipherExecutor);
         this.jmsTemplate = jmsTemplate;
         this.id = id;
+        this.batcher = batchWindow > 0
+                ? new MessageQueueCommandBatcher(id, this::publishMessageToQueue, batchWindow, batchMaxSize)
+                : null;
     }
 
     @Override
     public void addTicket(final Ticket ticket) {
         super.addTicket(ticket);
-        publishMessageToQueue(new AddTicketMessageQueueCommand(id, ticket));
+        if (this.batcher != null) {
+            this.batcher.add(ticket);
+        } else {
+            publishMessageToQueue(new AddTicketMessageQueueCommand(id, ticket));
+        }
     }
 
     @Override
     public boolean deleteSingleTicket(final String ticketId) {
         final boolean result = super.deleteSingleTicket(ticketId);
-        publishMessageToQueue(new DeleteTicketMessageQueueCommand(id, ticketId));
+        if (this.batcher != null) {
+            this.batcher.delete(ticketId);
+        } else {
+            publishMessageToQueue(new DeleteTicketMessageQueueCommand(id, ticketId));
+        }
         return result;
     }
 
     @Override
     public long deleteAll() {
         final long result = super.deleteAll();
-        publishMessageToQueue(new DeleteTicketsMessageQueueCommand(id));
+        if (this.batcher != null) {
+            this.batcher.deleteAll();
+        } else {
+            publishMessageToQueue(new DeleteTicketsMessageQueueCommand(id));
+        }
         return result;
     }
 
     @Override
     public Ticket updateTicket(final Ticket ticket) {
         final Ticket result = super.updateTicket(ticket);
-        publishMessageToQueue(new UpdateTicketMessageQueueCommand(id, ticket));
+        if (this.batcher != null) {
+            this.batcher.update(ticket);
+        } else {
+            publishMessageToQueue(new UpdateTicketMessageQueueCommand(id, ticket));
+        }
         return result;
     }
 
+    /**
+     * Publish pending changes right away, if changes are published in batches.
+     */
+    public void flush() {
+        if (this.batcher != null) {
+            this.batcher.flush();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (this.batcher != null) {
+            this.batcher.destroy();
+        }
+    }
+
     private void publishMessageToQueue(final BaseMessageQueueCommand cmd) {
         jmsTemplate.convertAndSend(QUEUE_DESTINATION, cmd,
             message -> {
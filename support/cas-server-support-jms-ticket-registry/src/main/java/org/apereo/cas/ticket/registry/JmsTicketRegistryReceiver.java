@@ -2,12 +2,20 @@ package org.apereo.cas.ticket.registry;
 
 import org.apereo.cas.StringBean;
 import org.apereo.cas.ticket.registry.queue.BaseMessageQueueCommand;
+import org.apereo.cas.ticket.registry.queue.BatchMessageQueueCommand;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.jms.annotation.JmsListener;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * This is {@link JmsTicketRegistryReceiver}.
+ * <p>
+ * For every node that publishes batches, the receiver keeps track of how long
+ * batches took from being published to being applied on this node.
  *
  * @author Misagh Moayyed
  * @since 5.2.0
@@ -17,6 +25,7 @@ public class JmsTicketRegistryReceiver {
     
     private final TicketRegistry ticketRegistry;
     private final StringBean ticketRegistryId;
+    private final Map<String, ReplicationLag> replicationLag = new ConcurrentHashMap<>();
 
     public JmsTicketRegistryReceiver(final TicketRegistry ticketRegistry, final StringBean ticketRegistryId) {
         this.ticketRegistry = ticketRegistry;
@@ -34,8 +43,65 @@ public class JmsTicketRegistryReceiver {
             LOGGER.debug("Received message from ticket registry id [{}]. Executing command [{}]", 
                     command.getId(), command.getClass().getSimpleName());
             command.execute(this.ticketRegistry);
+            if (command instanceof BatchMessageQueueCommand) {
+                recordReplicationLag(command.getId(), ((BatchMessageQueueCommand) command).getPublishedAt());
+            }
         } else {
             LOGGER.trace("Ignoring inbound command on ticket registry with id [{}]", this.ticketRegistryId);
         }
     }
+
+    /**
+     * Replication lag of the batches received so far, by the id of the node that published them.
+     *
+     * @return the replication lag
+     */
+    public Map<String, ReplicationLag> getReplicationLag() {
+        return new HashMap<>(this.replicationLag);
+    }
+
+    private void recordReplicationLag(final StringBean publisherId, final long publishedAt) {
+        final long lag = Math.max(System.currentTimeMillis() - publishedAt, 0);
+        this.replicationLag.computeIfAbsent(publisherId.getId(), k -> new ReplicationLag()).record(lag);
+        LOGGER.debug("Applied batch from ticket registry id [{}] [{}] ms after it was published", publisherId.getId(), lag);
+    }
+
+    /**
+     * Replication lag of the batches received from a single node, in milliseconds.
+     * Clocks of the nodes are assumed to be in sync.
+     */
+    public static class ReplicationLag {
+        private long count;
+        private long last;
+        private long max;
+        private long total;
+
+        synchronized void record(final long lag) {
+            this.count++;
+            this.last = lag;
+            this.max = Math.max(this.max, lag);
+            this.total += lag;
+        }
+
+        public synchronized long getCount() {
+            return count;
+        }
+
+        public synchronized long getLast() {
+            return last;
+        }
+
+        public synchronized long getMax() {
+            return max;
+        }
+
+        /**
+         * Average lag.
+         *
+         * @return the average
+         */
+        public synchronized long getAverage() {
+            return count == 0 ? 0 : total / count;
+        }
+    }
 }
@@ -17,6 +17,8 @@ import org.slf4j.LoggerFactory;
  */
 @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.PROPERTY)
 public class AddTicketMessageQueueCommand extends BaseMessageQueueCommand {
+    private static final long serialVersionUID = -6236207302536563346L;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(AddTicketMessageQueueCommand.class);
 
     @JsonProperty
@@ -5,6 +5,8 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apereo.cas.StringBean;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 
+import java.io.Serializable;
+
 /**
  * This is {@link BaseMessageQueueCommand}.
  *
@@ -12,7 +14,9 @@ import org.apereo.cas.ticket.registry.TicketRegistry;
  * @since 5.2.0
  */
 @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.PROPERTY)
-public abstract class BaseMessageQueueCommand {
+public abstract class BaseMessageQueueCommand implements Serializable {
+    private static final long serialVersionUID = 7050449807845156228L;
+
     private final StringBean id;
 
     public BaseMessageQueueCommand(final StringBean id) {
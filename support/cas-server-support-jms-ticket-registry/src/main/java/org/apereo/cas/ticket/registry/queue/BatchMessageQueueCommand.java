@@ -0,0 +1,314 @@
+package org.apereo.cas.ticket.registry.queue;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apereo.cas.StringBean;
+import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.util.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * This is {@link BatchMessageQueueCommand} that carries a number of commands in a single message.
+ * <p>
+ * The commands are serialized one by one and compressed together. The authentication of every ticket-granting ticket
+ * found in a command is serialized on its own, next to the command. It is only put in the payload if it differs from the
+ * authentication last published for that ticket, going by its digest; otherwise it is restored from the copy of the ticket
+ * that the receiving node already holds, and a node that does not hold the ticket skips the commands that refer to it.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.PROPERTY)
+public class BatchMessageQueueCommand extends BaseMessageQueueCommand {
+    private static final long serialVersionUID = 4433046519735291742L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchMessageQueueCommand.class);
+
+    @JsonProperty
+    private long publishedAt;
+
+    @JsonProperty
+    private byte[] payload;
+
+    @JsonCreator
+    public BatchMessageQueueCommand(@JsonProperty("id") final StringBean id,
+                                    @JsonProperty("publishedAt") final long publishedAt,
+                                    @JsonProperty("payload") final byte[] payload) {
+        super(id);
+        this.publishedAt = publishedAt;
+        this.payload = payload;
+    }
+
+    /**
+     * Serialize a command ahead of putting it in a batch. The command is serialized right away,
+     * on the calling thread, so later changes to the tickets it carries do not leak into the batch.
+     *
+     * @param command the command
+     * @return the encoded command
+     */
+    public static EncodedCommand encode(final BaseMessageQueueCommand command) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ReferenceReplacingObjectOutputStream out = new ReferenceReplacingObjectOutputStream(bytes)) {
+            out.writeObject(command);
+            out.flush();
+            return new EncodedCommand(bytes.toByteArray(), out.authentications);
+        } catch (final IOException e) {
+            throw new IllegalArgumentException("Unable to encode ticket registry command " + command, e);
+        }
+    }
+
+    /**
+     * Build a batch out of the given commands.
+     *
+     * @param id               the id of the publishing registry
+     * @param commands         the encoded commands
+     * @param publishedDigests the digests of the authentications the other nodes already hold,
+     *                         by the id of the ticket-granting ticket they belong to
+     * @return the batch
+     */
+    public static BatchMessageQueueCommand of(final StringBean id, final List<EncodedCommand> commands,
+                                              final Map<String, String> publishedDigests) {
+        final Map<String, String> digests = new HashMap<>(publishedDigests);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            out.writeInt(commands.size());
+            for (final EncodedCommand command : commands) {
+                out.writeInt(command.command.length);
+                out.write(command.command);
+
+                final Map<String, byte[]> changed = new LinkedHashMap<>();
+                command.authentications.forEach((ticketGrantingTicketId, authentication) -> {
+                    final String digest = command.authenticationDigests.get(ticketGrantingTicketId);
+                    if (!digest.equals(digests.put(ticketGrantingTicketId, digest))) {
+                        changed.put(ticketGrantingTicketId, authentication);
+                    }
+                });
+                out.writeInt(changed.size());
+                for (final Map.Entry<String, byte[]> entry : changed.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(entry.getValue().length);
+                    out.write(entry.getValue());
+                }
+            }
+        } catch (final IOException e) {
+            throw new IllegalArgumentException("Unable to encode batch of ticket registry commands", e);
+        }
+        return new BatchMessageQueueCommand(id, System.currentTimeMillis(), bytes.toByteArray());
+    }
+
+    public long getPublishedAt() {
+        return publishedAt;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    /**
+     * Decode the commands in the batch, restoring the authentications left out of the payload from the given registry.
+     * Commands that cannot be decoded are skipped.
+     *
+     * @param registry the registry
+     * @return the commands
+     */
+    public List<BaseMessageQueueCommand> getCommands(final TicketRegistry registry) {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(this.payload)))) {
+            final int count = in.readInt();
+            final List<BaseMessageQueueCommand> commands = new ArrayList<>(count);
+            final Map<String, Authentication> authentications = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                final byte[] encoded = readBytes(in);
+                final int changed = in.readInt();
+                final Map<String, byte[]> changedAuthentications = new LinkedHashMap<>(changed);
+                for (int j = 0; j < changed; j++) {
+                    changedAuthentications.put(in.readUTF(), readBytes(in));
+                }
+                try {
+                    for (final Map.Entry<String, byte[]> entry : changedAuthentications.entrySet()) {
+                        authentications.put(entry.getKey(), deserialize(entry.getValue(), Authentication.class));
+                    }
+                    commands.add(decode(encoded, ticketGrantingTicketId -> authentications.containsKey(ticketGrantingTicketId)
+                            ? authentications.get(ticketGrantingTicketId)
+                            : getAuthentication(registry, ticketGrantingTicketId)));
+                } catch (final Exception e) {
+                    LOGGER.warn("Skipping ticket registry command that cannot be applied on this node: [{}]", e.getMessage());
+                }
+            }
+            return commands;
+        } catch (final IOException e) {
+            throw new IllegalArgumentException("Unable to decode batch of ticket registry commands", e);
+        }
+    }
+
+    @Override
+    public void execute(final TicketRegistry registry) {
+        final List<BaseMessageQueueCommand> commands = getCommands(registry);
+        LOGGER.debug("Executing batch of [{}] queue command(s) on ticket registry", commands.size());
+        commands.forEach(command -> command.execute(registry));
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .appendSuper(super.toString())
+                .append("publishedAt", publishedAt)
+                .append("payloadLength", payload == null ? 0 : payload.length)
+                .toString();
+    }
+
+    private static byte[] readBytes(final DataInputStream in) throws IOException {
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static Authentication getAuthentication(final TicketRegistry registry, final String ticketGrantingTicketId) {
+        final TicketGrantingTicket ticket = registry.getTicket(ticketGrantingTicketId, TicketGrantingTicket.class);
+        return ticket == null ? null : ticket.getAuthentication();
+    }
+
+    private static byte[] serialize(final Object object) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static <T> T deserialize(final byte[] encoded, final Class<T> clazz) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(encoded))) {
+            return clazz.cast(in.readObject());
+        }
+    }
+
+    private static BaseMessageQueueCommand decode(final byte[] encoded, final Function<String, Authentication> authentications)
+            throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ReferenceResolvingObjectInputStream(new ByteArrayInputStream(encoded), authentications)) {
+            return (BaseMessageQueueCommand) in.readObject();
+        }
+    }
+
+    /**
+     * A command serialized ahead of being put in a batch, along with the authentications of the ticket-granting tickets
+     * found in it, which are serialized on their own.
+     */
+    public static class EncodedCommand {
+        private final byte[] command;
+        private final Map<String, byte[]> authentications;
+        private final Map<String, String> authenticationDigests;
+
+        EncodedCommand(final byte[] command, final Map<String, byte[]> authentications) {
+            this.command = command;
+            this.authentications = authentications;
+            final Map<String, String> digests = new HashMap<>(authentications.size());
+            authentications.forEach((ticketGrantingTicketId, authentication) ->
+                    digests.put(ticketGrantingTicketId, DigestUtils.digest("SHA-256", authentication)));
+            this.authenticationDigests = Collections.unmodifiableMap(digests);
+        }
+
+        /**
+         * Digests of the authentications found in the command.
+         *
+         * @return the digests, by the id of the ticket-granting ticket they belong to
+         */
+        public Map<String, String> getAuthenticationDigests() {
+            return authenticationDigests;
+        }
+    }
+
+    /**
+     * Stands in for the authentication of a ticket-granting ticket within a command.
+     */
+    private static class AuthenticationReference implements Serializable {
+        private static final long serialVersionUID = -3150203306417436427L;
+
+        private final String ticketGrantingTicketId;
+
+        AuthenticationReference(final String ticketGrantingTicketId) {
+            this.ticketGrantingTicketId = ticketGrantingTicketId;
+        }
+    }
+
+    /**
+     * Takes the authentication of each ticket-granting ticket out of the command, serializing it on its own.
+     * A ticket-granting ticket is always written before its fields, so its authentication is known by the time it is reached.
+     */
+    private static class ReferenceReplacingObjectOutputStream extends ObjectOutputStream {
+        private final Map<Object, String> owners = new IdentityHashMap<>();
+        private final Map<String, byte[]> authentications = new LinkedHashMap<>();
+
+        ReferenceReplacingObjectOutputStream(final OutputStream out) throws IOException {
+            super(out);
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(final Object obj) throws IOException {
+            if (obj instanceof TicketGrantingTicket) {
+                final TicketGrantingTicket ticket = (TicketGrantingTicket) obj;
+                if (ticket.getAuthentication() != null) {
+                    this.owners.putIfAbsent(ticket.getAuthentication(), ticket.getId());
+                }
+                return obj;
+            }
+            final String ticketGrantingTicketId = this.owners.get(obj);
+            if (ticketGrantingTicketId == null) {
+                return obj;
+            }
+            if (!this.authentications.containsKey(ticketGrantingTicketId)) {
+                this.authentications.put(ticketGrantingTicketId, serialize(obj));
+            }
+            return new AuthenticationReference(ticketGrantingTicketId);
+        }
+    }
+
+    private static class ReferenceResolvingObjectInputStream extends ObjectInputStream {
+        private final Function<String, Authentication> authentications;
+
+        ReferenceResolvingObjectInputStream(final InputStream in, final Function<String, Authentication> authentications) throws IOException {
+            super(in);
+            this.authentications = authentications;
+            enableResolveObject(true);
+        }
+
+        @Override
+        protected Object resolveObject(final Object obj) throws IOException {
+            if (obj instanceof AuthenticationReference) {
+                final String ticketGrantingTicketId = ((AuthenticationReference) obj).ticketGrantingTicketId;
+                final Authentication authentication = this.authentications.apply(ticketGrantingTicketId);
+                if (authentication == null) {
+                    throw new InvalidObjectException("Ticket-granting ticket " + ticketGrantingTicketId + " is not known to this node");
+                }
+                return authentication;
+            }
+            return obj;
+        }
+    }
+}
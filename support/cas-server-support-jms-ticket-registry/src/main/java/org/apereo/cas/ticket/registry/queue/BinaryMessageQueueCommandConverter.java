@@ -0,0 +1,43 @@
+package org.apereo.cas.ticket.registry.queue;
+
+import org.apereo.cas.util.serialization.BinarySerializer;
+import org.springframework.jms.support.converter.MessageConversionException;
+import org.springframework.jms.support.converter.MessageConverter;
+
+import javax.jms.BytesMessage;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.Session;
+
+/**
+ * This is {@link BinaryMessageQueueCommandConverter} that carries ticket registry commands
+ * as compact {@link BytesMessage}s produced by a {@link BinarySerializer}, rather than as JSON text.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class BinaryMessageQueueCommandConverter implements MessageConverter {
+    private final BinarySerializer<Object> serializer;
+
+    public BinaryMessageQueueCommandConverter(final BinarySerializer<Object> serializer) {
+        this.serializer = serializer;
+    }
+
+    @Override
+    public Message toMessage(final Object object, final Session session) throws JMSException, MessageConversionException {
+        final BytesMessage message = session.createBytesMessage();
+        message.writeBytes(this.serializer.encode(object));
+        return message;
+    }
+
+    @Override
+    public Object fromMessage(final Message message) throws JMSException, MessageConversionException {
+        if (!(message instanceof BytesMessage)) {
+            throw new MessageConversionException("Unable to convert message of type " + message.getClass().getName());
+        }
+        final BytesMessage bytesMessage = (BytesMessage) message;
+        final byte[] bytes = new byte[(int) bytesMessage.getBodyLength()];
+        bytesMessage.readBytes(bytes);
+        return this.serializer.decode(bytes);
+    }
+}
@@ -16,6 +16,8 @@ import org.slf4j.LoggerFactory;
  */
 @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.PROPERTY)
 public class DeleteTicketMessageQueueCommand extends BaseMessageQueueCommand {
+    private static final long serialVersionUID = 2906227380427829468L;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(DeleteTicketMessageQueueCommand.class);
     
     @JsonProperty
@@ -16,6 +16,8 @@ import org.slf4j.LoggerFactory;
  */
 @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.PROPERTY)
 public class DeleteTicketsMessageQueueCommand extends BaseMessageQueueCommand {
+    private static final long serialVersionUID = -5434474591652452212L;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(DeleteTicketsMessageQueueCommand.class);
 
     @JsonCreator
@@ -0,0 +1,209 @@
+package org.apereo.cas.ticket.registry.queue;
+
+import org.apereo.cas.StringBean;
+import org.apereo.cas.ticket.Ticket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * This is {@link MessageQueueCommandBatcher} that collects changes to tickets for a short window
+ * and publishes them as a single {@link BatchMessageQueueCommand}.
+ * <p>
+ * Only the last change to each ticket within the window is kept: a ticket that is added and then
+ * updated is published once as an addition of its latest state, and a ticket that is deleted is
+ * published as a deletion whatever happened to it before. Removing all tickets discards the pending
+ * changes altogether. Each change is serialized as soon as it is recorded, on the thread that records it,
+ * just as it would be if it were published right away; the tickets are published in full, except for
+ * authentications that are unchanged since they were last published.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class MessageQueueCommandBatcher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MessageQueueCommandBatcher.class);
+
+    private enum ChangeType {
+        ADD, UPDATE, DELETE
+    }
+
+    private final StringBean id;
+    private final Consumer<BaseMessageQueueCommand> publisher;
+    private final int maxSize;
+    private final ScheduledExecutorService scheduler;
+
+    private final Map<String, Change> pending = new LinkedHashMap<>();
+    private final Map<String, String> publishedDigests = new HashMap<>();
+    private boolean deleteAll;
+
+    public MessageQueueCommandBatcher(final StringBean id, final Consumer<BaseMessageQueueCommand> publisher,
+                                      final long window, final int maxSize) {
+        this.id = id;
+        this.publisher = publisher;
+        this.maxSize = maxSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, getClass().getSimpleName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        final long interval = Math.max(window, 1);
+        this.scheduler.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Record the addition of a ticket.
+     *
+     * @param ticket the ticket
+     */
+    public void add(final Ticket ticket) {
+        record(ticket.getId(), ChangeType.ADD, new AddTicketMessageQueueCommand(this.id, ticket));
+    }
+
+    /**
+     * Record the update of a ticket.
+     *
+     * @param ticket the ticket
+     */
+    public void update(final Ticket ticket) {
+        record(ticket.getId(), ChangeType.UPDATE, new UpdateTicketMessageQueueCommand(this.id, ticket));
+    }
+
+    /**
+     * Record the removal of a ticket.
+     *
+     * @param ticketId the ticket id
+     */
+    public void delete(final String ticketId) {
+        record(ticketId, ChangeType.DELETE, new DeleteTicketMessageQueueCommand(this.id, ticketId));
+    }
+
+    /**
+     * Record the removal of all tickets.
+     */
+    public void deleteAll() {
+        synchronized (this.pending) {
+            this.pending.clear();
+            this.deleteAll = true;
+        }
+    }
+
+    /**
+     * Publish the pending changes, if any. Batches are published one at a time,
+     * so that they reach the other nodes in the order the changes were made.
+     * Changes that cannot be published are kept pending, unless newer changes supersede them.
+     */
+    public synchronized void flush() {
+        final boolean publishDeleteAll;
+        final Map<String, Change> changes;
+        synchronized (this.pending) {
+            publishDeleteAll = this.deleteAll;
+            changes = new LinkedHashMap<>(this.pending);
+            this.deleteAll = false;
+            this.pending.clear();
+        }
+        if (!publishDeleteAll && changes.isEmpty()) {
+            return;
+        }
+        final List<BatchMessageQueueCommand.EncodedCommand> commands = new ArrayList<>(changes.size() + 1);
+        if (publishDeleteAll) {
+            commands.add(BatchMessageQueueCommand.encode(new DeleteTicketsMessageQueueCommand(this.id)));
+        }
+        changes.values().forEach(change -> commands.add(change.command));
+        try {
+            final BatchMessageQueueCommand batch = BatchMessageQueueCommand.of(this.id, commands,
+                    publishDeleteAll ? Collections.emptyMap() : this.publishedDigests);
+            LOGGER.debug("Publishing [{}] coalesced change(s) in a batch of [{}] byte(s)", commands.size(), batch.getPayload().length);
+            this.publisher.accept(batch);
+        } catch (final RuntimeException e) {
+            restore(publishDeleteAll, changes);
+            throw e;
+        }
+        if (publishDeleteAll) {
+            this.publishedDigests.clear();
+        }
+        changes.forEach((ticketId, change) -> {
+            if (change.type == ChangeType.DELETE) {
+                this.publishedDigests.remove(ticketId);
+            } else {
+                this.publishedDigests.putAll(change.command.getAuthenticationDigests());
+            }
+        });
+    }
+
+    /**
+     * Publish the pending changes and stop collecting new ones.
+     */
+    public void destroy() {
+        this.scheduler.shutdownNow();
+        flushQuietly();
+    }
+
+    private void record(final String ticketId, final ChangeType type, final BaseMessageQueueCommand command) {
+        final Change change = new Change(type, BatchMessageQueueCommand.encode(command));
+        final int size;
+        synchronized (this.pending) {
+            coalesce(this.pending, ticketId, change);
+            size = this.pending.size();
+        }
+        if (size >= this.maxSize) {
+            flushQuietly();
+        }
+    }
+
+    /**
+     * Put back the changes of a batch that could not be published, ahead of the changes recorded since.
+     */
+    private void restore(final boolean publishDeleteAll, final Map<String, Change> changes) {
+        synchronized (this.pending) {
+            if (this.deleteAll) {
+                return;
+            }
+            final Map<String, Change> restored = new LinkedHashMap<>(changes);
+            this.pending.forEach((ticketId, change) -> coalesce(restored, ticketId, change));
+            this.pending.clear();
+            this.pending.putAll(restored);
+            this.deleteAll = publishDeleteAll;
+        }
+    }
+
+    /**
+     * An update that follows an addition keeps counting as an addition; the other nodes add the tickets they are asked
+     * to update, so the update command carried by the change can stand for both.
+     */
+    private static void coalesce(final Map<String, Change> changes, final String ticketId, final Change change) {
+        final Change previous = changes.get(ticketId);
+        if (change.type == ChangeType.UPDATE && previous != null && previous.type == ChangeType.ADD) {
+            changes.put(ticketId, new Change(ChangeType.ADD, change.command));
+        } else {
+            changes.put(ticketId, change);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (final Exception e) {
+            LOGGER.error("Unable to publish ticket registry changes: [{}]", e.getMessage(), e);
+        }
+    }
+
+    private static class Change {
+        private final ChangeType type;
+        private final BatchMessageQueueCommand.EncodedCommand command;
+
+        Change(final ChangeType type, final BatchMessageQueueCommand.EncodedCommand command) {
+            this.type = type;
+            this.command = command;
+        }
+    }
+}
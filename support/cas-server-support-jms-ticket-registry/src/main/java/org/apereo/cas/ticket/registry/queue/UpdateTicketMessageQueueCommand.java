@@ -17,6 +17,8 @@ import org.slf4j.LoggerFactory;
  */
 @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.PROPERTY)
 public class UpdateTicketMessageQueueCommand extends BaseMessageQueueCommand {
+    private static final long serialVersionUID = 1683622151786224615L;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(UpdateTicketMessageQueueCommand.class);
     
     @JsonProperty
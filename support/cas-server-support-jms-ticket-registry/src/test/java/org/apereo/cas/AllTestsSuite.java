@@ -1,5 +1,6 @@
 package org.apereo.cas;
 
+import org.apereo.cas.ticket.registry.JmsTicketRegistryBatchReplicationTests;
 import org.apereo.cas.ticket.registry.queue.AddTicketMessageQueueCommandTests;
 import org.apereo.cas.ticket.registry.queue.DeleteTicketMessageQueueCommandTests;
 import org.apereo.cas.ticket.registry.queue.DeleteTicketsMessageQueueCommandTests;
@@ -17,7 +18,8 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({AddTicketMessageQueueCommandTests.class,
         DeleteTicketsMessageQueueCommandTests.class,
         DeleteTicketMessageQueueCommandTests.class,
-        UpdateTicketMessageQueueCommandTests.class})
+        UpdateTicketMessageQueueCommandTests.class,
+        JmsTicketRegistryBatchReplicationTests.class})
 public class AllTestsSuite {
 }
 
@@ -0,0 +1,195 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apereo.cas.StringBean;
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.registry.queue.AddTicketMessageQueueCommand;
+import org.apereo.cas.ticket.registry.queue.BaseMessageQueueCommand;
+import org.apereo.cas.ticket.registry.queue.BatchMessageQueueCommand;
+import org.apereo.cas.ticket.registry.queue.BinaryMessageQueueCommandConverter;
+import org.apereo.cas.ticket.registry.queue.MessageQueueCommandBatcher;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.apereo.cas.util.cipher.NoOpCipherExecutor;
+import org.apereo.cas.util.serialization.JavaBinarySerializer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.jms.core.JmsTemplate;
+
+import javax.jms.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link JmsTicketRegistryBatchReplicationTests}, run against an embedded ActiveMQ broker.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class JmsTicketRegistryBatchReplicationTests {
+    private static final long RECEIVE_TIMEOUT = 2000;
+
+    private Connection connection;
+    private JmsTemplate jmsTemplate;
+    private JmsTicketRegistry publisher;
+    private JmsTicketRegistry replica;
+    private JmsTicketRegistryReceiver receiver;
+
+    @Before
+    public void setUp() throws Exception {
+        final ActiveMQConnectionFactory connectionFactory = new ActiveMQConnectionFactory("vm://localhost?broker.persistent=false");
+        this.connection = connectionFactory.createConnection();
+        this.connection.start();
+
+        this.jmsTemplate = new JmsTemplate(connectionFactory);
+        this.jmsTemplate.setMessageConverter(new BinaryMessageQueueCommandConverter(new JavaBinarySerializer<>()));
+        this.jmsTemplate.setReceiveTimeout(RECEIVE_TIMEOUT);
+
+        this.publisher = new JmsTicketRegistry(this.jmsTemplate, new StringBean("node-1"),
+                NoOpCipherExecutor.getInstance(), 60_000, 1000);
+        final StringBean replicaId = new StringBean("node-2");
+        this.replica = new JmsTicketRegistry(Mockito.mock(JmsTemplate.class), replicaId);
+        this.receiver = new JmsTicketRegistryReceiver(this.replica, replicaId);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        this.publisher.destroy();
+        this.connection.close();
+    }
+
+    @Test
+    public void verifyChangesAreCoalescedIntoOneBatch() {
+        final TicketGrantingTicket tgt = newTicketGrantingTicket();
+        this.publisher.addTicket(tgt);
+        for (int i = 0; i < 5; i++) {
+            visit(tgt, "ST-" + i);
+        }
+        this.publisher.flush();
+
+        final BatchMessageQueueCommand batch = receiveBatch();
+        assertEquals(6, batch.getCommands(this.replica).size());
+        this.receiver.receive(batch);
+        assertNull(this.jmsTemplate.receiveAndConvert(JmsTicketRegistry.QUEUE_DESTINATION));
+
+        final TicketGrantingTicket replicated = this.replica.getTicket(tgt.getId(), TicketGrantingTicket.class);
+        assertNotNull(replicated);
+        assertEquals(5, replicated.getServices().size());
+        assertNotNull(this.replica.getTicket("ST-3", ServiceTicket.class));
+        assertEquals(1, this.receiver.getReplicationLag().get("node-1").getCount());
+    }
+
+    @Test
+    public void verifyUnchangedAuthenticationIsLeftOutOfUpdates() {
+        final TicketGrantingTicket tgt = newTicketGrantingTicket();
+        this.publisher.addTicket(tgt);
+        this.publisher.flush();
+        this.receiver.receive(receiveBatch());
+
+        visit(tgt, "ST-1");
+        this.publisher.flush();
+        final BatchMessageQueueCommand batch = receiveBatch();
+        assertTrue(batch.getCommands(new DefaultTicketRegistry()).isEmpty());
+
+        this.receiver.receive(batch);
+        final TicketGrantingTicket replicated = this.replica.getTicket(tgt.getId(), TicketGrantingTicket.class);
+        assertTrue(replicated.getServices().containsKey("ST-1"));
+        assertEquals(tgt.getAuthentication().getPrincipal(), replicated.getAuthentication().getPrincipal());
+        assertNotNull(this.replica.getTicket("ST-1", ServiceTicket.class));
+    }
+
+    @Test
+    public void verifyChangedAuthenticationIsSentInFull() {
+        final TicketGrantingTicket tgt = newTicketGrantingTicket();
+        this.publisher.addTicket(tgt);
+        this.publisher.flush();
+        this.receiver.receive(receiveBatch());
+
+        tgt.getAuthentication().addAttribute("authnContextClass", "mfa-duo");
+        this.publisher.updateTicket(tgt);
+        this.publisher.flush();
+        final BatchMessageQueueCommand batch = receiveBatch();
+        assertEquals(1, batch.getCommands(new DefaultTicketRegistry()).size());
+
+        this.receiver.receive(batch);
+        final TicketGrantingTicket replicated = this.replica.getTicket(tgt.getId(), TicketGrantingTicket.class);
+        assertTrue(replicated.getAuthentication().getAttributes().containsKey("authnContextClass"));
+    }
+
+    @Test
+    public void verifyChangesAreKeptWhenBatchCannotBePublished() {
+        final List<BatchMessageQueueCommand> published = new ArrayList<>();
+        final AtomicBoolean available = new AtomicBoolean();
+        final MessageQueueCommandBatcher batcher = new MessageQueueCommandBatcher(new StringBean("node-3"), command -> {
+            if (!available.get()) {
+                throw new IllegalStateException("Broker is not available");
+            }
+            published.add((BatchMessageQueueCommand) command);
+        }, 60_000, 1000);
+        try {
+            final TicketGrantingTicket tgt = newTicketGrantingTicket();
+            batcher.add(tgt);
+            try {
+                batcher.flush();
+                fail("Expected the batch to be rejected");
+            } catch (final IllegalStateException e) {
+                assertTrue(published.isEmpty());
+            }
+            batcher.delete("ST-1");
+            available.set(true);
+            batcher.flush();
+
+            assertEquals(1, published.size());
+            final List<BaseMessageQueueCommand> commands = published.get(0).getCommands(new DefaultTicketRegistry());
+            assertEquals(2, commands.size());
+            assertTrue(commands.get(0) instanceof AddTicketMessageQueueCommand);
+            assertEquals(tgt.getAuthentication().getPrincipal(),
+                    ((TicketGrantingTicket) ((AddTicketMessageQueueCommand) commands.get(0)).getTicket()).getAuthentication().getPrincipal());
+        } finally {
+            batcher.destroy();
+        }
+    }
+
+    @Test
+    public void verifyDeletionSupersedesPendingChanges() {
+        final TicketGrantingTicket tgt = newTicketGrantingTicket();
+        this.publisher.addTicket(tgt);
+        this.publisher.flush();
+        this.receiver.receive(receiveBatch());
+
+        visit(tgt, "ST-1");
+        this.publisher.deleteSingleTicket(tgt.getId());
+        this.publisher.flush();
+        final BatchMessageQueueCommand batch = receiveBatch();
+        assertEquals(2, batch.getCommands(this.replica).size());
+
+        this.receiver.receive(batch);
+        assertNull(this.replica.getTicket(tgt.getId()));
+    }
+
+    private void visit(final TicketGrantingTicket tgt, final String serviceTicketId) {
+        final ServiceTicket st = tgt.grantServiceTicket(serviceTicketId, RegisteredServiceTestUtils.getService(serviceTicketId),
+                new NeverExpiresExpirationPolicy(), false, true);
+        this.publisher.addTicket(st);
+        this.publisher.updateTicket(tgt);
+    }
+
+    private BatchMessageQueueCommand receiveBatch() {
+        final Object message = this.jmsTemplate.receiveAndConvert(JmsTicketRegistry.QUEUE_DESTINATION);
+        assertTrue(message instanceof BatchMessageQueueCommand);
+        return (BatchMessageQueueCommand) message;
+    }
+
+    private static TicketGrantingTicket newTicketGrantingTicket() {
+        return new TicketGrantingTicketImpl("TGT-1", CoreAuthenticationTestUtils.getAuthentication(),
+                new NeverExpiresExpirationPolicy());
+    }
+}
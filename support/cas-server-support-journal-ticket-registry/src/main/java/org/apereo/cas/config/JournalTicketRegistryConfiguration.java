@@ -0,0 +1,44 @@
+package org.apereo.cas.config;
+
+import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.model.support.journal.JournalTicketRegistryProperties;
+import org.apereo.cas.configuration.support.Beans;
+import org.apereo.cas.kryo.KryoBinarySerializer;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.registry.InMemoryTicketRegistrySessionIndex;
+import org.apereo.cas.ticket.registry.JournalTicketRegistry;
+import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.util.serialization.BinarySerializer;
+import org.apereo.cas.util.serialization.JavaBinarySerializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This is {@link JournalTicketRegistryConfiguration}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Configuration("journalTicketRegistryConfiguration")
+@EnableConfigurationProperties(CasConfigurationProperties.class)
+public class JournalTicketRegistryConfiguration {
+
+    @Autowired
+    private CasConfigurationProperties casProperties;
+
+    @Bean
+    public TicketRegistry ticketRegistry() {
+        final JournalTicketRegistryProperties journal = casProperties.getTicket().getRegistry().getJournal();
+        final BinarySerializer<Ticket> serializer = journal.isKryoSerialization()
+                ? new KryoBinarySerializer<>()
+                : new JavaBinarySerializer<>();
+        final JournalTicketRegistry registry = new JournalTicketRegistry(journal,
+                Beans.newTicketRegistryCipherExecutor(journal.getCrypto(), "journal"), serializer);
+        if (casProperties.getTicket().getRegistry().isIndexSessions()) {
+            registry.setSessionIndex(new InMemoryTicketRegistrySessionIndex());
+        }
+        return registry;
+    }
+}
@@ -0,0 +1,284 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apereo.cas.CipherExecutor;
+import org.apereo.cas.configuration.model.support.journal.JournalTicketRegistryProperties;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.registry.journal.JournalSegment;
+import org.apereo.cas.util.serialization.BinarySerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.Assert;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This is {@link JournalTicketRegistry} that serves tickets from memory, like {@link DefaultTicketRegistry},
+ * while recording every change in a journal on local disk so that tickets survive a restart of the server.
+ * Tickets are split over a number of {@link JournalSegment}s by id; each segment keeps its own memory-mapped
+ * log files and is rebuilt in parallel with the others at startup, on a pool of its own. Changes are flushed to disk in groups,
+ * so that many concurrent writers share the cost of a single flush, and segments whose logs have grown
+ * large are periodically compacted into snapshots.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class JournalTicketRegistry extends AbstractTicketRegistry implements DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalTicketRegistry.class);
+
+    private static final String METADATA_FILE = "journal.properties";
+    private static final String METADATA_SEGMENTS = "segments";
+
+    private final File directory;
+    private final JournalSegment[] segments;
+    private final BinarySerializer<Ticket> ticketSerializer;
+    private final long compactionThreshold;
+    private final ScheduledExecutorService scheduler;
+
+    public JournalTicketRegistry(final JournalTicketRegistryProperties properties, final CipherExecutor cipherExecutor,
+                                 final BinarySerializer<Ticket> ticketSerializer) {
+        setCipherExecutor(cipherExecutor);
+        this.ticketSerializer = ticketSerializer;
+        this.compactionThreshold = properties.getCompactionThreshold();
+        this.directory = new File(properties.getLocation());
+        if (!this.directory.exists() && !this.directory.mkdirs()) {
+            throw new IllegalStateException("Unable to create journal directory " + this.directory);
+        }
+
+        final int count = resolveSegmentCount(properties.getSegments());
+        this.segments = new JournalSegment[count];
+        for (int i = 0; i < count; i++) {
+            this.segments[i] = new JournalSegment(i, this.directory, properties.getLogFileSize(),
+                    properties.isSynchronousWrites(), properties.getGroupCommitInterval());
+        }
+
+        final long start = System.currentTimeMillis();
+        recover(properties.getRecoveryThreads());
+        LOGGER.info("Recovered [{}] ticket(s) from the journal at [{}] in [{}] ms",
+                Arrays.stream(this.segments).mapToLong(s -> s.getTickets().size()).sum(), this.directory,
+                System.currentTimeMillis() - start);
+        final TicketRegistryCounter counter = new InMemoryTicketRegistryCounter();
+        getTicketsStream().forEach(counter::add);
+        setCounter(counter);
+
+        this.scheduler = Executors.newScheduledThreadPool(2, r -> {
+            final Thread thread = new Thread(r, getClass().getSimpleName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        final long commitInterval = Math.max(properties.getGroupCommitInterval(), 1);
+        this.scheduler.scheduleWithFixedDelay(this::flush, commitInterval, commitInterval, TimeUnit.MILLISECONDS);
+        final long compactionInterval = Math.max(properties.getCompactionInterval(), 1);
+        this.scheduler.scheduleWithFixedDelay(this::compact, compactionInterval, compactionInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void addTicket(final Ticket ticket) {
+        Assert.notNull(ticket, "ticket cannot be null");
+        final Ticket encTicket = encodeTicket(ticket);
+        final String id = encTicket.getId();
+        if (segmentFor(id).put(id, encTicket, this.ticketSerializer.encode(encTicket))) {
+            countTicket(ticket);
+        }
+        indexTicket(ticket);
+        LOGGER.debug("Added ticket [{}] to registry.", ticket.getId());
+    }
+
+    @Override
+    public Ticket getTicket(final String ticketId) {
+        if (StringUtils.isBlank(ticketId)) {
+            return null;
+        }
+        final String encTicketId = encodeTicketId(ticketId);
+        final Ticket found = segmentFor(encTicketId).get(encTicketId);
+        if (found == null) {
+            return null;
+        }
+        final Ticket result = decodeTicket(found);
+        if (result != null && result.isExpired()) {
+            LOGGER.debug("Ticket [{}] has expired and is now removed from the registry", result.getId());
+            if (segmentFor(encTicketId).remove(encTicketId)) {
+                uncountTicket(ticketId);
+            }
+            unindexTicket(result);
+            return null;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean deleteSingleTicket(final String ticketId) {
+        final String encTicketId = encodeTicketId(ticketId);
+        if (encTicketId == null) {
+            return false;
+        }
+        if (!segmentFor(encTicketId).remove(encTicketId)) {
+            return false;
+        }
+        uncountTicket(ticketId);
+        return true;
+    }
+
+    @Override
+    public long deleteAll() {
+        final long count = Arrays.stream(this.segments).mapToLong(JournalSegment::clear).sum();
+        clearSessionIndex();
+        clearCounter();
+        return count;
+    }
+
+    @Override
+    public Collection<Ticket> getTickets() {
+        return getTicketsStream().collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<Ticket> getTicketsStream() {
+        return Arrays.stream(this.segments)
+                .flatMap(segment -> segment.getTickets().stream())
+                .map(this::decodeTicket);
+    }
+
+    @Override
+    public Ticket updateTicket(final Ticket ticket) {
+        addTicket(ticket);
+        return ticket;
+    }
+
+    /**
+     * The index is kept in memory only, so it is rebuilt from the recovered tickets when it is set.
+     *
+     * @param sessionIndex the session index
+     */
+    @Override
+    public void setSessionIndex(final TicketRegistrySessionIndex sessionIndex) {
+        super.setSessionIndex(sessionIndex);
+        if (sessionIndex != null) {
+            getTicketsStream().forEach(sessionIndex::index);
+        }
+    }
+
+    /**
+     * Flush pending changes of every segment to disk.
+     */
+    public void flush() {
+        for (final JournalSegment segment : this.segments) {
+            try {
+                segment.flush();
+            } catch (final Exception e) {
+                LOGGER.error("Unable to flush the ticket journal: [{}]", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Compact the segments whose logs have outgrown the compaction threshold.
+     */
+    public void compact() {
+        for (final JournalSegment segment : this.segments) {
+            try {
+                if (segment.getLogSize() > this.compactionThreshold) {
+                    segment.compact(this.ticketSerializer::encode);
+                }
+            } catch (final Exception e) {
+                LOGGER.error("Unable to compact the ticket journal: [{}]", e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        this.scheduler.shutdownNow();
+        try {
+            if (!this.scheduler.awaitTermination(1, TimeUnit.MINUTES)) {
+                LOGGER.warn("Flushing or compacting the ticket journal did not finish in time");
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Arrays.stream(this.segments).forEach(JournalSegment::close);
+        LOGGER.debug("Closed the ticket journal at [{}]", this.directory);
+    }
+
+    /**
+     * Replay the segments in parallel. Replaying reads files and decodes tickets, so it runs on
+     * a pool of its own rather than the common pool shared with the rest of the server.
+     */
+    private void recover(final int threads) {
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, this.segments.length)), r -> {
+            final Thread thread = new Thread(r, getClass().getSimpleName() + "Recovery");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            final List<Future<?>> results = new ArrayList<>(this.segments.length);
+            for (final JournalSegment segment : this.segments) {
+                results.add(executor.submit(() -> segment.recover(this.ticketSerializer::decode)));
+            }
+            for (final Future<?> result : results) {
+                result.get();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while recovering the journal at " + this.directory, e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("Unable to recover the journal at " + this.directory, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private JournalSegment segmentFor(final String id) {
+        return this.segments[(id.hashCode() & Integer.MAX_VALUE) % this.segments.length];
+    }
+
+    /**
+     * Tickets are assigned to segments by id, so the number of segments has to stay the same
+     * for as long as the journal exists. The number is recorded when the journal is created
+     * and takes precedence over the configured value from then on.
+     */
+    private int resolveSegmentCount(final int configured) {
+        final File metadata = new File(this.directory, METADATA_FILE);
+        final Properties properties = new Properties();
+        try {
+            if (metadata.exists()) {
+                try (InputStream in = new FileInputStream(metadata)) {
+                    properties.load(in);
+                }
+                final int recorded = Integer.parseInt(properties.getProperty(METADATA_SEGMENTS));
+                if (recorded != configured) {
+                    LOGGER.warn("The journal at [{}] was created with [{}] segment(s), which takes precedence over the [{}] segment(s) configured",
+                            this.directory, recorded, configured);
+                }
+                return recorded;
+            }
+            Assert.isTrue(configured > 0, "Number of journal segments must be positive");
+            properties.setProperty(METADATA_SEGMENTS, String.valueOf(configured));
+            try (OutputStream out = new FileOutputStream(metadata)) {
+                properties.store(out, "CAS ticket journal");
+            }
+            return configured;
+        } catch (final IOException e) {
+            throw new IllegalStateException("Unable to read or write journal metadata at " + metadata, e);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package org.apereo.cas.ticket.registry.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.function.Consumer;
+
+/**
+ * This is {@link JournalLogFile} that appends records to a memory-mapped file.
+ * Records become visible to the operating system as soon as they are copied into the mapping,
+ * so they survive a crash of the process; {@link #force()} is needed to have them survive
+ * a crash of the host as well.
+ * <p>
+ * Appending is not thread-safe and is expected to be guarded by the owning segment,
+ * while forcing may happen concurrently with appends. The mapping is released when the file
+ * is closed rather than left to the garbage collector, so that the file can be removed
+ * right away and the address space it takes is returned as soon as it is no longer needed.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class JournalLogFile {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalLogFile.class);
+
+    private final File file;
+    private final long generation;
+    private MappedByteBuffer buffer;
+    private volatile int position;
+
+    private JournalLogFile(final File file, final long generation, final MappedByteBuffer buffer, final int position) {
+        this.file = file;
+        this.generation = generation;
+        this.buffer = buffer;
+        this.position = position;
+    }
+
+    /**
+     * Create a new, empty log file of the given size.
+     *
+     * @param file       the file
+     * @param generation the generation
+     * @param size       the size
+     * @return the log file
+     */
+    public static JournalLogFile create(final File file, final long generation, final int size) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel()) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            return new JournalLogFile(file, generation, buffer, 0);
+        } catch (final IOException e) {
+            throw new IllegalStateException("Unable to create journal file " + file, e);
+        }
+    }
+
+    /**
+     * Open an existing log file and pass each of its intact records to the consumer.
+     * The file is left open for reading only; new records always go to a new file.
+     *
+     * @param file       the file
+     * @param generation the generation
+     * @param consumer   the consumer
+     * @return the log file
+     */
+    public static JournalLogFile replay(final File file, final long generation, final Consumer<JournalRecord> consumer) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            try {
+                JournalRecord record = JournalRecord.read(buffer);
+                while (record != null) {
+                    consumer.accept(record);
+                    record = JournalRecord.read(buffer);
+                }
+                if (buffer.position() < buffer.limit() && buffer.getInt(buffer.position()) != 0) {
+                    LOGGER.warn("Journal file [{}] ends with an incomplete record at offset [{}], which is ignored", file, buffer.position());
+                }
+                return new JournalLogFile(file, generation, null, buffer.position());
+            } finally {
+                unmap(buffer);
+            }
+        } catch (final IOException e) {
+            throw new IllegalStateException("Unable to read journal file " + file, e);
+        }
+    }
+
+    /**
+     * Append the record. The length that opens the record is written last, so that a reader
+     * never mistakes a record that was only partly copied before a crash for a complete one.
+     *
+     * @param record the encoded record
+     * @return false if the file has no room left for the record
+     */
+    public boolean append(final byte[] record) {
+        final int offset = this.position;
+        final MappedByteBuffer mapped = this.buffer;
+        if (mapped == null || record.length > mapped.capacity() - offset) {
+            return false;
+        }
+        final ByteBuffer body = mapped.duplicate();
+        body.position(offset + JournalRecord.HEADER_SIZE);
+        body.put(record, JournalRecord.HEADER_SIZE, record.length - JournalRecord.HEADER_SIZE);
+
+        final ByteBuffer header = ByteBuffer.wrap(record);
+        mapped.putInt(offset + Integer.BYTES, header.getInt(Integer.BYTES));
+        mapped.putInt(offset, header.getInt(0));
+        this.position = offset + record.length;
+        return true;
+    }
+
+    /**
+     * Flush appended records to disk. Does nothing once the file is closed.
+     */
+    public synchronized void force() {
+        if (this.buffer != null) {
+            this.buffer.force();
+        }
+    }
+
+    /**
+     * Flush appended records to disk and release the mapping. The owning segment must make sure
+     * no append is in progress, since touching a released mapping crashes the process.
+     */
+    public synchronized void close() {
+        if (this.buffer != null) {
+            this.buffer.force();
+            unmap(this.buffer);
+            this.buffer = null;
+        }
+    }
+
+    /**
+     * Release the mapping and remove the file from disk.
+     */
+    public void delete() {
+        close();
+        try {
+            Files.deleteIfExists(this.file.toPath());
+        } catch (final IOException e) {
+            LOGGER.warn("Unable to remove journal file [{}]: [{}]", this.file, e.getMessage());
+        }
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Bytes taken by the records in the file.
+     *
+     * @return the size
+     */
+    public int getSize() {
+        return position;
+    }
+
+    /**
+     * Release the mapping of the buffer without waiting for the garbage collector to do so.
+     * The buffer must not be used afterwards. Runtimes that do not expose the cleaner of direct
+     * buffers keep the mapping until the buffer is collected.
+     *
+     * @param buffer the buffer
+     */
+    static void unmap(final MappedByteBuffer buffer) {
+        try {
+            final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            final Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null) {
+                final Method clean = cleaner.getClass().getMethod("clean");
+                clean.setAccessible(true);
+                clean.invoke(cleaner);
+            }
+        } catch (final Exception e) {
+            LOGGER.trace("Unable to release mapped buffer; it is released once collected: [{}]", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.apereo.cas.ticket.registry.journal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * This is {@link JournalRecord} that describes a single change recorded in the journal.
+ * Records are laid out as {@code [body length][body checksum][type][id length][id][payload]}.
+ * A zero length marks the end of the records in a file, and a record whose checksum does not
+ * match its body is treated as a torn write left behind by a crash, ending the replay.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class JournalRecord {
+    /**
+     * Bytes taken by the length and checksum ahead of the body.
+     */
+    public static final int HEADER_SIZE = 8;
+
+    private static final int BODY_PREFIX_SIZE = 5;
+    private static final long CHECKSUM_MASK = 0xFFFFFFFFL;
+
+    /**
+     * The kinds of changes recorded.
+     */
+    public enum Type {
+        /**
+         * A ticket was added or updated.
+         */
+        PUT,
+        /**
+         * A ticket was removed.
+         */
+        DELETE,
+        /**
+         * All tickets were removed.
+         */
+        CLEAR
+    }
+
+    private final Type type;
+    private final String id;
+    private final byte[] payload;
+
+    public JournalRecord(final Type type, final String id, final byte[] payload) {
+        this.type = type;
+        this.id = id;
+        this.payload = payload;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    /**
+     * Encode the record.
+     *
+     * @return the bytes to write
+     */
+    public byte[] encode() {
+        final byte[] key = this.id.getBytes(StandardCharsets.UTF_8);
+        final int bodyLength = BODY_PREFIX_SIZE + key.length + this.payload.length;
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + bodyLength);
+        buffer.putInt(bodyLength).putInt(0)
+                .put((byte) this.type.ordinal()).putInt(key.length).put(key).put(this.payload);
+
+        final CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_SIZE, bodyLength);
+        buffer.putInt(Integer.BYTES, (int) crc.getValue());
+        return buffer.array();
+    }
+
+    /**
+     * Read the record at the current position of the buffer and move past it.
+     * The position is left untouched if no complete record is found.
+     *
+     * @param buffer the buffer
+     * @return the record, or null at the end of the records
+     */
+    public static JournalRecord read(final ByteBuffer buffer) {
+        final int start = buffer.position();
+        if (buffer.remaining() < HEADER_SIZE) {
+            return null;
+        }
+        final int bodyLength = buffer.getInt(start);
+        if (bodyLength < BODY_PREFIX_SIZE || bodyLength > buffer.remaining() - HEADER_SIZE) {
+            return null;
+        }
+        final byte[] body = new byte[bodyLength];
+        final ByteBuffer view = buffer.duplicate();
+        view.position(start + HEADER_SIZE);
+        view.get(body);
+
+        final CRC32 crc = new CRC32();
+        crc.update(body, 0, bodyLength);
+        if ((crc.getValue() & CHECKSUM_MASK) != (buffer.getInt(start + Integer.BYTES) & CHECKSUM_MASK)) {
+            return null;
+        }
+
+        final ByteBuffer source = ByteBuffer.wrap(body);
+        final int ordinal = source.get();
+        if (ordinal < 0 || ordinal >= Type.values().length) {
+            return null;
+        }
+        final int keyLength = source.getInt();
+        if (keyLength < 0 || keyLength > source.remaining()) {
+            return null;
+        }
+        final byte[] key = new byte[keyLength];
+        source.get(key);
+        final byte[] payload = new byte[source.remaining()];
+        source.get(payload);
+        buffer.position(start + HEADER_SIZE + bodyLength);
+        return new JournalRecord(Type.values()[ordinal], new String(key, StandardCharsets.UTF_8), payload);
+    }
+}
@@ -0,0 +1,439 @@
+package org.apereo.cas.ticket.registry.journal;
+
+import org.apereo.cas.ticket.Ticket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * This is {@link JournalSegment} that owns a slice of the tickets in memory along with the journal
+ * that allows them to be rebuilt after a restart. Every change is applied to the in-memory map and
+ * appended to the current log file while holding the segment lock, so the order of the journal always
+ * matches the order of the map; reads go straight to the map without locking.
+ * <p>
+ * Log files carry a generation number that grows by one each time a file fills up. Compaction starts a
+ * new generation, writes the live tickets to a snapshot that records it, and then removes the log files
+ * of older generations. Recovery loads the snapshot and replays the log files from its generation onwards.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class JournalSegment {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalSegment.class);
+
+    private static final long SNAPSHOT_MAGIC = 0x434153534e415031L;
+    private static final int SNAPSHOT_HEADER_SIZE = 16;
+    private static final int SERIALIZATION_ATTEMPTS = 3;
+    private static final byte[] EMPTY = new byte[0];
+
+    private final int index;
+    private final File directory;
+    private final int logFileSize;
+    private final boolean synchronousWrites;
+    private final long commitInterval;
+    private final Pattern logFilePattern;
+
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    private final Lock lock = new ReentrantLock();
+    private final Object durability = new Object();
+    private final Deque<JournalLogFile> history = new ArrayDeque<>();
+
+    private volatile JournalLogFile current;
+    private volatile long appendedSequence;
+    private long sequence;
+    private long durableSequence;
+    private volatile boolean closed;
+
+    public JournalSegment(final int index, final File directory, final int logFileSize,
+                          final boolean synchronousWrites, final long commitInterval) {
+        this.index = index;
+        this.directory = directory;
+        this.logFileSize = logFileSize;
+        this.synchronousWrites = synchronousWrites;
+        this.commitInterval = Math.max(commitInterval, 1);
+        this.logFilePattern = Pattern.compile(String.format("segment-%03d-(\\d+)\\.log", index));
+    }
+
+    /**
+     * Rebuild the tickets of this segment from the latest snapshot and the log files that follow it,
+     * and open a fresh log file for new changes.
+     *
+     * @param deserializer the deserializer
+     */
+    public void recover(final Function<byte[], Ticket> deserializer) {
+        this.lock.lock();
+        try {
+            final long snapshotGeneration = readSnapshot(deserializer);
+            final List<File> files = new ArrayList<>();
+            final File[] candidates = this.directory.listFiles((dir, name) -> this.logFilePattern.matcher(name).matches());
+            if (candidates != null) {
+                for (final File file : candidates) {
+                    files.add(file);
+                }
+            }
+            files.sort(Comparator.comparingLong(this::getGeneration));
+
+            long nextGeneration = snapshotGeneration;
+            for (final File file : files) {
+                final long generation = getGeneration(file);
+                if (generation < snapshotGeneration) {
+                    LOGGER.debug("Removing journal file [{}] already covered by the snapshot", file);
+                    Files.deleteIfExists(file.toPath());
+                } else {
+                    this.history.add(JournalLogFile.replay(file, generation, record -> apply(record, deserializer)));
+                    nextGeneration = generation + 1;
+                }
+            }
+            this.current = JournalLogFile.create(getLogFile(nextGeneration), nextGeneration, this.logFileSize);
+            LOGGER.debug("Recovered [{}] ticket(s) in journal segment [{}] from [{}] log file(s)", this.tickets.size(), this.index, files.size());
+        } catch (final IOException e) {
+            throw new IllegalStateException("Unable to recover journal segment " + this.index, e);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the ticket stored under the id.
+     *
+     * @param id the id
+     * @return the ticket
+     */
+    public Ticket get(final String id) {
+        return this.tickets.get(id);
+    }
+
+    public Collection<Ticket> getTickets() {
+        return this.tickets.values();
+    }
+
+    /**
+     * Store the ticket under the id and record the change.
+     *
+     * @param id      the id
+     * @param ticket  the ticket
+     * @param payload the serialized ticket
+     * @return true if there was no ticket stored under the id
+     */
+    public boolean put(final String id, final Ticket ticket, final byte[] payload) {
+        final byte[] record = new JournalRecord(JournalRecord.Type.PUT, id, payload).encode();
+        final long seq;
+        final boolean added;
+        this.lock.lock();
+        try {
+            append(record);
+            added = this.tickets.put(id, ticket) == null;
+            seq = publish();
+        } finally {
+            this.lock.unlock();
+        }
+        awaitDurable(seq);
+        return added;
+    }
+
+    /**
+     * Remove the ticket stored under the id and record the change.
+     *
+     * @param id the id
+     * @return true if a ticket was removed
+     */
+    public boolean remove(final String id) {
+        final byte[] record = new JournalRecord(JournalRecord.Type.DELETE, id, EMPTY).encode();
+        final long seq;
+        this.lock.lock();
+        try {
+            if (!this.tickets.containsKey(id)) {
+                return false;
+            }
+            append(record);
+            this.tickets.remove(id);
+            seq = publish();
+        } finally {
+            this.lock.unlock();
+        }
+        awaitDurable(seq);
+        return true;
+    }
+
+    /**
+     * Remove all tickets and record the change.
+     *
+     * @return the number of tickets removed
+     */
+    public long clear() {
+        final byte[] record = new JournalRecord(JournalRecord.Type.CLEAR, "", EMPTY).encode();
+        final long seq;
+        final long removed;
+        this.lock.lock();
+        try {
+            removed = this.tickets.size();
+            append(record);
+            this.tickets.clear();
+            seq = publish();
+        } finally {
+            this.lock.unlock();
+        }
+        awaitDurable(seq);
+        return removed;
+    }
+
+    /**
+     * Flush every change appended so far to disk, and release writers waiting on them.
+     * Changes that arrive while the flush is in progress are picked up by the next one.
+     */
+    public void flush() {
+        final long target = this.appendedSequence;
+        synchronized (this.durability) {
+            if (target <= this.durableSequence) {
+                return;
+            }
+        }
+        this.current.force();
+        synchronized (this.durability) {
+            this.durableSequence = Math.max(this.durableSequence, target);
+            this.durability.notifyAll();
+        }
+    }
+
+    /**
+     * Bytes taken by the log files written since the last snapshot.
+     *
+     * @return the log size
+     */
+    public long getLogSize() {
+        this.lock.lock();
+        try {
+            return this.history.stream().mapToLong(JournalLogFile::getSize).sum() + this.current.getSize();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Write the live tickets to a snapshot and remove the log files it makes redundant.
+     * Writers are only held up while the segment switches to a new log file.
+     *
+     * @param serializer the serializer
+     * @return true if the segment was compacted
+     */
+    public boolean compact(final Function<Ticket, byte[]> serializer) {
+        final Map<String, Ticket> live;
+        final List<JournalLogFile> obsolete;
+        final long snapshotGeneration;
+        this.lock.lock();
+        try {
+            roll(this.logFileSize);
+            snapshotGeneration = this.current.getGeneration();
+            live = new HashMap<>(this.tickets);
+            obsolete = new ArrayList<>(this.history);
+        } finally {
+            this.lock.unlock();
+        }
+
+        try {
+            writeSnapshot(live, snapshotGeneration, serializer);
+        } catch (final Exception e) {
+            LOGGER.warn("Unable to compact journal segment [{}]; its log files are kept as they are: [{}]", this.index, e.getMessage());
+            LOGGER.debug(e.getMessage(), e);
+            return false;
+        }
+
+        this.lock.lock();
+        try {
+            this.history.removeAll(obsolete);
+        } finally {
+            this.lock.unlock();
+        }
+        obsolete.forEach(JournalLogFile::delete);
+        LOGGER.debug("Compacted journal segment [{}] into a snapshot of [{}] ticket(s), removing [{}] log file(s)",
+                this.index, live.size(), obsolete.size());
+        return true;
+    }
+
+    /**
+     * Flush outstanding changes, release the log files and any writers still waiting.
+     * Changes attempted after the segment is closed are rejected.
+     */
+    public void close() {
+        flush();
+        this.lock.lock();
+        try {
+            this.closed = true;
+            this.history.forEach(JournalLogFile::close);
+            if (this.current != null) {
+                this.current.close();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        synchronized (this.durability) {
+            this.durability.notifyAll();
+        }
+    }
+
+    private void apply(final JournalRecord record, final Function<byte[], Ticket> deserializer) {
+        switch (record.getType()) {
+            case PUT:
+                this.tickets.put(record.getId(), deserializer.apply(record.getPayload()));
+                break;
+            case DELETE:
+                this.tickets.remove(record.getId());
+                break;
+            case CLEAR:
+                this.tickets.clear();
+                break;
+            default:
+                LOGGER.warn("Unknown journal record type [{}]", record.getType());
+        }
+    }
+
+    private void append(final byte[] record) {
+        if (this.closed) {
+            throw new IllegalStateException("Journal segment " + this.index + " is closed");
+        }
+        if (!this.current.append(record)) {
+            roll(record.length);
+            if (!this.current.append(record)) {
+                throw new IllegalStateException("Unable to append record of " + record.length + " bytes to the journal");
+            }
+        }
+    }
+
+    private void roll(final int minimumSize) {
+        final JournalLogFile previous = this.current;
+        previous.force();
+        final long generation = previous.getGeneration() + 1;
+        this.history.add(previous);
+        this.current = JournalLogFile.create(getLogFile(generation), generation, Math.max(this.logFileSize, minimumSize));
+        syncDirectory();
+    }
+
+    private long publish() {
+        this.sequence++;
+        this.appendedSequence = this.sequence;
+        return this.sequence;
+    }
+
+    private void awaitDurable(final long seq) {
+        if (!this.synchronousWrites) {
+            return;
+        }
+        synchronized (this.durability) {
+            while (this.durableSequence < seq && !this.closed) {
+                try {
+                    this.durability.wait(this.commitInterval);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private long readSnapshot(final Function<byte[], Ticket> deserializer) throws IOException {
+        final File snapshot = getSnapshotFile();
+        if (!snapshot.exists()) {
+            return 0;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(snapshot, "r"); FileChannel channel = raf.getChannel()) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            try {
+                if (buffer.remaining() < SNAPSHOT_HEADER_SIZE || buffer.getLong() != SNAPSHOT_MAGIC) {
+                    throw new IOException("Journal snapshot " + snapshot + " is not recognized");
+                }
+                final long generation = buffer.getLong();
+                JournalRecord record = JournalRecord.read(buffer);
+                while (record != null) {
+                    apply(record, deserializer);
+                    record = JournalRecord.read(buffer);
+                }
+                if (buffer.hasRemaining()) {
+                    throw new IOException("Journal snapshot " + snapshot + " is damaged at offset " + buffer.position());
+                }
+                return generation;
+            } finally {
+                JournalLogFile.unmap(buffer);
+            }
+        }
+    }
+
+    private void writeSnapshot(final Map<String, Ticket> live, final long generation,
+                               final Function<Ticket, byte[]> serializer) throws IOException {
+        final File snapshot = getSnapshotFile();
+        final File temp = new File(this.directory, snapshot.getName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeLong(SNAPSHOT_MAGIC);
+            out.writeLong(generation);
+            for (final Map.Entry<String, Ticket> entry : live.entrySet()) {
+                out.write(new JournalRecord(JournalRecord.Type.PUT, entry.getKey(), serialize(entry.getValue(), serializer)).encode());
+            }
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move(temp.toPath(), snapshot.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory();
+    }
+
+    /**
+     * The rename only survives a failure of the host once the directory entry itself is on disk.
+     * Platforms that cannot open a directory for syncing, such as Windows, are left to their own devices.
+     */
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(this.directory.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (final IOException e) {
+            LOGGER.debug("Unable to sync journal directory [{}]: [{}]", this.directory, e.getMessage());
+        }
+    }
+
+    private static byte[] serialize(final Ticket ticket, final Function<Ticket, byte[]> serializer) {
+        for (int attempt = 1; attempt < SERIALIZATION_ATTEMPTS; attempt++) {
+            try {
+                return serializer.apply(ticket);
+            } catch (final ConcurrentModificationException e) {
+                LOGGER.trace("Ticket [{}] changed while it was serialized; trying again", ticket.getId());
+            }
+        }
+        return serializer.apply(ticket);
+    }
+
+    private File getSnapshotFile() {
+        return new File(this.directory, String.format("segment-%03d.snapshot", this.index));
+    }
+
+    private File getLogFile(final long generation) {
+        return new File(this.directory, String.format("segment-%03d-%019d.log", this.index, generation));
+    }
+
+    private long getGeneration(final File file) {
+        final Matcher matcher = this.logFilePattern.matcher(file.getName());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+    }
+}
@@ -0,0 +1,195 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.configuration.model.support.journal.JournalTicketRegistryProperties;
+import org.apereo.cas.kryo.KryoBinarySerializer;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.apereo.cas.util.cipher.NoOpCipherExecutor;
+import org.apereo.cas.util.serialization.BinarySerializer;
+import org.apereo.cas.util.serialization.JavaBinarySerializer;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case to test the {@link JournalTicketRegistry} based on test cases to test all
+ * Ticket Registries.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@RunWith(Parameterized.class)
+public class JournalTicketRegistryTests extends AbstractTicketRegistryTests {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<JournalTicketRegistry> registries = new ArrayList<>();
+
+    public JournalTicketRegistryTests(final boolean useEncryption) {
+        super(useEncryption);
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object> getTestParameters() {
+        return Arrays.asList(false, true);
+    }
+
+    @Override
+    public TicketRegistry getNewTicketRegistry() {
+        return newTicketRegistry(folder.getRoot());
+    }
+
+    @After
+    public void shutdown() {
+        registries.forEach(JournalTicketRegistry::destroy);
+    }
+
+    @Test
+    public void verifyTicketsSurviveRestart() throws Exception {
+        final File location = folder.newFolder();
+        final JournalTicketRegistry registry = newTicketRegistry(location);
+        IntStream.range(0, 100).forEach(i -> registry.addTicket(newTicketGrantingTicket(i)));
+        IntStream.range(0, 50).forEach(i -> assertTrue(registry.deleteSingleTicket("TGT-" + i)));
+        registry.destroy();
+
+        final JournalTicketRegistry recovered = newTicketRegistry(location);
+        assertEquals(50, recovered.getTickets().size());
+        assertNull(recovered.getTicket("TGT-10"));
+        assertNotNull(recovered.getTicket("TGT-60", TicketGrantingTicket.class));
+    }
+
+    @Test
+    public void verifyTicketsSurviveCompaction() throws Exception {
+        final File location = folder.newFolder();
+        final JournalTicketRegistry registry = newTicketRegistry(location);
+        IntStream.range(0, 100).forEach(i -> registry.addTicket(newTicketGrantingTicket(i)));
+        registry.compact();
+        IntStream.range(0, 10).forEach(i -> registry.deleteSingleTicket("TGT-" + i));
+        registry.destroy();
+
+        final JournalTicketRegistry recovered = newTicketRegistry(location);
+        assertEquals(90, recovered.getTickets().size());
+        recovered.compact();
+        recovered.deleteAll();
+        recovered.destroy();
+        assertTrue(newTicketRegistry(location).getTickets().isEmpty());
+    }
+
+    @Test
+    public void verifyKryoTicketsSurviveRestart() throws Exception {
+        final File location = folder.newFolder();
+        final JournalTicketRegistry registry = newTicketRegistry(location, new KryoBinarySerializer<>());
+        IntStream.range(0, 20).forEach(i -> registry.addTicket(newTicketGrantingTicket(i)));
+        final TicketGrantingTicket tgt = registry.getTicket("TGT-1", TicketGrantingTicket.class);
+        final ServiceTicket st = tgt.grantServiceTicket("ST-1", CoreAuthenticationTestUtils.getService(),
+                new NeverExpiresExpirationPolicy(), false, true);
+        registry.addTicket(st);
+        registry.updateTicket(tgt);
+        IntStream.range(10, 20).forEach(i -> assertTrue(registry.deleteSingleTicket("TGT-" + i)));
+        registry.destroy();
+
+        final JournalTicketRegistry recovered = newTicketRegistry(location, new KryoBinarySerializer<>());
+        assertEquals(11, recovered.getTickets().size());
+        assertNull(recovered.getTicket("TGT-15"));
+        final TicketGrantingTicket recoveredTgt = recovered.getTicket("TGT-1", TicketGrantingTicket.class);
+        assertEquals(tgt, recoveredTgt);
+        assertTrue(recoveredTgt.getServices().containsKey("ST-1"));
+        final ServiceTicket recoveredSt = recovered.getTicket("ST-1", ServiceTicket.class);
+        assertEquals(st, recoveredSt);
+        assertEquals(CoreAuthenticationTestUtils.getService().getId(), recoveredSt.getService().getId());
+        assertEquals(tgt.getId(), recoveredSt.getGrantingTicket().getId());
+    }
+
+    @Test
+    public void verifyChangesAreRejectedOnceClosed() throws Exception {
+        final File location = folder.newFolder();
+        final JournalTicketRegistry registry = newTicketRegistry(location);
+        registry.addTicket(newTicketGrantingTicket(1));
+        registry.compact();
+        registry.destroy();
+
+        try {
+            registry.addTicket(newTicketGrantingTicket(2));
+            fail("Changes should be rejected once the journal is closed");
+        } catch (final IllegalStateException e) {
+            assertNotNull(registry.getTicket("TGT-1"));
+        }
+        registry.destroy();
+        final JournalTicketRegistry recovered = newTicketRegistry(location);
+        assertNotNull(recovered.getTicket("TGT-1"));
+        assertNull(recovered.getTicket("TGT-2"));
+    }
+
+    @Test
+    public void verifyIncompleteRecordIsIgnored() throws Exception {
+        final File location = folder.newFolder();
+        final JournalTicketRegistry registry = newTicketRegistry(location);
+        registry.addTicket(newTicketGrantingTicket(1));
+        registry.destroy();
+
+        final File[] logs = location.listFiles((dir, name) -> name.endsWith(".log"));
+        assertNotNull(logs);
+        for (final File log : logs) {
+            damageEndOfLog(log);
+        }
+        final Ticket ticket = newTicketRegistry(location).getTicket("TGT-1");
+        assertNotNull(ticket);
+    }
+
+    private JournalTicketRegistry newTicketRegistry(final File location) {
+        return newTicketRegistry(location, new JavaBinarySerializer<>());
+    }
+
+    private JournalTicketRegistry newTicketRegistry(final File location, final BinarySerializer<Ticket> serializer) {
+        final JournalTicketRegistryProperties properties = new JournalTicketRegistryProperties();
+        properties.setLocation(location.getAbsolutePath());
+        properties.setSegments(4);
+        properties.setLogFileSize(64 * 1024);
+        properties.setCompactionThreshold(0);
+        final JournalTicketRegistry registry = new JournalTicketRegistry(properties,
+                NoOpCipherExecutor.getInstance(), serializer);
+        registries.add(registry);
+        return registry;
+    }
+
+    private static TicketGrantingTicket newTicketGrantingTicket(final int index) {
+        return new TicketGrantingTicketImpl("TGT-" + index, CoreAuthenticationTestUtils.getAuthentication(),
+                new NeverExpiresExpirationPolicy());
+    }
+
+    private static void damageEndOfLog(final File log) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(log, "rw")) {
+            long offset = 0;
+            while (offset + 8 <= file.length()) {
+                file.seek(offset);
+                final int length = file.readInt();
+                if (length == 0) {
+                    file.seek(offset);
+                    file.writeInt(1024);
+                    file.writeInt(42);
+                    return;
+                }
+                offset += 8 + length;
+            }
+        }
+    }
+}
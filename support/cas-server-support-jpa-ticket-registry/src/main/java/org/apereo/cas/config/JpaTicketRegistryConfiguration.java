@@ -19,9 +19,13 @@ import org.reflections.Reflections;
 import org.reflections.scanners.SubTypesScanner;
 import org.reflections.util.ClasspathHelper;
 import org.reflections.util.ConfigurationBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationListener;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -47,6 +51,7 @@ import java.util.stream.Collectors;
 @EnableConfigurationProperties(CasConfigurationProperties.class)
 @EnableTransactionManagement(proxyTargetClass = true)
 public class JpaTicketRegistryConfiguration {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JpaTicketRegistryConfiguration.class);
 
     @Autowired
     private CasConfigurationProperties casProperties;
@@ -100,6 +105,23 @@ public class JpaTicketRegistryConfiguration {
         return bean;
     }
 
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> jpaTicketRegistryPrincipalIdMigration(@Qualifier("ticketCatalog")
+                                                                                             final TicketCatalog ticketCatalog) {
+        return event -> {
+            final TicketRegistry registry = ticketRegistry(ticketCatalog);
+            if (casProperties.getTicket().getRegistry().getJpa().isMigratePrincipalIds() && registry instanceof JpaTicketRegistry) {
+                long total = 0;
+                int migrated = ((JpaTicketRegistry) registry).migratePrincipalIds();
+                while (migrated > 0) {
+                    total += migrated;
+                    migrated = ((JpaTicketRegistry) registry).migratePrincipalIds();
+                }
+                LOGGER.info("Filled in the principal id of [{}] ticket-granting ticket(s) in the ticket registry", total);
+            }
+        };
+    }
+
     @Bean
     public LockingStrategy lockingStrategy() {
         final TicketRegistryProperties registry = casProperties.getTicket().getRegistry();
@@ -1,10 +1,12 @@
 package org.apereo.cas.ticket.registry;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketCatalog;
 import org.apereo.cas.ticket.TicketDefinition;
 import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
 import org.hibernate.LockOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -124,6 +126,57 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
                 .flatMap(org.hibernate.query.Query::stream);
     }
 
+    /**
+     * Looks up the sessions of the principal by the indexed principal id column of ticket-granting tickets.
+     * Rows written before the column was introduced are expected to have been filled in by
+     * {@link #migratePrincipalIds()}. Tickets issued on behalf of a session reference it by a column of their own,
+     * and are removed along with it in bulk, so no further index is needed here.
+     *
+     * @param principalId the principal id
+     * @return {@inheritDoc}
+     */
+    @Override
+    public Stream<TicketGrantingTicket> getSessionsFor(final String principalId) {
+        final TicketDefinition md = this.ticketCatalog.find(TicketGrantingTicket.PREFIX);
+        final Query query = this.entityManager.createQuery("select t from " + getTicketEntityName(md)
+                + " t where t.principalId = :principalId and t.ticketGrantingTicket is null");
+        query.setParameter("principalId", StringUtils.left(principalId, TicketGrantingTicketImpl.PRINCIPAL_ID_LENGTH));
+        final List<?> results = query.getResultList();
+        return results.stream()
+                .map(TicketGrantingTicket.class::cast)
+                .filter(tgt -> !tgt.isExpired())
+                .filter(tgt -> tgt.getAuthentication().getPrincipal().getId().equals(principalId));
+    }
+
+    /**
+     * Fill in the principal id of one batch of ticket-granting tickets written before the column was introduced.
+     * Each call runs in a transaction of its own, so callers repeat it until nothing is left to migrate.
+     * Tickets without a principal are given an empty principal id, so that they are not picked up again.
+     *
+     * @return the number of tickets migrated
+     */
+    public int migratePrincipalIds() {
+        final TicketDefinition md = this.ticketCatalog.find(TicketGrantingTicket.PREFIX);
+        final String entityName = getTicketEntityName(md);
+        final List<?> results = this.entityManager.createQuery("select t from " + entityName + " t where t.principalId is null")
+                .setMaxResults(STREAM_BATCH_SIZE)
+                .getResultList();
+        final Query update = this.entityManager.createQuery("update " + entityName + " t set t.principalId = :principalId where t.id = :id");
+        results.stream()
+                .map(TicketGrantingTicket.class::cast)
+                .forEach(tgt -> {
+                    final String principalId = tgt.getAuthentication().getPrincipal() == null
+                            ? StringUtils.EMPTY
+                            : tgt.getAuthentication().getPrincipal().getId();
+                    update.setParameter("principalId", StringUtils.left(principalId, TicketGrantingTicketImpl.PRINCIPAL_ID_LENGTH))
+                            .setParameter("id", tgt.getId())
+                            .executeUpdate();
+                });
+        this.entityManager.clear();
+        LOGGER.debug("Filled in the principal id of [{}] ticket-granting ticket(s)", results.size());
+        return results.size();
+    }
+
     @Override
     public long sessionCount() {
         final TicketDefinition md = this.ticketCatalog.find(TicketGrantingTicket.PREFIX);
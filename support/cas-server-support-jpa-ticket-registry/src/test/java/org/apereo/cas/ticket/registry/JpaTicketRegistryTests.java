@@ -56,6 +56,8 @@ import org.springframework.transaction.support.TransactionCallback;
 import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -63,6 +65,7 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
 
@@ -124,6 +127,9 @@ public class JpaTicketRegistryTests {
     @Qualifier("ticketRegistry")
     private TicketRegistry ticketRegistry;
 
+    @PersistenceContext(unitName = "ticketEntityManagerFactory")
+    private EntityManager entityManager;
+
     @TestConfiguration
     public static class JpaTestConfiguration {
         @Autowired
@@ -151,6 +157,31 @@ public class JpaTicketRegistryTests {
     }
 
 
+    @Test
+    public void verifySessionsWithoutPrincipalIdAreMigrated() {
+        final TicketGrantingTicket indexed = newTGT();
+        addTicketInTransaction(indexed);
+        final TicketGrantingTicket legacy = newTGT();
+        addTicketInTransaction(legacy);
+        new TransactionTemplate(txManager).execute(status -> entityManager
+                .createQuery("update TicketGrantingTicketImpl t set t.principalId = null where t.id = :id")
+                .setParameter("id", legacy.getId())
+                .executeUpdate());
+        assertFalse(new TransactionTemplate(txManager).execute(status -> ticketRegistry.getSessionsFor("bob")
+                .anyMatch(tgt -> tgt.getId().equals(legacy.getId()))));
+
+        assertEquals(1, ((JpaTicketRegistry) ticketRegistry).migratePrincipalIds());
+        assertEquals(0, ((JpaTicketRegistry) ticketRegistry).migratePrincipalIds());
+        final List<String> sessions = new TransactionTemplate(txManager).execute(status -> ticketRegistry.getSessionsFor("bob")
+                .map(TicketGrantingTicket::getId)
+                .collect(Collectors.toList()));
+        assertTrue(sessions.contains(indexed.getId()));
+        assertTrue(sessions.contains(legacy.getId()));
+        final List<TicketGrantingTicket> others = new TransactionTemplate(txManager).execute(status -> ticketRegistry.getSessionsFor("alice")
+                .collect(Collectors.toList()));
+        assertTrue(others.isEmpty());
+    }
+
     @Test
     public void verifyTicketCreationAndDeletion() {
         // TGT
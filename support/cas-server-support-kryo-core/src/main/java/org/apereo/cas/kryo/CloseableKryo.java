@@ -1,4 +1,4 @@
-package org.apereo.cas.memcached.kryo;
+package org.apereo.cas.kryo;
 
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.Registration;
@@ -24,8 +24,14 @@ public class CloseableKryo extends Kryo implements Closeable {
         this.kryoPool = autoKryoPool;
     }
 
+    /**
+     * Resets the instance before handing it back to the pool, so that class names and
+     * references memoized by one read or write never leak into a payload that another
+     * instance, node or restarted server would need to decode.
+     */
     @Override
     public void close() {
+        reset();
         this.kryoPool.release(this);
     }
 
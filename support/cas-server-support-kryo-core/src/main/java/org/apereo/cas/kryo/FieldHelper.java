@@ -1,4 +1,4 @@
-package org.apereo.cas.memcached.kryo;
+package org.apereo.cas.kryo;
 
 import java.lang.reflect.Field;
 import java.util.HashMap;
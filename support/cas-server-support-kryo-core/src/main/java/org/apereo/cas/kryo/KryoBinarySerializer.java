@@ -0,0 +1,64 @@
+package org.apereo.cas.kryo;
+
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.apereo.cas.util.serialization.BinarySerializer;
+
+import java.util.ArrayList;
+
+/**
+ * This is {@link KryoBinarySerializer} that encodes objects via pooled {@link CloseableKryo} instances.
+ * It carries no dependency on a particular ticket registry, and is meant to be wrapped by
+ * the serialization extension point of whatever store or transport carries the bytes.
+ * The same class registration rules apply as for {@link CasKryoPool}; all nodes must register
+ * the same classes in the same order.
+ *
+ * @author Misagh Moayyed
+ * @param <T> the type parameter
+ * @since 5.3.0
+ */
+public class KryoBinarySerializer<T> implements BinarySerializer<T> {
+    private static final int DEFAULT_BUFFER_SIZE = 4096;
+
+    private final CasKryoPool kryoPool;
+
+    /**
+     * Instantiates a new serializer whose pool tolerates classes that are not
+     * registered upfront, at the cost of writing their class names into the payload.
+     * Instances are reset after every read and write, so that each payload carries
+     * every class name it needs and can be decoded by any other serializer.
+     */
+    public KryoBinarySerializer() {
+        this(new CasKryoPool(new ArrayList<>(), true, false, false, true));
+    }
+
+    public KryoBinarySerializer(final CasKryoPool kryoPool) {
+        this.kryoPool = kryoPool;
+    }
+
+    @Override
+    public byte[] encode(final T object) {
+        try (CloseableKryo kryo = this.kryoPool.borrow();
+             Output output = new Output(DEFAULT_BUFFER_SIZE, -1)) {
+            kryo.writeClassAndObject(output, object);
+            return output.toBytes();
+        } catch (final Exception e) {
+            throw new KryoException(e);
+        }
+    }
+
+    @Override
+    public T decode(final byte[] data) {
+        try (CloseableKryo kryo = this.kryoPool.borrow();
+             Input input = new Input(data)) {
+            return (T) kryo.readClassAndObject(input);
+        } catch (final Exception e) {
+            throw new KryoException(e);
+        }
+    }
+
+    public CasKryoPool getKryoPool() {
+        return kryoPool;
+    }
+}
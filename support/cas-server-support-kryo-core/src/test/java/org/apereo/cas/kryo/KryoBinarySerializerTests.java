@@ -0,0 +1,64 @@
+package org.apereo.cas.kryo;
+
+import org.apereo.cas.mock.MockServiceTicket;
+import org.apereo.cas.mock.MockTicketGrantingTicket;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.util.serialization.JavaBinarySerializer;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link KryoBinarySerializerTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@RunWith(JUnit4.class)
+public class KryoBinarySerializerTests {
+    private static final String ST_ID = "ST-1234567890ABCDEFGHIJKLMNOPQRSTUVWXYZ01234567890ABCDEFGHIJK";
+
+    private final KryoBinarySerializer<Ticket> serializer = new KryoBinarySerializer<>();
+
+    @Test
+    public void verifyTicketGrantingTicket() {
+        final TicketGrantingTicket tgt = new MockTicketGrantingTicket("casuser");
+        tgt.grantServiceTicket(ST_ID, RegisteredServiceTestUtils.getService(), null, false, true);
+        assertEquals(tgt, serializer.decode(serializer.encode(tgt)));
+    }
+
+    @Test
+    public void verifyServiceTicket() {
+        final TicketGrantingTicket tgt = new MockTicketGrantingTicket("casuser");
+        final ServiceTicket st = new MockServiceTicket(ST_ID, RegisteredServiceTestUtils.getService(), tgt);
+        assertEquals(st, serializer.decode(serializer.encode(st)));
+    }
+
+    @Test
+    public void verifyPayloadIsSmallerThanJavaSerialization() {
+        final TicketGrantingTicket tgt = new MockTicketGrantingTicket("casuser");
+        final byte[] kryo = serializer.encode(tgt);
+        final byte[] java = new JavaBinarySerializer<Ticket>().encode(tgt);
+        assertTrue(kryo.length < java.length);
+    }
+
+    @Test
+    public void verifyPayloadIsDecodedByAnotherSerializer() {
+        final TicketGrantingTicket tgt = new MockTicketGrantingTicket("casuser");
+        final ServiceTicket st = new MockServiceTicket(ST_ID, RegisteredServiceTestUtils.getService(), tgt);
+        serializer.encode(st);
+        serializer.encode(tgt);
+        final byte[] ticketGrantingTicket = serializer.encode(tgt);
+        final byte[] serviceTicket = serializer.encode(st);
+
+        final KryoBinarySerializer<Ticket> other = new KryoBinarySerializer<>();
+        assertEquals(tgt, other.decode(ticketGrantingTicket));
+        assertEquals(st, other.decode(serviceTicket));
+        assertEquals(tgt, new KryoBinarySerializer<Ticket>().decode(ticketGrantingTicket));
+    }
+}
@@ -1,4 +1,4 @@
-package org.apereo.cas.memcached.kryo;
+package org.apereo.cas.kryo;
 
 import com.esotericsoftware.kryo.io.ByteBufferOutput;
 import org.junit.Test;
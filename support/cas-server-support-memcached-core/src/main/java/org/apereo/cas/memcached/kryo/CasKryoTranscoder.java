@@ -1,16 +1,13 @@
 package org.apereo.cas.memcached.kryo;
 
-import com.esotericsoftware.kryo.KryoException;
-import com.esotericsoftware.kryo.io.Input;
-import com.esotericsoftware.kryo.io.Output;
 import net.spy.memcached.CachedData;
 import net.spy.memcached.transcoders.Transcoder;
+import org.apereo.cas.kryo.CasKryoPool;
+import org.apereo.cas.kryo.CloseableKryo;
+import org.apereo.cas.kryo.KryoBinarySerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-
 /**
  * {@link net.spy.memcached.MemcachedClient} transcoder implementation based on Kryo fast serialization framework
  * suited for efficient serialization of tickets.
@@ -35,8 +32,11 @@ public class CasKryoTranscoder implements Transcoder<Object> {
     
     private final CasKryoPool kryoPool;
 
+    private final KryoBinarySerializer<Object> serializer;
+
     public CasKryoTranscoder(final CasKryoPool kryoPool) {
         this.kryoPool = kryoPool;
+        this.serializer = new KryoBinarySerializer<>(kryoPool);
     }
 
     /**
@@ -52,30 +52,16 @@ public class CasKryoTranscoder implements Transcoder<Object> {
 
     @Override
     public CachedData encode(final Object obj) {
-        try (CloseableKryo kryo = this.kryoPool.borrow();
-             ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
-             Output output = new Output(byteStream)) {
-            if (obj != null) {
-                LOGGER.trace("Writing object [{}] to memcached ", obj.getClass());
-            }
-            kryo.writeClassAndObject(output, obj);
-            output.flush();
-            final byte[] bytes = byteStream.toByteArray();
-            return new CachedData(0, bytes, bytes.length);
-        } catch (final Exception exception) {
-            throw new KryoException(exception);
+        if (obj != null) {
+            LOGGER.trace("Writing object [{}] to memcached ", obj.getClass());
         }
+        final byte[] bytes = this.serializer.encode(obj);
+        return new CachedData(0, bytes, bytes.length);
     }
 
     @Override
     public Object decode(final CachedData d) {
-        final byte[] bytes = d.getData();
-        try (CloseableKryo kryo = this.kryoPool.borrow();
-             Input input = new Input(new ByteArrayInputStream(bytes))) {
-            return kryo.readClassAndObject(input);
-        } catch (final Exception exception) {
-            throw new KryoException(exception);
-        }
+        return this.serializer.decode(d.getData());
     }
 
     /**
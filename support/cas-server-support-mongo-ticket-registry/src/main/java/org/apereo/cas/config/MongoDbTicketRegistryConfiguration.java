@@ -3,6 +3,7 @@ package org.apereo.cas.config;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.model.support.mongo.ticketregistry.MongoTicketRegistryProperties;
 import org.apereo.cas.configuration.support.Beans;
+import org.apereo.cas.kryo.KryoBinarySerializer;
 import org.apereo.cas.logout.LogoutManager;
 import org.apereo.cas.mongo.MongoDbConnectionFactory;
 import org.apereo.cas.ticket.TicketCatalog;
@@ -44,6 +45,11 @@ public class MongoDbTicketRegistryConfiguration {
         final MongoTicketRegistryProperties mongo = casProperties.getTicket().getRegistry().getMongo();
         final MongoDbTicketRegistry registry = new MongoDbTicketRegistry(ticketCatalog, mongoDbTicketRegistryTemplate(), mongo.isDropCollection());
         registry.setCipherExecutor(Beans.newTicketRegistryCipherExecutor(mongo.getCrypto(), "mongo"));
+        registry.setStreamBatchSize(mongo.getStreamBatchSize());
+        if (mongo.isBinaryStorage()) {
+            LOGGER.debug("Tickets will be stored in MongoDb as binary payloads");
+            registry.setTicketSerializer(new KryoBinarySerializer<>());
+        }
         return registry;
     }
 
@@ -2,13 +2,18 @@ package org.apereo.cas.ticket.registry;
 
 import com.mongodb.BasicDBObject;
 import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
 import com.mongodb.WriteResult;
 import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.mongo.MongoDbConnectionFactory;
 import org.apereo.cas.ticket.BaseTicketSerializers;
+import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketCatalog;
 import org.apereo.cas.ticket.TicketDefinition;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.util.serialization.BinarySerializer;
 import org.hjson.JsonValue;
 import org.hjson.Stringify;
 import org.slf4j.Logger;
@@ -20,8 +25,12 @@ import org.springframework.data.mongodb.core.query.Update;
 
 import java.util.Collection;
 import java.util.Date;
-import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A Ticket Registry storage backend based on MongoDB.
@@ -33,11 +42,16 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MongoDbTicketRegistry.class);
     private static final String FIELD_NAME_EXPIRE_AFTER_SECONDS = "expireAfterSeconds";
+    private static final String FIELD_NAME_DOCUMENT_ID = "_id";
     private static final Query SELECT_ALL_NAMES_QUERY = new Query(Criteria.where(TicketHolder.FIELD_NAME_ID).regex(".+"));
 
     private final TicketCatalog ticketCatalog;
     private final MongoOperations mongoTemplate;
     private final boolean dropCollection;
+    private final Map<String, String> collectionNames = new ConcurrentHashMap<>();
+
+    private BinarySerializer<Ticket> ticketSerializer;
+    private int streamBatchSize = 100;
 
     public MongoDbTicketRegistry(final TicketCatalog ticketCatalog,
                                  final MongoOperations mongoTemplate,
@@ -59,6 +73,8 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
         final DBCollection collection = mongoTemplate.getCollection(collectionName);
         collection.createIndex(new BasicDBObject(TicketHolder.FIELD_NAME_EXPIRE_AT, 1),
                 new BasicDBObject(FIELD_NAME_EXPIRE_AFTER_SECONDS, ticket.getProperties().getStorageTimeout()));
+        collection.createIndex(new BasicDBObject(TicketHolder.FIELD_NAME_ID, 1));
+        collection.createIndex(new BasicDBObject(TicketHolder.FIELD_NAME_PARENT_ID, 1));
         return collection;
     }
 
@@ -88,7 +104,7 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
                 return null;
             }
             final Query query = new Query(Criteria.where(TicketHolder.FIELD_NAME_ID).is(holder.getTicketId()));
-            final Update update = Update.update(TicketHolder.FIELD_NAME_JSON, holder.getJson());
+            final Update update = buildTicketDocumentUpdate(holder);
             this.mongoTemplate.upsert(query, update, collectionName);
             LOGGER.debug("Updated ticket [{}]", ticket);
         } catch (final Exception e) {
@@ -137,6 +153,12 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
             }
             final String collectionName = getTicketCollectionInstanceByMetadata(metadata);
             final Query query = new Query(Criteria.where(TicketHolder.FIELD_NAME_ID).is(encTicketId));
+            query.fields()
+                    .exclude(FIELD_NAME_DOCUMENT_ID)
+                    .include(TicketHolder.FIELD_NAME_ID)
+                    .include(TicketHolder.FIELD_NAME_TYPE)
+                    .include(TicketHolder.FIELD_NAME_JSON)
+                    .include(TicketHolder.FIELD_NAME_PAYLOAD);
             final TicketHolder d = this.mongoTemplate.findOne(query, TicketHolder.class, collectionName);
             if (d != null) {
                 final Ticket decoded = deserializeTicketFromMongoDocument(d);
@@ -155,14 +177,39 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
         return null;
     }
 
+    @Override
+    public long sessionCount() {
+        return countTickets(this.ticketCatalog, TicketGrantingTicket.class, this::getTicketCollectionInstanceByMetadata,
+                collectionName -> this.mongoTemplate.getCollection(collectionName).count());
+    }
+
+    @Override
+    public long serviceTicketCount() {
+        return countTickets(this.ticketCatalog, ServiceTicket.class, this::getTicketCollectionInstanceByMetadata,
+                collectionName -> this.mongoTemplate.getCollection(collectionName).count());
+    }
+
     @Override
     public Collection<Ticket> getTickets() {
+        try (Stream<Ticket> tickets = getTicketsStream()) {
+            return tickets.collect(Collectors.toSet());
+        }
+    }
+
+    /**
+     * Streams tickets from each collection through a server-side cursor
+     * that fetches documents in batches, rather than materializing entire collections.
+     * Callers should close the returned stream if it is not fully consumed.
+     *
+     * @return the stream of tickets
+     */
+    @Override
+    public Stream<Ticket> getTicketsStream() {
         return this.ticketCatalog.findAll().stream()
                 .map(this::getTicketCollectionInstanceByMetadata)
-                .map(map -> mongoTemplate.findAll(TicketHolder.class, map))
-                .flatMap(List::stream)
-                .map(ticket -> decodeTicket(deserializeTicketFromMongoDocument(ticket)))
-                .collect(Collectors.toSet());
+                .flatMap(this::streamTicketDocuments)
+                .map(holder -> decodeTicket(deserializeTicketFromMongoDocument(holder)))
+                .filter(Objects::nonNull);
     }
 
     @Override
@@ -210,6 +257,38 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
         return new Date(System.currentTimeMillis() + (ttl * 1000));
     }
 
+    private Stream<TicketHolder> streamTicketDocuments(final String collectionName) {
+        final DBObject projection = new BasicDBObject(FIELD_NAME_DOCUMENT_ID, 0)
+                .append(TicketHolder.FIELD_NAME_ID, 1)
+                .append(TicketHolder.FIELD_NAME_TYPE, 1)
+                .append(TicketHolder.FIELD_NAME_JSON, 1)
+                .append(TicketHolder.FIELD_NAME_PAYLOAD, 1);
+        final DBCursor cursor = this.mongoTemplate.getCollection(collectionName)
+                .find(new BasicDBObject(), projection)
+                .batchSize(this.streamBatchSize);
+        return StreamSupport.stream(cursor.spliterator(), false)
+                .map(document -> this.mongoTemplate.getConverter().read(TicketHolder.class, document))
+                .onClose(cursor::close);
+    }
+
+    /**
+     * Only the serialized ticket and its expiration change once a ticket is stored; its type
+     * and parent ticket are written when the document is first inserted and left alone after.
+     * The ticket itself is serialized as a unit, so it is replaced as a single field.
+     */
+    private static Update buildTicketDocumentUpdate(final TicketHolder holder) {
+        final Update update = new Update()
+                .set(TicketHolder.FIELD_NAME_EXPIRE_AT, holder.getExpireAt())
+                .setOnInsert(TicketHolder.FIELD_NAME_TYPE, holder.getType());
+        if (holder.getPayload() != null) {
+            return update.set(TicketHolder.FIELD_NAME_PAYLOAD, holder.getPayload())
+                    .setOnInsert(TicketHolder.FIELD_NAME_PARENT_ID, holder.getParentTicketId())
+                    .unset(TicketHolder.FIELD_NAME_JSON);
+        }
+        return update.set(TicketHolder.FIELD_NAME_JSON, holder.getJson())
+                .unset(TicketHolder.FIELD_NAME_PAYLOAD);
+    }
+
     private static String serializeTicketForMongoDocument(final Ticket ticket) {
         try {
             return BaseTicketSerializers.serializeTicket(ticket);
@@ -219,12 +298,26 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
         return null;
     }
 
-    private static Ticket deserializeTicketFromMongoDocument(final TicketHolder holder) {
+    private Ticket deserializeTicketFromMongoDocument(final TicketHolder holder) {
+        if (holder.getPayload() != null) {
+            if (this.ticketSerializer == null) {
+                LOGGER.warn("Ticket [{}] is stored as a binary payload, yet no ticket serializer is configured", holder.getTicketId());
+                return null;
+            }
+            return this.ticketSerializer.decode(holder.getPayload());
+        }
         return BaseTicketSerializers.deserializeTicket(holder.getJson(), holder.getType());
     }
 
     private TicketHolder buildTicketAsDocument(final Ticket ticket) {
         final Ticket encTicket = encodeTicket(ticket);
+        if (this.ticketSerializer != null) {
+            final TicketGrantingTicket parent = ticket.getGrantingTicket();
+            final String parentTicketId = parent != null ? encodeTicketId(parent.getId()) : null;
+            final byte[] payload = this.ticketSerializer.encode(encTicket);
+            LOGGER.trace("Serialized ticket [{}] into a binary payload of [{}] bytes", encTicket.getId(), payload.length);
+            return new TicketHolder(null, payload, encTicket.getId(), encTicket.getClass().getName(), parentTicketId, getExpireAt(ticket));
+        }
         final String json = serializeTicketForMongoDocument(encTicket);
         if (StringUtils.isNotBlank(json)) {
             LOGGER.trace("Serialized ticket into a JSON document as \n [{}]", JsonValue.readJSON(json).toString(Stringify.FORMATTED));
@@ -234,12 +327,37 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
         throw new IllegalArgumentException("Ticket " + ticket.getId() + " cannot be serialized to JSON");
     }
 
+    /**
+     * Store tickets as compact binary payloads using the given serializer.
+     * Documents previously stored as JSON remain readable.
+     *
+     * @param ticketSerializer the ticket serializer
+     */
+    public void setTicketSerializer(final BinarySerializer<Ticket> ticketSerializer) {
+        this.ticketSerializer = ticketSerializer;
+    }
+
+    public void setStreamBatchSize(final int streamBatchSize) {
+        this.streamBatchSize = streamBatchSize;
+    }
+
+    /**
+     * Gets the name of the collection that holds tickets of the given definition. Checking for the
+     * collection costs a round trip to MongoDb, so only collections that were found are remembered;
+     * a missing collection is looked for again on the next operation.
+     *
+     * @param metadata the ticket definition
+     * @return the collection name
+     */
     private String getTicketCollectionInstanceByMetadata(final TicketDefinition metadata) {
         final String mapName = metadata.getProperties().getStorageName();
-        LOGGER.debug("Locating collection name [{}] for ticket definition [{}]", mapName, metadata);
-        final DBCollection c = getTicketCollectionInstance(mapName);
-        if (c != null) {
-            return c.getName();
+        final String collectionName = this.collectionNames.computeIfAbsent(mapName, name -> {
+            LOGGER.debug("Locating collection name [{}] for ticket definition [{}]", name, metadata);
+            final DBCollection c = getTicketCollectionInstance(name);
+            return c != null ? c.getName() : null;
+        });
+        if (collectionName != null) {
+            return collectionName;
         }
         throw new IllegalArgumentException("Could not locate MongoDb collection " + mapName);
     }
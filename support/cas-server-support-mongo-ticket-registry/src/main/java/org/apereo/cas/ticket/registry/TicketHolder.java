@@ -3,6 +3,7 @@ package org.apereo.cas.ticket.registry;
 import java.io.Serializable;
 import java.util.Date;
 
+import org.springframework.data.annotation.PersistenceConstructor;
 import org.springframework.data.mongodb.core.index.Indexed;
 
 /**
@@ -15,35 +16,60 @@ public class TicketHolder implements Serializable {
     /** Field name to hold ticket json data. */
     public static final String FIELD_NAME_JSON = "json";
 
+    /** Field name to hold ticket binary data. */
+    public static final String FIELD_NAME_PAYLOAD = "payload";
+
     /** Field name to hold ticket expiration time. */
     public static final String FIELD_NAME_EXPIRE_AT = "expireAt";
 
     /** Field name to hold ticket id. */
     public static final String FIELD_NAME_ID= "ticketId";
+
+    /** Field name to hold ticket type. */
+    public static final String FIELD_NAME_TYPE = "type";
+
+    /** Field name to hold the id of the ticket-granting ticket that issued this ticket. */
+    public static final String FIELD_NAME_PARENT_ID = "parentTicketId";
     
     private static final long serialVersionUID = -4843440028617071224L;
     
     private final String json;
 
+    private final byte[] payload;
+
     private final String ticketId;
 
     private final String type;
 
+    private final String parentTicketId;
+
     @Indexed
     private final Date expireAt;
 
     public TicketHolder(final String json, final String ticketId,
                         final String type, final Date expireAt) {
+        this(json, null, ticketId, type, null, expireAt);
+    }
+
+    @PersistenceConstructor
+    public TicketHolder(final String json, final byte[] payload, final String ticketId,
+                        final String type, final String parentTicketId, final Date expireAt) {
         this.json = json;
+        this.payload = payload;
         this.ticketId = ticketId;
         this.type = type;
-        this.expireAt = new Date(expireAt.getTime());
+        this.parentTicketId = parentTicketId;
+        this.expireAt = expireAt == null ? null : new Date(expireAt.getTime());
     }
 
     public String getJson() {
         return json;
     }
 
+    public byte[] getPayload() {
+        return payload;
+    }
+
     public String getTicketId() {
         return ticketId;
     }
@@ -52,6 +78,10 @@ public class TicketHolder implements Serializable {
         return type;
     }
 
+    public String getParentTicketId() {
+        return parentTicketId;
+    }
+
     public Date getExpireAt() {
         return expireAt;
     }
@@ -0,0 +1,17 @@
+package org.apereo.cas.ticket.registry;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * This is {@link MongoDbTicketRegistryBinaryStorageTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@TestPropertySource(properties = "cas.ticket.registry.mongo.binaryStorage=true")
+public class MongoDbTicketRegistryBinaryStorageTests extends MongoDbTicketRegistryTests {
+
+    public MongoDbTicketRegistryBinaryStorageTests(final boolean useEncryption) {
+        super(useEncryption);
+    }
+}
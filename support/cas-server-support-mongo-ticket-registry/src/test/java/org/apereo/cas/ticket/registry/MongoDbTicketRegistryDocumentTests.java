@@ -0,0 +1,86 @@
+package org.apereo.cas.ticket.registry;
+
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketCatalog;
+import org.apereo.cas.ticket.TicketDefinition;
+import org.apereo.cas.ticket.TicketDefinitionProperties;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.apereo.cas.util.serialization.JavaBinarySerializer;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link MongoDbTicketRegistryDocumentTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class MongoDbTicketRegistryDocumentTests {
+    private static final String COLLECTION = "ticketGrantingTicketsCollection";
+
+    private MongoOperations mongoTemplate;
+    private MongoDbTicketRegistry registry;
+
+    @Before
+    public void setUp() {
+        final TicketDefinitionProperties properties = mock(TicketDefinitionProperties.class);
+        when(properties.getStorageName()).thenReturn(COLLECTION);
+        final TicketDefinition definition = mock(TicketDefinition.class);
+        when(definition.getProperties()).thenReturn(properties);
+        final TicketCatalog catalog = mock(TicketCatalog.class);
+        when(catalog.findAll()).thenReturn(Collections.singletonList(definition));
+        when(catalog.find(any(Ticket.class))).thenReturn(definition);
+        when(catalog.find(anyString())).thenReturn(definition);
+
+        final DBCollection collection = mock(DBCollection.class);
+        when(collection.getName()).thenReturn(COLLECTION);
+        this.mongoTemplate = mock(MongoOperations.class);
+        when(this.mongoTemplate.getCollection(COLLECTION)).thenReturn(collection);
+        when(this.mongoTemplate.getCollectionNames()).thenReturn(Collections.singleton(COLLECTION));
+
+        this.registry = new MongoDbTicketRegistry(catalog, this.mongoTemplate, false);
+        this.registry.setTicketSerializer(new JavaBinarySerializer<>());
+    }
+
+    @Test
+    public void verifyUpdateSetsOnlyChangingFields() {
+        this.registry.updateTicket(new TicketGrantingTicketImpl("TGT-1",
+                CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy()));
+
+        final ArgumentCaptor<Update> captor = ArgumentCaptor.forClass(Update.class);
+        verify(this.mongoTemplate).upsert(any(Query.class), captor.capture(), eq(COLLECTION));
+        final DBObject update = captor.getValue().getUpdateObject();
+        assertEquals(new HashSet<>(Arrays.asList(TicketHolder.FIELD_NAME_PAYLOAD, TicketHolder.FIELD_NAME_EXPIRE_AT)),
+                ((DBObject) update.get("$set")).keySet());
+        assertEquals(new HashSet<>(Arrays.asList(TicketHolder.FIELD_NAME_TYPE, TicketHolder.FIELD_NAME_PARENT_ID)),
+                ((DBObject) update.get("$setOnInsert")).keySet());
+    }
+
+    @Test
+    public void verifyReadProjectsTicketFields() {
+        this.registry.getTicket("TGT-1");
+
+        final ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(this.mongoTemplate).findOne(captor.capture(), eq(TicketHolder.class), eq(COLLECTION));
+        final DBObject fields = captor.getValue().getFieldsObject();
+        assertEquals(0, ((Number) fields.get("_id")).intValue());
+        assertFalse(fields.containsField(TicketHolder.FIELD_NAME_EXPIRE_AT));
+        assertFalse(fields.containsField(TicketHolder.FIELD_NAME_PARENT_ID));
+        assertEquals(1, ((Number) fields.get(TicketHolder.FIELD_NAME_PAYLOAD)).intValue());
+    }
+}
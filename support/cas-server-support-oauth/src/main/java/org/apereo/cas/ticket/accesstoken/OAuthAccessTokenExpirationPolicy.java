@@ -84,6 +84,16 @@ public class OAuthAccessTokenExpirationPolicy extends AbstractCasExpirationPolic
         return this.timeToKillInSeconds;
     }
 
+    @Override
+    public ZonedDateTime getMaximumExpirationTime(final TicketState ticketState) {
+        if (ticketState == null) {
+            return null;
+        }
+        final ZonedDateTime hardExpiration = ticketState.getCreationTime().plus(this.maxTimeToLiveInSeconds, ChronoUnit.SECONDS);
+        final ZonedDateTime idleExpiration = ticketState.getLastTimeUsed().plus(this.timeToKillInSeconds, ChronoUnit.SECONDS);
+        return hardExpiration.isBefore(idleExpiration) ? hardExpiration : idleExpiration;
+    }
+
 
     @Override
     public boolean equals(final Object obj) {
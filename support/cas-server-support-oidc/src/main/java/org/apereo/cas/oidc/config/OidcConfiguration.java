@@ -24,7 +24,9 @@ import org.apereo.cas.oidc.dynareg.OidcClientRegistrationRequest;
 import org.apereo.cas.oidc.dynareg.OidcClientRegistrationRequestSerializer;
 import org.apereo.cas.oidc.jwks.OidcDefaultJsonWebKeystoreCacheLoader;
 import org.apereo.cas.oidc.jwks.OidcJsonWebKeystoreGeneratorService;
+import org.apereo.cas.oidc.jwks.OidcServiceJsonWebKeystoreCache;
 import org.apereo.cas.oidc.jwks.OidcServiceJsonWebKeystoreCacheLoader;
+import org.apereo.cas.oidc.jwks.OidcServiceJsonWebKeystoreCacheMetrics;
 import org.apereo.cas.oidc.profile.OidcProfileScopeToAttributesFilter;
 import org.apereo.cas.oidc.profile.OidcRegisteredServicePreProcessorEventListener;
 import org.apereo.cas.oidc.token.OidcIdTokenGeneratorService;
@@ -49,7 +51,6 @@ import org.apereo.cas.oidc.web.flow.OidcAuthenticationContextWebflowEventEventRe
 import org.apereo.cas.oidc.web.flow.OidcRegisteredServiceUIAction;
 import org.apereo.cas.oidc.web.flow.OidcWebflowConfigurer;
 import org.apereo.cas.services.MultifactorAuthenticationProviderSelector;
-import org.apereo.cas.services.OidcRegisteredService;
 import org.apereo.cas.services.ServicesManager;
 import org.apereo.cas.support.oauth.authenticator.Authenticators;
 import org.apereo.cas.support.oauth.authenticator.OAuth20CasAuthenticationBuilder;
@@ -83,6 +84,7 @@ import org.pac4j.core.config.Config;
 import org.pac4j.springframework.web.SecurityInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
@@ -102,6 +104,9 @@ import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -438,13 +443,28 @@ public class OidcConfiguration extends WebMvcConfigurerAdapter {
     }
 
     @Bean
-    public LoadingCache<OidcRegisteredService, Optional<RsaJsonWebKey>> oidcServiceJsonWebKeystoreCache() {
+    public OidcServiceJsonWebKeystoreCache oidcServiceJsonWebKeystoreCache() {
         final OidcProperties oidc = casProperties.getAuthn().getOidc();
-        final LoadingCache<OidcRegisteredService, Optional<RsaJsonWebKey>> cache =
-                Caffeine.newBuilder().maximumSize(1)
-                        .expireAfterWrite(oidc.getJwksCacheInMinutes(), TimeUnit.MINUTES)
-                        .build(oidcServiceJsonWebKeystoreCacheLoader());
-        return cache;
+        return new OidcServiceJsonWebKeystoreCache(oidcServiceJsonWebKeystoreCacheLoader(),
+                oidc.getJwksCacheMaximumSize(), oidc.getJwksCacheInMinutes(),
+                oidcServiceJsonWebKeystoreCacheRefreshExecutor());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService oidcServiceJsonWebKeystoreCacheRefreshExecutor() {
+        final OidcProperties oidc = casProperties.getAuthn().getOidc();
+        return new ThreadPoolExecutor(oidc.getJwksRefreshPoolSize(), oidc.getJwksRefreshPoolSize(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(oidc.getJwksRefreshQueueSize()),
+                r -> {
+                    final Thread thread = new Thread(r, "OidcServiceJsonWebKeystoreCacheRefresh");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Bean
+    public PublicMetrics oidcServiceJsonWebKeystoreCacheMetrics() {
+        return new OidcServiceJsonWebKeystoreCacheMetrics(oidcServiceJsonWebKeystoreCache());
     }
 
     @Bean
@@ -464,7 +484,9 @@ public class OidcConfiguration extends WebMvcConfigurerAdapter {
 
     @Bean
     public OidcServiceJsonWebKeystoreCacheLoader oidcServiceJsonWebKeystoreCacheLoader() {
-        return new OidcServiceJsonWebKeystoreCacheLoader();
+        final OidcProperties oidc = casProperties.getAuthn().getOidc();
+        return new OidcServiceJsonWebKeystoreCacheLoader(applicationContext,
+                (int) oidc.getJwksConnectTimeout(), (int) oidc.getJwksReadTimeout());
     }
 
     @Bean
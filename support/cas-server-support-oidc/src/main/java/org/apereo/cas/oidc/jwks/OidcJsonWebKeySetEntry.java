@@ -0,0 +1,69 @@
+package org.apereo.cas.oidc.jwks;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jose4j.jwk.RsaJsonWebKey;
+import org.jose4j.jwk.Use;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * This is {@link OidcJsonWebKeySetEntry}.
+ * Holds the parsed keys of a relying party keystore, along with the validators
+ * of the response that produced them so the keystore can be fetched conditionally.
+ * Parsed keys are kept as-is, so their public keys are only ever decoded once.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class OidcJsonWebKeySetEntry {
+    private final List<RsaJsonWebKey> keys;
+    private final Map<String, RsaJsonWebKey> keysById = new LinkedHashMap<>();
+    private final String entityTag;
+    private final long lastModified;
+
+    public OidcJsonWebKeySetEntry(final List<RsaJsonWebKey> keys, final String entityTag, final long lastModified) {
+        this.keys = new ArrayList<>(keys);
+        this.entityTag = entityTag;
+        this.lastModified = lastModified;
+        keys.stream()
+                .filter(k -> StringUtils.isNotBlank(k.getKeyId()))
+                .forEach(k -> this.keysById.putIfAbsent(k.getKeyId(), k));
+    }
+
+    /**
+     * Gets the key identified by the given key id.
+     * If no key id is given, the first key meant for encryption is selected,
+     * and failing that, the first key in the keystore.
+     *
+     * @param keyId the key id, may be null
+     * @return the key
+     */
+    public Optional<RsaJsonWebKey> getJsonWebKey(final String keyId) {
+        if (StringUtils.isNotBlank(keyId)) {
+            return Optional.ofNullable(this.keysById.get(keyId));
+        }
+        final Optional<RsaJsonWebKey> encryptionKey = this.keys.stream()
+                .filter(k -> Use.ENCRYPTION.equals(k.getUse()))
+                .findFirst();
+        if (encryptionKey.isPresent()) {
+            return encryptionKey;
+        }
+        return this.keys.stream().findFirst();
+    }
+
+    public List<RsaJsonWebKey> getKeys() {
+        return keys;
+    }
+
+    public String getEntityTag() {
+        return entityTag;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+}
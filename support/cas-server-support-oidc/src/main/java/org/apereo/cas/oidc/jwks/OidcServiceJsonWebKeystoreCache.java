@@ -0,0 +1,149 @@
+package org.apereo.cas.oidc.jwks;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.apache.commons.lang3.StringUtils;
+import org.apereo.cas.services.OidcRegisteredService;
+import org.jose4j.jwk.RsaJsonWebKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This is {@link OidcServiceJsonWebKeystoreCache}.
+ * Caches the keystores of relying parties, keyed by client id and keystore location.
+ * Entries are refreshed in the background once they are older than the configured timeout,
+ * on the given executor while the previous keys continue to be served. Asking for a key id that is not
+ * in the cached keystore triggers a refresh, so rotated keys are picked up early.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class OidcServiceJsonWebKeystoreCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OidcServiceJsonWebKeystoreCache.class);
+
+    private final LoadingCache<OidcServiceJsonWebKeystoreCacheKey, Optional<OidcJsonWebKeySetEntry>> cache;
+
+    private final Map<String, Statistics> statistics = new ConcurrentHashMap<>();
+
+    public OidcServiceJsonWebKeystoreCache(final CacheLoader<OidcServiceJsonWebKeystoreCacheKey, Optional<OidcJsonWebKeySetEntry>> loader,
+                                           final long maximumSize,
+                                           final long refreshInMinutes,
+                                           final Executor refreshExecutor) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .refreshAfterWrite(refreshInMinutes, TimeUnit.MINUTES)
+                .executor(refreshExecutor)
+                .build(loader);
+    }
+
+    /**
+     * Gets the key used to encrypt tokens for the service.
+     *
+     * @param service the service
+     * @return the key
+     */
+    public Optional<RsaJsonWebKey> get(final OidcRegisteredService service) {
+        return get(service, null);
+    }
+
+    /**
+     * Gets the key identified by the given key id for the service.
+     *
+     * @param service the service
+     * @param keyId   the key id, may be null
+     * @return the key
+     */
+    public Optional<RsaJsonWebKey> get(final OidcRegisteredService service, final String keyId) {
+        final OidcServiceJsonWebKeystoreCacheKey key = new OidcServiceJsonWebKeystoreCacheKey(service);
+        final Statistics stats = this.statistics.computeIfAbsent(StringUtils.defaultString(service.getClientId()), k -> new Statistics());
+
+        Optional<OidcJsonWebKeySetEntry> entry = this.cache.getIfPresent(key);
+        if (entry == null) {
+            final long start = System.nanoTime();
+            entry = this.cache.get(key);
+            stats.recordMiss(System.nanoTime() - start);
+        } else {
+            stats.recordHit();
+        }
+        if (entry == null || !entry.isPresent()) {
+            return Optional.empty();
+        }
+        final Optional<RsaJsonWebKey> jsonWebKey = entry.get().getJsonWebKey(keyId);
+        if (!jsonWebKey.isPresent() && StringUtils.isNotBlank(keyId)) {
+            LOGGER.debug("Key id [{}] is not found in the keystore of [{}]; keystore will be refreshed", keyId, key);
+            this.cache.refresh(key);
+        }
+        return jsonWebKey;
+    }
+
+    /**
+     * Discard the cached keystore of the service.
+     *
+     * @param service the service
+     */
+    public void invalidate(final OidcRegisteredService service) {
+        this.cache.invalidate(new OidcServiceJsonWebKeystoreCacheKey(service));
+    }
+
+    /**
+     * Gets cache statistics, keyed by client id.
+     *
+     * @return the statistics
+     */
+    public Map<String, Statistics> getStatistics() {
+        return new LinkedHashMap<>(this.statistics);
+    }
+
+    /**
+     * Cache statistics for a single client.
+     */
+    public static class Statistics {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder loadTimeNanos = new LongAdder();
+
+        /**
+         * Record a lookup that was served from the cache.
+         */
+        void recordHit() {
+            this.hits.increment();
+        }
+
+        /**
+         * Record a lookup that had to load the keystore.
+         *
+         * @param nanos the time spent loading the keystore
+         */
+        void recordMiss(final long nanos) {
+            this.misses.increment();
+            this.loadTimeNanos.add(nanos);
+        }
+
+        public long getHitCount() {
+            return this.hits.sum();
+        }
+
+        public long getMissCount() {
+            return this.misses.sum();
+        }
+
+        /**
+         * Gets the average time spent loading the keystore, in milliseconds.
+         *
+         * @return the average load time
+         */
+        public double getAverageLoadTime() {
+            final long count = getMissCount();
+            return count == 0 ? 0 : this.loadTimeNanos.sum() / (double) TimeUnit.MILLISECONDS.toNanos(1) / count;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.apereo.cas.oidc.jwks;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apereo.cas.services.OidcRegisteredService;
+
+/**
+ * This is {@link OidcServiceJsonWebKeystoreCacheKey}.
+ * Identifies the keystore of a relying party by its client id and the location of its keystore,
+ * so that changing the location of the keystore does not serve keys from the previous one.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class OidcServiceJsonWebKeystoreCacheKey {
+    private final String clientId;
+    private final String jwks;
+
+    public OidcServiceJsonWebKeystoreCacheKey(final String clientId, final String jwks) {
+        this.clientId = clientId;
+        this.jwks = jwks;
+    }
+
+    public OidcServiceJsonWebKeystoreCacheKey(final OidcRegisteredService service) {
+        this(service.getClientId(), service.getJwks());
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public String getJwks() {
+        return jwks;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == null) {
+            return false;
+        }
+        if (obj == this) {
+            return true;
+        }
+        if (obj.getClass() != getClass()) {
+            return false;
+        }
+        final OidcServiceJsonWebKeystoreCacheKey rhs = (OidcServiceJsonWebKeystoreCacheKey) obj;
+        return new EqualsBuilder()
+                .append(this.clientId, rhs.clientId)
+                .append(this.jwks, rhs.jwks)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder()
+                .append(clientId)
+                .append(jwks)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("clientId", clientId)
+                .append("jwks", jwks)
+                .toString();
+    }
+}
@@ -3,113 +3,169 @@ package org.apereo.cas.oidc.jwks;
 import com.github.benmanes.caffeine.cache.CacheLoader;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apereo.cas.services.OidcRegisteredService;
 import org.jose4j.jwk.JsonWebKeySet;
 import org.jose4j.jwk.RsaJsonWebKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.HttpHeaders;
 
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * This is {@link OidcServiceJsonWebKeystoreCacheLoader}.
+ * Loads and parses the keystore of a relying party. When the keystore is refreshed,
+ * keystores fetched over HTTP are requested conditionally and other resources are only
+ * read again if they have been modified, so an unchanged keystore is never parsed twice.
  *
  * @author Misagh Moayyed
  * @since 5.1.0
  */
-public class OidcServiceJsonWebKeystoreCacheLoader implements CacheLoader<OidcRegisteredService, Optional<RsaJsonWebKey>> {
+public class OidcServiceJsonWebKeystoreCacheLoader
+        implements CacheLoader<OidcServiceJsonWebKeystoreCacheKey, Optional<OidcJsonWebKeySetEntry>> {
     private static final Logger LOGGER = LoggerFactory.getLogger(OidcServiceJsonWebKeystoreCacheLoader.class);
 
-    @Autowired
-    private ResourceLoader resourceLoader;
+    private static final int DEFAULT_CONNECT_TIMEOUT = 5000;
+    private static final int DEFAULT_READ_TIMEOUT = 10000;
 
-    @Override
-    public Optional<RsaJsonWebKey> load(final OidcRegisteredService svc) throws Exception {
-        final Optional<JsonWebKeySet> jwks = buildJsonWebKeySet(svc);
-        if (!jwks.isPresent() || jwks.get().getJsonWebKeys().isEmpty()) {
-            return Optional.empty();
-        }
-        final RsaJsonWebKey key = getJsonSigningWebKeyFromJwks(jwks.get());
-        if (key == null) {
-            return Optional.empty();
-        }
-        return Optional.of(key);
+    private final ResourceLoader resourceLoader;
+    private final int connectTimeout;
+    private final int readTimeout;
+
+    public OidcServiceJsonWebKeystoreCacheLoader(final ResourceLoader resourceLoader) {
+        this(resourceLoader, DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT);
     }
 
-    private static RsaJsonWebKey getJsonSigningWebKeyFromJwks(final JsonWebKeySet jwks) {
-        if (jwks.getJsonWebKeys().isEmpty()) {
-            LOGGER.warn("No JSON web keys are available in the keystore");
-            return null;
-        }
+    public OidcServiceJsonWebKeystoreCacheLoader(final ResourceLoader resourceLoader, final int connectTimeout, final int readTimeout) {
+        this.resourceLoader = resourceLoader;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
 
-        final RsaJsonWebKey key = (RsaJsonWebKey) jwks.getJsonWebKeys().get(0);
-        if (StringUtils.isBlank(key.getAlgorithm())) {
-            LOGGER.warn("Located JSON web key [{}] has no algorithm defined", key);
-        }
-        if (StringUtils.isBlank(key.getKeyId())) {
-            LOGGER.warn("Located JSON web key [{}] has no key id defined", key);
-        }
+    @Override
+    public Optional<OidcJsonWebKeySetEntry> load(final OidcServiceJsonWebKeystoreCacheKey key) throws Exception {
+        return fetch(key, null);
+    }
 
-        if (key.getPublicKey() == null) {
-            LOGGER.warn("Located JSON web key [{}] has no public key", key);
-            return null;
-        }
-        return key;
+    @Override
+    public Optional<OidcJsonWebKeySetEntry> reload(final OidcServiceJsonWebKeystoreCacheKey key,
+                                                   final Optional<OidcJsonWebKeySetEntry> oldValue) throws Exception {
+        return fetch(key, oldValue.orElse(null));
     }
 
-    private Optional<JsonWebKeySet> buildJsonWebKeySet(final OidcRegisteredService service) {
+    private Optional<OidcJsonWebKeySetEntry> fetch(final OidcServiceJsonWebKeystoreCacheKey key,
+                                                   final OidcJsonWebKeySetEntry previous) {
+        if (StringUtils.isBlank(key.getJwks())) {
+            LOGGER.debug("No JSON web keystore is defined for [{}]", key.getClientId());
+            return Optional.empty();
+        }
         try {
-            LOGGER.debug("Loading JSON web key from [{}]", service.getJwks());
-            final Resource resource = this.resourceLoader.getResource(service.getJwks());
-            final JsonWebKeySet jsonWebKeySet = buildJsonWebKeySet(resource);
-
-            if (jsonWebKeySet == null || jsonWebKeySet.getJsonWebKeys().isEmpty()) {
-                LOGGER.warn("No JSON web keys could be found for [{}]", service);
-                return Optional.empty();
+            LOGGER.debug("Loading JSON web key from [{}]", key.getJwks());
+            final Resource resource = this.resourceLoader.getResource(key.getJwks());
+            if (isHttpResource(resource)) {
+                return fetchFromUrl(resource.getURL(), key, previous);
             }
-
-            final long badKeysCount = jsonWebKeySet.getJsonWebKeys().stream().filter(k ->
-                    StringUtils.isBlank(k.getAlgorithm())
-                            && StringUtils.isBlank(k.getKeyId())
-                            && StringUtils.isBlank(k.getKeyType())).count();
-
-            if (badKeysCount == jsonWebKeySet.getJsonWebKeys().size()) {
-                LOGGER.warn("No valid JSON web keys could be found for [{}]", service);
-                return Optional.empty();
+            final long lastModified = getLastModified(resource);
+            if (previous != null && lastModified > 0 && lastModified == previous.getLastModified()) {
+                LOGGER.debug("JSON web keystore at [{}] is unchanged", resource);
+                return Optional.of(previous);
             }
-
-            final RsaJsonWebKey webKey = getJsonSigningWebKeyFromJwks(jsonWebKeySet);
-            if (webKey.getPublicKey() == null) {
-                LOGGER.warn("JSON web key retrieved [{}] has no associated public key", webKey.getKeyId());
-                return Optional.empty();
+            try (InputStream is = resource.getInputStream()) {
+                return buildJsonWebKeySetEntry(key, IOUtils.toString(is, StandardCharsets.UTF_8), null, lastModified);
             }
-            return Optional.of(jsonWebKeySet);
-
         } catch (final Exception e) {
             LOGGER.error(e.getMessage(), e);
         }
-
-        return Optional.empty();
+        return Optional.ofNullable(previous);
     }
 
-    private static JsonWebKeySet buildJsonWebKeySet(final Resource resource) throws Exception {
-        LOGGER.debug("Loading JSON web key from [{}]", resource);
-        final String json = IOUtils.toString(resource.getInputStream(), StandardCharsets.UTF_8);
-        LOGGER.debug("Retrieved JSON web key from [{}] as [{}]", resource, json);
-        return buildJsonWebKeySet(json);
+    private Optional<OidcJsonWebKeySetEntry> fetchFromUrl(final URL url,
+                                                          final OidcServiceJsonWebKeystoreCacheKey key,
+                                                          final OidcJsonWebKeySetEntry previous) throws Exception {
+        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try {
+            connection.setConnectTimeout(this.connectTimeout);
+            connection.setReadTimeout(this.readTimeout);
+            if (previous != null) {
+                if (StringUtils.isNotBlank(previous.getEntityTag())) {
+                    connection.setRequestProperty(HttpHeaders.IF_NONE_MATCH, previous.getEntityTag());
+                }
+                if (previous.getLastModified() > 0) {
+                    connection.setIfModifiedSince(previous.getLastModified());
+                }
+            }
+            final int status = connection.getResponseCode();
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED && previous != null) {
+                LOGGER.debug("JSON web keystore at [{}] is unchanged", url);
+                return Optional.of(previous);
+            }
+            if (status != HttpURLConnection.HTTP_OK) {
+                LOGGER.warn("Unable to fetch JSON web keystore from [{}]; status code [{}]", url, status);
+                return Optional.ofNullable(previous);
+            }
+            try (InputStream is = connection.getInputStream()) {
+                final String json = IOUtils.toString(is, StandardCharsets.UTF_8);
+                return buildJsonWebKeySetEntry(key, json, connection.getHeaderField(HttpHeaders.ETAG), connection.getLastModified());
+            }
+        } finally {
+            connection.disconnect();
+        }
     }
 
-    private static JsonWebKeySet buildJsonWebKeySet(final String json) throws Exception {
+    private static Optional<OidcJsonWebKeySetEntry> buildJsonWebKeySetEntry(final OidcServiceJsonWebKeystoreCacheKey key,
+                                                                            final String json,
+                                                                            final String entityTag,
+                                                                            final long lastModified) throws Exception {
+        LOGGER.debug("Retrieved JSON web key from [{}] as [{}]", key.getJwks(), json);
         final JsonWebKeySet jsonWebKeySet = new JsonWebKeySet(json);
-        final RsaJsonWebKey webKey = getJsonSigningWebKeyFromJwks(jsonWebKeySet);
-        if (webKey == null || webKey.getPublicKey() == null) {
-            LOGGER.warn("JSON web key retrieved [{}] is not found or has no associated public key", webKey);
-            return null;
+        final List<RsaJsonWebKey> keys = jsonWebKeySet.getJsonWebKeys()
+                .stream()
+                .filter(RsaJsonWebKey.class::isInstance)
+                .map(RsaJsonWebKey.class::cast)
+                .filter(k -> {
+                    if (k.getPublicKey() == null) {
+                        LOGGER.warn("Located JSON web key [{}] has no public key", k);
+                        return false;
+                    }
+                    if (StringUtils.isBlank(k.getAlgorithm())) {
+                        LOGGER.warn("Located JSON web key [{}] has no algorithm defined", k);
+                    }
+                    if (StringUtils.isBlank(k.getKeyId())) {
+                        LOGGER.warn("Located JSON web key [{}] has no key id defined", k);
+                    }
+                    return true;
+                })
+                .collect(Collectors.toList());
+        if (keys.isEmpty()) {
+            LOGGER.warn("No valid JSON web keys could be found for [{}]", key);
+            return Optional.empty();
+        }
+        return Optional.of(new OidcJsonWebKeySetEntry(keys, entityTag, lastModified));
+    }
+
+    private static boolean isHttpResource(final Resource resource) {
+        try {
+            final URL url = resource.getURL();
+            return "http".equalsIgnoreCase(url.getProtocol()) || "https".equalsIgnoreCase(url.getProtocol());
+        } catch (final Exception e) {
+            LOGGER.trace("Resource [{}] cannot be resolved as a URL", resource);
+            return false;
+        }
+    }
+
+    private static long getLastModified(final Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (final Exception e) {
+            LOGGER.trace("Unable to determine last modification time of [{}]", resource);
+            return 0;
         }
-        return jsonWebKeySet;
     }
 }
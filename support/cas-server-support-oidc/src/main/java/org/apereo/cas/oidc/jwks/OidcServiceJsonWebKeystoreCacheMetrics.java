@@ -0,0 +1,36 @@
+package org.apereo.cas.oidc.jwks;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * This is {@link OidcServiceJsonWebKeystoreCacheMetrics}.
+ * Publishes per-client statistics of the relying party keystore cache.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class OidcServiceJsonWebKeystoreCacheMetrics implements PublicMetrics {
+    private static final String PREFIX = "oidc.jwks.cache.";
+
+    private final OidcServiceJsonWebKeystoreCache cache;
+
+    public OidcServiceJsonWebKeystoreCacheMetrics(final OidcServiceJsonWebKeystoreCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        final List<Metric<?>> metrics = new ArrayList<>();
+        this.cache.getStatistics().forEach((clientId, stats) -> {
+            metrics.add(new Metric<>(PREFIX + clientId + ".hits", stats.getHitCount()));
+            metrics.add(new Metric<>(PREFIX + clientId + ".misses", stats.getMissCount()));
+            metrics.add(new Metric<>(PREFIX + clientId + ".loadTime", stats.getAverageLoadTime()));
+        });
+        return metrics;
+    }
+}
@@ -2,6 +2,7 @@ package org.apereo.cas.oidc.token;
 
 import com.github.benmanes.caffeine.cache.LoadingCache;
 import org.apache.commons.lang3.StringUtils;
+import org.apereo.cas.oidc.jwks.OidcServiceJsonWebKeystoreCache;
 import org.apereo.cas.services.OidcRegisteredService;
 import org.jose4j.jwa.AlgorithmConstraints;
 import org.jose4j.jwe.JsonWebEncryption;
@@ -24,12 +25,12 @@ public class OidcIdTokenSigningAndEncryptionService {
     private static final Logger LOGGER = LoggerFactory.getLogger(OidcIdTokenSigningAndEncryptionService.class);
 
     private final LoadingCache<String, Optional<RsaJsonWebKey>> defaultJsonWebKeystoreCache;
-    private final LoadingCache<OidcRegisteredService, Optional<RsaJsonWebKey>> serviceJsonWebKeystoreCache;
+    private final OidcServiceJsonWebKeystoreCache serviceJsonWebKeystoreCache;
 
     private final String issuer;
 
     public OidcIdTokenSigningAndEncryptionService(final LoadingCache<String, Optional<RsaJsonWebKey>> defaultJsonWebKeystoreCache,
-                                                  final LoadingCache<OidcRegisteredService, Optional<RsaJsonWebKey>> serviceJsonWebKeystoreCache,
+                                                  final OidcServiceJsonWebKeystoreCache serviceJsonWebKeystoreCache,
                                                   final String issuer) {
         this.defaultJsonWebKeystoreCache = defaultJsonWebKeystoreCache;
         this.serviceJsonWebKeystoreCache = serviceJsonWebKeystoreCache;
@@ -0,0 +1,168 @@
+package org.apereo.cas.oidc.jwks;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.FileUtils;
+import org.apereo.cas.services.OidcRegisteredService;
+import org.jose4j.jwk.JsonWebKeySet;
+import org.jose4j.jwk.RsaJsonWebKey;
+import org.jose4j.jwk.RsaJwkGenerator;
+import org.jose4j.jwk.Use;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.HttpHeaders;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link OidcServiceJsonWebKeystoreCacheTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class OidcServiceJsonWebKeystoreCacheTests {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private OidcServiceJsonWebKeystoreCacheLoader loader;
+    private OidcServiceJsonWebKeystoreCache cache;
+    private File keystore;
+    private RsaJsonWebKey signingKey;
+    private RsaJsonWebKey encryptionKey;
+
+    @Before
+    public void initialize() throws Exception {
+        this.signingKey = generateKey("sig-key", Use.SIGNATURE);
+        this.encryptionKey = generateKey("enc-key", Use.ENCRYPTION);
+        this.keystore = folder.newFile("keystore.jwks");
+        FileUtils.write(keystore, new JsonWebKeySet(signingKey, encryptionKey).toJson(), StandardCharsets.UTF_8);
+
+        this.loader = new OidcServiceJsonWebKeystoreCacheLoader(new DefaultResourceLoader());
+        this.cache = new OidcServiceJsonWebKeystoreCache(loader, 10, 60, Runnable::run);
+    }
+
+    @Test
+    public void verifyKeysAreSelectedByKeyIdAndUse() {
+        final OidcRegisteredService service = getService("client1");
+        assertEquals("enc-key", cache.get(service).get().getKeyId());
+        assertEquals("sig-key", cache.get(service, "sig-key").get().getKeyId());
+        assertFalse(cache.get(service, "unknown-key").isPresent());
+    }
+
+    @Test
+    public void verifyKeystoresAreCachedPerClient() {
+        final OidcRegisteredService service1 = getService("client1");
+        final OidcRegisteredService service2 = getService("client2");
+        final RsaJsonWebKey key = cache.get(service1).get();
+        cache.get(service2);
+        assertSame(key, cache.get(service1).get());
+
+        final OidcServiceJsonWebKeystoreCache.Statistics stats = cache.getStatistics().get("client1");
+        assertEquals(1, stats.getMissCount());
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, cache.getStatistics().get("client2").getMissCount());
+        assertEquals(6, new OidcServiceJsonWebKeystoreCacheMetrics(cache).metrics().size());
+    }
+
+    @Test
+    public void verifyUnchangedKeystoreIsNotParsedAgain() throws Exception {
+        final OidcServiceJsonWebKeystoreCacheKey key = new OidcServiceJsonWebKeystoreCacheKey(getService("client1"));
+        final Optional<OidcJsonWebKeySetEntry> entry = loader.load(key);
+        assertTrue(entry.isPresent());
+        assertSame(entry.get(), loader.reload(key, entry).get());
+
+        final RsaJsonWebKey rotatedKey = generateKey("rotated-key", Use.ENCRYPTION);
+        FileUtils.write(keystore, new JsonWebKeySet(rotatedKey).toJson(), StandardCharsets.UTF_8);
+        assertTrue(keystore.setLastModified(entry.get().getLastModified() + 60_000));
+        final Optional<OidcJsonWebKeySetEntry> reloaded = loader.reload(key, entry);
+        assertNotSame(entry.get(), reloaded.get());
+        assertEquals("rotated-key", reloaded.get().getJsonWebKey(null).get().getKeyId());
+    }
+
+    @Test
+    public void verifyUnchangedRemoteKeystoreIsRequestedConditionally() throws Exception {
+        final byte[] body = new JsonWebKeySet(signingKey, encryptionKey).toJson().getBytes(StandardCharsets.UTF_8);
+        final List<String> entityTags = new CopyOnWriteArrayList<>();
+        final HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/keystore.jwks", exchange -> {
+            final String entityTag = exchange.getRequestHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+            entityTags.add(String.valueOf(entityTag));
+            exchange.getResponseHeaders().add(HttpHeaders.ETAG, "\"v1\"");
+            if ("\"v1\"".equals(entityTag)) {
+                exchange.sendResponseHeaders(HttpURLConnection.HTTP_NOT_MODIFIED, -1);
+            } else {
+                exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, body.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+        try {
+            final String url = "http://localhost:" + server.getAddress().getPort() + "/keystore.jwks";
+            final OidcServiceJsonWebKeystoreCacheLoader remoteLoader = new OidcServiceJsonWebKeystoreCacheLoader(new DefaultResourceLoader(), 1000, 1000);
+            final OidcServiceJsonWebKeystoreCacheKey key = new OidcServiceJsonWebKeystoreCacheKey("client1", url);
+
+            final Optional<OidcJsonWebKeySetEntry> entry = remoteLoader.load(key);
+            assertTrue(entry.isPresent());
+            assertEquals("\"v1\"", entry.get().getEntityTag());
+            assertSame(entry.get(), remoteLoader.reload(key, entry).get());
+            assertEquals(2, entityTags.size());
+            assertEquals("null", entityTags.get(0));
+            assertEquals("\"v1\"", entityTags.get(1));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void verifyKeystoresAreRefreshedOnGivenExecutor() throws Exception {
+        final List<Runnable> tasks = new CopyOnWriteArrayList<>();
+        final OidcServiceJsonWebKeystoreCache refreshingCache = new OidcServiceJsonWebKeystoreCache(loader, 10, 60, tasks::add);
+        final OidcRegisteredService service = getService("client1");
+        final long lastModified = keystore.lastModified();
+        assertEquals("enc-key", refreshingCache.get(service).get().getKeyId());
+
+        FileUtils.write(keystore, new JsonWebKeySet(generateKey("rotated-key", Use.ENCRYPTION)).toJson(), StandardCharsets.UTF_8);
+        assertTrue(keystore.setLastModified(lastModified + 60_000));
+        assertFalse(refreshingCache.get(service, "rotated-key").isPresent());
+        assertEquals("enc-key", refreshingCache.get(service).get().getKeyId());
+
+        tasks.forEach(Runnable::run);
+        assertTrue(refreshingCache.get(service, "rotated-key").isPresent());
+    }
+
+    @Test
+    public void verifyMissingKeystore() {
+        final OidcRegisteredService service = getService("client3");
+        service.setJwks(new File(folder.getRoot(), "missing.jwks").toURI().toString());
+        assertFalse(cache.get(service).isPresent());
+    }
+
+    private OidcRegisteredService getService(final String clientId) {
+        final OidcRegisteredService service = new OidcRegisteredService();
+        service.setClientId(clientId);
+        service.setJwks(keystore.toURI().toString());
+        return service;
+    }
+
+    private static RsaJsonWebKey generateKey(final String keyId, final String use) throws Exception {
+        final RsaJsonWebKey key = RsaJwkGenerator.generateJwk(2048);
+        key.setKeyId(keyId);
+        key.setUse(use);
+        return key;
+    }
+}
@@ -1,13 +1,13 @@
 package org.apereo.cas.otp.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.LoadingCache;
 import org.apereo.cas.CentralAuthenticationService;
 import org.apereo.cas.authentication.AuthenticationServiceSelectionPlan;
 import org.apereo.cas.authentication.AuthenticationSystemSupport;
 import org.apereo.cas.configuration.CasConfigurationProperties;
-import org.apereo.cas.otp.repository.token.CachingOneTimeTokenRepository;
-import org.apereo.cas.otp.repository.token.OneTimeToken;
+import org.apereo.cas.configuration.model.support.mfa.GAuthMultifactorProperties;
+import org.apereo.cas.otp.repository.token.CompactOneTimeTokenRepository;
+import org.apereo.cas.otp.repository.token.OneTimeTokenReplayEntry;
 import org.apereo.cas.otp.repository.token.OneTimeTokenRepository;
 import org.apereo.cas.otp.web.flow.OneTimeTokenAuthenticationWebflowAction;
 import org.apereo.cas.otp.web.flow.OneTimeTokenAuthenticationWebflowEventResolver;
@@ -17,8 +17,6 @@ import org.apereo.cas.services.ServicesManager;
 import org.apereo.cas.ticket.registry.TicketRegistrySupport;
 import org.apereo.cas.web.flow.authentication.RankedMultifactorAuthenticationProviderSelector;
 import org.apereo.cas.web.flow.resolver.CasWebflowEventResolver;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -30,7 +28,7 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.util.CookieGenerator;
 import org.springframework.webflow.execution.Action;
 
-import java.util.Collection;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -43,12 +41,11 @@ import java.util.concurrent.TimeUnit;
 @EnableConfigurationProperties(CasConfigurationProperties.class)
 @EnableScheduling
 public class OneTimeTokenAuthenticationConfiguration {
-    private static final int EXPIRE_TOKENS_IN_SECONDS = 30;
-
     private static final int INITIAL_CACHE_SIZE = 50;
     private static final long MAX_CACHE_SIZE = 1_000_000;
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(OneTimeTokenAuthenticationConfiguration.class);
+    @Autowired
+    private CasConfigurationProperties casProperties;
 
     @Autowired
     @Qualifier("centralAuthenticationService")
@@ -105,15 +102,14 @@ public class OneTimeTokenAuthenticationConfiguration {
     @ConditionalOnMissingBean(name = "oneTimeTokenAuthenticatorTokenRepository")
     @Bean
     public OneTimeTokenRepository oneTimeTokenAuthenticatorTokenRepository() {
-        final LoadingCache<String, Collection<OneTimeToken>> storage = Caffeine.newBuilder()
+        final GAuthMultifactorProperties gauth = casProperties.getAuthn().getMfa().getGauth();
+        final ConcurrentMap<String, OneTimeTokenReplayEntry> storage = Caffeine.newBuilder()
                 .initialCapacity(INITIAL_CACHE_SIZE)
                 .maximumSize(MAX_CACHE_SIZE)
                 .recordStats()
-                .expireAfterWrite(EXPIRE_TOKENS_IN_SECONDS, TimeUnit.SECONDS)
-                .build(s -> {
-                    LOGGER.error("Load operation of the cache is not supported.");
-                    return null;
-                });
-        return new CachingOneTimeTokenRepository(storage);
+                .expireAfterWrite(gauth.getTimeStepSize() * gauth.getWindowSize(), TimeUnit.SECONDS)
+                .<String, OneTimeTokenReplayEntry>build()
+                .asMap();
+        return new CompactOneTimeTokenRepository(storage, gauth.getTimeStepSize(), gauth.getWindowSize());
     }
 }
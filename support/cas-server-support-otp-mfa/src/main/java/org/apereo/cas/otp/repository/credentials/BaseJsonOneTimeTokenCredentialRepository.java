@@ -1,18 +1,22 @@
 package org.apereo.cas.otp.repository.credentials;
 
-import org.apache.commons.lang3.StringUtils;
+import org.apereo.cas.util.io.JournaledJsonResourceStore;
 import org.apereo.cas.util.serialization.AbstractJacksonBackedStringSerializer;
 import org.apereo.cas.util.serialization.StringSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.Resource;
 
+import java.io.File;
 import java.util.Collection;
 import java.util.List;
 import java.util.TreeSet;
 
 /**
  * This is {@link BaseJsonOneTimeTokenCredentialRepository}.
+ * Accounts are kept in a {@link JournaledJsonResourceStore} by username, so that looking up an account
+ * does not read the resource and saving an account appends to a journal next to the resource
+ * rather than rewriting the resource.
  *
  * @author Misagh Moayyed
  * @since 5.1.0
@@ -20,31 +24,16 @@ import java.util.TreeSet;
 public abstract class BaseJsonOneTimeTokenCredentialRepository extends BaseOneTimeTokenCredentialRepository {
     private static final Logger LOGGER = LoggerFactory.getLogger(BaseJsonOneTimeTokenCredentialRepository.class);
 
-    private final Resource location;
-    private final StringSerializer<TreeSet<OneTimeTokenAccount>> serializer = new OneTimeAccountSerializer();
+    private final JournaledJsonResourceStore<OneTimeTokenAccount> store;
 
     public BaseJsonOneTimeTokenCredentialRepository(final Resource location) {
-        this.location = location;
+        this.store = new OneTimeTokenAccountStore(location, new OneTimeAccountSerializer());
     }
 
     @Override
     public OneTimeTokenAccount get(final String username) {
         try {
-            if (!this.location.getFile().exists()) {
-                LOGGER.warn("JSON account repository file [{}] is not found.", this.location.getFile());
-                return null;
-            }
-
-            if (this.location.getFile().length() <= 0) {
-                LOGGER.warn("JSON account repository file [{}] is empty.", this.location.getFile());
-                return null;
-            }
-
-            final Collection<OneTimeTokenAccount> c = this.serializer.from(this.location.getFile());
-            return c.stream()
-                    .filter(a -> StringUtils.isNotBlank(a.getUsername()) && a.getUsername().equals(username))
-                    .findAny()
-                    .orElse(null);
+            return this.store.get(username);
         } catch (final Exception e) {
             LOGGER.error(e.getMessage(), e);
         }
@@ -57,25 +46,7 @@ public abstract class BaseJsonOneTimeTokenCredentialRepository extends BaseOneTi
         try {
             LOGGER.debug("Storing google authenticator account for [{}]", userName);
             final OneTimeTokenAccount account = new OneTimeTokenAccount(userName, secretKey, validationCode, scratchCodes);
-
-            LOGGER.debug("Ensuring JSON repository file exists at [{}]", this.location.getFile());
-            final boolean result = this.location.getFile().createNewFile();
-            if (result) {
-                LOGGER.debug("Created JSON repository file at [{}]", this.location.getFile());
-            }
-            final TreeSet<OneTimeTokenAccount> c;
-            if (this.location.getFile().length() > 0) {
-                LOGGER.debug("Reading JSON repository file at [{}]", this.location.getFile());
-                c = this.serializer.from(this.location.getFile());
-            } else {
-                c = new TreeSet<>();
-            }
-
-            LOGGER.debug("Found [{}] account(s) and added google authenticator account for [{}]", c.size(), userName);
-            c.add(account);
-
-            LOGGER.debug("Saving google authenticator accounts back to the JSON file at [{}]", this.location.getFile());
-            this.serializer.to(this.location.getFile(), c);
+            this.store.put(account);
         } catch (final Exception e) {
             LOGGER.error(e.getMessage(), e);
         }
@@ -89,4 +60,26 @@ public abstract class BaseJsonOneTimeTokenCredentialRepository extends BaseOneTi
             return TreeSet.class;
         }
     }
+
+    /**
+     * Store that reads and writes the resource through the account serializer, as it always has been.
+     */
+    private static class OneTimeTokenAccountStore extends JournaledJsonResourceStore<OneTimeTokenAccount> {
+        private final StringSerializer<TreeSet<OneTimeTokenAccount>> serializer;
+
+        OneTimeTokenAccountStore(final Resource location, final OneTimeAccountSerializer serializer) {
+            super(location, serializer.getObjectMapper(), OneTimeTokenAccount.class, OneTimeTokenAccount::getUsername);
+            this.serializer = serializer;
+        }
+
+        @Override
+        protected Collection<OneTimeTokenAccount> readSnapshot(final String json) {
+            return this.serializer.from(json);
+        }
+
+        @Override
+        protected void writeSnapshot(final File file, final Collection<OneTimeTokenAccount> records) {
+            this.serializer.to(file, new TreeSet<>(records));
+        }
+    }
 }
@@ -7,6 +7,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * This is {@link CachingOneTimeTokenRepository}.
@@ -31,24 +32,19 @@ public class CachingOneTimeTokenRepository extends BaseOneTimeTokenRepository {
     }
 
     @Override
-    public void store(final OneTimeToken token) {
-        if (exists(token.getUserId(), token.getToken())) {
-            try {
-                final Collection<OneTimeToken> tokens = this.storage.get(token.getUserId());
-                tokens.add(token);
-
-                LOGGER.debug("Storing previously used tokens [{}] for user [{}]", tokens, token.getUserId());
-                this.storage.put(token.getUserId(), tokens);
-            } catch (final Exception e) {
-                LOGGER.warn(e.getMessage(), e);
+    public boolean store(final OneTimeToken token) {
+        final AtomicBoolean used = new AtomicBoolean();
+        this.storage.asMap().compute(token.getUserId(), (uid, tokens) -> {
+            if (tokens != null && tokens.stream().anyMatch(t -> t.getToken().equals(token.getToken()))) {
+                used.set(true);
+                return tokens;
             }
-        } else {
-            final Collection<OneTimeToken> tokens = new ArrayList<>();
-            tokens.add(token);
-
-            LOGGER.debug("Storing previously used token [{}] for user [{}]", token, token.getUserId());
-            this.storage.put(token.getUserId(), tokens);
-        }
+            final Collection<OneTimeToken> results = tokens == null ? new ArrayList<>() : new ArrayList<>(tokens);
+            results.add(token);
+            LOGGER.debug("Storing previously used tokens [{}] for user [{}]", results, uid);
+            return results;
+        });
+        return used.get();
     }
 
     @Override
@@ -0,0 +1,108 @@
+package org.apereo.cas.otp.repository.token;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is {@link CompactOneTimeTokenRepository}.
+ * Keeps a single {@link OneTimeTokenReplayEntry} per user inside a {@link ConcurrentMap},
+ * which may be local or shared by all nodes of the cluster. Entries are swapped
+ * with {@code putIfAbsent} and {@code replace}, so that storing a token never
+ * takes a lock and a code used on one node is rejected on every other.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class CompactOneTimeTokenRepository extends BaseOneTimeTokenRepository {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompactOneTimeTokenRepository.class);
+
+    private final ConcurrentMap<String, OneTimeTokenReplayEntry> storage;
+    private final long timeStepSize;
+    private final int windowSize;
+
+    /**
+     * Instantiates a new repository.
+     *
+     * @param storage      the storage
+     * @param timeStepSize the time step size in seconds
+     * @param windowSize   the number of time steps during which a code is accepted
+     */
+    public CompactOneTimeTokenRepository(final ConcurrentMap<String, OneTimeTokenReplayEntry> storage,
+                                         final long timeStepSize, final int windowSize) {
+        this.storage = storage;
+        this.timeStepSize = timeStepSize;
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public boolean store(final OneTimeToken token) {
+        final String uid = token.getUserId();
+        final int code = token.getToken();
+        final long timeStep = getCurrentTimeStep();
+        while (true) {
+            final OneTimeTokenReplayEntry entry = this.storage.get(uid);
+            if (entry == null) {
+                if (this.storage.putIfAbsent(uid, newReplayEntry().add(code, timeStep)) == null) {
+                    break;
+                }
+            } else if (entry.isExpired(timeStep, this.windowSize)) {
+                if (this.storage.replace(uid, entry, newReplayEntry().add(code, timeStep))) {
+                    break;
+                }
+            } else if (entry.contains(code)) {
+                LOGGER.debug("Token [{}] for user [{}] has been used before", code, uid);
+                return true;
+            } else if (this.storage.replace(uid, entry, entry.add(code, timeStep))) {
+                break;
+            }
+            LOGGER.trace("Used tokens for [{}] have changed concurrently; retrying", uid);
+        }
+        LOGGER.debug("Stored used token [{}] for user [{}] at time step [{}]", code, uid, timeStep);
+        return false;
+    }
+
+    @Override
+    public OneTimeToken get(final String uid, final Integer otp) {
+        final OneTimeTokenReplayEntry entry = this.storage.get(uid);
+        if (entry != null && !entry.isExpired(getCurrentTimeStep(), this.windowSize) && entry.contains(otp)) {
+            LOGGER.debug("Found used token [{}] for user [{}]", otp, uid);
+            return new OneTimeToken(otp, uid);
+        }
+        return null;
+    }
+
+    @Override
+    protected void cleanInternal() {
+        final long timeStep = getCurrentTimeStep();
+        this.storage.forEach((uid, entry) -> {
+            if (entry.isExpired(timeStep, this.windowSize) && this.storage.remove(uid, entry)) {
+                LOGGER.debug("Removed expired tokens for user [{}]", uid);
+            }
+        });
+    }
+
+    /**
+     * Gets the period, in seconds, during which a used code must be remembered.
+     *
+     * @return the validity window
+     */
+    public long getValidityWindow() {
+        return this.timeStepSize * this.windowSize;
+    }
+
+    /**
+     * Gets current time step.
+     *
+     * @return the current time step
+     */
+    protected long getCurrentTimeStep() {
+        return TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) / this.timeStepSize;
+    }
+
+    private OneTimeTokenReplayEntry newReplayEntry() {
+        return new OneTimeTokenReplayEntry(2 * this.windowSize);
+    }
+}
@@ -0,0 +1,114 @@
+package org.apereo.cas.otp.repository.token;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * This is {@link OneTimeTokenReplayEntry}.
+ * Keeps the most recently used codes of a single user in a fixed-size ring,
+ * along with the time step at which a code was last stored. Entries are immutable,
+ * so that a shared map can swap them atomically via {@code putIfAbsent} and {@code replace}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class OneTimeTokenReplayEntry implements Serializable {
+    private static final long serialVersionUID = 5218716350813264932L;
+
+    private final int[] codes;
+    private final int size;
+    private final int next;
+    private final long timeStep;
+
+    public OneTimeTokenReplayEntry(final int capacity) {
+        this(new int[capacity], 0, 0, 0);
+    }
+
+    private OneTimeTokenReplayEntry(final int[] codes, final int size, final int next, final long timeStep) {
+        this.codes = codes;
+        this.size = size;
+        this.next = next;
+        this.timeStep = timeStep;
+    }
+
+    /**
+     * Determine whether the code is kept in this entry.
+     *
+     * @param code the code
+     * @return true/false
+     */
+    public boolean contains(final int code) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.codes[i] == code) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Produce a new entry that keeps the code, overwriting the oldest code once the ring is full.
+     *
+     * @param code     the code
+     * @param timeStep the time step at which the code is used
+     * @return the entry
+     */
+    public OneTimeTokenReplayEntry add(final int code, final long timeStep) {
+        final int[] results = Arrays.copyOf(this.codes, this.codes.length);
+        results[this.next] = code;
+        return new OneTimeTokenReplayEntry(results,
+                Math.min(this.size + 1, results.length),
+                (this.next + 1) % results.length,
+                Math.max(this.timeStep, timeStep));
+    }
+
+    /**
+     * Determine whether codes kept in this entry can no longer be accepted,
+     * as the last one was stored a full validity window ago.
+     *
+     * @param currentTimeStep the current time step
+     * @param windowSize      the number of time steps during which a code is accepted
+     * @return true/false
+     */
+    public boolean isExpired(final long currentTimeStep, final int windowSize) {
+        return currentTimeStep - this.timeStep >= windowSize;
+    }
+
+    public long getTimeStep() {
+        return timeStep;
+    }
+
+    public int getCapacity() {
+        return codes.length;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj == null || obj.getClass() != getClass()) {
+            return false;
+        }
+        final OneTimeTokenReplayEntry rhs = (OneTimeTokenReplayEntry) obj;
+        return this.size == rhs.size
+                && this.next == rhs.next
+                && this.timeStep == rhs.timeStep
+                && Arrays.equals(this.codes, rhs.codes);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(this.codes) + Long.hashCode(this.timeStep);
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("size", size)
+                .append("timeStep", timeStep)
+                .toString();
+    }
+}
@@ -16,10 +16,14 @@ public interface OneTimeTokenRepository {
 
     /**
      * Store token/code in the repository, marking it as invalid to be reused again.
+     * Callers that must reject a code used twice should rely on the result
+     * rather than checking {@link #exists(String, Integer)} first,
+     * as another request may store the same code in between.
      *
      * @param token the token
+     * @return true if the code was already stored for the user, and has been used before.
      */
-    void store(OneTimeToken token);
+    boolean store(OneTimeToken token);
 
     /**
      * Determine if the otp for user exists in repository.
@@ -0,0 +1,32 @@
+package org.apereo.cas.otp.repository.token;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.Test;
+
+import java.util.Collection;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link CachingOneTimeTokenRepositoryTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class CachingOneTimeTokenRepositoryTests {
+
+    private final CachingOneTimeTokenRepository repository = new CachingOneTimeTokenRepository(Caffeine.newBuilder()
+            .<String, Collection<OneTimeToken>>build(s -> null));
+
+    @Test
+    public void verifyUsedCodeIsReported() {
+        assertFalse(this.repository.store(new OneTimeToken(123456, "casuser")));
+        assertFalse(this.repository.store(new OneTimeToken(654321, "casuser")));
+        assertTrue(this.repository.store(new OneTimeToken(123456, "casuser")));
+        assertFalse(this.repository.store(new OneTimeToken(123456, "another")));
+
+        assertTrue(this.repository.exists("casuser", 123456));
+        assertTrue(this.repository.exists("casuser", 654321));
+        assertFalse(this.repository.exists("casuser", 111111));
+    }
+}
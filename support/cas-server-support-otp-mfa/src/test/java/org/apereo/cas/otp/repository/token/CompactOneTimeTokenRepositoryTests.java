@@ -0,0 +1,119 @@
+package org.apereo.cas.otp.repository.token;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link CompactOneTimeTokenRepositoryTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class CompactOneTimeTokenRepositoryTests {
+    private static final long TIME_STEP_SIZE = 30;
+    private static final int WINDOW_SIZE = 8;
+    private static final int THREADS = 16;
+
+    private final ConcurrentMap<String, OneTimeTokenReplayEntry> storage = new ConcurrentHashMap<>();
+    private final AtomicLong timeStep = new AtomicLong(100);
+
+    private CompactOneTimeTokenRepository repository;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        this.repository = new CompactOneTimeTokenRepository(this.storage, TIME_STEP_SIZE, WINDOW_SIZE) {
+            @Override
+            protected long getCurrentTimeStep() {
+                return timeStep.get();
+            }
+        };
+        this.executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void verifyUsedCodeIsReported() {
+        assertFalse(this.repository.store(new OneTimeToken(123456, "casuser")));
+        assertTrue(this.repository.store(new OneTimeToken(123456, "casuser")));
+        assertFalse(this.repository.store(new OneTimeToken(123456, "another")));
+        assertTrue(this.repository.exists("casuser", 123456));
+        assertFalse(this.repository.exists("casuser", 654321));
+    }
+
+    @Test
+    public void verifyCodesAreForgottenOnceWindowHasPassed() {
+        this.repository.store(new OneTimeToken(123456, "casuser"));
+        this.timeStep.addAndGet(WINDOW_SIZE - 1);
+        assertTrue(this.repository.exists("casuser", 123456));
+
+        this.timeStep.incrementAndGet();
+        assertFalse(this.repository.exists("casuser", 123456));
+        assertFalse(this.repository.store(new OneTimeToken(654321, "casuser")));
+        assertFalse(this.repository.exists("casuser", 123456));
+        assertFalse(this.repository.store(new OneTimeToken(123456, "casuser")));
+        assertEquals(timeStep.get(), this.storage.get("casuser").getTimeStep());
+    }
+
+    @Test
+    public void verifyExpiredEntriesAreCleaned() {
+        this.repository.store(new OneTimeToken(123456, "casuser"));
+        this.timeStep.addAndGet(WINDOW_SIZE);
+        this.repository.store(new OneTimeToken(654321, "another"));
+
+        this.repository.clean();
+        assertFalse(this.storage.containsKey("casuser"));
+        assertTrue(this.storage.containsKey("another"));
+    }
+
+    @Test
+    public void verifyCodeStoredConcurrentlyIsAcceptedOnce() throws Exception {
+        final List<Boolean> results = storeConcurrently(i -> new OneTimeToken(123456, "casuser"));
+        assertEquals(1, results.stream().filter(used -> !used).count());
+        assertTrue(this.repository.exists("casuser", 123456));
+    }
+
+    @Test
+    public void verifyCodesStoredConcurrentlyAreAllKept() throws Exception {
+        final List<Boolean> results = storeConcurrently(i -> new OneTimeToken(i, "casuser"));
+        assertFalse(results.contains(Boolean.TRUE));
+        IntStream.range(0, THREADS).forEach(code -> assertTrue(this.repository.exists("casuser", code)));
+    }
+
+    private List<Boolean> storeConcurrently(final IntFunction<OneTimeToken> tokens) throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<Boolean>> futures = IntStream.range(0, THREADS)
+                .mapToObj(i -> this.executor.submit(() -> {
+                    start.await();
+                    return this.repository.store(tokens.apply(i));
+                }))
+                .collect(Collectors.toList());
+        start.countDown();
+        final List<Boolean> results = new ArrayList<>();
+        for (final Future<Boolean> future : futures) {
+            results.add(future.get(1, TimeUnit.MINUTES));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,57 @@
+package org.apereo.cas.otp.repository.token;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link OneTimeTokenReplayEntryTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class OneTimeTokenReplayEntryTests {
+
+    @Test
+    public void verifyOldestCodeIsOverwrittenOnceFull() {
+        OneTimeTokenReplayEntry entry = new OneTimeTokenReplayEntry(3);
+        for (int code = 1; code <= 3; code++) {
+            entry = entry.add(code, 1);
+        }
+        assertTrue(entry.contains(1));
+        assertTrue(entry.contains(3));
+
+        entry = entry.add(4, 1).add(5, 1);
+        assertFalse(entry.contains(1));
+        assertFalse(entry.contains(2));
+        assertTrue(entry.contains(3));
+        assertTrue(entry.contains(4));
+        assertTrue(entry.contains(5));
+        assertEquals(3, entry.getCapacity());
+    }
+
+    @Test
+    public void verifyEmptySlotsAreNotMatched() {
+        final OneTimeTokenReplayEntry entry = new OneTimeTokenReplayEntry(3).add(123456, 1);
+        assertFalse(entry.contains(0));
+        assertTrue(entry.contains(123456));
+    }
+
+    @Test
+    public void verifyEntriesAreImmutable() {
+        final OneTimeTokenReplayEntry entry = new OneTimeTokenReplayEntry(2);
+        final OneTimeTokenReplayEntry added = entry.add(123456, 1);
+        assertFalse(entry.contains(123456));
+        assertNotEquals(entry, added);
+        assertEquals(added, entry.add(123456, 1));
+    }
+
+    @Test
+    public void verifyEntryExpiresOneWindowAfterLastCode() {
+        final OneTimeTokenReplayEntry entry = new OneTimeTokenReplayEntry(6).add(1, 10).add(2, 12).add(3, 11);
+        assertEquals(12, entry.getTimeStep());
+        assertFalse(entry.isExpired(12, 3));
+        assertFalse(entry.isExpired(14, 3));
+        assertTrue(entry.isExpired(15, 3));
+    }
+}
@@ -1,11 +1,16 @@
 package org.apereo.cas.config;
 
+import org.apereo.cas.CipherExecutor;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.model.support.redis.RedisTicketRegistryProperties;
 import org.apereo.cas.configuration.support.Beans;
+import org.apereo.cas.kryo.KryoBinarySerializer;
 import org.apereo.cas.redis.core.RedisObjectFactory;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.registry.RedisTicketRegistry;
+import org.apereo.cas.ticket.registry.RedisTicketRegistryCounter;
+import org.apereo.cas.ticket.registry.RedisTicketRegistrySessionIndex;
+import org.apereo.cas.ticket.registry.RedisTicketSerializer;
 import org.apereo.cas.ticket.registry.TicketRedisTemplate;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,6 +20,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 
 /**
  * This is {@link RedisTicketRegistryConfiguration}.
@@ -40,15 +46,38 @@ public class RedisTicketRegistryConfiguration {
     @Bean
     @RefreshScope
     public RedisTemplate<String, Ticket> ticketRedisTemplate() {
+        final RedisTicketRegistryProperties redis = casProperties.getTicket().getRegistry().getRedis();
+        if (redis.isKryoSerialization()) {
+            final RedisTicketSerializer serializer = new RedisTicketSerializer(new KryoBinarySerializer<>());
+            return new TicketRedisTemplate(redisConnectionFactory(), serializer);
+        }
         return new TicketRedisTemplate(redisConnectionFactory());
     }
 
+    @Bean
+    @RefreshScope
+    public RedisTemplate<String, String> ticketSessionIndexRedisTemplate() {
+        return new StringRedisTemplate(redisConnectionFactory());
+    }
+
     @Bean
     @RefreshScope
     public TicketRegistry ticketRegistry() {
         final RedisTicketRegistryProperties redis = casProperties.getTicket().getRegistry().getRedis();
         final RedisTicketRegistry r = new RedisTicketRegistry(ticketRedisTemplate());
-        r.setCipherExecutor(Beans.newTicketRegistryCipherExecutor(redis.getCrypto(), "redis"));
+        final CipherExecutor cipher = Beans.newTicketRegistryCipherExecutor(redis.getCrypto(), "redis");
+        r.setCipherExecutor(cipher);
+        if (casProperties.getTicket().getRegistry().isIndexSessions()) {
+            r.setSessionIndex(new RedisTicketRegistrySessionIndex(ticketSessionIndexRedisTemplate(), cipher));
+        }
+        r.setCounter(redisTicketRegistryCounter());
         return r;
     }
+
+    @Bean
+    @RefreshScope
+    public RedisTicketRegistryCounter redisTicketRegistryCounter() {
+        final RedisTicketRegistryProperties redis = casProperties.getTicket().getRegistry().getRedis();
+        return new RedisTicketRegistryCounter(ticketSessionIndexRedisTemplate(), redis.getCounterReconciliationInterval());
+    }
 }
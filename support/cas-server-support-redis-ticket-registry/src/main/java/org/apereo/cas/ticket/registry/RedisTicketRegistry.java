@@ -3,13 +3,18 @@ package org.apereo.cas.ticket.registry;
 import org.apereo.cas.ticket.Ticket;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 import javax.validation.constraints.NotNull;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -22,7 +27,17 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RedisTicketRegistry.class);
     
-    private static final String CAS_TICKET_PREFIX = "CAS_TICKET:";
+    /**
+     * Prefix of the keys under which tickets are stored.
+     */
+    static final String CAS_TICKET_PREFIX = "CAS_TICKET:";
+
+    /**
+     * Stores the ticket with its expiry, reporting whether the key was created rather than overwritten
+     * so that the ticket is counted once, however many times it is stored.
+     */
+    private static final byte[] SET_TICKET_SCRIPT = ("if redis.call('SET', KEYS[1], ARGV[1], 'EX', ARGV[2], 'NX') then return 1 end "
+            + "redis.call('SET', KEYS[1], ARGV[1], 'EX', ARGV[2]) return 0").getBytes(StandardCharsets.UTF_8);
 
     @NotNull
     private final RedisTemplate<String, Ticket> client;
@@ -36,14 +51,45 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
         final Set<String> redisKeys = this.client.keys(getPatternTicketRedisKey());
         final int size = redisKeys.size();
         this.client.delete(redisKeys);
+        clearSessionIndex();
+        clearCounter();
         return size;
     }
-    
+
+    @Override
+    protected int deleteSingleTickets(final Collection<String> ticketIds) {
+        if (ticketIds.isEmpty()) {
+            return 0;
+        }
+        final byte[][] redisKeys = ticketIds.stream()
+                .map(ticketId -> serializeKey(getTicketRedisKey(ticketId)))
+                .toArray(byte[][]::new);
+        final List<Object> results = this.client.executePipelined((RedisCallback<Object>) connection -> {
+            for (final byte[] redisKey : redisKeys) {
+                connection.del(redisKey);
+            }
+            return null;
+        });
+        int deleted = 0;
+        final Iterator<String> ids = ticketIds.iterator();
+        for (final Object result : results) {
+            final String ticketId = ids.next();
+            if (result instanceof Number && ((Number) result).longValue() > 0) {
+                uncountTicket(ticketId);
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
     @Override
     public boolean deleteSingleTicket(final String ticketId) {
         try {
-            final String redisKey = getTicketRedisKey(ticketId);
-            this.client.delete(redisKey);
+            final byte[] redisKey = serializeKey(getTicketRedisKey(ticketId));
+            final Long deleted = this.client.execute((RedisCallback<Long>) connection -> connection.del(redisKey));
+            if (deleted != null && deleted > 0) {
+                uncountTicket(ticketId);
+            }
             return true;
         } catch (final Exception e) {
             LOGGER.error("Ticket not found or is already removed. Failed deleting [{}]", ticketId, e);
@@ -58,8 +104,8 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
             final String redisKey = getTicketRedisKey(ticket.getId());
             // Encode first, then add
             final Ticket encodeTicket = this.encodeTicket(ticket);
-            this.client.boundValueOps(redisKey)
-                    .set(encodeTicket, getTimeout(ticket), TimeUnit.SECONDS);
+            setTicket(redisKey, ticket, encodeTicket);
+            indexTicket(ticket);
         } catch (final Exception e) {
             LOGGER.error("Failed to add [{}]", ticket);
         }
@@ -75,6 +121,7 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
                 if (result != null && result.isExpired()) {
                     LOGGER.debug("Ticket [{}] has expired and is now removed from the cache", result.getId());
                     deleteSingleTicket(ticketId);
+                    unindexTicket(result);
                     return null;
                 }
                 return result;
@@ -107,7 +154,8 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
             LOGGER.debug("Updating ticket [{}]", ticket);
             final Ticket encodeTicket = this.encodeTicket(ticket);
             final String redisKey = getTicketRedisKey(ticket.getId());
-            this.client.boundValueOps(redisKey).set(encodeTicket, getTimeout(ticket), TimeUnit.SECONDS);
+            setTicket(redisKey, ticket, encodeTicket);
+            indexTicket(ticket);
             return encodeTicket;
         } catch (final Exception e) {
             LOGGER.error("Failed to update [{}]", ticket);
@@ -115,13 +163,33 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
         return null;
     }
 
+    /**
+     * Store the ticket and count it in if it was not in redis already.
+     */
+    @SuppressWarnings("unchecked")
+    private void setTicket(final String redisKey, final Ticket ticket, final Ticket encodedTicket) {
+        final byte[] key = serializeKey(redisKey);
+        final byte[] value = ((RedisSerializer<Ticket>) this.client.getValueSerializer()).serialize(encodedTicket);
+        final byte[] expiry = String.valueOf(getTimeout(ticket)).getBytes(StandardCharsets.UTF_8);
+        final Long created = this.client.execute((RedisCallback<Long>) connection ->
+                connection.eval(SET_TICKET_SCRIPT, ReturnType.INTEGER, 1, key, value, expiry));
+        if (created != null && created > 0) {
+            countTicket(ticket);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] serializeKey(final String redisKey) {
+        return ((RedisSerializer<String>) this.client.getKeySerializer()).serialize(redisKey);
+    }
+
     /**
      * If not time out value is specified, expire the ticket immediately.
      *
      * @param ticket the ticket
      * @return timeout
      */
-    private static int getTimeout(final Ticket ticket) {
+    static int getTimeout(final Ticket ticket) {
         final int ttl = ticket.getExpirationPolicy().getTimeToLive().intValue();
         if (ttl == 0) {
             return 1;
@@ -0,0 +1,135 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.ticket.Ticket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * This is {@link RedisTicketRegistryCounter} that keeps a plain counter per ticket prefix, incremented
+ * as tickets are added and decremented as they are removed, so that the counts are shared by every node and
+ * taken in constant time. Sessions are counted across ticket-granting and proxy-granting tickets, and service
+ * tickets across service and proxy tickets. Tickets that redis expires on its own are not counted out until
+ * the counters are reconciled with the ticket keys in redis, which happens periodically.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class RedisTicketRegistryCounter extends AbstractTicketRegistryCounter implements DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisTicketRegistryCounter.class);
+
+    private static final String CAS_COUNTER_PREFIX = "CAS_TICKET_COUNTER:";
+
+    private static final int SCAN_COUNT = 1000;
+
+    private final RedisTemplate<String, String> client;
+    private final ScheduledExecutorService scheduler;
+
+    public RedisTicketRegistryCounter(final RedisTemplate<String, String> client) {
+        this(client, 0);
+    }
+
+    public RedisTicketRegistryCounter(final RedisTemplate<String, String> client, final long reconciliationInterval) {
+        this.client = client;
+        if (reconciliationInterval > 0) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                final Thread thread = new Thread(r, getClass().getSimpleName());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.scheduler.scheduleWithFixedDelay(this::reconcile, reconciliationInterval,
+                    reconciliationInterval, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    @Override
+    protected void add(final Category category, final Ticket ticket) {
+        this.client.opsForValue().increment(keyFor(prefixOf(category, ticket.getId())), 1);
+    }
+
+    @Override
+    protected void remove(final Category category, final String ticketId) {
+        this.client.opsForValue().increment(keyFor(prefixOf(category, ticketId)), -1);
+    }
+
+    @Override
+    protected long count(final Category category) {
+        final List<String> counts = this.client.opsForValue().multiGet(Arrays.stream(category.getPrefixes())
+                .map(RedisTicketRegistryCounter::keyFor)
+                .collect(Collectors.toList()));
+        final long count = counts == null ? 0 : counts.stream().filter(Objects::nonNull).mapToLong(Long::parseLong).sum();
+        return Math.max(count, 0);
+    }
+
+    @Override
+    public void clear() {
+        this.client.delete(Arrays.stream(Category.values())
+                .flatMap(category -> Arrays.stream(category.getPrefixes()))
+                .map(RedisTicketRegistryCounter::keyFor)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Reset each counter to the number of ticket keys in redis with its prefix, which counts out the tickets
+     * that redis has expired on its own. Keys are scanned incrementally, and changes made while a prefix
+     * is being scanned may be missed until the next time the counters are reconciled.
+     */
+    public void reconcile() {
+        Arrays.stream(Category.values())
+                .flatMap(category -> Arrays.stream(category.getPrefixes()))
+                .forEach(prefix -> {
+                    try {
+                        final long total = countTicketKeys(prefix);
+                        this.client.opsForValue().set(keyFor(prefix), String.valueOf(total));
+                        LOGGER.debug("Reconciled the number of tickets of type [{}] as [{}]", prefix, total);
+                    } catch (final Exception e) {
+                        LOGGER.warn("Unable to count tickets of type [{}]: [{}]", prefix, e.getMessage());
+                    }
+                });
+    }
+
+    @Override
+    public void destroy() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+        }
+    }
+
+    private long countTicketKeys(final String prefix) {
+        final ScanOptions options = ScanOptions.scanOptions()
+                .match(RedisTicketRegistry.CAS_TICKET_PREFIX + prefix + "-*")
+                .count(SCAN_COUNT)
+                .build();
+        return this.client.execute((RedisCallback<Long>) connection -> {
+            long total = 0;
+            try (Cursor<byte[]> cursor = connection.scan(options)) {
+                while (cursor.hasNext()) {
+                    cursor.next();
+                    total++;
+                }
+            } catch (final IOException e) {
+                LOGGER.trace("Unable to close scan cursor: [{}]", e.getMessage());
+            }
+            return total;
+        });
+    }
+
+    private static String keyFor(final String prefix) {
+        return CAS_COUNTER_PREFIX + prefix;
+    }
+}
@@ -0,0 +1,119 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.CipherExecutor;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.util.cipher.NoOpCipherExecutor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * This is {@link RedisTicketRegistrySessionIndex} that keeps the index in redis hashes, one per principal
+ * and one per ticket-granting ticket. Each hash expires along with the longest-lived session recorded in it,
+ * so that sessions that are never explicitly removed do not leave entries behind. When tickets are encrypted,
+ * hashes and their fields are keyed by digests and ticket ids are kept encrypted, so that live tickets
+ * cannot be listed by reading the index.
+ * <p>
+ * Adding an entry and extending the expiry of its hash is done by a script, and removing a session
+ * is pipelined, so that keeping the index costs a single round trip per change.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class RedisTicketRegistrySessionIndex extends AbstractTicketRegistrySessionIndex {
+    private static final String CAS_SESSIONS_PREFIX = "CAS_SESSIONS:";
+    private static final String CAS_DESCENDANTS_PREFIX = "CAS_DESCENDANTS:";
+
+    private static final RedisScript<Long> ADD_AND_EXTEND = new DefaultRedisScript<>(
+            "redis.call('HSET', KEYS[1], ARGV[1], ARGV[2]) "
+                    + "if redis.call('TTL', KEYS[1]) < tonumber(ARGV[3]) then redis.call('EXPIRE', KEYS[1], ARGV[3]) end "
+                    + "return 1", Long.class);
+
+    private final RedisTemplate<String, String> client;
+
+    public RedisTicketRegistrySessionIndex(final RedisTemplate<String, String> client) {
+        this(client, NoOpCipherExecutor.getInstance());
+    }
+
+    public RedisTicketRegistrySessionIndex(final RedisTemplate<String, String> client, final CipherExecutor cipherExecutor) {
+        super(cipherExecutor);
+        this.client = client;
+    }
+
+    @Override
+    protected void addSession(final String principalId, final TicketGrantingTicket ticketGrantingTicket) {
+        addAndExtend(getSessionsKey(principalId), ticketGrantingTicket.getId(), ticketGrantingTicket);
+    }
+
+    @Override
+    protected void addDescendant(final TicketGrantingTicket ticketGrantingTicket, final String ticketId) {
+        addAndExtend(getDescendantsKey(ticketGrantingTicket.getId()), ticketId, ticketGrantingTicket);
+    }
+
+    @Override
+    protected void removeDescendant(final String ticketGrantingTicketId, final String ticketId) {
+        this.client.opsForHash().delete(getDescendantsKey(ticketGrantingTicketId), digest(ticketId));
+    }
+
+    @Override
+    public Collection<String> getSessions(final String principalId) {
+        return membersOf(getSessionsKey(principalId));
+    }
+
+    @Override
+    public Collection<String> getDescendants(final String ticketGrantingTicketId) {
+        return membersOf(getDescendantsKey(ticketGrantingTicketId));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void removeSession(final String principalId, final String ticketGrantingTicketId) {
+        final RedisSerializer<String> serializer = (RedisSerializer<String>) this.client.getKeySerializer();
+        final byte[] sessionsKey = serializer.serialize(getSessionsKey(principalId));
+        final byte[] field = serializer.serialize(digest(ticketGrantingTicketId));
+        final byte[] descendantsKey = serializer.serialize(getDescendantsKey(ticketGrantingTicketId));
+        this.client.executePipelined((RedisCallback<Object>) connection -> {
+            connection.hDel(sessionsKey, field);
+            connection.del(descendantsKey);
+            return null;
+        });
+    }
+
+    @Override
+    public void clear() {
+        final Set<String> keys = new HashSet<>();
+        keys.addAll(this.client.keys(CAS_SESSIONS_PREFIX + '*'));
+        keys.addAll(this.client.keys(CAS_DESCENDANTS_PREFIX + '*'));
+        this.client.delete(keys);
+    }
+
+    private String getSessionsKey(final String principalId) {
+        return CAS_SESSIONS_PREFIX + digest(principalId);
+    }
+
+    private String getDescendantsKey(final String ticketGrantingTicketId) {
+        return CAS_DESCENDANTS_PREFIX + digest(ticketGrantingTicketId);
+    }
+
+    private void addAndExtend(final String key, final String ticketId, final TicketGrantingTicket ticketGrantingTicket) {
+        final long timeToLive = Math.max(ticketGrantingTicket.getExpirationPolicy().getTimeToLive(), 1);
+        this.client.execute(ADD_AND_EXTEND, Collections.singletonList(key), digest(ticketId), encodeId(ticketId), String.valueOf(timeToLive));
+    }
+
+    private Collection<String> membersOf(final String key) {
+        final List<Object> members = this.client.opsForHash().values(key);
+        if (members == null) {
+            return new HashSet<>(0);
+        }
+        return members.stream().map(member -> decodeId(member.toString())).collect(Collectors.toSet());
+    }
+}
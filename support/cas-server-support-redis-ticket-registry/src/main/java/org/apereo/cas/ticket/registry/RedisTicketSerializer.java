@@ -0,0 +1,45 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.util.serialization.BinarySerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * This is {@link RedisTicketSerializer} that allows Redis templates to store tickets
+ * using a compact {@link BinarySerializer} instead of default Java serialization.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class RedisTicketSerializer implements RedisSerializer<Ticket> {
+    private final BinarySerializer<Ticket> serializer;
+
+    public RedisTicketSerializer(final BinarySerializer<Ticket> serializer) {
+        this.serializer = serializer;
+    }
+
+    @Override
+    public byte[] serialize(final Ticket ticket) throws SerializationException {
+        if (ticket == null) {
+            return new byte[0];
+        }
+        try {
+            return this.serializer.encode(ticket);
+        } catch (final Exception e) {
+            throw new SerializationException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Ticket deserialize(final byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return this.serializer.decode(bytes);
+        } catch (final Exception e) {
+            throw new SerializationException(e.getMessage(), e);
+        }
+    }
+}
@@ -16,12 +16,15 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
 public class TicketRedisTemplate extends RedisTemplate<String, Ticket> {
 
     public TicketRedisTemplate() {
+        this(new JdkSerializationRedisSerializer());
+    }
+
+    public TicketRedisTemplate(final RedisSerializer valueSerializer) {
         final RedisSerializer<String> string = new StringRedisSerializer();
-        final JdkSerializationRedisSerializer jdk = new JdkSerializationRedisSerializer();
         setKeySerializer(string);
-        setValueSerializer(jdk);
+        setValueSerializer(valueSerializer);
         setHashKeySerializer(string);
-        setHashValueSerializer(jdk);
+        setHashValueSerializer(valueSerializer);
     }
 
     public TicketRedisTemplate(final RedisConnectionFactory connectionFactory) {
@@ -29,4 +32,10 @@ public class TicketRedisTemplate extends RedisTemplate<String, Ticket> {
         setConnectionFactory(connectionFactory);
         afterPropertiesSet();
     }
+
+    public TicketRedisTemplate(final RedisConnectionFactory connectionFactory, final RedisSerializer valueSerializer) {
+        this(valueSerializer);
+        setConnectionFactory(connectionFactory);
+        afterPropertiesSet();
+    }
 }
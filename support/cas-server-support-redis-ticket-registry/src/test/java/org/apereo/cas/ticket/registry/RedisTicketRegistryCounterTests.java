@@ -0,0 +1,86 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link RedisTicketRegistryCounterTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class RedisTicketRegistryCounterTests {
+    private static final int PORT = 6380;
+
+    private static RedisServer REDIS_SERVER;
+    private static JedisConnectionFactory CONNECTION_FACTORY;
+
+    private StringRedisTemplate client;
+    private RedisTicketRegistryCounter counter;
+    private DefaultTicketRegistry ticketRegistry;
+
+    @Before
+    public void setUp() {
+        this.client = new StringRedisTemplate(CONNECTION_FACTORY);
+        this.counter = new RedisTicketRegistryCounter(this.client);
+        this.counter.clear();
+        this.client.delete(this.client.keys(RedisTicketRegistry.CAS_TICKET_PREFIX + "*"));
+        this.ticketRegistry = new DefaultTicketRegistry();
+        this.ticketRegistry.setCounter(this.counter);
+    }
+
+    @Test
+    public void verifyTicketsAreCountedByPrefix() {
+        final TicketGrantingTicket tgt = new TicketGrantingTicketImpl("TGT-1",
+                CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        this.ticketRegistry.addTicket(tgt);
+        final ServiceTicket st = tgt.grantServiceTicket("ST-1", RegisteredServiceTestUtils.getService(),
+                new NeverExpiresExpirationPolicy(), false, true);
+        this.ticketRegistry.addTicket(st);
+        final ProxyGrantingTicket pgt = st.grantProxyGrantingTicket("PGT-1",
+                CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        this.ticketRegistry.addTicket(pgt);
+        assertEquals(2, this.ticketRegistry.sessionCount());
+        assertEquals(1, this.ticketRegistry.serviceTicketCount());
+        assertEquals("1", this.client.opsForValue().get("CAS_TICKET_COUNTER:TGT"));
+        assertEquals("1", this.client.opsForValue().get("CAS_TICKET_COUNTER:PGT"));
+
+        this.ticketRegistry.deleteTicket("PGT-1");
+        assertEquals(1, this.ticketRegistry.sessionCount());
+        this.ticketRegistry.deleteTicket("ST-1");
+        assertEquals(0, this.ticketRegistry.serviceTicketCount());
+        this.ticketRegistry.deleteTicket("TGT-1");
+        assertEquals(0, this.ticketRegistry.sessionCount());
+    }
+
+    @Test
+    public void verifyCountersAreReconciledWithTicketKeys() {
+        final TicketGrantingTicket tgt = new TicketGrantingTicketImpl("TGT-1",
+                CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        this.ticketRegistry.addTicket(tgt);
+        this.ticketRegistry.addTicket(new TicketGrantingTicketImpl("TGT-2",
+                CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy()));
+        this.client.opsForValue().set(RedisTicketRegistry.CAS_TICKET_PREFIX + "TGT-1", "ticket");
+        this.client.opsForValue().set(RedisTicketRegistry.CAS_TICKET_PREFIX + "ST-1", "ticket");
+        assertEquals(2, this.ticketRegistry.sessionCount());
+        assertEquals(0, this.ticketRegistry.serviceTicketCount());
+
+        this.counter.reconcile();
+        assertEquals(1, this.ticketRegistry.sessionCount());
+        assertEquals(1, this.ticketRegistry.serviceTicketCount());
+    }
+}
@@ -0,0 +1,110 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.CipherExecutor;
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.configuration.model.core.util.EncryptionRandomizedSigningJwtCryptographyProperties;
+import org.apereo.cas.configuration.support.Beans;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.HardTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link RedisTicketRegistrySessionIndexTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class RedisTicketRegistrySessionIndexTests {
+    private static final int PORT = 6380;
+
+    private static RedisServer REDIS_SERVER;
+    private static JedisConnectionFactory CONNECTION_FACTORY;
+
+    private StringRedisTemplate client;
+    private RedisTicketRegistrySessionIndex sessionIndex;
+    private DefaultTicketRegistry ticketRegistry;
+
+    @BeforeClass
+    public static void startRedis() throws Exception {
+        REDIS_SERVER = new RedisServer(PORT);
+        REDIS_SERVER.start();
+        CONNECTION_FACTORY = new JedisConnectionFactory();
+        CONNECTION_FACTORY.setHostName("localhost");
+        CONNECTION_FACTORY.setPort(PORT);
+        CONNECTION_FACTORY.afterPropertiesSet();
+    }
+
+    @AfterClass
+    public static void stopRedis() {
+        CONNECTION_FACTORY.destroy();
+        REDIS_SERVER.stop();
+    }
+
+    @Before
+    public void setUp() {
+        this.client = new StringRedisTemplate(CONNECTION_FACTORY);
+        final CipherExecutor cipher = Beans.newTicketRegistryCipherExecutor(
+                new EncryptionRandomizedSigningJwtCryptographyProperties(), true, "[tests]");
+        this.sessionIndex = new RedisTicketRegistrySessionIndex(this.client, cipher);
+        this.sessionIndex.clear();
+        this.ticketRegistry = new DefaultTicketRegistry();
+        this.ticketRegistry.setSessionIndex(this.sessionIndex);
+    }
+
+    @Test
+    public void verifyTicketIdsAreNotKeptInPlainText() {
+        final TicketGrantingTicket tgt = new TicketGrantingTicketImpl("TGT-1",
+                CoreAuthenticationTestUtils.getAuthentication("casuser"), new NeverExpiresExpirationPolicy());
+        this.ticketRegistry.addTicket(tgt);
+        final ServiceTicket st = tgt.grantServiceTicket("ST-1", RegisteredServiceTestUtils.getService(),
+                new NeverExpiresExpirationPolicy(), false, true);
+        this.ticketRegistry.addTicket(st);
+
+        final Set<String> keys = this.client.keys("CAS_*");
+        assertEquals(2, keys.size());
+        keys.forEach(key -> {
+            final String stored = key + this.client.opsForHash().entries(key);
+            assertFalse(stored.contains("TGT-1"));
+            assertFalse(stored.contains("ST-1"));
+            assertFalse(stored.contains("casuser"));
+        });
+        assertEquals(Collections.singleton("TGT-1"), this.sessionIndex.getSessions("casuser"));
+        assertEquals(Collections.singleton("ST-1"), this.sessionIndex.getDescendants("TGT-1"));
+
+        this.ticketRegistry.deleteTicket("ST-1");
+        assertTrue(this.sessionIndex.getDescendants("TGT-1").isEmpty());
+        this.ticketRegistry.deleteTicket("TGT-1");
+        assertTrue(this.sessionIndex.getSessions("casuser").isEmpty());
+        assertTrue(this.client.keys("CAS_*").isEmpty());
+    }
+
+    @Test
+    public void verifyIndexExpiresWithLongestSession() {
+        this.ticketRegistry.addTicket(new TicketGrantingTicketImpl("TGT-1",
+                CoreAuthenticationTestUtils.getAuthentication("casuser"), new HardTimeoutExpirationPolicy(1000)));
+        this.ticketRegistry.addTicket(new TicketGrantingTicketImpl("TGT-2",
+                CoreAuthenticationTestUtils.getAuthentication("casuser"), new HardTimeoutExpirationPolicy(100)));
+
+        final Set<String> keys = this.client.keys("CAS_SESSIONS:*");
+        assertEquals(1, keys.size());
+        final long ttl = this.client.getExpire(keys.iterator().next(), TimeUnit.SECONDS);
+        assertTrue(ttl > 100 && ttl <= 1000);
+        assertEquals(2, this.sessionIndex.getSessions("casuser").size());
+    }
+}
@@ -70,6 +70,11 @@ public class HealthCheckController extends BaseCasMvcEndpoint {
                 if (status.getDescription() != null) {
                     sb.append(" - ").append(status.getDescription());
                 }
+                final Long latency = healthStatus.getLatencies().get(name);
+                if (latency != null) {
+                    response.addHeader("X-CAS-" + name + "-Latency", String.valueOf(latency));
+                    sb.append(" (").append(latency).append(" ms)");
+                }
             });
             sb.append("\n\nHost:\t\t").append(
                     StringUtils.isBlank(casProperties.getHost().getName())
@@ -1,9 +1,11 @@
 package org.apereo.cas.web.report;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.CentralAuthenticationService;
 import org.apereo.cas.authentication.Authentication;
 import org.apereo.cas.authentication.principal.Principal;
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.ticket.InvalidTicketException;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.util.DateTimeUtils;
@@ -20,8 +22,10 @@ import org.springframework.web.servlet.ModelAndView;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -114,14 +118,15 @@ public class SingleSignOnSessionsReportController extends BaseCasMvcEndpoint {
     /**
      * Gets sso sessions.
      *
-     * @param option the option
+     * @param option   the option
+     * @param username the user whose sessions are requested, or blank for all users
      * @return the sso sessions
      */
-    private Collection<Map<String, Object>> getActiveSsoSessions(final SsoSessionReportOptions option) {
+    private Collection<Map<String, Object>> getActiveSsoSessions(final SsoSessionReportOptions option, final String username) {
         final Collection<Map<String, Object>> activeSessions = new ArrayList<>();
         final ISOStandardDateFormat dateFormat = new ISOStandardDateFormat();
 
-        getNonExpiredTicketGrantingTickets().stream().map(TicketGrantingTicket.class::cast)
+        getNonExpiredTicketGrantingTickets(option, username).stream().map(TicketGrantingTicket.class::cast)
                 .filter(tgt -> !(option == SsoSessionReportOptions.DIRECT && tgt.getProxiedBy() != null))
                 .forEach(tgt -> {
                     final Authentication authentication = tgt.getAuthentication();
@@ -151,17 +156,51 @@ public class SingleSignOnSessionsReportController extends BaseCasMvcEndpoint {
 
     /**
      * Gets non expired ticket granting tickets.
+     * Sessions of a single user are looked up directly rather than by going through all tickets.
+     * Unless only direct sessions are requested, the proxy-granting tickets issued on behalf of those
+     * sessions are followed as well, so that the result matches what is listed for all users.
      *
+     * @param option   the option
+     * @param username the user whose tickets are requested, or blank for all users
      * @return the non expired ticket granting tickets
      */
-    private Collection<Ticket> getNonExpiredTicketGrantingTickets() {
+    private Collection<? extends Ticket> getNonExpiredTicketGrantingTickets(final SsoSessionReportOptions option, final String username) {
+        if (StringUtils.isNotBlank(username)) {
+            final Collection<TicketGrantingTicket> sessions = this.centralAuthenticationService.getSessionsFor(username);
+            if (option == SsoSessionReportOptions.DIRECT) {
+                return sessions;
+            }
+            final Collection<TicketGrantingTicket> tickets = new ArrayList<>(sessions);
+            final Deque<TicketGrantingTicket> pending = new ArrayDeque<>(sessions);
+            while (!pending.isEmpty()) {
+                pending.pop().getProxyGrantingTickets().keySet().forEach(id -> {
+                    final TicketGrantingTicket proxyGrantingTicket = getNonExpiredTicketGrantingTicket(id);
+                    if (proxyGrantingTicket != null) {
+                        tickets.add(proxyGrantingTicket);
+                        pending.push(proxyGrantingTicket);
+                    }
+                });
+            }
+            return tickets;
+        }
         return this.centralAuthenticationService.getTickets(ticket -> ticket instanceof TicketGrantingTicket && !ticket.isExpired());
     }
 
+    private TicketGrantingTicket getNonExpiredTicketGrantingTicket(final String ticketId) {
+        try {
+            final TicketGrantingTicket ticket = this.centralAuthenticationService.getTicket(ticketId, TicketGrantingTicket.class);
+            return ticket == null || ticket.isExpired() ? null : ticket;
+        } catch (final InvalidTicketException e) {
+            LOGGER.debug("Proxy-granting ticket [{}] is no longer available", ticketId);
+            return null;
+        }
+    }
+
     /**
      * Endpoint for getting SSO Sessions in JSON format.
      *
      * @param type     the type
+     * @param username the user whose sessions are requested, or blank for all users
      * @param request  the request
      * @param response the response
      * @return the sso sessions
@@ -169,6 +208,7 @@ public class SingleSignOnSessionsReportController extends BaseCasMvcEndpoint {
     @GetMapping(value = "/getSsoSessions")
     @ResponseBody
     public WebAsyncTask<Map<String, Object>> getSsoSessions(@RequestParam(defaultValue = "ALL") final String type,
+                                                            @RequestParam(required = false) final String username,
                                                             final HttpServletRequest request,
                                                             final HttpServletResponse response) {
         ensureEndpointAccessIsAuthorized(request, response);
@@ -177,7 +217,7 @@ public class SingleSignOnSessionsReportController extends BaseCasMvcEndpoint {
             final Map<String, Object> sessionsMap = new HashMap<>(1);
             final SsoSessionReportOptions option = SsoSessionReportOptions.valueOf(type);
 
-            final Collection<Map<String, Object>> activeSsoSessions = getActiveSsoSessions(option);
+            final Collection<Map<String, Object>> activeSsoSessions = getActiveSsoSessions(option, username);
             sessionsMap.put("activeSsoSessions", activeSsoSessions);
 
             long totalTicketGrantingTickets = 0;
@@ -249,6 +289,7 @@ public class SingleSignOnSessionsReportController extends BaseCasMvcEndpoint {
      * Endpoint for destroying SSO Sessions.
      *
      * @param type     the type
+     * @param username the user whose sessions should be destroyed, or blank for all users
      * @param request  the request
      * @param response the response
      * @return result map
@@ -256,6 +297,7 @@ public class SingleSignOnSessionsReportController extends BaseCasMvcEndpoint {
     @PostMapping(value = "/destroySsoSessions")
     @ResponseBody
     public Map<String, Object> destroySsoSessions(@RequestParam(defaultValue = "ALL") final String type,
+                                                  @RequestParam(required = false) final String username,
                                                   final HttpServletRequest request,
                                                   final HttpServletResponse response) {
         ensureEndpointAccessIsAuthorized(request, response);
@@ -264,7 +306,7 @@ public class SingleSignOnSessionsReportController extends BaseCasMvcEndpoint {
         final Map<String, String> failedTickets = new HashMap<>();
 
         final SsoSessionReportOptions option = SsoSessionReportOptions.valueOf(type);
-        final Collection<Map<String, Object>> collection = getActiveSsoSessions(option);
+        final Collection<Map<String, Object>> collection = getActiveSsoSessions(option, username);
         collection.stream().map(sso -> sso.get(SsoSessionAttributeKeys.TICKET_GRANTING_TICKET.toString()).toString()).forEach(ticketGrantingTicket -> {
             try {
                 this.centralAuthenticationService.destroyTicketGrantingTicket(ticketGrantingTicket);
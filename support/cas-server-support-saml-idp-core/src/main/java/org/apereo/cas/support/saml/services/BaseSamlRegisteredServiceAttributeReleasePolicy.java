@@ -88,6 +88,17 @@ public abstract class BaseSamlRegisteredServiceAttributeReleasePolicy extends Re
         return super.getAttributesInternal(principal, attributes, service);
     }
 
+    /**
+     * Attributes depend on the entity id found in the current request,
+     * which is not part of the service, so they are always computed again.
+     *
+     * @return false
+     */
+    @Override
+    protected boolean shouldCacheReleasedAttributes() {
+        return false;
+    }
+
     /**
      * Gets attributes for saml registered service.
      *
@@ -18,6 +18,7 @@ import org.apereo.cas.support.saml.web.idp.profile.builders.authn.DefaultAuthnCo
 import org.apereo.cas.support.saml.web.idp.profile.builders.authn.SamlProfileSamlAuthNStatementBuilder;
 import org.apereo.cas.support.saml.web.idp.profile.builders.conditions.SamlProfileSamlConditionsBuilder;
 import org.apereo.cas.support.saml.web.idp.profile.builders.enc.BaseSamlObjectSigner;
+import org.apereo.cas.support.saml.web.idp.profile.builders.enc.SamlIdPSigningCredentialCache;
 import org.apereo.cas.support.saml.web.idp.profile.builders.enc.SamlAttributeEncoder;
 import org.apereo.cas.support.saml.web.idp.profile.builders.enc.SamlObjectEncrypter;
 import org.apereo.cas.support.saml.web.idp.profile.builders.nameid.SamlProfileSamlNameIdBuilder;
@@ -285,14 +286,22 @@ public class SamlIdPConfiguration {
     @ConditionalOnMissingBean(name = "samlObjectSigner")
     @Bean
     @RefreshScope
-    public BaseSamlObjectSigner samlObjectSigner() {
+    public BaseSamlObjectSigner samlObjectSigner() throws Exception {
         final SamlIdPProperties.Algorithms algs = casProperties.getAuthn().getSamlIdp().getAlgs();
+        final SamlIdPProperties.Metadata metadata = casProperties.getAuthn().getSamlIdp().getMetadata();
+        final SamlIdPSigningCredentialCache signingCredentialCache = new SamlIdPSigningCredentialCache(
+                metadata.getSigningKeyFile(),
+                metadata.getPrivateKeyAlgName(),
+                metadata.getSigningCertFile(),
+                metadata.getSigningCredentialCheckInterval());
         return new BaseSamlObjectSigner(
                 algs.getOverrideSignatureReferenceDigestMethods(),
                 algs.getOverrideSignatureAlgorithms(),
                 algs.getOverrideBlackListedSignatureSigningAlgorithms(),
                 algs.getOverrideWhiteListedSignatureSigningAlgorithms(),
-                casSamlIdPMetadataResolver);
+                casSamlIdPMetadataResolver,
+                signingCredentialCache,
+                metadata.getCacheExpirationMinutes());
     }
 
     @ConditionalOnMissingBean(name = "samlProfileSamlAttributeQueryFaultResponseBuilder")
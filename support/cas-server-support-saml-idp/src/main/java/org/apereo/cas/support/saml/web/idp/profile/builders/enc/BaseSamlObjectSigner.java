@@ -1,5 +1,7 @@
 package org.apereo.cas.support.saml.web.idp.profile.builders.enc;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.collect.Sets;
 import net.shibboleth.utilities.java.support.resolver.CriteriaSet;
 import org.apache.commons.lang3.StringUtils;
@@ -7,11 +9,9 @@ import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.model.support.saml.idp.SamlIdPProperties;
 import org.apereo.cas.support.saml.SamlException;
 import org.apereo.cas.support.saml.SamlIdPUtils;
-import org.apereo.cas.support.saml.SamlUtils;
 import org.apereo.cas.support.saml.services.SamlRegisteredService;
 import org.apereo.cas.support.saml.services.idp.metadata.SamlRegisteredServiceServiceProviderMetadataFacade;
 import org.apereo.cas.util.crypto.CertUtils;
-import org.apereo.cas.util.crypto.PrivateKeyFactoryBean;
 import org.opensaml.core.criterion.EntityIdCriterion;
 import org.opensaml.messaging.context.MessageContext;
 import org.opensaml.saml.common.SAMLException;
@@ -41,8 +41,6 @@ import org.opensaml.xmlsec.impl.BasicSignatureSigningConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -50,7 +48,10 @@ import java.security.PrivateKey;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This is {@link BaseSamlObjectSigner}.
@@ -83,17 +84,33 @@ public class BaseSamlObjectSigner {
 
     private final MetadataResolver casSamlIdPMetadataResolver;
 
+    private final SamlIdPSigningCredentialCache signingCredentialCache;
+
+    /**
+     * Resolved signing parameters, keyed by the role descriptor of the service provider.
+     * Keys are held weakly and compared by identity, so parameters are resolved again
+     * once the service provider metadata is refreshed and a new descriptor is produced.
+     */
+    private final Cache<RoleDescriptor, Map<String, SignatureSigningParameters>> signingParametersCache;
+
     @Autowired
     private CasConfigurationProperties casProperties;
 
     public BaseSamlObjectSigner(final List overrideSignatureReferenceDigestMethods, final List overrideSignatureAlgorithms,
                                 final List overrideBlackListedSignatureAlgorithms, final List overrideWhiteListedAlgorithms,
-                                final MetadataResolver casSamlIdPMetadataResolver) {
+                                final MetadataResolver casSamlIdPMetadataResolver,
+                                final SamlIdPSigningCredentialCache signingCredentialCache,
+                                final long signingParametersCacheExpirationMinutes) {
         this.overrideSignatureReferenceDigestMethods = overrideSignatureReferenceDigestMethods;
         this.overrideSignatureAlgorithms = overrideSignatureAlgorithms;
         this.overrideBlackListedSignatureAlgorithms = overrideBlackListedSignatureAlgorithms;
         this.overrideWhiteListedAlgorithms = overrideWhiteListedAlgorithms;
         this.casSamlIdPMetadataResolver = casSamlIdPMetadataResolver;
+        this.signingCredentialCache = signingCredentialCache;
+        this.signingParametersCache = Caffeine.newBuilder()
+                .weakKeys()
+                .expireAfterWrite(signingParametersCacheExpirationMinutes, TimeUnit.MINUTES)
+                .build();
     }
 
     /**
@@ -187,10 +204,44 @@ public class BaseSamlObjectSigner {
             throw new IllegalArgumentException("No signature signing parameters could be determined");
         }
         final RoleDescriptor roleDesc = adaptor.getSsoDescriptor();
-        final SignatureSigningParameters signingParameters = buildSignatureSigningParameters(roleDesc, service);
+        final SignatureSigningParameters signingParameters = getSignatureSigningParameters(adaptor.getEntityId(), roleDesc, service);
         secParametersContext.setSignatureSigningParameters(signingParameters);
     }
 
+    /**
+     * Gets signature signing parameters for the service provider, resolving them only
+     * if they have not been resolved for the same metadata, service overrides and signing credentials.
+     *
+     * @param entityId   the entity id of the service provider
+     * @param descriptor the descriptor
+     * @param service    the service
+     * @return the signature signing parameters
+     * @throws SAMLException the saml exception
+     */
+    protected SignatureSigningParameters getSignatureSigningParameters(final String entityId,
+                                                                       final RoleDescriptor descriptor,
+                                                                       final SamlRegisteredService service) throws SAMLException {
+        try {
+            if (this.signingCredentialCache.refresh()) {
+                LOGGER.debug("Signing credentials have been loaded; Previously resolved signing parameters are discarded");
+                this.signingParametersCache.invalidateAll();
+            }
+        } catch (final Exception e) {
+            throw new SAMLException(e.getMessage(), e);
+        }
+        final Map<String, SignatureSigningParameters> parameters =
+                this.signingParametersCache.get(descriptor, d -> new ConcurrentHashMap<>());
+        final String key = entityId + '|' + StringUtils.defaultString(service.getSigningCredentialType());
+        final SignatureSigningParameters cached = parameters.get(key);
+        if (cached != null) {
+            LOGGER.trace("Using previously resolved signature signing parameters for [{}]", key);
+            return cached;
+        }
+        final SignatureSigningParameters resolved = buildSignatureSigningParameters(descriptor, service);
+        parameters.put(key, resolved);
+        return resolved;
+    }
+
     /**
      * Prepare outbound context.
      *
@@ -337,10 +388,8 @@ public class BaseSamlObjectSigner {
                         LOGGER.debug("Locating signature signing certificate from credential [{}]", CertUtils.toString(certificate));
                         return new BasicX509Credential(certificate, privateKey);
                     }
-                    final Resource signingCert = samlIdp.getMetadata().getSigningCertFile();
-                    LOGGER.debug("Locating signature signing certificate file from [{}]", signingCert);
-                    final X509Certificate certificate = SamlUtils.readCertificate(signingCert);
-                    return new BasicX509Credential(certificate, privateKey);
+                    LOGGER.debug("Locating signature signing certificate file from [{}]", samlIdp.getMetadata().getSigningCertFile());
+                    return new BasicX509Credential(getSigningCertificate(), privateKey);
             }
         } catch (final Exception e) {
             LOGGER.error(e.getMessage(), e);
@@ -355,9 +404,7 @@ public class BaseSamlObjectSigner {
      * @throws Exception the exception
      */
     protected X509Certificate getSigningCertificate() throws Exception {
-        final SamlIdPProperties samlIdp = casProperties.getAuthn().getSamlIdp();
-        LOGGER.debug("Locating signature signing certificate file from [{}]", samlIdp.getMetadata().getSigningCertFile());
-        return SamlUtils.readCertificate(new FileSystemResource(samlIdp.getMetadata().getSigningCertFile().getFile()));
+        return this.signingCredentialCache.getCertificate();
     }
 
     /**
@@ -367,12 +414,6 @@ public class BaseSamlObjectSigner {
      * @throws Exception the exception
      */
     protected PrivateKey getSigningPrivateKey() throws Exception {
-        final SamlIdPProperties samlIdp = casProperties.getAuthn().getSamlIdp();
-        final PrivateKeyFactoryBean privateKeyFactoryBean = new PrivateKeyFactoryBean();
-        privateKeyFactoryBean.setLocation(new FileSystemResource(samlIdp.getMetadata().getSigningKeyFile().getFile()));
-        privateKeyFactoryBean.setAlgorithm(samlIdp.getMetadata().getPrivateKeyAlgName());
-        privateKeyFactoryBean.setSingleton(false);
-        LOGGER.debug("Locating signature signing key file from [{}]", samlIdp.getMetadata().getSigningKeyFile());
-        return privateKeyFactoryBean.getObject();
+        return this.signingCredentialCache.getPrivateKey();
     }
 }
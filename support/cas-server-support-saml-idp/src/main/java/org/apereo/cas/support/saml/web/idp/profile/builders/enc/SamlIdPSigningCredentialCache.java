@@ -0,0 +1,173 @@
+package org.apereo.cas.support.saml.web.idp.profile.builders.enc;
+
+import org.apereo.cas.support.saml.SamlUtils;
+import org.apereo.cas.util.crypto.PrivateKeyFactoryBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the signing key and certificate of the identity provider, so they are read and parsed
+ * once rather than for every response. Both are reloaded when the underlying resource changes.
+ * <p>
+ * Reads never lock. The resources are checked for changes at most once per check interval,
+ * and only a reload of a changed resource is serialized.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class SamlIdPSigningCredentialCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SamlIdPSigningCredentialCache.class);
+
+    private final Resource signingKeyResource;
+    private final String privateKeyAlgorithm;
+    private final Resource signingCertificateResource;
+    private final long checkIntervalMillis;
+
+    private final AtomicReference<LoadedCredential<PrivateKey>> privateKey = new AtomicReference<>();
+    private final AtomicReference<LoadedCredential<X509Certificate>> certificate = new AtomicReference<>();
+
+    public SamlIdPSigningCredentialCache(final Resource signingKeyResource, final String privateKeyAlgorithm,
+                                         final Resource signingCertificateResource, final long checkIntervalMillis) {
+        this.signingKeyResource = signingKeyResource;
+        this.privateKeyAlgorithm = privateKeyAlgorithm;
+        this.signingCertificateResource = signingCertificateResource;
+        this.checkIntervalMillis = checkIntervalMillis;
+    }
+
+    /**
+     * Reload the key and the certificate, if they have been used, when their resources
+     * have changed since they were last read.
+     *
+     * @return true if anything was reloaded
+     * @throws Exception the exception
+     */
+    public boolean refresh() throws Exception {
+        final boolean keyReloaded = isReloaded(this.privateKey, this.signingKeyResource, this::readPrivateKey);
+        final boolean certificateReloaded = isReloaded(this.certificate, this.signingCertificateResource, this::readCertificate);
+        return keyReloaded || certificateReloaded;
+    }
+
+    /**
+     * Gets the signing private key.
+     *
+     * @return the private key
+     * @throws Exception the exception
+     */
+    public PrivateKey getPrivateKey() throws Exception {
+        return get(this.privateKey, this.signingKeyResource, this::readPrivateKey);
+    }
+
+    /**
+     * Gets the signing certificate.
+     *
+     * @return the certificate
+     * @throws Exception the exception
+     */
+    public X509Certificate getCertificate() throws Exception {
+        return get(this.certificate, this.signingCertificateResource, this::readCertificate);
+    }
+
+    private <T> boolean isReloaded(final AtomicReference<LoadedCredential<T>> reference, final Resource resource,
+                                   final CredentialReader<T> reader) throws Exception {
+        final LoadedCredential<T> current = reference.get();
+        return current != null && get(reference, resource, reader) != current.getValue();
+    }
+
+    private <T> T get(final AtomicReference<LoadedCredential<T>> reference, final Resource resource,
+                      final CredentialReader<T> reader) throws Exception {
+        final long now = System.currentTimeMillis();
+        final LoadedCredential<T> current = reference.get();
+        if (current != null && now - current.getCheckedAt() < this.checkIntervalMillis) {
+            return current.getValue();
+        }
+        final long lastModified = lastModified(resource);
+        if (current != null && lastModified == current.getLastModified()) {
+            reference.compareAndSet(current, new LoadedCredential<>(current.getValue(), lastModified, now));
+            return current.getValue();
+        }
+        synchronized (reference) {
+            final LoadedCredential<T> latest = reference.get();
+            if (latest != null && latest != current && latest.getLastModified() == lastModified) {
+                return latest.getValue();
+            }
+            final T value = reader.read(resource);
+            reference.set(new LoadedCredential<>(value, lastModified, now));
+            return value;
+        }
+    }
+
+    private PrivateKey readPrivateKey(final Resource resource) throws Exception {
+        LOGGER.debug("Loading signature signing key from [{}]", resource);
+        final PrivateKeyFactoryBean privateKeyFactoryBean = new PrivateKeyFactoryBean();
+        privateKeyFactoryBean.setLocation(resource);
+        privateKeyFactoryBean.setAlgorithm(this.privateKeyAlgorithm);
+        privateKeyFactoryBean.setSingleton(false);
+        return privateKeyFactoryBean.getObject();
+    }
+
+    private X509Certificate readCertificate(final Resource resource) {
+        LOGGER.debug("Loading signature signing certificate from [{}]", resource);
+        return SamlUtils.readCertificate(resource);
+    }
+
+    private static long lastModified(final Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (final Exception e) {
+            LOGGER.trace("Unable to determine last modification time of [{}]: [{}]", resource, e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Reads a credential from its resource.
+     *
+     * @param <T> the credential type
+     */
+    @FunctionalInterface
+    private interface CredentialReader<T> {
+        /**
+         * Read the credential.
+         *
+         * @param resource the resource
+         * @return the credential
+         * @throws Exception the exception
+         */
+        T read(Resource resource) throws Exception;
+    }
+
+    /**
+     * A credential along with the modification time of its resource when it was read,
+     * and the time the resource was last checked for changes.
+     *
+     * @param <T> the credential type
+     */
+    private static final class LoadedCredential<T> {
+        private final T value;
+        private final long lastModified;
+        private final long checkedAt;
+
+        LoadedCredential(final T value, final long lastModified, final long checkedAt) {
+            this.value = value;
+            this.lastModified = lastModified;
+            this.checkedAt = checkedAt;
+        }
+
+        T getValue() {
+            return value;
+        }
+
+        long getLastModified() {
+            return lastModified;
+        }
+
+        long getCheckedAt() {
+            return checkedAt;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.apereo.cas.support.saml.web.idp.profile.builders.enc;
+
+import org.apereo.cas.support.saml.services.SamlRegisteredService;
+import org.junit.Before;
+import org.junit.Test;
+import org.opensaml.saml.saml2.metadata.RoleDescriptor;
+import org.opensaml.saml.saml2.metadata.SPSSODescriptor;
+import org.opensaml.xmlsec.SignatureSigningParameters;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link BaseSamlObjectSignerTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class BaseSamlObjectSignerTests {
+    private static final String ENTITY_ID = "https://sp.example.org";
+
+    private final AtomicInteger resolutions = new AtomicInteger();
+
+    private final SamlRegisteredService service = new SamlRegisteredService();
+
+    private SamlIdPSigningCredentialCache credentialCache;
+
+    private BaseSamlObjectSigner signer;
+
+    @Before
+    public void setUp() {
+        this.credentialCache = mock(SamlIdPSigningCredentialCache.class);
+        this.signer = new BaseSamlObjectSigner(new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(),
+                null, credentialCache, 10) {
+            @Override
+            protected SignatureSigningParameters buildSignatureSigningParameters(final RoleDescriptor descriptor,
+                                                                                 final SamlRegisteredService service) {
+                resolutions.incrementAndGet();
+                return new SignatureSigningParameters();
+            }
+        };
+    }
+
+    @Test
+    public void verifyParametersAreResolvedOncePerDescriptor() throws Exception {
+        final RoleDescriptor descriptor = mock(SPSSODescriptor.class);
+        final SignatureSigningParameters parameters = signer.getSignatureSigningParameters(ENTITY_ID, descriptor, service);
+        assertSame(parameters, signer.getSignatureSigningParameters(ENTITY_ID, descriptor, service));
+        assertEquals(1, resolutions.get());
+
+        service.setSigningCredentialType("X509");
+        assertNotSame(parameters, signer.getSignatureSigningParameters(ENTITY_ID, descriptor, service));
+        assertEquals(2, resolutions.get());
+    }
+
+    @Test
+    public void verifyParametersAreResolvedWhenMetadataChanges() throws Exception {
+        final SignatureSigningParameters parameters = signer.getSignatureSigningParameters(ENTITY_ID, mock(SPSSODescriptor.class), service);
+        final SignatureSigningParameters refreshed = signer.getSignatureSigningParameters(ENTITY_ID, mock(SPSSODescriptor.class), service);
+        assertNotSame(parameters, refreshed);
+        assertEquals(2, resolutions.get());
+    }
+
+    @Test
+    public void verifyParametersAreResolvedWhenCredentialsChange() throws Exception {
+        final RoleDescriptor descriptor = mock(SPSSODescriptor.class);
+        final SignatureSigningParameters parameters = signer.getSignatureSigningParameters(ENTITY_ID, descriptor, service);
+
+        when(credentialCache.refresh()).thenReturn(true, false);
+        final SignatureSigningParameters reloaded = signer.getSignatureSigningParameters(ENTITY_ID, descriptor, service);
+        assertNotSame(parameters, reloaded);
+        assertSame(reloaded, signer.getSignatureSigningParameters(ENTITY_ID, descriptor, service));
+        assertEquals(2, resolutions.get());
+    }
+}
@@ -0,0 +1,96 @@
+package org.apereo.cas.support.saml.web.idp.profile.builders.enc;
+
+import net.shibboleth.utilities.java.support.security.SelfSignedCertificateGenerator;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.File;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link SamlIdPSigningCredentialCacheTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class SamlIdPSigningCredentialCacheTests {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File certificateFile;
+    private File keyFile;
+    private SamlIdPSigningCredentialCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        this.certificateFile = new File(folder.getRoot(), "idp-signing.crt");
+        this.keyFile = new File(folder.getRoot(), "idp-signing.key");
+        generate();
+        this.cache = new SamlIdPSigningCredentialCache(new FileSystemResource(keyFile), "RSA", new FileSystemResource(certificateFile), 0);
+    }
+
+    @Test
+    public void verifyCredentialsAreReadOnce() throws Exception {
+        final X509Certificate certificate = cache.getCertificate();
+        final PrivateKey key = cache.getPrivateKey();
+        assertNotNull(certificate);
+        assertNotNull(key);
+        assertFalse(cache.refresh());
+        assertSame(certificate, cache.getCertificate());
+        assertSame(key, cache.getPrivateKey());
+    }
+
+    @Test
+    public void verifyCredentialsAreReloadedWhenChanged() throws Exception {
+        final X509Certificate certificate = cache.getCertificate();
+        final PrivateKey key = cache.getPrivateKey();
+        final long lastModified = certificateFile.lastModified();
+
+        assertTrue(certificateFile.delete());
+        assertTrue(keyFile.delete());
+        generate();
+        assertTrue(certificateFile.setLastModified(lastModified + 2000));
+        assertTrue(keyFile.setLastModified(lastModified + 2000));
+
+        assertTrue(cache.refresh());
+        assertNotEquals(certificate, cache.getCertificate());
+        assertNotEquals(key, cache.getPrivateKey());
+        assertFalse(cache.refresh());
+    }
+
+    @Test
+    public void verifyResourcesAreNotCheckedWithinInterval() throws Exception {
+        final Resource keyResource = spy(new FileSystemResource(keyFile));
+        final Resource certificateResource = spy(new FileSystemResource(certificateFile));
+        final SamlIdPSigningCredentialCache intervalCache = new SamlIdPSigningCredentialCache(keyResource, "RSA",
+                certificateResource, TimeUnit.MINUTES.toMillis(1));
+
+        final PrivateKey key = intervalCache.getPrivateKey();
+        final X509Certificate certificate = intervalCache.getCertificate();
+        for (int i = 0; i < 10; i++) {
+            assertSame(key, intervalCache.getPrivateKey());
+            assertSame(certificate, intervalCache.getCertificate());
+        }
+        assertFalse(intervalCache.refresh());
+        verify(keyResource, times(1)).lastModified();
+        verify(certificateResource, times(1)).lastModified();
+    }
+
+    private void generate() throws Exception {
+        final SelfSignedCertificateGenerator generator = new SelfSignedCertificateGenerator();
+        generator.setHostName("cas.example.org");
+        generator.setCertificateFile(certificateFile);
+        generator.setPrivateKeyFile(keyFile);
+        generator.generate();
+    }
+}
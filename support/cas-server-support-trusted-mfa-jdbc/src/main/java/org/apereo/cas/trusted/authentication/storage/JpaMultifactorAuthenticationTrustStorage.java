@@ -31,7 +31,7 @@ public class JpaMultifactorAuthenticationTrustStorage extends BaseMultifactorAut
     private EntityManager entityManager;
 
     @Override
-    public void expire(final String key) {
+    protected void expireInternal(final String key) {
         try {
             final int count = this.entityManager.createQuery("DELETE FROM " + TABLE_NAME + " r where r.recordKey = :key",
                     MultifactorAuthenticationTrustRecord.class)
@@ -60,7 +60,7 @@ public class JpaMultifactorAuthenticationTrustStorage extends BaseMultifactorAut
     public Set<MultifactorAuthenticationTrustRecord> get(final LocalDate onOrAfterDate) {
         try {
             final List<MultifactorAuthenticationTrustRecord> results =
-                    this.entityManager.createQuery("SELECT r FROM " + TABLE_NAME + " r where r.date >= :date",
+                    this.entityManager.createQuery("SELECT r FROM " + TABLE_NAME + " r where r.recordDate >= :date",
                             MultifactorAuthenticationTrustRecord.class).setParameter("date", onOrAfterDate).getResultList();
             return new HashSet<>(results);
         } catch (final NoResultException e) {
@@ -82,6 +82,22 @@ public class JpaMultifactorAuthenticationTrustStorage extends BaseMultifactorAut
         return new HashSet<>(0);
     }
 
+    @Override
+    public Set<MultifactorAuthenticationTrustRecord> get(final String principal, final String deviceFingerprint) {
+        try {
+            final List<MultifactorAuthenticationTrustRecord> results =
+                    this.entityManager.createQuery("SELECT r FROM " + TABLE_NAME + " r where r.principal = :principal and r.geography = :geography",
+                            MultifactorAuthenticationTrustRecord.class)
+                            .setParameter("principal", principal)
+                            .setParameter("geography", deviceFingerprint)
+                            .getResultList();
+            return new HashSet<>(results);
+        } catch (final NoResultException e) {
+            LOGGER.info("No trusted authentication records could be found for [{}]", principal);
+        }
+        return new HashSet<>(0);
+    }
+
     @Override
     public MultifactorAuthenticationTrustRecord setInternal(final MultifactorAuthenticationTrustRecord record) {
         return this.entityManager.merge(record);
@@ -4,7 +4,10 @@ import com.mongodb.WriteResult;
 import org.apereo.cas.trusted.authentication.api.MultifactorAuthenticationTrustRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 
@@ -12,6 +15,7 @@ import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This is {@link MongoDbMultifactorAuthenticationTrustStorage}.
@@ -22,6 +26,11 @@ import java.util.Set;
 public class MongoDbMultifactorAuthenticationTrustStorage extends BaseMultifactorAuthenticationTrustStorage {
     private static final Logger LOGGER = LoggerFactory.getLogger(MongoDbMultifactorAuthenticationTrustStorage.class);
     
+    private static final String FIELD_PRINCIPAL = "principal";
+    private static final String FIELD_GEOGRAPHY = "geography";
+    private static final String FIELD_RECORD_DATE = "recordDate";
+    private static final String FIELD_RECORD_KEY = "recordKey";
+
     private final String collectionName;
     private final MongoOperations mongoTemplate;
 
@@ -32,15 +41,35 @@ public class MongoDbMultifactorAuthenticationTrustStorage extends BaseMultifacto
      * @param mongoTemplate  the mongo template
      */
     public MongoDbMultifactorAuthenticationTrustStorage(final String collectionName, final MongoOperations mongoTemplate) {
+        this(collectionName, mongoTemplate, 0);
+    }
+
+    /**
+     * Instantiates a new Mongo db multifactor authentication trust storage.
+     * Records are looked up by principal and device through a compound index, and when a time to live is given,
+     * are removed by MongoDb itself once they are older than that through a TTL index on the record date.
+     *
+     * @param collectionName the collection name
+     * @param mongoTemplate  the mongo template
+     * @param timeToLive     how long records are kept, in seconds; zero or less keeps records until they are expired
+     */
+    public MongoDbMultifactorAuthenticationTrustStorage(final String collectionName, final MongoOperations mongoTemplate,
+                                                        final long timeToLive) {
         this.collectionName = collectionName;
         this.mongoTemplate = mongoTemplate;
+
+        final IndexOperations indexes = this.mongoTemplate.indexOps(this.collectionName);
+        indexes.ensureIndex(new Index().on(FIELD_PRINCIPAL, Sort.Direction.ASC).on(FIELD_GEOGRAPHY, Sort.Direction.ASC));
+        if (timeToLive > 0) {
+            indexes.ensureIndex(new Index().on(FIELD_RECORD_DATE, Sort.Direction.ASC).expire(timeToLive, TimeUnit.SECONDS));
+        }
     }
 
     @Override
-    public void expire(final String key) {
+    protected void expireInternal(final String key) {
         try {
             final Query query = new Query();
-            query.addCriteria(Criteria.where("key").is(key));
+            query.addCriteria(Criteria.where(FIELD_RECORD_KEY).is(key));
             final WriteResult res = this.mongoTemplate.remove(query, MultifactorAuthenticationTrustRecord.class, this.collectionName);
             LOGGER.info("Found and removed [{}]", res.getN());
         } catch (final Exception e) {
@@ -52,7 +81,7 @@ public class MongoDbMultifactorAuthenticationTrustStorage extends BaseMultifacto
     public void expire(final LocalDate onOrBefore) {
         try {
             final Query query = new Query();
-            query.addCriteria(Criteria.where("date").lte(onOrBefore));
+            query.addCriteria(Criteria.where(FIELD_RECORD_DATE).lte(onOrBefore));
             final WriteResult res = this.mongoTemplate.remove(query, MultifactorAuthenticationTrustRecord.class, this.collectionName);
             LOGGER.info("Found and removed [{}]", res.getN());
         } catch (final Exception e) {
@@ -63,7 +92,7 @@ public class MongoDbMultifactorAuthenticationTrustStorage extends BaseMultifacto
     @Override
     public Set<MultifactorAuthenticationTrustRecord> get(final LocalDate onOrAfterDate) {
         final Query query = new Query();
-        query.addCriteria(Criteria.where("date").gte(onOrAfterDate));
+        query.addCriteria(Criteria.where(FIELD_RECORD_DATE).gte(onOrAfterDate));
         final List<MultifactorAuthenticationTrustRecord> results =
                 this.mongoTemplate.find(query, MultifactorAuthenticationTrustRecord.class, this.collectionName);
         return new HashSet<>(results);
@@ -72,7 +101,16 @@ public class MongoDbMultifactorAuthenticationTrustStorage extends BaseMultifacto
     @Override
     public Set<MultifactorAuthenticationTrustRecord> get(final String principal) {
         final Query query = new Query();
-        query.addCriteria(Criteria.where("principal").is(principal));
+        query.addCriteria(Criteria.where(FIELD_PRINCIPAL).is(principal));
+        final List<MultifactorAuthenticationTrustRecord> results =
+                this.mongoTemplate.find(query, MultifactorAuthenticationTrustRecord.class, this.collectionName);
+        return new HashSet<>(results);
+    }
+
+    @Override
+    public Set<MultifactorAuthenticationTrustRecord> get(final String principal, final String deviceFingerprint) {
+        final Query query = new Query();
+        query.addCriteria(Criteria.where(FIELD_PRINCIPAL).is(principal).and(FIELD_GEOGRAPHY).is(deviceFingerprint));
         final List<MultifactorAuthenticationTrustRecord> results =
                 this.mongoTemplate.find(query, MultifactorAuthenticationTrustRecord.class, this.collectionName);
         return new HashSet<>(results);
@@ -52,11 +52,12 @@ public class MongoDbMultifactorAuthenticationTrustConfiguration {
     @RefreshScope
     @Bean
     public MultifactorAuthenticationTrustStorage mfaTrustEngine() {
-        final TrustedDevicesMultifactorProperties.MongoDb mongodb = casProperties.getAuthn().getMfa().getTrusted().getMongo();
+        final TrustedDevicesMultifactorProperties trusted = casProperties.getAuthn().getMfa().getTrusted();
         final MongoDbMultifactorAuthenticationTrustStorage m = 
                 new MongoDbMultifactorAuthenticationTrustStorage(
-                        mongodb.getCollection(),
-                        mongoMfaTrustedAuthnTemplate());
+                        trusted.getMongo().getCollection(),
+                        mongoMfaTrustedAuthnTemplate(),
+                        trusted.getTimeUnit().toSeconds(trusted.getExpiration()));
         m.setCipherExecutor(this.mfaTrustCipherExecutor);
         return m;
     }
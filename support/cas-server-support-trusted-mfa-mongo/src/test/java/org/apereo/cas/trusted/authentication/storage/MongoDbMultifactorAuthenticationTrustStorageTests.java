@@ -0,0 +1,103 @@
+package org.apereo.cas.trusted.authentication.storage;
+
+import com.mongodb.DBObject;
+import com.mongodb.WriteResult;
+import org.apereo.cas.trusted.authentication.api.MultifactorAuthenticationTrustRecord;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link MongoDbMultifactorAuthenticationTrustStorageTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class MongoDbMultifactorAuthenticationTrustStorageTests {
+    private static final String COLLECTION = "MongoDbCasTrustedAuthnMfaRepository";
+
+    private MongoOperations mongoTemplate;
+    private IndexOperations indexOperations;
+
+    @Before
+    public void setUp() {
+        this.mongoTemplate = mock(MongoOperations.class);
+        this.indexOperations = mock(IndexOperations.class);
+        when(this.mongoTemplate.indexOps(COLLECTION)).thenReturn(this.indexOperations);
+        when(this.mongoTemplate.remove(any(Query.class), eq(MultifactorAuthenticationTrustRecord.class), eq(COLLECTION)))
+                .thenReturn(mock(WriteResult.class));
+        when(this.mongoTemplate.find(any(Query.class), eq(MultifactorAuthenticationTrustRecord.class), eq(COLLECTION)))
+                .thenReturn(Collections.emptyList());
+    }
+
+    @Test
+    public void verifyIndexesAreEnsured() {
+        new MongoDbMultifactorAuthenticationTrustStorage(COLLECTION, this.mongoTemplate, 3600);
+
+        final ArgumentCaptor<IndexDefinition> captor = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(this.indexOperations, times(2)).ensureIndex(captor.capture());
+        final List<IndexDefinition> indexes = captor.getAllValues();
+        assertEquals(Arrays.asList("principal", "geography"), new ArrayList<>(indexes.get(0).getIndexKeys().keySet()));
+        assertTrue(indexes.get(1).getIndexKeys().containsField("recordDate"));
+        assertEquals(3600L, ((Number) indexes.get(1).getIndexOptions().get("expireAfterSeconds")).longValue());
+    }
+
+    @Test
+    public void verifyNoTimeToLiveIndexWithoutExpiration() {
+        new MongoDbMultifactorAuthenticationTrustStorage(COLLECTION, this.mongoTemplate);
+        verify(this.indexOperations, times(1)).ensureIndex(any(IndexDefinition.class));
+    }
+
+    @Test
+    public void verifyRecordsAreLookedUpByPrincipalAndDevice() {
+        final MongoDbMultifactorAuthenticationTrustStorage storage = new MongoDbMultifactorAuthenticationTrustStorage(COLLECTION, this.mongoTemplate);
+        storage.get("casuser", "192.168.1.1@Firefox");
+
+        final DBObject query = captureFindQuery();
+        assertEquals("casuser", query.get("principal"));
+        assertEquals("192.168.1.1@Firefox", query.get("geography"));
+    }
+
+    @Test
+    public void verifyRecordsAreLookedUpByRecordDate() {
+        final MongoDbMultifactorAuthenticationTrustStorage storage = new MongoDbMultifactorAuthenticationTrustStorage(COLLECTION, this.mongoTemplate);
+        final LocalDate date = LocalDate.now();
+        storage.get(date);
+
+        final DBObject query = captureFindQuery();
+        assertEquals(Collections.singleton("recordDate"), query.keySet());
+        assertEquals(date, ((DBObject) query.get("recordDate")).get("$gte"));
+    }
+
+    @Test
+    public void verifyRecordsAreExpiredByRecordKeyAndDate() {
+        final MongoDbMultifactorAuthenticationTrustStorage storage = new MongoDbMultifactorAuthenticationTrustStorage(COLLECTION, this.mongoTemplate);
+        final LocalDate date = LocalDate.now();
+        storage.expire("key");
+        storage.expire(date);
+
+        final ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(this.mongoTemplate, times(2)).remove(captor.capture(), eq(MultifactorAuthenticationTrustRecord.class), eq(COLLECTION));
+        assertEquals("key", captor.getAllValues().get(0).getQueryObject().get("recordKey"));
+        assertEquals(date, ((DBObject) captor.getAllValues().get(1).getQueryObject().get("recordDate")).get("$lte"));
+    }
+
+    private DBObject captureFindQuery() {
+        final ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(this.mongoTemplate).find(captor.capture(), eq(MultifactorAuthenticationTrustRecord.class), eq(COLLECTION));
+        return captor.getValue().getQueryObject();
+    }
+}
@@ -44,7 +44,7 @@ public class RestMultifactorAuthenticationTrustStorage extends BaseMultifactorAu
     }
 
     @Override
-    public void expire(final String key) {
+    protected void expireInternal(final String key) {
         final RestTemplate restTemplate = new RestTemplate();
         restTemplate.postForEntity(this.endpoint, key, Object.class);
     }
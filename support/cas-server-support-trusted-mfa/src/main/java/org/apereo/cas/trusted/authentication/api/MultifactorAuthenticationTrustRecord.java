@@ -13,6 +13,7 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Table;
 import java.time.LocalDate;
 
@@ -23,7 +24,9 @@ import java.time.LocalDate;
  * @since 5.0.0
  */
 @Entity
-@Table(name = "MultifactorAuthenticationTrustRecord")
+@Table(name = "MultifactorAuthenticationTrustRecord", indexes = {
+        @Index(name = "IDX_MFA_TRUST_DEVICE", columnList = "principal,geography"),
+        @Index(name = "IDX_MFA_TRUST_DATE", columnList = "recordDate")})
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class MultifactorAuthenticationTrustRecord implements Comparable<MultifactorAuthenticationTrustRecord> {
     @Id
@@ -50,6 +50,25 @@ public interface MultifactorAuthenticationTrustStorage {
      */
     Set<MultifactorAuthenticationTrustRecord> get(String principal, LocalDate onOrAfterDate);
 
+    /**
+     * Get records for the principal that were made on the given device.
+     *
+     * @param principal         the principal id
+     * @param deviceFingerprint the device fingerprint, i.e. the record geography
+     * @return the records
+     */
+    Set<MultifactorAuthenticationTrustRecord> get(String principal, String deviceFingerprint);
+
+    /**
+     * Get valid records for the principal that were made on the given device on/after the given date.
+     *
+     * @param principal         the principal id
+     * @param deviceFingerprint the device fingerprint, i.e. the record geography
+     * @param onOrAfterDate     the on or after date
+     * @return the records
+     */
+    Set<MultifactorAuthenticationTrustRecord> get(String principal, String deviceFingerprint, LocalDate onOrAfterDate);
+
     /**
      * Set trusted record.
      *
@@ -1,10 +1,13 @@
 package org.apereo.cas.trusted.authentication.storage;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.CipherExecutor;
 import org.apereo.cas.trusted.util.MultifactorAuthenticationTrustUtils;
 import org.apereo.cas.trusted.authentication.api.MultifactorAuthenticationTrustRecord;
 import org.apereo.cas.trusted.authentication.api.MultifactorAuthenticationTrustStorage;
+import org.apereo.cas.util.CollectionUtils;
 import org.apereo.inspektr.audit.annotation.Audit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,7 +16,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.io.Serializable;
 import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This is {@link BaseMultifactorAuthenticationTrustStorage}.
@@ -26,31 +31,75 @@ import java.util.Set;
 public abstract class BaseMultifactorAuthenticationTrustStorage implements MultifactorAuthenticationTrustStorage {
     private static final Logger LOGGER = LoggerFactory.getLogger(BaseMultifactorAuthenticationTrustStorage.class);
     
+    private static final int MAX_CACHED_DECISIONS = 10_000;
+
     private CipherExecutor<Serializable, String> cipherExecutor;
 
+    private Cache<String, Set<MultifactorAuthenticationTrustRecord>> trustedDecisions = newTrustedDecisionsCache(0);
+
     @Audit(action = "TRUSTED_AUTHENTICATION", actionResolverName = "TRUSTED_AUTHENTICATION_ACTION_RESOLVER",
             resourceResolverName = "TRUSTED_AUTHENTICATION_RESOURCE_RESOLVER")
     @Override
     public MultifactorAuthenticationTrustRecord set(final MultifactorAuthenticationTrustRecord record) {
         LOGGER.debug("Stored authentication trust record for [{}]", record);
         record.setRecordKey(generateKey(record));
-        return setInternal(record);
+        final MultifactorAuthenticationTrustRecord result = setInternal(record);
+        if (result != null) {
+            this.trustedDecisions.asMap().merge(getTrustedDecisionKey(result.getPrincipal(), result.getGeography()),
+                    CollectionUtils.wrapSet(result), (previous, current) -> {
+                        final Set<MultifactorAuthenticationTrustRecord> results = new HashSet<>(previous);
+                        results.addAll(current);
+                        return results;
+                    });
+        }
+        return result;
+    }
+
+    @Override
+    public void expire(final String key) {
+        expireInternal(key);
+        this.trustedDecisions.invalidateAll();
     }
 
     @Override
     public Set<MultifactorAuthenticationTrustRecord> get(final String principal, final LocalDate onOrAfterDate) {
         final Set<MultifactorAuthenticationTrustRecord> res = get(principal);
-        res.removeIf(entry -> {
-            if (entry.getRecordDate().isBefore(onOrAfterDate)) {
-                return true;
-            }
-            final String decodedKey = this.cipherExecutor.decode(entry.getRecordKey());
-            final String currentKey = MultifactorAuthenticationTrustUtils.generateKey(entry);
-            if (StringUtils.isBlank(decodedKey)) {
-                return true;
+        res.removeIf(entry -> !isValid(entry, onOrAfterDate));
+        return res;
+    }
+
+    @Override
+    public Set<MultifactorAuthenticationTrustRecord> get(final String principal, final String deviceFingerprint) {
+        final Set<MultifactorAuthenticationTrustRecord> res = get(principal);
+        res.removeIf(entry -> !StringUtils.equals(entry.getGeography(), deviceFingerprint));
+        return res;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Records found to be valid may be remembered for a short while, so that a principal that keeps
+     * signing in from a trusted device is not looked up in storage every time. Only records that
+     * were found are remembered; a device that is not trusted is always looked up again, and
+     * remembered records are checked the same way as records read from storage.
+     */
+    @Override
+    public Set<MultifactorAuthenticationTrustRecord> get(final String principal, final String deviceFingerprint, final LocalDate onOrAfterDate) {
+        final String key = getTrustedDecisionKey(principal, deviceFingerprint);
+        final Set<MultifactorAuthenticationTrustRecord> cached = this.trustedDecisions.getIfPresent(key);
+        if (cached != null) {
+            final Set<MultifactorAuthenticationTrustRecord> res = new HashSet<>(cached);
+            res.removeIf(entry -> !isValid(entry, onOrAfterDate));
+            if (!res.isEmpty()) {
+                LOGGER.trace("Found [{}] remembered trusted authentication record(s) for [{}]", res.size(), principal);
+                return res;
             }
-            return !decodedKey.equals(currentKey);
-        });
+        }
+        final Set<MultifactorAuthenticationTrustRecord> res = get(principal, deviceFingerprint);
+        res.removeIf(entry -> !isValid(entry, onOrAfterDate));
+        if (!res.isEmpty()) {
+            this.trustedDecisions.put(key, new HashSet<>(res));
+        }
         return res;
     }
 
@@ -68,6 +117,18 @@ public abstract class BaseMultifactorAuthenticationTrustStorage implements Multi
         this.cipherExecutor = cipherExecutor;
     }
 
+    /**
+     * Sets how long valid records found for a principal and device are remembered. Records are not remembered
+     * unless this is set, and it is only meant for storage kept by this node: expiring a device only forgets
+     * the records remembered by the node that expires it, so storage shared by several nodes must leave it unset
+     * for an expired device not to stay trusted on the other nodes.
+     *
+     * @param cacheTimeToLive the time to live in milliseconds; zero or less turns off remembering records
+     */
+    public void setCacheTimeToLive(final long cacheTimeToLive) {
+        this.trustedDecisions = newTrustedDecisionsCache(cacheTimeToLive);
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName();
@@ -80,4 +141,34 @@ public abstract class BaseMultifactorAuthenticationTrustStorage implements Multi
      * @return the record
      */
     protected abstract MultifactorAuthenticationTrustRecord setInternal(MultifactorAuthenticationTrustRecord record);
+
+    /**
+     * Expire device by registration key.
+     *
+     * @param key the key
+     */
+    protected abstract void expireInternal(String key);
+
+    private boolean isValid(final MultifactorAuthenticationTrustRecord entry, final LocalDate onOrAfterDate) {
+        if (entry.getRecordDate().isBefore(onOrAfterDate)) {
+            return false;
+        }
+        final String decodedKey = this.cipherExecutor.decode(entry.getRecordKey());
+        final String currentKey = MultifactorAuthenticationTrustUtils.generateKey(entry);
+        if (StringUtils.isBlank(decodedKey)) {
+            return false;
+        }
+        return decodedKey.equals(currentKey);
+    }
+
+    private static String getTrustedDecisionKey(final String principal, final String deviceFingerprint) {
+        return principal + '@' + deviceFingerprint;
+    }
+
+    private static Cache<String, Set<MultifactorAuthenticationTrustRecord>> newTrustedDecisionsCache(final long cacheTimeToLive) {
+        return Caffeine.newBuilder()
+                .maximumSize(cacheTimeToLive > 0 ? MAX_CACHED_DECISIONS : 0)
+                .expireAfterWrite(Math.max(cacheTimeToLive, 0), TimeUnit.MILLISECONDS)
+                .build();
+    }
 }
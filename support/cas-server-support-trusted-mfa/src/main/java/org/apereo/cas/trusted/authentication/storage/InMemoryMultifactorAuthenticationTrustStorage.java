@@ -25,7 +25,7 @@ public class InMemoryMultifactorAuthenticationTrustStorage extends BaseMultifact
     }
 
     @Override
-    public void expire(final String key) {
+    protected void expireInternal(final String key) {
         storage.asMap().keySet().removeIf(k -> k.equalsIgnoreCase(key));
     }
 
@@ -2,24 +2,31 @@ package org.apereo.cas.trusted.authentication.storage;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.trusted.authentication.api.MultifactorAuthenticationTrustRecord;
-import org.apereo.cas.util.ResourceUtils;
-import org.hjson.JsonValue;
+import org.apereo.cas.util.io.JournaledJsonResourceStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.Resource;
 
-import java.io.InputStreamReader;
-import java.io.Reader;
-import java.nio.charset.StandardCharsets;
+import java.io.File;
+import java.io.IOException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
  * This is {@link JsonMultifactorAuthenticationTrustStorage}.
+ * Records are kept in a {@link JournaledJsonResourceStore}, so that trusting or expiring a device
+ * appends to a journal next to the resource rather than rewriting the resource, which keeps its
+ * layout of records by record key. The store also indexes record keys by principal.
  *
  * @author Misagh Moayyed
  * @since 5.2.0
@@ -27,37 +34,23 @@ import java.util.stream.Collectors;
 public class JsonMultifactorAuthenticationTrustStorage extends BaseMultifactorAuthenticationTrustStorage {
     private static final Logger LOGGER = LoggerFactory.getLogger(JsonMultifactorAuthenticationTrustStorage.class);
     private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
-    
-    private final Resource location;
-    
-    private Map<String, MultifactorAuthenticationTrustRecord> storage;
+
+    private final TrustRecordStore storage;
 
     public JsonMultifactorAuthenticationTrustStorage(final Resource location) {
-        this.location = location;
-        readTrustedRecordsFromResource();
+        this.storage = new TrustRecordStore(location);
     }
 
     @Override
-    public void expire(final String key) {
-        storage.keySet().removeIf(k -> k.equalsIgnoreCase(key));
-        writeTrustedRecordsToResource();
+    protected void expireInternal(final String key) {
+        storage.removeIf(entry -> entry.getRecordKey().equalsIgnoreCase(key));
     }
 
     @Override
     public void expire(final LocalDate onOrBefore) {
-        final Set<MultifactorAuthenticationTrustRecord> results = storage
-                .values()
-                .stream()
-                .filter(entry -> entry.getRecordDate().isEqual(onOrBefore) || entry.getRecordDate().isBefore(onOrBefore))
-                .sorted()
-                .distinct()
-                .collect(Collectors.toSet());
-
-        LOGGER.info("Found [{}] expired records", results.size());
-        if (!results.isEmpty()) {
-            results.forEach(entry -> storage.remove(entry.getRecordKey()));
-            LOGGER.info("Invalidated and removed [{}] expired records", results.size());
-            writeTrustedRecordsToResource();
+        final int count = storage.removeIf(entry -> entry.getRecordDate().isEqual(onOrBefore) || entry.getRecordDate().isBefore(onOrBefore));
+        if (count > 0) {
+            LOGGER.info("Invalidated and removed [{}] expired records", count);
         }
     }
 
@@ -76,7 +69,7 @@ public class JsonMultifactorAuthenticationTrustStorage extends BaseMultifactorAu
     @Override
     public Set<MultifactorAuthenticationTrustRecord> get(final String principal) {
         return storage
-                .values()
+                .getByPrincipal(principal)
                 .stream()
                 .filter(entry -> entry.getPrincipal().equalsIgnoreCase(principal))
                 .sorted()
@@ -84,34 +77,69 @@ public class JsonMultifactorAuthenticationTrustStorage extends BaseMultifactorAu
                 .collect(Collectors.toSet());
     }
 
-
     @Override
     public MultifactorAuthenticationTrustRecord setInternal(final MultifactorAuthenticationTrustRecord record) {
-        this.storage.put(record.getRecordKey(), record);
-        writeTrustedRecordsToResource();
+        this.storage.put(record);
         return record;
     }
-    
-    private void readTrustedRecordsFromResource() {
-        this.storage = new LinkedHashMap<>();
-        if (ResourceUtils.doesResourceExist(location)) {
-            try (Reader reader = new InputStreamReader(location.getInputStream(), StandardCharsets.UTF_8)) {
-                final TypeReference<Map<String, MultifactorAuthenticationTrustRecord>> personList = 
-                        new TypeReference<Map<String, MultifactorAuthenticationTrustRecord>>() {
-                };
-                this.storage = MAPPER.readValue(JsonValue.readHjson(reader).toString(), personList);
-            } catch (final Exception e) {
-                throw new RuntimeException(e.getMessage(), e);
+
+    /**
+     * Store that reads and writes the resource as a map of records by record key,
+     * and keeps the record keys of each principal so that records are looked up by principal without a scan.
+     */
+    private static class TrustRecordStore extends JournaledJsonResourceStore<MultifactorAuthenticationTrustRecord> {
+        private final Map<String, Set<String>> keysByPrincipal = new ConcurrentHashMap<>();
+
+        TrustRecordStore(final Resource location) {
+            super(location, MAPPER, MultifactorAuthenticationTrustRecord.class, MultifactorAuthenticationTrustRecord::getRecordKey);
+        }
+
+        /**
+         * Gets the records of the principal, whose id is matched regardless of case.
+         *
+         * @param principal the principal
+         * @return the records
+         */
+        Collection<MultifactorAuthenticationTrustRecord> getByPrincipal(final String principal) {
+            load();
+            final Set<String> keys = this.keysByPrincipal.get(principalKey(principal));
+            if (keys == null) {
+                return new ArrayList<>(0);
             }
+            return keys.stream().map(this::get).filter(Objects::nonNull).collect(Collectors.toList());
         }
-    }
-    
-    private void writeTrustedRecordsToResource() {
-        try {
-            MAPPER.writerWithDefaultPrettyPrinter().writeValue(this.location.getFile(), this.storage);
-            readTrustedRecordsFromResource();
-        } catch (final Exception e) {
-            throw new RuntimeException(e.getMessage(), e);
+
+        @Override
+        protected void recordAdded(final String key, final MultifactorAuthenticationTrustRecord record) {
+            this.keysByPrincipal.computeIfAbsent(principalKey(record.getPrincipal()), p -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+
+        @Override
+        protected void recordRemoved(final String key, final MultifactorAuthenticationTrustRecord record) {
+            this.keysByPrincipal.computeIfPresent(principalKey(record.getPrincipal()), (p, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+
+        @Override
+        protected Collection<MultifactorAuthenticationTrustRecord> readSnapshot(final String json) throws IOException {
+            final TypeReference<Map<String, MultifactorAuthenticationTrustRecord>> records =
+                    new TypeReference<Map<String, MultifactorAuthenticationTrustRecord>>() {
+                    };
+            final Map<String, MultifactorAuthenticationTrustRecord> results = this.mapper.readValue(json, records);
+            return results.values();
+        }
+
+        @Override
+        protected void writeSnapshot(final File file, final Collection<MultifactorAuthenticationTrustRecord> records) throws IOException {
+            final Map<String, MultifactorAuthenticationTrustRecord> results = new LinkedHashMap<>();
+            records.forEach(r -> results.put(r.getRecordKey(), r));
+            this.mapper.writerWithDefaultPrettyPrinter().writeValue(file, results);
+        }
+
+        private static String principalKey(final String principal) {
+            return principal == null ? StringUtils.EMPTY : principal.toLowerCase(Locale.ROOT);
         }
     }
 }
@@ -93,6 +93,7 @@ public class MultifactorAuthnTrustConfiguration {
             m = new InMemoryMultifactorAuthenticationTrustStorage(storage);
         }
         m.setCipherExecutor(mfaTrustCipherExecutor());
+        m.setCacheTimeToLive(trusted.getCacheTimeToLive());
         return m;
     }
 
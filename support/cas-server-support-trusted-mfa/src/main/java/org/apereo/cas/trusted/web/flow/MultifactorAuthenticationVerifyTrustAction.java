@@ -47,17 +47,11 @@ public class MultifactorAuthenticationVerifyTrustAction extends AbstractAction {
         final String principal = c.getPrincipal().getId();
         final ChronoUnit unit = DateTimeUtils.toChronoUnit(trustedProperties.getTimeUnit());
         final LocalDate onOrAfter = LocalDateTime.now().minus(trustedProperties.getExpiration(), unit).toLocalDate();
-        LOGGER.warn("Retrieving trusted authentication records for [{}] that are on/after [{}]", principal, onOrAfter);
-        final Set<MultifactorAuthenticationTrustRecord> results = storage.get(principal, onOrAfter);
-        if (results.isEmpty()) {
-            LOGGER.debug("No valid trusted authentication records could be found for [{}]", principal);
-            return no();
-        }
         final String geography = MultifactorAuthenticationTrustUtils.generateGeography();
-        LOGGER.debug("Retrieving authentication records for [{}] that match [{}]", principal, geography);
-        if (results.stream()
-                .noneMatch(entry -> entry.getGeography().equals(geography))) {
-            LOGGER.debug("No trusted authentication records could be found for [{}] to match the current geography", principal);
+        LOGGER.debug("Retrieving trusted authentication records for [{}] that match [{}] and are on/after [{}]", principal, geography, onOrAfter);
+        final Set<MultifactorAuthenticationTrustRecord> results = storage.get(principal, geography, onOrAfter);
+        if (results.isEmpty()) {
+            LOGGER.debug("No valid trusted authentication records could be found for [{}] to match the current geography", principal);
             return no();
         }
 
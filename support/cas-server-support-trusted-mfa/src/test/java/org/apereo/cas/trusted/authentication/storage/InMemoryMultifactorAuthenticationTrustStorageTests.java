@@ -0,0 +1,116 @@
+package org.apereo.cas.trusted.authentication.storage;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apereo.cas.trusted.authentication.MultifactorAuthenticationTrustCipherExecutor;
+import org.apereo.cas.trusted.authentication.api.MultifactorAuthenticationTrustRecord;
+import org.apereo.cas.util.EncodingUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link InMemoryMultifactorAuthenticationTrustStorageTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class InMemoryMultifactorAuthenticationTrustStorageTests {
+    private static final String PRINCIPAL = "casuser";
+    private static final String DEVICE = "192.168.1.1@Firefox";
+    private static final String ANOTHER_DEVICE = "192.168.1.2@Chrome";
+
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    private InMemoryMultifactorAuthenticationTrustStorage storage;
+
+    @Before
+    public void setUp() {
+        this.storage = new InMemoryMultifactorAuthenticationTrustStorage(Caffeine.newBuilder()
+                .<String, MultifactorAuthenticationTrustRecord>build(s -> null)) {
+            @Override
+            public Set<MultifactorAuthenticationTrustRecord> get(final String principal) {
+                lookups.incrementAndGet();
+                return super.get(principal);
+            }
+        };
+        this.storage.setCipherExecutor(new MultifactorAuthenticationTrustCipherExecutor(null, null,
+                EncodingUtils.DEFAULT_CONTENT_ENCRYPTION_ALGORITHM));
+        this.storage.setCacheTimeToLive(60_000);
+    }
+
+    @Test
+    public void verifyRecordsAreFoundByPrincipalAndDevice() {
+        final MultifactorAuthenticationTrustRecord record = this.storage.set(MultifactorAuthenticationTrustRecord.newInstance(PRINCIPAL, DEVICE));
+        this.storage.set(MultifactorAuthenticationTrustRecord.newInstance(PRINCIPAL, ANOTHER_DEVICE));
+        this.storage.set(MultifactorAuthenticationTrustRecord.newInstance("another", DEVICE));
+
+        final Set<MultifactorAuthenticationTrustRecord> results = this.storage.get(PRINCIPAL, DEVICE);
+        assertEquals(1, results.size());
+        assertEquals(record, results.iterator().next());
+        assertTrue(this.storage.get(PRINCIPAL, "unknown").isEmpty());
+    }
+
+    @Test
+    public void verifyRecordsAreFoundByPrincipalDeviceAndDate() {
+        final MultifactorAuthenticationTrustRecord record = MultifactorAuthenticationTrustRecord.newInstance(PRINCIPAL, DEVICE);
+        record.setRecordDate(LocalDate.now().minusDays(5));
+        this.storage.set(record);
+
+        assertEquals(1, this.storage.get(PRINCIPAL, DEVICE, LocalDate.now().minusDays(10)).size());
+        assertTrue(this.storage.get(PRINCIPAL, DEVICE, LocalDate.now()).isEmpty());
+        assertTrue(this.storage.get(PRINCIPAL, ANOTHER_DEVICE, LocalDate.now().minusDays(10)).isEmpty());
+    }
+
+    @Test
+    public void verifyRecordsWithTamperedKeysAreRejected() {
+        final MultifactorAuthenticationTrustRecord record = this.storage.set(MultifactorAuthenticationTrustRecord.newInstance(PRINCIPAL, DEVICE));
+        record.setGeography(ANOTHER_DEVICE);
+
+        assertTrue(this.storage.get(PRINCIPAL, ANOTHER_DEVICE, LocalDate.now()).isEmpty());
+    }
+
+    @Test
+    public void verifyTrustedDecisionsAreRemembered() {
+        this.storage.set(MultifactorAuthenticationTrustRecord.newInstance(PRINCIPAL, DEVICE));
+        assertEquals(1, this.storage.get(PRINCIPAL, DEVICE, LocalDate.now()).size());
+        assertEquals(1, this.storage.get(PRINCIPAL, DEVICE, LocalDate.now()).size());
+        assertEquals(0, this.lookups.get());
+
+        assertTrue(this.storage.get(PRINCIPAL, ANOTHER_DEVICE, LocalDate.now()).isEmpty());
+        assertTrue(this.storage.get(PRINCIPAL, ANOTHER_DEVICE, LocalDate.now()).isEmpty());
+        assertEquals(2, this.lookups.get());
+    }
+
+    @Test
+    public void verifyRememberedRecordsWithTamperedKeysAreRejected() {
+        final MultifactorAuthenticationTrustRecord record = this.storage.set(MultifactorAuthenticationTrustRecord.newInstance(PRINCIPAL, DEVICE));
+        assertEquals(1, this.storage.get(PRINCIPAL, DEVICE, LocalDate.now()).size());
+
+        record.setPrincipal("another");
+        assertTrue(this.storage.get(PRINCIPAL, DEVICE, LocalDate.now()).isEmpty());
+    }
+
+    @Test
+    public void verifyRememberedDecisionsAreDroppedOnExpiry() {
+        final MultifactorAuthenticationTrustRecord record = this.storage.set(MultifactorAuthenticationTrustRecord.newInstance(PRINCIPAL, DEVICE));
+        assertEquals(1, this.storage.get(PRINCIPAL, DEVICE, LocalDate.now()).size());
+
+        this.storage.expire(record.getRecordKey());
+        assertTrue(this.storage.get(PRINCIPAL, DEVICE, LocalDate.now()).isEmpty());
+        assertEquals(1, this.lookups.get());
+    }
+
+    @Test
+    public void verifyNothingIsRememberedWhenCacheIsOff() {
+        this.storage.setCacheTimeToLive(0);
+        this.storage.set(MultifactorAuthenticationTrustRecord.newInstance(PRINCIPAL, DEVICE));
+        assertEquals(1, this.storage.get(PRINCIPAL, DEVICE, LocalDate.now()).size());
+        assertEquals(1, this.storage.get(PRINCIPAL, DEVICE, LocalDate.now()).size());
+        assertEquals(2, this.lookups.get());
+    }
+}
@@ -2,6 +2,8 @@ package org.apereo.cas.web.config;
 
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.web.view.CasProtocolView;
+import org.apereo.cas.web.view.CasServiceValidationFailureStreamingView;
+import org.apereo.cas.web.view.CasServiceValidationSuccessStreamingView;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
@@ -11,6 +13,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Scope;
 import org.springframework.http.MediaType;
+import org.springframework.web.servlet.View;
 import org.thymeleaf.spring4.SpringTemplateEngine;
 
 /**
@@ -43,7 +46,10 @@ public class CasProtocolViewsConfiguration {
     public class CasProtocolViews {
         @Bean
         @Scope(value = ConfigurableBeanFactory.SCOPE_PROTOTYPE)
-        public CasProtocolView cas2SuccessView() {
+        public View cas2SuccessView() {
+            if (casProperties.getView().getCas2().isStreaming()) {
+                return new CasServiceValidationSuccessStreamingView(false, MediaType.APPLICATION_XML_VALUE);
+            }
             return new CasProtocolView(casProperties.getView().getCas2().getSuccess(),
                     applicationContext,
                     springTemplateEngine, thymeleafProperties,
@@ -52,7 +58,10 @@ public class CasProtocolViewsConfiguration {
 
         @Bean
         @Scope(value = ConfigurableBeanFactory.SCOPE_PROTOTYPE)
-        public CasProtocolView cas2ServiceFailureView() {
+        public View cas2ServiceFailureView() {
+            if (casProperties.getView().getCas2().isStreaming()) {
+                return new CasServiceValidationFailureStreamingView(MediaType.TEXT_HTML_VALUE);
+            }
             return new CasProtocolView(casProperties.getView().getCas2().getFailure(), applicationContext,
                     springTemplateEngine, thymeleafProperties);
         }
@@ -75,7 +84,10 @@ public class CasProtocolViewsConfiguration {
 
         @Bean
         @Scope(value = ConfigurableBeanFactory.SCOPE_PROTOTYPE)
-        public CasProtocolView cas3SuccessView() {
+        public View cas3SuccessView() {
+            if (casProperties.getView().getCas3().isStreaming()) {
+                return new CasServiceValidationSuccessStreamingView(true, MediaType.TEXT_HTML_VALUE);
+            }
             return new CasProtocolView(casProperties.getView().getCas3().getSuccess(),
                     applicationContext, springTemplateEngine, thymeleafProperties);
         }
@@ -83,7 +95,10 @@ public class CasProtocolViewsConfiguration {
 
         @Bean
         @Scope(value = ConfigurableBeanFactory.SCOPE_PROTOTYPE)
-        public CasProtocolView cas3ServiceFailureView() {
+        public View cas3ServiceFailureView() {
+            if (casProperties.getView().getCas3().isStreaming()) {
+                return new CasServiceValidationFailureStreamingView(MediaType.APPLICATION_XML_VALUE);
+            }
             return new CasProtocolView(casProperties.getView().getCas3().getFailure(),
                     applicationContext, springTemplateEngine, thymeleafProperties,
                     MediaType.APPLICATION_XML_VALUE);
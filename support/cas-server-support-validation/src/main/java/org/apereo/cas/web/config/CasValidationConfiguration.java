@@ -24,6 +24,7 @@ import org.apereo.cas.web.v3.V3ServiceValidateController;
 import org.apereo.cas.web.view.Cas10ResponseView;
 import org.apereo.cas.web.view.Cas20ResponseView;
 import org.apereo.cas.web.view.Cas30JsonResponseView;
+import org.apereo.cas.web.view.Cas30JsonStreamingResponseView;
 import org.apereo.cas.web.view.Cas30ResponseView;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -153,6 +154,16 @@ public class CasValidationConfiguration {
     public View cas3ServiceJsonView() {
         final String authenticationContextAttribute = casProperties.getAuthn().getMfa().getAuthenticationContextAttribute();
         final boolean isReleaseProtocolAttributes = casProperties.getAuthn().isReleaseProtocolAttributes();
+        if (casProperties.getView().getCas3().isStreaming()) {
+            return new Cas30JsonResponseView(true,
+                    protocolAttributeEncoder,
+                    servicesManager,
+                    authenticationContextAttribute,
+                    new Cas30JsonStreamingResponseView(),
+                    isReleaseProtocolAttributes,
+                    authenticationAttributeReleasePolicy,
+                    selectionStrategies);
+        }
         return new Cas30JsonResponseView(true,
                 protocolAttributeEncoder,
                 servicesManager,
@@ -0,0 +1,109 @@
+package org.apereo.cas.web.view;
+
+import org.springframework.web.servlet.View;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * This is {@link AbstractCasStreamingResponseView}.
+ * Base class for views that write CAS protocol documents directly, without a template engine.
+ * The document is built in a buffer that is reused by the rendering thread, and is then
+ * written to the response in one go.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public abstract class AbstractCasStreamingResponseView implements View {
+    /**
+     * Opening tag of the CAS service response, as it appears in the protocol templates.
+     */
+    protected static final String SERVICE_RESPONSE_START = "<cas:serviceResponse xmlns:cas='http://www.yale.edu/tp/cas'>";
+
+    /**
+     * Closing tag of the CAS service response, as it appears in the protocol templates.
+     */
+    protected static final String SERVICE_RESPONSE_END = "</cas:serviceResponse>\n";
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final int MAXIMUM_POOLED_BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFERS = ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_BUFFER_SIZE));
+
+    private final String contentType;
+
+    protected AbstractCasStreamingResponseView(final String contentType) {
+        this.contentType = contentType;
+    }
+
+    @Override
+    public String getContentType() {
+        return this.contentType;
+    }
+
+    @Override
+    public void render(final Map<String, ?> model, final HttpServletRequest request,
+                       final HttpServletResponse response) throws Exception {
+        final StringBuilder buffer = BUFFERS.get();
+        buffer.setLength(0);
+        try {
+            write(model, buffer);
+            final byte[] content = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            response.setContentType(this.contentType);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.setContentLength(content.length);
+            response.getOutputStream().write(content);
+        } finally {
+            if (buffer.capacity() > MAXIMUM_POOLED_BUFFER_SIZE) {
+                BUFFERS.remove();
+            }
+        }
+    }
+
+    /**
+     * Write the document for the model.
+     *
+     * @param model  the model
+     * @param output the output
+     * @throws Exception the exception
+     */
+    protected abstract void write(Map<String, ?> model, StringBuilder output) throws Exception;
+
+    /**
+     * Append text escaped the same way the protocol templates escape text and attribute values.
+     * Null values produce no output.
+     *
+     * @param value  the value
+     * @param output the output
+     */
+    protected static void appendEscaped(final Object value, final StringBuilder output) {
+        if (value == null) {
+            return;
+        }
+        final String text = value.toString();
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            switch (c) {
+                case '&':
+                    output.append("&amp;");
+                    break;
+                case '<':
+                    output.append("&lt;");
+                    break;
+                case '>':
+                    output.append("&gt;");
+                    break;
+                case '"':
+                    output.append("&quot;");
+                    break;
+                case '\'':
+                    output.append("&#39;");
+                    break;
+                default:
+                    output.append(c);
+            }
+        }
+    }
+}
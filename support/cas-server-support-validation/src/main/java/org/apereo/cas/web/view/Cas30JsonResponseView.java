@@ -7,6 +7,7 @@ import org.apereo.cas.authentication.ProtocolAttributeEncoder;
 import org.apereo.cas.authentication.principal.Principal;
 import org.apereo.cas.services.ServicesManager;
 import org.apereo.cas.services.web.support.AuthenticationAttributeReleasePolicy;
+import org.springframework.web.servlet.View;
 import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
 
 import javax.servlet.http.HttpServletRequest;
@@ -30,6 +31,10 @@ import java.util.stream.Collectors;
  * @since 4.2
  */
 public class Cas30JsonResponseView extends Cas30ResponseView {
+    /**
+     * Name of the model attribute that holds the response.
+     */
+    static final String MODEL_ATTRIBUTE_NAME_SERVICE_RESPONSE = "serviceResponse";
 
     public Cas30JsonResponseView(final boolean successResponse,
                                  final ProtocolAttributeEncoder protocolAttributeEncoder,
@@ -38,11 +43,24 @@ public class Cas30JsonResponseView extends Cas30ResponseView {
                                  final boolean releaseProtocolAttributes,
                                  final AuthenticationAttributeReleasePolicy authenticationAttributeReleasePolicy,
                                  final AuthenticationServiceSelectionPlan serviceSelectionStrategy) {
-        super(successResponse, protocolAttributeEncoder, servicesManager, authenticationContextAttribute,
+        this(successResponse, protocolAttributeEncoder, servicesManager, authenticationContextAttribute,
                 createDelegatedView(), releaseProtocolAttributes, authenticationAttributeReleasePolicy,
                 serviceSelectionStrategy);
     }
 
+    public Cas30JsonResponseView(final boolean successResponse,
+                                 final ProtocolAttributeEncoder protocolAttributeEncoder,
+                                 final ServicesManager servicesManager,
+                                 final String authenticationContextAttribute,
+                                 final View view,
+                                 final boolean releaseProtocolAttributes,
+                                 final AuthenticationAttributeReleasePolicy authenticationAttributeReleasePolicy,
+                                 final AuthenticationServiceSelectionPlan serviceSelectionStrategy) {
+        super(successResponse, protocolAttributeEncoder, servicesManager, authenticationContextAttribute,
+                view, releaseProtocolAttributes, authenticationAttributeReleasePolicy,
+                serviceSelectionStrategy);
+    }
+
     private static MappingJackson2JsonView createDelegatedView() {
         final MappingJackson2JsonView view = new MappingJackson2JsonView();
         view.setPrettyPrint(true);
@@ -73,7 +91,7 @@ public class Cas30JsonResponseView extends Cas30ResponseView {
             casResponse.setAuthenticationFailure(failure);
         } finally {
             final Map<String, Object> casModel = new HashMap<>();
-            casModel.put("serviceResponse", casResponse);
+            casModel.put(MODEL_ATTRIBUTE_NAME_SERVICE_RESPONSE, casResponse);
             model.clear();
             model.putAll(casModel);
         }
@@ -103,7 +121,7 @@ public class Cas30JsonResponseView extends Cas30ResponseView {
         return success;
     }
 
-    private static class CasServiceResponse {
+    static class CasServiceResponse {
         private CasServiceResponseAuthenticationFailure authenticationFailure;
         private CasServiceResponseAuthenticationSuccess authenticationSuccess;
 
@@ -124,7 +142,7 @@ public class Cas30JsonResponseView extends Cas30ResponseView {
         }
     }
 
-    private static class CasServiceResponseAuthenticationSuccess {
+    static class CasServiceResponseAuthenticationSuccess {
         private String user;
         private String proxyGrantingTicket;
         private List proxies;
@@ -163,7 +181,7 @@ public class Cas30JsonResponseView extends Cas30ResponseView {
         }
     }
 
-    private static class CasServiceResponseAuthenticationFailure {
+    static class CasServiceResponseAuthenticationFailure {
         private String code;
         private String description;
 
@@ -0,0 +1,87 @@
+package org.apereo.cas.web.view;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.io.output.StringBuilderWriter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Map;
+
+/**
+ * This is {@link Cas30JsonStreamingResponseView}.
+ * Writes the CAS 3.0 JSON validation response field by field, producing the same
+ * output as the pretty-printed object mapping used by {@link Cas30JsonResponseView}.
+ * Only attribute values are handed to the object mapper.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class Cas30JsonStreamingResponseView extends AbstractCasStreamingResponseView {
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json().build()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .findAndRegisterModules();
+
+    public Cas30JsonStreamingResponseView() {
+        super(MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    @Override
+    protected void write(final Map<String, ?> model, final StringBuilder output) throws Exception {
+        final Cas30JsonResponseView.CasServiceResponse casResponse =
+                (Cas30JsonResponseView.CasServiceResponse) model.get(Cas30JsonResponseView.MODEL_ATTRIBUTE_NAME_SERVICE_RESPONSE);
+        try (JsonGenerator generator = MAPPER.getFactory().createGenerator(new StringBuilderWriter(output))) {
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartObject();
+            generator.writeFieldName(Cas30JsonResponseView.MODEL_ATTRIBUTE_NAME_SERVICE_RESPONSE);
+            generator.writeStartObject();
+            if (casResponse.getAuthenticationFailure() != null) {
+                writeAuthenticationFailure(generator, casResponse.getAuthenticationFailure());
+            }
+            if (casResponse.getAuthenticationSuccess() != null) {
+                writeAuthenticationSuccess(generator, casResponse.getAuthenticationSuccess());
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+    }
+
+    private static void writeAuthenticationFailure(final JsonGenerator generator,
+                                                   final Cas30JsonResponseView.CasServiceResponseAuthenticationFailure failure) throws Exception {
+        generator.writeObjectFieldStart("authenticationFailure");
+        writeStringField(generator, "code", failure.getCode());
+        writeStringField(generator, "description", failure.getDescription());
+        generator.writeEndObject();
+    }
+
+    private static void writeAuthenticationSuccess(final JsonGenerator generator,
+                                                   final Cas30JsonResponseView.CasServiceResponseAuthenticationSuccess success) throws Exception {
+        generator.writeObjectFieldStart("authenticationSuccess");
+        writeStringField(generator, "user", success.getUser());
+        writeStringField(generator, "proxyGrantingTicket", success.getProxyGrantingTicket());
+        if (success.getProxies() != null) {
+            generator.writeArrayFieldStart("proxies");
+            for (final Object proxy : success.getProxies()) {
+                generator.writeString(proxy.toString());
+            }
+            generator.writeEndArray();
+        }
+        if (success.getAttributes() != null) {
+            generator.writeFieldName("attributes");
+            MAPPER.writeValue(generator, success.getAttributes());
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeStringField(final JsonGenerator generator, final String name, final String value) throws Exception {
+        if (value != null) {
+            generator.writeStringField(name, value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName();
+    }
+}
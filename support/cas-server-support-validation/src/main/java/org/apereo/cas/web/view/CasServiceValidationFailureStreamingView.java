@@ -0,0 +1,41 @@
+package org.apereo.cas.web.view;
+
+import org.apereo.cas.CasViewConstants;
+
+import java.util.Map;
+
+/**
+ * This is {@link CasServiceValidationFailureStreamingView}.
+ * Writes the CAS 2.0 and 3.0 service validation failure document, producing the same
+ * output as the {@code casServiceValidationFailure} templates.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class CasServiceValidationFailureStreamingView extends AbstractCasStreamingResponseView {
+
+    public CasServiceValidationFailureStreamingView(final String contentType) {
+        super(contentType);
+    }
+
+    @Override
+    protected void write(final Map<String, ?> model, final StringBuilder output) {
+        final Object code = model.get(CasViewConstants.MODEL_ATTRIBUTE_NAME_ERROR_CODE);
+        output.append(SERVICE_RESPONSE_START)
+                .append("\n    <cas:authenticationFailure");
+        if (code != null) {
+            output.append(" code=\"");
+            appendEscaped(code, output);
+            output.append('"');
+        }
+        output.append('>');
+        appendEscaped(model.get(CasViewConstants.MODEL_ATTRIBUTE_NAME_ERROR_DESCRIPTION), output);
+        output.append("</cas:authenticationFailure>\n")
+                .append(SERVICE_RESPONSE_END);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,80 @@
+package org.apereo.cas.web.view;
+
+import org.apereo.cas.CasProtocolConstants;
+import org.apereo.cas.CasViewConstants;
+import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.authentication.principal.Principal;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * This is {@link CasServiceValidationSuccessStreamingView}.
+ * Writes the CAS 2.0 or 3.0 service validation success document, producing the same
+ * output as the {@code casServiceValidationSuccess} templates. Expects the model
+ * to be prepared by {@link Cas20ResponseView} or {@link Cas30ResponseView}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class CasServiceValidationSuccessStreamingView extends AbstractCasStreamingResponseView {
+    private final boolean protocolVersion3;
+
+    public CasServiceValidationSuccessStreamingView(final boolean protocolVersion3, final String contentType) {
+        super(contentType);
+        this.protocolVersion3 = protocolVersion3;
+    }
+
+    @Override
+    protected void write(final Map<String, ?> model, final StringBuilder output) {
+        final Principal principal = (Principal) model.get(CasViewConstants.MODEL_ATTRIBUTE_NAME_PRINCIPAL);
+        final Object proxyGrantingTicketIou = model.get(CasViewConstants.MODEL_ATTRIBUTE_NAME_PROXY_GRANTING_TICKET_IOU);
+        final Collection<Authentication> chainedAuthentications =
+                (Collection<Authentication>) model.get(CasViewConstants.MODEL_ATTRIBUTE_NAME_CHAINED_AUTHENTICATIONS);
+
+        output.append(SERVICE_RESPONSE_START)
+                .append("\n    <cas:authenticationSuccess>")
+                .append("\n        <cas:user>");
+        appendEscaped(principal.getId(), output);
+        output.append("</cas:user>\n        ");
+
+        if (proxyGrantingTicketIou != null) {
+            output.append("<cas:proxyGrantingTicket>");
+            if (this.protocolVersion3) {
+                output.append(proxyGrantingTicketIou);
+            } else {
+                appendEscaped(proxyGrantingTicketIou, output);
+            }
+            output.append("</cas:proxyGrantingTicket>");
+        }
+        output.append("\n        ");
+
+        if (chainedAuthentications != null && !chainedAuthentications.isEmpty()) {
+            output.append("<cas:proxies>");
+            chainedAuthentications.forEach(authn -> {
+                output.append("\n            <cas:proxy>");
+                appendEscaped(authn.getPrincipal().getId(), output);
+                output.append("</cas:proxy>");
+            });
+            output.append("\n        </cas:proxies>");
+        }
+
+        if (this.protocolVersion3) {
+            output.append("\n        ");
+            final Collection<String> formattedAttributes =
+                    (Collection<String>) model.get(CasProtocolConstants.VALIDATION_CAS_MODEL_ATTRIBUTE_NAME_FORMATTED_ATTRIBUTES);
+            if (formattedAttributes != null && !formattedAttributes.isEmpty()) {
+                output.append("<cas:attributes>");
+                formattedAttributes.forEach(attr -> output.append("\n            \n                ").append(attr).append("\n            "));
+                output.append("\n        </cas:attributes>");
+            }
+        }
+        output.append("\n    </cas:authenticationSuccess>\n")
+                .append(SERVICE_RESPONSE_END);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName();
+    }
+}
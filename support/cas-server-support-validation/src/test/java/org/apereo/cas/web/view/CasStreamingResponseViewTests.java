@@ -0,0 +1,152 @@
+package org.apereo.cas.web.view;
+
+import org.apache.commons.io.IOUtils;
+import org.apereo.cas.CasProtocolConstants;
+import org.apereo.cas.CasViewConstants;
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.util.CollectionUtils;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.View;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring4.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.FileTemplateResolver;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the streaming CAS protocol views. XML documents are compared against
+ * the default protocol templates of the web application, rendered by Thymeleaf for the same model;
+ * JSON documents are compared against golden files.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class CasStreamingResponseViewTests {
+    private static final String PGT_IOU = "PGTIOU-1-abc";
+    private static final String PROXY = "https://proxy.example.org/?a=1&b=2";
+
+    private static SpringTemplateEngine TEMPLATE_ENGINE;
+
+    @BeforeClass
+    public static void setUpTemplateEngine() {
+        final FileTemplateResolver resolver = new FileTemplateResolver();
+        resolver.setPrefix(locateTemplates().getAbsolutePath() + File.separator);
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        resolver.setCacheable(false);
+        TEMPLATE_ENGINE = new SpringTemplateEngine();
+        TEMPLATE_ENGINE.setTemplateResolver(resolver);
+    }
+
+    @Test
+    public void verifyCas2Success() throws Exception {
+        final View view = new CasServiceValidationSuccessStreamingView(false, MediaType.APPLICATION_XML_VALUE);
+        assertRenderedAsTemplate("protocol/2.0/casServiceValidationSuccess", view, getSuccessModel(true));
+        assertRenderedAsTemplate("protocol/2.0/casServiceValidationSuccess", view, getSuccessModel(false));
+    }
+
+    @Test
+    public void verifyCas3Success() throws Exception {
+        final View view = new CasServiceValidationSuccessStreamingView(true, MediaType.TEXT_HTML_VALUE);
+        final Map<String, Object> model = getSuccessModel(true);
+        model.put(CasProtocolConstants.VALIDATION_CAS_MODEL_ATTRIBUTE_NAME_FORMATTED_ATTRIBUTES,
+                CollectionUtils.wrapList("<cas:memberOf>faculty</cas:memberOf>", "<cas:memberOf>staff &amp; students</cas:memberOf>"));
+        assertRenderedAsTemplate("protocol/3.0/casServiceValidationSuccess", view, model);
+        assertRenderedAsTemplate("protocol/3.0/casServiceValidationSuccess", view, getSuccessModel(false));
+    }
+
+    @Test
+    public void verifyFailure() throws Exception {
+        final Map<String, Object> model = new HashMap<>();
+        model.put(CasViewConstants.MODEL_ATTRIBUTE_NAME_ERROR_CODE, "INVALID_TICKET");
+        model.put(CasViewConstants.MODEL_ATTRIBUTE_NAME_ERROR_DESCRIPTION, "Ticket 'ST-1' not recognized");
+        final View view = new CasServiceValidationFailureStreamingView(MediaType.APPLICATION_XML_VALUE);
+        assertRenderedAsTemplate("protocol/2.0/casServiceValidationFailure", view, model);
+        assertRenderedAsTemplate("protocol/3.0/casServiceValidationFailure", view, model);
+    }
+
+    @Test
+    public void verifyJsonSuccess() throws Exception {
+        final Cas30JsonResponseView.CasServiceResponseAuthenticationSuccess success =
+                new Cas30JsonResponseView.CasServiceResponseAuthenticationSuccess();
+        success.setUser("casuser");
+        success.setProxyGrantingTicket(PGT_IOU);
+        success.setProxies(CollectionUtils.wrapList(PROXY));
+        final Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("memberOf", CollectionUtils.wrapList("faculty", "staff & students"));
+        success.setAttributes(attributes);
+
+        final Cas30JsonResponseView.CasServiceResponse response = new Cas30JsonResponseView.CasServiceResponse();
+        response.setAuthenticationSuccess(success);
+        assertRenderedAsGoldenFile("cas3-success.json", new Cas30JsonStreamingResponseView(),
+                CollectionUtils.wrap(Cas30JsonResponseView.MODEL_ATTRIBUTE_NAME_SERVICE_RESPONSE, response));
+    }
+
+    @Test
+    public void verifyJsonFailure() throws Exception {
+        final Cas30JsonResponseView.CasServiceResponseAuthenticationFailure failure =
+                new Cas30JsonResponseView.CasServiceResponseAuthenticationFailure();
+        failure.setCode("INVALID_TICKET");
+        failure.setDescription("Ticket 'ST-1' not recognized");
+
+        final Cas30JsonResponseView.CasServiceResponse response = new Cas30JsonResponseView.CasServiceResponse();
+        response.setAuthenticationFailure(failure);
+        assertRenderedAsGoldenFile("failure.json", new Cas30JsonStreamingResponseView(),
+                CollectionUtils.wrap(Cas30JsonResponseView.MODEL_ATTRIBUTE_NAME_SERVICE_RESPONSE, response));
+    }
+
+    private static Map<String, Object> getSuccessModel(final boolean proxied) {
+        final Map<String, Object> model = new HashMap<>();
+        model.put(CasViewConstants.MODEL_ATTRIBUTE_NAME_PRINCIPAL, CoreAuthenticationTestUtils.getPrincipal("casuser"));
+        if (proxied) {
+            model.put(CasViewConstants.MODEL_ATTRIBUTE_NAME_PROXY_GRANTING_TICKET_IOU, PGT_IOU);
+            model.put(CasViewConstants.MODEL_ATTRIBUTE_NAME_CHAINED_AUTHENTICATIONS,
+                    CollectionUtils.wrapList(CoreAuthenticationTestUtils.getAuthentication(PROXY)));
+        }
+        return model;
+    }
+
+    private static File locateTemplates() {
+        File directory = new File("").getAbsoluteFile();
+        while (directory != null) {
+            final File templates = new File(directory, "webapp/resources/templates");
+            if (templates.isDirectory()) {
+                return templates;
+            }
+            directory = directory.getParentFile();
+        }
+        throw new IllegalStateException("Unable to locate the templates of the web application");
+    }
+
+    private static void assertRenderedAsTemplate(final String template, final View view, final Map<String, Object> model) throws Exception {
+        final Context context = new Context();
+        context.setVariables(model);
+        assertRendered(TEMPLATE_ENGINE.process(template, context), view, model);
+    }
+
+    private static void assertRenderedAsGoldenFile(final String goldenFile, final View view, final Map<String, ?> model) throws Exception {
+        assertRendered(IOUtils.toString(new ClassPathResource("golden/" + goldenFile).getInputStream(), StandardCharsets.UTF_8), view, model);
+    }
+
+    private static void assertRendered(final String document, final View view, final Map<String, ?> model) throws Exception {
+        final String expected = document.replace("\r\n", "\n");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        view.render(model, new MockHttpServletRequest(), response);
+        assertEquals(expected, response.getContentAsString().replace("\r\n", "\n"));
+        assertEquals(expected.getBytes(StandardCharsets.UTF_8).length, response.getContentLength());
+        assertTrue(response.getContentType().startsWith(view.getContentType()));
+    }
+}